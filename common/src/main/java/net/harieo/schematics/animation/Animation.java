@@ -6,19 +6,27 @@ import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Unmodifiable;
 
 import java.util.*;
-import java.util.concurrent.ArrayBlockingQueue;
 
 /**
  * A linear sequence of {@link Transition} which occur on a set linear timeline.
  */
 public abstract class Animation {
 
+    /**
+     * The loop count of an animation which plays forever, until it is deactivated.
+     */
+    public static final int LOOP_INFINITE = -1;
+
     // Static information
     private String id;
     private final List<Transition> transitions = new ArrayList<>();
+    private int loopCount = 1;
 
     // Transient information
-    private transient Queue<Transition> transitionQueue;
+    private transient AnimationTimeline timeline; // Compiled when first needed after the transitions change
+    private transient AnimationTimeline playbackTimeline; // The timeline being played, which is kept until reset
+    private transient int nextIndex = 0;
+    private transient int completedLoops = 0;
     private transient Transition currentTransition;
     private transient long millisecondsToCurrentTransition = 0;
     private transient boolean currentTransitionRun = false;
@@ -75,6 +83,7 @@ public abstract class Animation {
      */
     public void addTransition(@NotNull Transition transition) {
         transitions.add(transition);
+        timeline = null;
     }
 
     /**
@@ -83,7 +92,9 @@ public abstract class Animation {
      * @param transition the transition to remove
      */
     public void removeTransition(@NotNull Transition transition) {
-        transitions.remove(transition);
+        if (transitions.remove(transition)) {
+            timeline = null;
+        }
     }
 
     /**
@@ -93,6 +104,47 @@ public abstract class Animation {
      */
     public void removeTransition(int index) {
         transitions.remove(index);
+        timeline = null;
+    }
+
+    /**
+     * @return the amount of times this animation plays before it finishes, or {@link #LOOP_INFINITE} if it loops until
+     * it is deactivated
+     */
+    public int getLoopCount() {
+        return loopCount;
+    }
+
+    /**
+     * Sets the amount of times this animation plays before it finishes. Each time the last transition finishes, the
+     * animation starts again from its first transition until it has played this many times.
+     *
+     * @param loopCount the amount of times to play, or {@link #LOOP_INFINITE} to loop until deactivated
+     * @throws IllegalArgumentException if the loop count is not positive or {@link #LOOP_INFINITE}
+     * @apiNote An animation which takes no time to play does not loop, as it would never stop to let anything else run.
+     */
+    public void setLoopCount(int loopCount) {
+        if (loopCount <= 0 && loopCount != LOOP_INFINITE) {
+            throw new IllegalArgumentException("The loop count must be positive or infinite");
+        }
+        this.loopCount = loopCount;
+    }
+
+    /**
+     * @return the amount of times this animation has played to the end and started again since it was reset
+     */
+    public int getCompletedLoops() {
+        return completedLoops;
+    }
+
+    /**
+     * @return the compiled timeline of the transitions of this animation
+     */
+    public @NotNull AnimationTimeline getTimeline() {
+        if (timeline == null) {
+            timeline = new AnimationTimeline(transitions);
+        }
+        return timeline;
     }
 
     /**
@@ -114,17 +166,29 @@ public abstract class Animation {
     public abstract boolean isActivated();
 
     /**
-     * @return the total amount of time in milliseconds to perform this entire animation, start to finish.
+     * @return the total amount of time in milliseconds to perform this entire animation, start to finish, once.
      */
     public long getTotalAnimationTime() {
-        return mapToLong(transitions);
+        return getTimeline().getTotalTime();
     }
 
     /**
-     * @return the amount of time in milliseconds remaining to perform this animation.
+     * @return the amount of time in milliseconds remaining to perform this animation, not including the rest of the
+     * current transition or any further loops.
      */
     public long getRemainingAnimationTime() {
-        return mapToLong(transitionQueue);
+        return playbackTimeline.getTotalTime() - playbackTimeline.getStartTime(nextIndex);
+    }
+
+    /**
+     * @return the amount of time in milliseconds from the start of this animation to where it is now, within the
+     * current loop
+     */
+    public long getElapsedAnimationTime() {
+        if (currentTransition == null) {
+            return playbackTimeline.getStartTime(nextIndex);
+        }
+        return playbackTimeline.getStartTime(nextIndex - 1) + millisecondsToCurrentTransition;
     }
 
     /**
@@ -136,6 +200,24 @@ public abstract class Animation {
         return totalTransitionTime - millisecondsToCurrentTransition;
     }
 
+    /**
+     * Calculates how far this animation can be ticked before {@link #tick(long)} does anything other than count time,
+     * so that a caller can wait until then rather than ticking this animation in small steps.
+     *
+     * @return the amount of milliseconds until this animation next runs or leaves a transition, which is 0 if a tick of
+     * any length would do so
+     */
+    public long getTimeUntilNextStep() {
+        if (currentTransition == null) {
+            return 0;
+        }
+
+        long stepTime = currentTransitionRun
+                ? currentTransition.getRunTime()
+                : currentTransition.getMillisecondsBefore();
+        return Math.max(0, stepTime - millisecondsToCurrentTransition);
+    }
+
     /**
      * @return the current transition being run, if one is present
      */
@@ -149,20 +231,31 @@ public abstract class Animation {
      * @return the next transition in the queue, if there is one
      */
     public Optional<Transition> peekNextTransition() {
-        return Optional.ofNullable(transitionQueue.peek());
+        if (nextIndex < playbackTimeline.size()) {
+            return Optional.of(playbackTimeline.getTransition(nextIndex));
+        } else if (canLoop()) {
+            return Optional.of(playbackTimeline.getTransition(0));
+        } else {
+            return Optional.empty();
+        }
     }
 
     /**
-     * Attempts to progress to the next transition in the queue, if there is one.
+     * Attempts to progress to the next transition in the queue, if there is one, starting the next loop if the last
+     * transition has been left and this animation has loops remaining.
      *
      * @return true if there is a new transition, or false if the queue is empty
      */
     public boolean nextTransition() {
         this.millisecondsToCurrentTransition = 0;
 
-        Transition nextTransition = transitionQueue.poll();
-        if (nextTransition != null) {
-            currentTransition = nextTransition;
+        if (nextIndex >= playbackTimeline.size() && canLoop()) {
+            nextIndex = 0;
+            completedLoops++;
+        }
+
+        if (nextIndex < playbackTimeline.size()) {
+            currentTransition = playbackTimeline.getTransition(nextIndex++);
             currentTransitionRun = false;
             return true;
         } else {
@@ -171,6 +264,22 @@ public abstract class Animation {
         }
     }
 
+    /**
+     * @return whether there is a transition after the current transition, in this loop or the next
+     */
+    private boolean hasNextTransition() {
+        return nextIndex < playbackTimeline.size() || canLoop();
+    }
+
+    /**
+     * @return whether this animation should start again once its last transition has been left
+     */
+    private boolean canLoop() {
+        // An animation with no time would loop without ever waiting, so it is played once
+        return playbackTimeline.getTotalTime() > 0
+                && (loopCount == LOOP_INFINITE || completedLoops < loopCount - 1);
+    }
+
     /**
      * Progresses this animation by a certain amount of milliseconds.
      *
@@ -183,7 +292,7 @@ public abstract class Animation {
 
         millisecondsToCurrentTransition += milliseconds;
         if (!currentTransitionRun && millisecondsToCurrentTransition >= currentTransition.getMillisecondsBefore()) {
-            currentTransition.run();
+            runTransition(currentTransition);
             currentTransitionRun = true;
         } else if (currentTransitionRun && millisecondsToCurrentTransition >= currentTransition.getRunTime()) {
             nextTransition();
@@ -191,27 +300,74 @@ public abstract class Animation {
     }
 
     /**
-     * Resets and re-populates this animation queue. Does nothing if there are no transitions.
+     * Moves this animation to a point on its timeline, as if it had been ticked to that point from the start.
+     * <p>
+     * The transitions between where this animation is and the point are run immediately, with each block replaced by a
+     * schematic only changed to its final state, as described by {@link AnimationTimeline#collapse(int, int)}.
+     * Seeking backwards runs every transition from the start to the point again in the same way, as transitions
+     * cannot be undone.
+     *
+     * @param milliseconds the milliseconds from the start of this animation, which is clamped to the total time
+     * @throws IllegalArgumentException if the milliseconds are negative
+     * @apiNote This does not activate or deactivate this animation, so seeking to the end of an activated animation
+     * leaves it to finish or loop on its next tick. Seeking stays within the current loop.
      */
-    public void reset() {
-        if (!transitions.isEmpty()) { // Queue will not accept a size of 0
-            transitionQueue = new ArrayBlockingQueue<>(transitions.size());
-            transitionQueue.addAll(transitions);
+    public void seek(long milliseconds) {
+        if (milliseconds < 0) {
+            throw new IllegalArgumentException("Cannot seek to a negative time");
+        }
+
+        AnimationTimeline timeline = getTimeline();
+        if (timeline.size() == 0) {
+            return;
+        }
+
+        long target = Math.min(milliseconds, timeline.getTotalTime());
+        int runIndex = timeline.countRunBy(target);
+        // The transitions which have already run are only skipped when seeking forwards on the same timeline
+        int fromIndex = 0;
+        if (timeline == playbackTimeline && target >= getElapsedAnimationTime()) {
+            fromIndex = nextIndex - (currentTransition != null && !currentTransitionRun ? 1 : 0);
+        }
+        if (runIndex > fromIndex) {
+            runTransition(timeline.collapse(fromIndex, runIndex));
+        }
+
+        int index = timeline.indexAt(target);
+        playbackTimeline = timeline;
+        nextIndex = Math.min(index + 1, timeline.size());
+        if (index < timeline.size()) {
+            currentTransition = timeline.getTransition(index);
+            millisecondsToCurrentTransition = target - timeline.getStartTime(index);
+            currentTransitionRun = index < runIndex;
+        } else {
             currentTransition = null;
+            millisecondsToCurrentTransition = 0;
             currentTransitionRun = false;
         }
     }
 
     /**
-     * Map the total runtime of a collection of {@link Transition}.
+     * Runs a transition once it is due, which an implementation may override to run transitions somewhere other than
+     * the thread ticking this animation.
      *
-     * @param transitions the collection of transition
-     * @return the sum of the run times of all transitions in the collection
+     * @param transition the transition which is due
+     * @implNote The transition is counted as run once this returns, even if it has only been handed off to run later.
      */
-    private long mapToLong(@NotNull Collection<Transition> transitions) {
-        return transitions.stream()
-                .mapToLong(Transition::getRunTime)
-                .sum();
+    protected void runTransition(@NotNull Transition transition) {
+        transition.run();
+    }
+
+    /**
+     * Resets this animation to the start of its first loop, playing the transitions it has now.
+     */
+    public void reset() {
+        playbackTimeline = getTimeline();
+        nextIndex = 0;
+        completedLoops = 0;
+        currentTransition = null;
+        millisecondsToCurrentTransition = 0;
+        currentTransitionRun = false;
     }
 
     /**
@@ -223,15 +379,15 @@ public abstract class Animation {
     public State getState() {
         if (isActivated()) {
             if (currentTransition == null) {
-                if (peekNextTransition().isEmpty()) {
+                if (!hasNextTransition()) {
                     return State.FINISHED; // Current transition is null and no further transitions exist
                 } else {
                     return State.RUNNING; // Current transition is null but there is a further transition
                 }
             } else {
-                if (!currentTransitionRun && peekNextTransition().isEmpty()) {
+                if (!currentTransitionRun && !hasNextTransition()) {
                     return State.ENDING; // The current transition has not run, but it is the last transition
-                } else if (currentTransitionRun && peekNextTransition().isEmpty()) {
+                } else if (currentTransitionRun && !hasNextTransition()) {
                     return State.FINISHED; // The current transition has run, and there are no further transitions
                 } else {
                     return State.RUNNING; // There are further transitions in the queue
@@ -240,7 +396,7 @@ public abstract class Animation {
         } else {
             if (currentTransition != null) {
                 return State.HALTED; // There is a current transition buffered from the queue, but the animation is deactivated
-            } else if (peekNextTransition().isEmpty()) {
+            } else if (!hasNextTransition()) {
                 return State.FINISHED; // There is no current transition buffered, and the queue is empty
             } else {
                 return State.READY; // There is no current transition, and the queue is populated
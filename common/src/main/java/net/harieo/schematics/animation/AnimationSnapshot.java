@@ -0,0 +1,73 @@
+package net.harieo.schematics.animation;
+
+import com.google.common.collect.ImmutableList;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * An immutable copy of the stored information of an {@link Animation}, which can be serialized on another thread while
+ * the animation itself keeps changing or playing.
+ *
+ * @param id          an optional identifier of the animation
+ * @param transitions the ordered list of transitions of the animation
+ * @param loopCount   the amount of times the animation plays, or {@link Animation#LOOP_INFINITE}
+ * @apiNote A snapshot made by {@link #of(Animation)} holds a {@link Transition#copy()} of each transition, so a
+ * schematic of the animation can be changed while the snapshot is serialized.
+ */
+public record AnimationSnapshot(@Nullable String id,
+                                @NotNull @Unmodifiable List<Transition> transitions,
+                                int loopCount) {
+
+    /**
+     * @throws IllegalArgumentException if the loop count is not positive or {@link Animation#LOOP_INFINITE}
+     */
+    public AnimationSnapshot {
+        if (loopCount <= 0 && loopCount != Animation.LOOP_INFINITE) {
+            throw new IllegalArgumentException("The loop count must be positive or infinite");
+        }
+        transitions = ImmutableList.copyOf(transitions);
+    }
+
+    /**
+     * Copies the stored information of an animation, leaving out its playback state.
+     *
+     * @param animation the animation to copy
+     * @return the snapshot of the animation
+     * @implNote Each transition is copied with {@link Transition#copy()}, in the same way that a schematic is copied
+     * before it is saved on another thread. Only the palette and grid of a schematic are copied, as its modifications
+     * are shared, so the copy is cheap compared to serializing the animation.
+     */
+    public static @NotNull AnimationSnapshot of(@NotNull Animation animation) {
+        List<Transition> transitions = animation.getAllTransitions();
+        List<Transition> copies = new ArrayList<>(transitions.size());
+        for (Transition transition : transitions) {
+            copies.add(transition.copy());
+        }
+        return new AnimationSnapshot(animation.getId().orElse(null), copies, animation.getLoopCount());
+    }
+
+    /**
+     * Takes the stored information of an animation without copying its transitions, for when the snapshot is only read
+     * before the animation can change, such as by a serializer on the same thread.
+     *
+     * @param animation the animation to take the information of
+     * @return the snapshot of the animation, which shares its transitions
+     */
+    public static @NotNull AnimationSnapshot sharing(@NotNull Animation animation) {
+        return new AnimationSnapshot(animation.getId().orElse(null), animation.getAllTransitions(),
+                animation.getLoopCount());
+    }
+
+    /**
+     * @return the optional id of the animation, if one is present
+     */
+    public Optional<String> getId() {
+        return Optional.ofNullable(id);
+    }
+
+}
@@ -0,0 +1,256 @@
+package net.harieo.schematics.animation;
+
+import net.harieo.schematics.animation.impl.basic.SchematicTransition;
+import net.harieo.schematics.modification.Modification;
+import net.harieo.schematics.position.BlockPos;
+import net.harieo.schematics.position.LongHashSet;
+import net.harieo.schematics.schematic.Schematic;
+import net.harieo.schematics.schematic.SchematicCursor;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The compiled timeline of an {@link Animation}, which knows the time at which each {@link Transition} starts and runs
+ * so that any point of the animation can be found without stepping through every transition before it.
+ * <p>
+ * Each transition starts once the transition before it has finished its {@link Transition#getRunTime()}, and runs
+ * {@link Transition#getMillisecondsBefore()} after it starts. A negative time before or after a transition is counted
+ * as 0, in the same way that {@link Animation#tick(long)} runs and leaves such a transition without waiting.
+ *
+ * @apiNote A timeline is immutable, so it does not change if transitions are later added to or removed from the
+ * animation it was compiled from.
+ */
+public final class AnimationTimeline {
+
+    private final Transition[] transitions;
+    // The time from the start of the animation to the start of each transition, followed by the total time
+    private final long[] startTimes;
+    // The time from the start of the animation at which each transition runs, which never decreases
+    private final long[] runTimes;
+
+    /**
+     * Compiles the timeline of an ordered list of transitions.
+     *
+     * @param orderedTransitions the ordered list of transitions
+     */
+    public AnimationTimeline(@NotNull List<Transition> orderedTransitions) {
+        this.transitions = orderedTransitions.toArray(new Transition[0]);
+        this.startTimes = new long[transitions.length + 1];
+        this.runTimes = new long[transitions.length];
+        for (int index = 0; index < transitions.length; index++) {
+            Transition transition = transitions[index];
+            // Clamped rather than rejected, as every animation compiles a timeline when it is created, even when it is
+            // loaded from a file with negative times
+            long millisecondsBefore = Math.max(0, transition.getMillisecondsBefore());
+            long millisecondsAfter = Math.max(0, transition.getMillisecondsAfter());
+            runTimes[index] = startTimes[index] + millisecondsBefore;
+            startTimes[index + 1] = runTimes[index] + millisecondsAfter;
+        }
+    }
+
+    /**
+     * @return the amount of transitions in this timeline
+     */
+    public int size() {
+        return transitions.length;
+    }
+
+    /**
+     * @param index the index of a transition
+     * @return the transition at the index
+     * @throws ArrayIndexOutOfBoundsException if there is no transition at the index
+     */
+    public @NotNull Transition getTransition(int index) {
+        return transitions[index];
+    }
+
+    /**
+     * @param index the index of a transition, or the amount of transitions for the end of the timeline
+     * @return the milliseconds from the start of the animation to the start of the transition
+     * @throws ArrayIndexOutOfBoundsException if there is no transition at the index
+     */
+    public long getStartTime(int index) {
+        return startTimes[index];
+    }
+
+    /**
+     * @param index the index of a transition
+     * @return the milliseconds from the start of the animation to when the transition runs
+     * @throws ArrayIndexOutOfBoundsException if there is no transition at the index
+     */
+    public long getRunTime(int index) {
+        return runTimes[index];
+    }
+
+    /**
+     * @return the total amount of time in milliseconds to perform every transition, start to finish
+     */
+    public long getTotalTime() {
+        return startTimes[transitions.length];
+    }
+
+    /**
+     * Finds the transition which is in progress at a point of the animation, which is the last transition to have
+     * started by then.
+     *
+     * @param milliseconds the milliseconds from the start of the animation
+     * @return the index of the transition, or the amount of transitions if the point is at or after the end of the
+     * timeline
+     */
+    public int indexAt(long milliseconds) {
+        if (milliseconds >= getTotalTime()) {
+            return transitions.length;
+        }
+        // Transitions with no run time start at the same time as the next, which is the one in progress
+        return Math.max(0, countAtOrBefore(startTimes, transitions.length, milliseconds) - 1);
+    }
+
+    /**
+     * Counts the transitions which have run by a point of the animation.
+     *
+     * @param milliseconds the milliseconds from the start of the animation
+     * @return the amount of transitions which run at or before the point
+     */
+    public int countRunBy(long milliseconds) {
+        return countAtOrBefore(runTimes, transitions.length, milliseconds);
+    }
+
+    // Binary searches the first index of a sorted array with a value after the time
+    private static int countAtOrBefore(long @NotNull [] times, int length, long milliseconds) {
+        int low = 0, high = length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (times[middle] <= milliseconds) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Creates a transition which runs a range of the transitions of this timeline immediately and in order, such as
+     * when those transitions are skipped over by seeking.
+     * <p>
+     * The {@link SchematicTransition}s in the range are collapsed, so that a block which is replaced by a later
+     * modification in the range is only changed once, with its final state. A modification which does not replace its
+     * block, such as one spawning an entity, is always applied.
+     *
+     * @param fromIndex the index of the first transition to run, inclusive
+     * @param toIndex   the index of the last transition to run, exclusive
+     * @return a transition with no time before or after it, which runs the range when it is run
+     * @throws IndexOutOfBoundsException if the range is not within this timeline
+     * @see Modification#replacesBlock()
+     */
+    public @NotNull Transition collapse(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > transitions.length || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException(
+                    "Range " + fromIndex + " to " + toIndex + " is not within the timeline");
+        }
+        return new CollapsedTransition(transitions, fromIndex, toIndex);
+    }
+
+    /**
+     * Runs a range of transitions, applying each block replaced by a schematic only with its final state.
+     */
+    private static class CollapsedTransition extends Transition {
+
+        private static final String TYPE = "collapsed";
+
+        private final Transition[] transitions;
+        private final int fromIndex;
+        private final int toIndex;
+
+        private CollapsedTransition(Transition @NotNull [] transitions, int fromIndex, int toIndex) {
+            super(TYPE, 0, 0);
+            this.transitions = transitions;
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+        }
+
+        /**
+         * Finds the modifications which would be replaced by a later one, then runs the range without them.
+         *
+         * @implNote Each schematic is walked once to find the replaced modifications, from the last schematic to the
+         * first, and once more to apply the rest, so only a bit of memory is kept for each skipped modification.
+         */
+        @Override
+        public void run() {
+            BitSet[] replacedModifications = new BitSet[toIndex - fromIndex];
+            // The blocks which a later modification replaces, for each space
+            Map<Object, LongHashSet> replacedBlocks = new HashMap<>();
+            for (int index = toIndex - 1; index >= fromIndex; index--) {
+                if (transitions[index] instanceof SchematicTransition schematicTransition) {
+                    replacedModifications[index - fromIndex] =
+                            findReplaced(schematicTransition.getSchematic(), replacedBlocks);
+                }
+            }
+
+            for (int index = fromIndex; index < toIndex; index++) {
+                BitSet replaced = replacedModifications[index - fromIndex];
+                if (replaced != null) {
+                    apply(((SchematicTransition) transitions[index]).getSchematic(), replaced);
+                } else {
+                    transitions[index].run();
+                }
+            }
+        }
+
+        private static @NotNull BitSet findReplaced(@NotNull Schematic schematic,
+                                                    @NotNull Map<Object, LongHashSet> replacedBlocks) {
+            SchematicCursor cursor = new SchematicCursor(schematic);
+            Modification[] modifications = new Modification[cursor.getTotalCount()];
+            long[] blocks = new long[cursor.getTotalCount()];
+            boolean[] packable = new boolean[cursor.getTotalCount()];
+            int[] count = {0};
+            while (cursor.next((modification, coordinate) -> {
+                BlockPos block = BlockPos.of(coordinate);
+                int index = count[0]++;
+                modifications[index] = modification;
+                packable[index] = BlockPos.isPackable(block.getX(), block.getY(), block.getZ());
+                blocks[index] = packable[index] ? block.asLong() : 0;
+            })) {
+                // Every modification is collected before any is checked, as later modifications are checked first
+            }
+
+            BitSet replaced = new BitSet(count[0]);
+            for (int index = count[0] - 1; index >= 0; index--) {
+                Object space = modifications[index].getSpace();
+                if (space == null || !packable[index]) {
+                    continue; // The block cannot be recognised, so the modification is always applied
+                }
+
+                // Only a modification which replaces its block can itself be replaced, as any other modification,
+                // such as one spawning an entity, may have an effect which outlasts its block
+                if (!modifications[index].replacesBlock()) {
+                    continue;
+                }
+                LongHashSet spaceBlocks = replacedBlocks.computeIfAbsent(space, key -> new LongHashSet());
+                if (!spaceBlocks.add(blocks[index])) {
+                    replaced.set(index);
+                }
+            }
+            return replaced;
+        }
+
+        // Matches Schematic#apply, skipping the replaced modifications
+        private static void apply(@NotNull Schematic schematic, @NotNull BitSet replaced) {
+            SchematicCursor cursor = new SchematicCursor(schematic);
+            int[] index = {0};
+            while (cursor.next((modification, coordinate) -> {
+                if (!replaced.get(index[0]++) && modification.isAvailable(coordinate)) {
+                    modification.apply(coordinate);
+                }
+            })) {
+                // Each modification is applied by the visitor
+            }
+        }
+
+    }
+
+}
@@ -74,4 +74,17 @@ public abstract class Transition implements Runnable {
         return getMillisecondsBefore() + getMillisecondsAfter();
     }
 
+    /**
+     * Copies this transition, so that the copy can be read on another thread, such as to be serialized, while this
+     * transition keeps changing.
+     *
+     * @return a copy of this transition, or this transition if nothing it holds can change
+     * @implNote This returns this transition, as a transition itself only holds its type and timings. A transition
+     * which holds something that can change, such as a schematic, should override this to return a copy of its own
+     * class.
+     */
+    public @NotNull Transition copy() {
+        return this;
+    }
+
 }
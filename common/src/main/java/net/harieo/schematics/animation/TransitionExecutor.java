@@ -0,0 +1,25 @@
+package net.harieo.schematics.animation;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Runs the transitions of an {@link Animation} once they are due, so that an animation can keep its timing on one
+ * thread while its transitions are run on another, such as a thread which owns the world being changed.
+ */
+@FunctionalInterface
+public interface TransitionExecutor {
+
+    /**
+     * An executor which runs each transition immediately on the thread which made it due.
+     */
+    TransitionExecutor DIRECT = (transition, dueNanos) -> transition.run();
+
+    /**
+     * Runs a transition, now or later.
+     *
+     * @param transition the transition which is due
+     * @param dueNanos   the {@link System#nanoTime()} at which the transition was due, by which transitions can be ordered
+     */
+    void execute(@NotNull Transition transition, long dueNanos);
+
+}
@@ -0,0 +1,139 @@
+package net.harieo.schematics.animation.impl.basic;
+
+import net.harieo.schematics.animation.TransitionExecutor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A single thread shared by many {@link ScheduledAnimation}s, which each wait on it until their next transition is due
+ * rather than polling for it.
+ * <p>
+ * The thread is only started while an animation is active, and is stopped once every animation has finished or been
+ * deactivated.
+ */
+public class AnimationScheduler {
+
+    /**
+     * The scheduler used by a {@link ScheduledAnimation} unless another one is provided.
+     */
+    public static final AnimationScheduler SHARED = new AnimationScheduler("Animation Scheduler");
+
+    private final String threadName;
+    private final Set<ScheduledAnimation> animations = Collections.newSetFromMap(new IdentityHashMap<>());
+    private volatile TransitionExecutor defaultTransitionExecutor = TransitionExecutor.DIRECT;
+
+    private @Nullable ScheduledThreadPoolExecutor executor;
+
+    /**
+     * A scheduler which names its thread.
+     *
+     * @param threadName the name of the thread of this scheduler
+     */
+    public AnimationScheduler(@NotNull String threadName) {
+        this.threadName = threadName;
+    }
+
+    /**
+     * Registers an animation as active, starting the thread if it is not running.
+     *
+     * @param animation the animation which has been activated
+     */
+    synchronized void register(@NotNull ScheduledAnimation animation) {
+        animations.add(animation);
+        if (executor == null) {
+            executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, threadName);
+                thread.setDaemon(true); // Animations should never keep the application running
+                return thread;
+            });
+            executor.setRemoveOnCancelPolicy(true); // Deactivated animations should not keep their tasks queued
+        }
+    }
+
+    /**
+     * Schedules the next tick of an active animation.
+     *
+     * @param animation  the animation to tick
+     * @param step       the task which ticks the animation
+     * @param delayNanos the nanoseconds until the animation should be ticked
+     * @return the future of the tick, or null if the animation is not active on this scheduler
+     */
+    synchronized @Nullable ScheduledFuture<?> schedule(@NotNull ScheduledAnimation animation,
+                                                       @NotNull Runnable step,
+                                                       long delayNanos) {
+        if (executor == null || !animations.contains(animation)) {
+            return null;
+        }
+        return executor.schedule(step, Math.max(0, delayNanos), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Releases an animation which has finished or been deactivated, stopping the thread if no animations are left.
+     *
+     * @param animation the animation which is no longer active
+     */
+    synchronized void release(@NotNull ScheduledAnimation animation) {
+        if (animations.remove(animation) && animations.isEmpty() && executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    /**
+     * @return the executor which runs the transitions of each animation on this scheduler which has no executor of its
+     * own, which is {@link TransitionExecutor#DIRECT} unless another has been set
+     */
+    public @NotNull TransitionExecutor getDefaultTransitionExecutor() {
+        return defaultTransitionExecutor;
+    }
+
+    /**
+     * Sets the executor which runs the transitions of each animation on this scheduler which has no executor of its
+     * own, such as one which hands transitions to the thread which owns the world being changed.
+     *
+     * @param defaultTransitionExecutor the executor for transitions of animations without their own executor
+     * @apiNote This applies to animations which are already active from their next transition.
+     */
+    public void setDefaultTransitionExecutor(@NotNull TransitionExecutor defaultTransitionExecutor) {
+        this.defaultTransitionExecutor = defaultTransitionExecutor;
+    }
+
+    /**
+     * @return the amount of animations which are active on this scheduler
+     */
+    public synchronized int getActiveCount() {
+        return animations.size();
+    }
+
+    /**
+     * Deactivates every animation on this scheduler and stops its thread, such as when the application is stopping.
+     *
+     * @apiNote An animation which is in the middle of a transition finishes that transition first. An animation can be
+     * activated on this scheduler again afterwards, which starts a new thread.
+     */
+    public void shutdown() {
+        List<ScheduledAnimation> activeAnimations;
+        synchronized (this) {
+            activeAnimations = new ArrayList<>(animations);
+        }
+        // Deactivated outside the lock, as each animation holds its own lock while it schedules its next tick
+        activeAnimations.forEach(ScheduledAnimation::deactivate);
+
+        synchronized (this) {
+            if (executor != null && animations.isEmpty()) {
+                executor.shutdownNow();
+                executor = null;
+            }
+        }
+    }
+
+}
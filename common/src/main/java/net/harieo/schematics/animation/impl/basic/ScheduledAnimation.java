@@ -2,53 +2,190 @@ package net.harieo.schematics.animation.impl.basic;
 
 import net.harieo.schematics.animation.Animation;
 import net.harieo.schematics.animation.Transition;
+import net.harieo.schematics.animation.TransitionExecutor;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
- * An {@link Animation} which runs on Java's native {@link ScheduledExecutorService} every millisecond.
+ * An {@link Animation} which runs on an {@link AnimationScheduler}, waking only when its next transition is due.
+ * <p>
+ * Time is measured with {@link System#nanoTime()} between each wake, so the animation does not drift when its thread is
+ * woken late.
+ *
+ * @apiNote Transitions are run on the thread of the scheduler, not the thread which activated the animation, unless a
+ * {@link TransitionExecutor} is set to hand them off to another thread, either on this animation or as the
+ * {@link AnimationScheduler#setDefaultTransitionExecutor(TransitionExecutor) default} of its scheduler.
  */
 public class ScheduledAnimation extends Animation implements Runnable {
 
-    private final transient ScheduledExecutorService executorService = Executors.newScheduledThreadPool(1);
-    private transient ScheduledFuture<?> scheduledFuture;
+    private final transient AnimationScheduler scheduler;
+    private transient @Nullable TransitionExecutor transitionExecutor; // Null to use the default of the scheduler
 
-    public ScheduledAnimation(@Nullable String id, @NotNull List<Transition> transitions) {
+    private transient boolean activated = false;
+    private transient long lastTickNanos;
+    private transient long stepDueNanos; // The time at which the step being ticked was due
+    private transient @Nullable ScheduledFuture<?> scheduledFuture;
+    // Advanced each time a step is scheduled, so that a step which has been replaced does not run
+    private transient long stepGeneration = 0;
+
+    /**
+     * An animation which runs on a specific scheduler.
+     *
+     * @param id          an optional identifier for this animation
+     * @param transitions the ordered list of transitions
+     * @param scheduler   the scheduler to run this animation on
+     */
+    public ScheduledAnimation(@Nullable String id,
+                              @NotNull List<Transition> transitions,
+                              @NotNull AnimationScheduler scheduler) {
         super(id, transitions);
+        this.scheduler = scheduler;
+    }
+
+    public ScheduledAnimation(@Nullable String id, @NotNull List<Transition> transitions) {
+        this(id, transitions, AnimationScheduler.SHARED);
     }
 
     public ScheduledAnimation(@Nullable String id, @NotNull Transition... transitions) {
-        super(id, transitions);
+        this(id, Arrays.asList(transitions));
     }
 
     /**
-     * Activates the scheduler to run this {@link Runnable} at a rate of one {@link #run()} per one millisecond.
+     * Activates this animation on its scheduler, to be run as soon as its first transition is due. Activating an
+     * animation which is already activated restarts its timing from now.
      */
     @Override
-    public void activate() {
-        scheduledFuture = executorService.scheduleAtFixedRate(this, 1, 1, TimeUnit.MILLISECONDS);
+    public synchronized void activate() {
+        if (scheduledFuture != null) {
+            scheduledFuture.cancel(false);
+        }
+
+        activated = true;
+        lastTickNanos = System.nanoTime();
+        scheduler.register(this);
+        scheduleNextStep();
+    }
+
+    /**
+     * Deactivates this animation, leaving it where it is so that it can be activated again later.
+     */
+    public synchronized void deactivate() {
+        if (!activated) {
+            return;
+        }
+
+        activated = false;
+        if (scheduledFuture != null) {
+            scheduledFuture.cancel(false);
+            scheduledFuture = null;
+        }
+        scheduler.release(this);
     }
 
+    /**
+     * Resets this animation while holding its lock, so that it cannot be reset while its scheduler is ticking it.
+     */
     @Override
-    public boolean isActivated() {
-        return scheduledFuture != null;
+    public synchronized void reset() {
+        super.reset();
+    }
+
+    /**
+     * @return the executor which runs the transitions of this animation once they are due, which is the
+     * {@link AnimationScheduler#getDefaultTransitionExecutor() default} of its scheduler unless another has been set
+     */
+    public synchronized @NotNull TransitionExecutor getTransitionExecutor() {
+        return transitionExecutor != null ? transitionExecutor : scheduler.getDefaultTransitionExecutor();
+    }
+
+    /**
+     * Sets the executor which runs the transitions of this animation once they are due, so that transitions which must
+     * run on a specific thread can be handed off to it while the timing of this animation stays on the scheduler.
+     *
+     * @param transitionExecutor the executor for the transitions of this animation
+     */
+    public synchronized void setTransitionExecutor(@NotNull TransitionExecutor transitionExecutor) {
+        this.transitionExecutor = transitionExecutor;
     }
 
     @Override
-    public void run() {
-        if (getState() == State.FINISHED) {
-            scheduledFuture.cancel(true);
-            scheduledFuture = null;
+    public synchronized boolean isActivated() {
+        return activated;
+    }
+
+    /**
+     * Ticks this animation by the time since it was last ticked, then waits until its next transition is due.
+     *
+     * @apiNote Running this animation directly replaces the step which is waiting on its scheduler.
+     */
+    @Override
+    public synchronized void run() {
+        if (!activated) {
             return;
         }
 
-        tick(1);
+        boolean finished = true;
+        try {
+            stepDueNanos = lastTickNanos + TimeUnit.MILLISECONDS.toNanos(getTimeUntilNextStep());
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastTickNanos);
+            lastTickNanos += TimeUnit.MILLISECONDS.toNanos(elapsedMillis); // Less than a millisecond is carried over
+            tick(elapsedMillis);
+            // Transitions with no time between them are all run now, rather than one on each wake
+            while (getState() != State.FINISHED && getTimeUntilNextStep() == 0) {
+                tick(0);
+            }
+            finished = getState() == State.FINISHED;
+        } finally {
+            if (finished) {
+                deactivate(); // Also deactivated if a transition fails, so the scheduler does not wait on it forever
+            } else {
+                scheduleNextStep();
+            }
+        }
+    }
+
+    /**
+     * Moves this animation to a point on its timeline, then waits from now until its next transition is due.
+     *
+     * @param milliseconds the milliseconds from the start of this animation, which is clamped to the total time
+     */
+    @Override
+    public synchronized void seek(long milliseconds) {
+        stepDueNanos = System.nanoTime(); // The skipped transitions are due now
+        super.seek(milliseconds);
+        if (activated) {
+            if (scheduledFuture != null) {
+                scheduledFuture.cancel(false);
+            }
+            lastTickNanos = System.nanoTime();
+            scheduleNextStep();
+        }
+    }
+
+    @Override
+    protected void runTransition(@NotNull Transition transition) {
+        getTransitionExecutor().execute(transition, stepDueNanos);
+    }
+
+    private synchronized void runStep(long generation) {
+        // A step replaced while it waited for the lock, such as by activate(), must not schedule a second step
+        if (generation == stepGeneration) {
+            run();
+        }
+    }
+
+    private void scheduleNextStep() {
+        long generation = ++stepGeneration;
+        long dueNanos = lastTickNanos + TimeUnit.MILLISECONDS.toNanos(getTimeUntilNextStep());
+        scheduledFuture = scheduler.schedule(this, () -> runStep(generation), dueNanos - System.nanoTime());
+        if (scheduledFuture == null) {
+            activated = false; // The scheduler was shut down while this animation was ticking
+        }
     }
 
 }
@@ -32,6 +32,15 @@ public class SchematicTransition extends Transition {
         return schematic;
     }
 
+    /**
+     * @return a transition with the same timings and a copy of the schematic, made by
+     * {@link Schematic#Schematic(Schematic)}
+     */
+    @Override
+    public @NotNull SchematicTransition copy() {
+        return new SchematicTransition(new Schematic(schematic), getMillisecondsBefore(), getMillisecondsAfter());
+    }
+
     /**
      * Applies the {@link Schematic} with {@link Schematic#apply()}.
      */
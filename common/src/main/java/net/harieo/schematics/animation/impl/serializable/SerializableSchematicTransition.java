@@ -33,8 +33,22 @@ public class SerializableSchematicTransition<T extends Coordinate> extends Schem
                                            @NotNull SchematicJsonSerializer<T> schematicJsonSerializer,
                                            long millisecondsBefore,
                                            long millisecondsAfter) {
+        this(schematic, new SchematicTransitionJsonSerializer(schematicJsonSerializer), millisecondsBefore,
+                millisecondsAfter);
+    }
+
+    private SerializableSchematicTransition(@NotNull Schematic schematic,
+                                            @NotNull SchematicTransitionJsonSerializer serializer,
+                                            long millisecondsBefore,
+                                            long millisecondsAfter) {
         super(schematic, millisecondsBefore, millisecondsAfter);
-        this.schematicTransitionJsonSerializer = new SchematicTransitionJsonSerializer(schematicJsonSerializer);
+        this.schematicTransitionJsonSerializer = serializer;
+    }
+
+    @Override
+    public @NotNull SerializableSchematicTransition<T> copy() {
+        return new SerializableSchematicTransition<>(new Schematic(getSchematic()), schematicTransitionJsonSerializer,
+                getMillisecondsBefore(), getMillisecondsAfter());
     }
 
     @Override
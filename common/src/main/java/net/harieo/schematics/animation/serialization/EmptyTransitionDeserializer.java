@@ -14,6 +14,11 @@ public class EmptyTransitionDeserializer extends TransitionJsonDeserializer {
 		return new EmptyTransition(millisecondsBefore, millisecondsAfter);
 	}
 
+	@Override
+	public @NotNull String getDiscriminator() {
+		return EmptyTransition.TYPE;
+	}
+
 	@Override
 	public boolean isValidObject(@NotNull JsonObject serializedObject) {
 		return parseType(serializedObject).equalsIgnoreCase(EmptyTransition.TYPE);
@@ -23,6 +23,11 @@ public class SchematicTransitionDeserializer extends TransitionJsonDeserializer
 		return new SchematicTransition(schematic, millisecondsBefore, millisecondsAfter);
 	}
 
+	@Override
+	public @NotNull String getDiscriminator() {
+		return SchematicTransition.TYPE;
+	}
+
 	@Override
 	public boolean isValidObject(@NotNull JsonObject serializedObject) {
 		if (!parseType(serializedObject).equals(SchematicTransition.TYPE)) {
@@ -0,0 +1,61 @@
+package net.harieo.schematics.file;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Replaces files with a temporary file which has been completely written, so that a crash while saving leaves either
+ * the previous file or the new file, but never a file which is partly written.
+ */
+public final class AtomicFiles {
+
+    private AtomicFiles() {
+    }
+
+    /**
+     * Moves a completely written file over a target file, replacing the target if it exists.
+     *
+     * @param source the written file, which is moved
+     * @param target the file to replace
+     * @throws IOException if the source cannot be flushed to the disk or moved
+     * @implNote The source is flushed to the disk before it is moved, and the move is atomic where the file system
+     * supports it. The directory of the target is then flushed so that the move itself survives a crash, where the
+     * platform allows a directory to be opened, as it does not on Windows.
+     */
+    public static void replace(@NotNull File source, @NotNull File target) throws IOException {
+        // The contents must reach the disk before the rename, or a crash could keep the rename but lose the contents
+        try (FileChannel channel = FileChannel.open(source.toPath(), StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+
+        try {
+            Files.move(source.toPath(), target.toPath(),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            // Some file systems cannot replace atomically, where a plain replacement is the best available
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        forceDirectory(target.getAbsoluteFile().getParentFile());
+    }
+
+    private static void forceDirectory(@Nullable File directory) {
+        if (directory == null) {
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(directory.toPath(), StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ignored) {
+            // The file has still been replaced, it is only not yet guaranteed to survive a crash
+        }
+    }
+
+}
@@ -0,0 +1,123 @@
+package net.harieo.schematics.file;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs writes one at a time on a dedicated writer thread, so that the thread which requests a write does not wait for
+ * it.
+ * <p>
+ * Each write has a key describing what it writes, such as a file or directory. If a write is submitted while another
+ * write with the same key is still waiting to run, the waiting write is replaced rather than queued again, so only the
+ * most recent write of the same thing is run and both callers receive its result.
+ *
+ * @param <K> the type of key identifying what each write writes
+ * @param <T> the type of result of each write
+ * @apiNote Writes are run in the order they were first submitted, and a write which is already running is never
+ * replaced, so a write submitted while another with the same key is running is queued after it.
+ */
+public class CoalescingWriteQueue<K, T> {
+
+    private static final AtomicInteger QUEUE_COUNT = new AtomicInteger();
+
+    private final ExecutorService executor;
+    private final Map<K, PendingWrite<T>> pendingWrites = new HashMap<>();
+    private boolean shutdown = false;
+
+    /**
+     * A queue with its own writer thread.
+     *
+     * @param name the name of the queue, which is included in the name of the writer thread
+     */
+    public CoalescingWriteQueue(@NotNull String name) {
+        String threadName = "schematics-" + name + "-writer-" + QUEUE_COUNT.incrementAndGet();
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Submits a write to run on the writer thread, replacing any write with the same key which has not started.
+     *
+     * @param key   the key identifying what the write writes
+     * @param write the write to run
+     * @return a future completed with the result of the write, or exceptionally if the write throws or this queue has
+     * been shut down
+     */
+    public synchronized CompletableFuture<T> submit(@NotNull K key, @NotNull Callable<T> write) {
+        if (shutdown) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Write queue has been shut down"));
+        }
+
+        PendingWrite<T> pendingWrite = pendingWrites.get(key);
+        if (pendingWrite != null) {
+            pendingWrite.write = write; // The newer write supersedes the one waiting to run
+            return pendingWrite.future;
+        }
+
+        PendingWrite<T> newWrite = new PendingWrite<>(write);
+        pendingWrites.put(key, newWrite);
+        executor.execute(() -> run(key, newWrite));
+        return newWrite.future;
+    }
+
+    private void run(@NotNull K key, @NotNull PendingWrite<T> pendingWrite) {
+        Callable<T> write;
+        synchronized (this) {
+            // Once removed, a write with the same key is queued again rather than replacing this one
+            pendingWrites.remove(key, pendingWrite);
+            write = pendingWrite.write;
+        }
+
+        try {
+            pendingWrite.future.complete(write.call());
+        } catch (Throwable throwable) {
+            pendingWrite.future.completeExceptionally(throwable);
+        }
+    }
+
+    /**
+     * Stops accepting writes and waits for all submitted writes to finish.
+     *
+     * @param timeout the longest time to wait
+     * @param unit    the unit of the timeout
+     * @return true if all writes finished, or false if the timeout passed first
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public boolean shutdown(long timeout, @NotNull TimeUnit unit) throws InterruptedException {
+        synchronized (this) {
+            shutdown = true;
+        }
+        executor.shutdown();
+        return executor.awaitTermination(timeout, unit);
+    }
+
+    /**
+     * @return whether this queue has been shut down
+     */
+    public synchronized boolean isShutdown() {
+        return shutdown;
+    }
+
+    private static class PendingWrite<T> {
+
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private Callable<T> write; // Guarded by the queue
+
+        private PendingWrite(@NotNull Callable<T> write) {
+            this.write = write;
+        }
+
+    }
+
+}
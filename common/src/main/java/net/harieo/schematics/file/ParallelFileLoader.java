@@ -0,0 +1,234 @@
+package net.harieo.schematics.file;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads many files in parallel by reading each file on a bounded pool of I/O threads, then deserializing what was read on
+ * a bounded {@link ForkJoinPool}.
+ * <p>
+ * Results are returned in the order of the file names, regardless of the order in which files finish loading, and a
+ * file which fails to load is reported in its result rather than stopping the other files from loading.
+ *
+ * @apiNote The pools are created for each call to {@link #load(Collection, FileReadFunction, FileDeserializeFunction)}
+ * and shut down before it returns, so no threads are left running between loads. The deserialize function is called
+ * from several threads at once, so it must be thread-safe.
+ */
+public class ParallelFileLoader {
+
+    public static int DEFAULT_IO_THREADS = 4;
+    public static int DEFAULT_PARALLELISM = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+    private final int ioThreads;
+    private final int parallelism;
+
+    /**
+     * A loader with a specific amount of threads.
+     *
+     * @param ioThreads   the amount of threads reading files at once
+     * @param parallelism the amount of threads deserializing files at once
+     * @throws IllegalArgumentException if either amount is less than 1
+     */
+    public ParallelFileLoader(int ioThreads, int parallelism) {
+        if (ioThreads < 1 || parallelism < 1) {
+            throw new IllegalArgumentException("Loader must have at least 1 thread for each stage");
+        }
+        this.ioThreads = ioThreads;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * A loader with {@link #DEFAULT_IO_THREADS} and {@link #DEFAULT_PARALLELISM}.
+     */
+    public ParallelFileLoader() {
+        this(DEFAULT_IO_THREADS, DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * @return the amount of threads reading files at once
+     */
+    public int getIoThreads() {
+        return ioThreads;
+    }
+
+    /**
+     * @return the amount of threads deserializing files at once
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Reads and deserializes all the provided files, blocking until every file has either loaded or failed.
+     *
+     * @param files        the files to load
+     * @param reader       the function to read each file, which is called on an I/O thread
+     * @param deserializer the function to deserialize what was read from each file, which is called on a deserializing
+     *                     thread
+     * @param <R>          the type of data read from each file
+     * @param <T>          the type of object deserialized from each file
+     * @return a result for each file, ordered by file name
+     * @throws InterruptedIOException if the calling thread is interrupted while waiting for files to load
+     * @implNote To bound memory, only a limited amount of files are read but not yet deserialized at any time.
+     */
+    public <R, T> List<Result<T>> load(@NotNull Collection<File> files,
+                                       @NotNull FileReadFunction<R> reader,
+                                       @NotNull FileDeserializeFunction<R, T> deserializer)
+            throws InterruptedIOException {
+        List<File> sortedFiles = new ArrayList<>(files);
+        sortedFiles.sort(Comparator.comparing(File::getName));
+
+        ExecutorService ioExecutor = Executors.newFixedThreadPool(ioThreads, new LoaderThreadFactory());
+        ForkJoinPool deserializePool = new ForkJoinPool(parallelism);
+        Semaphore inFlight = new Semaphore(ioThreads + parallelism * 2);
+        try {
+            List<CompletableFuture<T>> futures = new ArrayList<>(sortedFiles.size());
+            for (File file : sortedFiles) {
+                inFlight.acquire();
+                CompletableFuture<T> future = CompletableFuture
+                        .supplyAsync(() -> {
+                            try {
+                                return reader.read(file);
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        }, ioExecutor)
+                        .thenApplyAsync(data -> {
+                            try {
+                                return deserializer.deserialize(file, data);
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        }, deserializePool);
+                future.whenComplete((value, error) -> inFlight.release());
+                futures.add(future);
+            }
+
+            List<Result<T>> results = new ArrayList<>(sortedFiles.size());
+            for (int i = 0; i < sortedFiles.size(); i++) {
+                File file = sortedFiles.get(i);
+                try {
+                    results.add(new Result<>(file, futures.get(i).join(), null));
+                } catch (CompletionException e) {
+                    results.add(new Result<>(file, null, unwrap(e)));
+                }
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while loading files");
+        } finally {
+            ioExecutor.shutdownNow();
+            deserializePool.shutdownNow();
+        }
+    }
+
+    /**
+     * An overload of {@link #load(Collection, FileReadFunction, FileDeserializeFunction)} which reads all bytes of each
+     * file.
+     */
+    public <T> List<Result<T>> load(@NotNull Collection<File> files,
+                                    @NotNull FileDeserializeFunction<byte[], T> deserializer)
+            throws InterruptedIOException {
+        return load(files, file -> Files.readAllBytes(file.toPath()), deserializer);
+    }
+
+    private static Throwable unwrap(@NotNull Throwable throwable) {
+        while ((throwable instanceof CompletionException || throwable instanceof UncheckedIOException)
+                && throwable.getCause() != null) {
+            throwable = throwable.getCause();
+        }
+        return throwable;
+    }
+
+    /**
+     * The outcome of loading a single file.
+     *
+     * @param file  the file which was loaded
+     * @param value the deserialized object, or null if the file failed to load
+     * @param error the reason the file failed to load, or null if it loaded
+     * @param <T>   the type of the deserialized object
+     */
+    public record Result<T>(@NotNull File file, @Nullable T value, @Nullable Throwable error) {
+
+        /**
+         * @return whether the file was loaded without error
+         */
+        public boolean isSuccess() {
+            return error == null;
+        }
+
+    }
+
+    /**
+     * A function which reads the contents of a file.
+     *
+     * @param <R> the type of data read from the file
+     */
+    @FunctionalInterface
+    public interface FileReadFunction<R> {
+
+        /**
+         * @param file the file to read
+         * @return the data read from the file
+         * @throws IOException if the file cannot be read
+         */
+        R read(@NotNull File file) throws IOException;
+
+    }
+
+    /**
+     * A function which deserializes the data read from a file.
+     *
+     * @param <R> the type of data read from the file
+     * @param <T> the type of the deserialized object
+     */
+    @FunctionalInterface
+    public interface FileDeserializeFunction<R, T> {
+
+        /**
+         * @param file the file which the data was read from
+         * @param data the data read from the file
+         * @return the deserialized object
+         * @throws IOException if the data cannot be deserialized
+         */
+        T deserialize(@NotNull File file, R data) throws IOException;
+
+    }
+
+    private static class LoaderThreadFactory implements ThreadFactory {
+
+        private static final AtomicInteger POOL_COUNT = new AtomicInteger();
+
+        private final int poolNumber = POOL_COUNT.incrementAndGet();
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(@NotNull Runnable runnable) {
+            Thread thread = new Thread(runnable,
+                    "schematics-file-loader-" + poolNumber + "-io-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+
+    }
+
+}
@@ -3,6 +3,7 @@ package net.harieo.schematics.modification;
 import net.harieo.schematics.exception.ModificationException;
 import net.harieo.schematics.position.Coordinate;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * A modification which can be applied at a given {@link Coordinate}
@@ -41,4 +42,26 @@ public abstract class Modification {
      */
     public abstract void apply(@NotNull Coordinate coordinate) throws ModificationException;
 
+    /**
+     * Whether applying this modification replaces everything at the block of its {@link Coordinate}, so that an
+     * earlier modification which also replaces the same block in the same {@link #getSpace() space} has no effect once
+     * this one has been applied.
+     *
+     * @return true if this modification replaces its whole block, otherwise false
+     * @implNote By default this returns {@code false}, so no earlier modification is ever skipped because of this one.
+     */
+    public boolean replacesBlock() {
+        return false;
+    }
+
+    /**
+     * The space which the coordinates of this modification are in, such as a world, so that modifications of the same
+     * block can be recognised even though a {@link Coordinate} does not say which space it is in.
+     *
+     * @return the space of this modification, or null if it is not known
+     */
+    public @Nullable Object getSpace() {
+        return null;
+    }
+
 }
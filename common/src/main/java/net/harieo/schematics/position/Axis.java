@@ -3,7 +3,6 @@ package net.harieo.schematics.position;
 import com.google.common.collect.ImmutableSet;
 import org.jetbrains.annotations.Unmodifiable;
 
-import java.util.HashSet;
 import java.util.Set;
 
 /**
@@ -11,6 +10,9 @@ import java.util.Set;
  */
 public class Axis {
 
+    // A fraction of the difference between points within which a point is treated as landing on the upper endpoint
+    private static final double STEP_TOLERANCE = 1e-9;
+
     private final double lowerEndpoint;
     private final double upperEndpoint;
 
@@ -40,24 +42,63 @@ public class Axis {
         return upperEndpoint;
     }
 
+    /**
+     * Gets the amount of points between the two endpoints with a specified difference between each point, including
+     * both endpoints.
+     *
+     * @param differenceBetweenPoints the difference between each point
+     * @return the amount of points within the range
+     * @throws IllegalArgumentException if the difference is not positive
+     */
+    public long getPointCount(double differenceBetweenPoints) {
+        long steps = getSteps(differenceBetweenPoints);
+        // The upper endpoint is an extra point, unless the last step already lands on it
+        return isUpperEndpoint(steps, differenceBetweenPoints) ? steps + 1 : steps + 2;
+    }
+
+    /**
+     * Gets a point between the two endpoints with a specified difference between each point.
+     *
+     * @param index                   the index of the point, from 0 for the lower endpoint to
+     *                                {@code getPointCount(differenceBetweenPoints) - 1} for the upper endpoint
+     * @param differenceBetweenPoints the difference between each point
+     * @return the point at the index
+     * @apiNote Each point is calculated from its index rather than by adding the difference repeatedly, so the points
+     * do not gather floating-point error along the axis.
+     */
+    public double getPoint(long index, double differenceBetweenPoints) {
+        // The last point is always exactly the upper endpoint
+        return index == getPointCount(differenceBetweenPoints) - 1
+                ? upperEndpoint
+                : lowerEndpoint + index * differenceBetweenPoints;
+    }
+
+    private long getSteps(double differenceBetweenPoints) {
+        if (!(differenceBetweenPoints > 0)) {
+            throw new IllegalArgumentException("Difference between points must be positive");
+        }
+        return (long) Math.floor((upperEndpoint - lowerEndpoint) / differenceBetweenPoints + STEP_TOLERANCE);
+    }
+
+    private boolean isUpperEndpoint(long steps, double differenceBetweenPoints) {
+        double lastPoint = lowerEndpoint + steps * differenceBetweenPoints;
+        return Math.abs(upperEndpoint - lastPoint) <= differenceBetweenPoints * STEP_TOLERANCE;
+    }
+
     /**
      * Gets the range of points between the two endpoints with a specified difference between each listed point.
      *
      * @param differenceBetweenPoints the difference between each point listed
      * @return the set of points within the range
+     * @see #getPoint(long, double)
      */
     public @Unmodifiable Set<Double> getRange(double differenceBetweenPoints) {
-        Set<Double> range = new HashSet<>();
-        range.add(lowerEndpoint); // Include lower endpoint
-
-        // Add all points between
-        double pointer = lowerEndpoint;
-        while ((pointer += differenceBetweenPoints) <= upperEndpoint) {
-            range.add(pointer);
+        long pointCount = getPointCount(differenceBetweenPoints);
+        ImmutableSet.Builder<Double> range = ImmutableSet.builder();
+        for (long index = 0; index < pointCount; index++) {
+            range.add(getPoint(index, differenceBetweenPoints));
         }
-
-        range.add(upperEndpoint); // Guarantee that the upper endpoint is included
-        return ImmutableSet.copyOf(range);
+        return range.build();
     }
 
     @Override
@@ -0,0 +1,197 @@
+package net.harieo.schematics.position;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An integer position on the block grid, which can be packed into a single {@code long} so that positions can be
+ * stored in primitive arrays and collections without an object for each position.
+ * <p>
+ * The packed layout matches the one used by Minecraft: 26 bits for x, 26 bits for z and 12 bits for y, so x and z may
+ * be from {@code -33554432} to {@code 33554431} and y from {@code -2048} to {@code 2047}.
+ */
+public final class BlockPos {
+
+    public static final int PACKED_XZ_BITS = 26;
+    public static final int PACKED_Y_BITS = 12;
+    public static final int MIN_PACKED_XZ = -(1 << (PACKED_XZ_BITS - 1));
+    public static final int MAX_PACKED_XZ = (1 << (PACKED_XZ_BITS - 1)) - 1;
+    public static final int MIN_PACKED_Y = -(1 << (PACKED_Y_BITS - 1));
+    public static final int MAX_PACKED_Y = (1 << (PACKED_Y_BITS - 1)) - 1;
+
+    private static final long XZ_MASK = (1L << PACKED_XZ_BITS) - 1;
+    private static final long Y_MASK = (1L << PACKED_Y_BITS) - 1;
+    private static final int X_SHIFT = PACKED_XZ_BITS + PACKED_Y_BITS;
+    private static final int Z_SHIFT = PACKED_Y_BITS;
+
+    public static final BlockPos ZERO = new BlockPos(0, 0, 0);
+
+    private final int x;
+    private final int y;
+    private final int z;
+
+    /**
+     * A position on the block grid.
+     *
+     * @param x position on the x-axis
+     * @param y position on the y-axis
+     * @param z position on the z-axis
+     */
+    public BlockPos(int x, int y, int z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    /**
+     * Gets the position of the block which contains a {@link Coordinate}.
+     *
+     * @param coordinate the coordinate
+     * @return the block position containing the coordinate
+     */
+    public static @NotNull BlockPos of(@NotNull Coordinate coordinate) {
+        return new BlockPos(floor(coordinate.getX()), floor(coordinate.getY()), floor(coordinate.getZ()));
+    }
+
+    /**
+     * Gets the position of a packed block position.
+     *
+     * @param packedPosition the packed position, as created by {@link #pack(int, int, int)}
+     * @return the unpacked block position
+     */
+    public static @NotNull BlockPos fromLong(long packedPosition) {
+        return new BlockPos(unpackX(packedPosition), unpackY(packedPosition), unpackZ(packedPosition));
+    }
+
+    /**
+     * Gets the block which contains a position on a single axis.
+     *
+     * @param coordinate the position on any axis
+     * @return the block position on that axis
+     */
+    public static int floor(double coordinate) {
+        int truncated = (int) coordinate;
+        return coordinate < truncated ? truncated - 1 : truncated;
+    }
+
+    /**
+     * Packs a block position into a single {@code long}.
+     *
+     * @param x position on the x-axis
+     * @param y position on the y-axis
+     * @param z position on the z-axis
+     * @return the packed position
+     * @throws IllegalArgumentException if the position cannot be packed
+     * @see #isPackable(int, int, int)
+     */
+    public static long pack(int x, int y, int z) {
+        if (!isPackable(x, y, z)) {
+            throw new IllegalArgumentException("Block position (" + x + "," + y + "," + z + ") cannot be packed");
+        }
+        return ((x & XZ_MASK) << X_SHIFT) | ((z & XZ_MASK) << Z_SHIFT) | (y & Y_MASK);
+    }
+
+    /**
+     * @param x position on the x-axis
+     * @param y position on the y-axis
+     * @param z position on the z-axis
+     * @return whether the position is within the range which can be packed into a {@code long}
+     */
+    public static boolean isPackable(int x, int y, int z) {
+        return x >= MIN_PACKED_XZ && x <= MAX_PACKED_XZ
+                && z >= MIN_PACKED_XZ && z <= MAX_PACKED_XZ
+                && y >= MIN_PACKED_Y && y <= MAX_PACKED_Y;
+    }
+
+    /**
+     * @param packedPosition a packed position
+     * @return the x-axis position of the packed position
+     */
+    public static int unpackX(long packedPosition) {
+        return (int) (packedPosition >> X_SHIFT); // The arithmetic shift restores the sign
+    }
+
+    /**
+     * @param packedPosition a packed position
+     * @return the y-axis position of the packed position
+     */
+    public static int unpackY(long packedPosition) {
+        return (int) (packedPosition << (Long.SIZE - PACKED_Y_BITS) >> (Long.SIZE - PACKED_Y_BITS));
+    }
+
+    /**
+     * @param packedPosition a packed position
+     * @return the z-axis position of the packed position
+     */
+    public static int unpackZ(long packedPosition) {
+        return (int) (packedPosition << (Long.SIZE - X_SHIFT) >> (Long.SIZE - PACKED_XZ_BITS));
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public int getZ() {
+        return z;
+    }
+
+    /**
+     * @return this position packed into a single {@code long}
+     * @throws IllegalArgumentException if this position cannot be packed
+     */
+    public long asLong() {
+        return pack(x, y, z);
+    }
+
+    /**
+     * Offsets this position.
+     *
+     * @param x the offset on the x-axis
+     * @param y the offset on the y-axis
+     * @param z the offset on the z-axis
+     * @return the offset position
+     */
+    @Contract(pure = true)
+    public @NotNull BlockPos offset(int x, int y, int z) {
+        return new BlockPos(this.x + x, this.y + y, this.z + z);
+    }
+
+    /**
+     * @return this position as a {@link Coordinate} at the lowest corner of the block
+     */
+    @Contract(pure = true)
+    public @NotNull Coordinate toCoordinate() {
+        return new Coordinate(x, y, z);
+    }
+
+    /**
+     * @return this position as a {@link Vector} from the origin
+     */
+    @Contract(pure = true)
+    public @NotNull Vector toVector() {
+        return new Vector(x, y, z);
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        return object instanceof BlockPos other && x == other.x && y == other.y && z == other.z;
+    }
+
+    @Override
+    public int hashCode() {
+        return (31 * (31 * x + y)) + z;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + x + "," + y + "," + z + ")";
+    }
+
+}
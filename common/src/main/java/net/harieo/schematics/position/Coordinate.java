@@ -85,6 +85,30 @@ public class Coordinate {
         return new Vector(x, y, z);
     }
 
+    /**
+     * @return the position of the block which contains this coordinate
+     */
+    @Contract(pure = true)
+    public @NotNull BlockPos toBlockPos() {
+        return BlockPos.of(this);
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        } else if (object == null || getClass() != object.getClass()) {
+            return false; // A vector is not equal to a coordinate, even with the same values
+        }
+        Coordinate other = (Coordinate) object;
+        return Double.compare(x, other.x) == 0 && Double.compare(y, other.y) == 0 && Double.compare(z, other.z) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * Double.hashCode(x) + Double.hashCode(y)) + Double.hashCode(z);
+    }
+
     @Override
     public String toString() {
         return "(" + x + "," + y + "," + z + ")";
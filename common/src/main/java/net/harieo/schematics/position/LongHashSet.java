@@ -0,0 +1,276 @@
+package net.harieo.schematics.position;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * A set of {@code long} values, such as block positions packed by {@link BlockPos#pack(int, int, int)}, which stores
+ * its values in a single primitive array rather than boxing each value.
+ * <p>
+ * Values are stored by open addressing with linear probing, so a lookup is usually a single array read.
+ *
+ * @apiNote This class is not thread-safe.
+ */
+public class LongHashSet {
+
+    // The value which marks a free slot, which is tracked separately when it is added to the set
+    static final long FREE = 0;
+    static final float LOAD_FACTOR = 0.75f;
+    static final int MIN_CAPACITY = 16;
+
+    private long[] values;
+    private boolean containsFree;
+    private int size;
+    private int resizeThreshold;
+
+    /**
+     * An empty set with room for an expected amount of values before it is resized.
+     *
+     * @param expectedSize the expected amount of values
+     * @throws IllegalArgumentException if the expected size is negative
+     */
+    public LongHashSet(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * An empty set.
+     */
+    public LongHashSet() {
+        this(0);
+    }
+
+    /**
+     * Adds a value to this set.
+     *
+     * @param value the value to add
+     * @return true if the value was added, or false if it was already present
+     */
+    public boolean add(long value) {
+        if (value == FREE) {
+            if (containsFree) {
+                return false;
+            }
+            containsFree = true;
+            size++;
+            return true;
+        }
+
+        int mask = values.length - 1;
+        int slot = slotOf(value, mask);
+        long existing;
+        while ((existing = values[slot]) != FREE) {
+            if (existing == value) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        values[slot] = value;
+        if (++size > resizeThreshold) {
+            rehash(values.length << 1);
+        }
+        return true;
+    }
+
+    /**
+     * @param value the value to look for
+     * @return whether the value is in this set
+     */
+    public boolean contains(long value) {
+        if (value == FREE) {
+            return containsFree;
+        }
+
+        int mask = values.length - 1;
+        int slot = slotOf(value, mask);
+        long existing;
+        while ((existing = values[slot]) != FREE) {
+            if (existing == value) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Removes a value from this set.
+     *
+     * @param value the value to remove
+     * @return true if the value was removed, or false if it was not present
+     */
+    public boolean remove(long value) {
+        if (value == FREE) {
+            if (!containsFree) {
+                return false;
+            }
+            containsFree = false;
+            size--;
+            return true;
+        }
+
+        int mask = values.length - 1;
+        int slot = slotOf(value, mask);
+        long existing;
+        while ((existing = values[slot]) != FREE) {
+            if (existing == value) {
+                shiftBack(slot);
+                size--;
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Adds a block position to this set.
+     *
+     * @param x position on the x-axis
+     * @param y position on the y-axis
+     * @param z position on the z-axis
+     * @return true if the position was added, or false if it was already present
+     * @throws IllegalArgumentException if the position cannot be packed
+     */
+    public boolean add(int x, int y, int z) {
+        return add(BlockPos.pack(x, y, z));
+    }
+
+    /**
+     * @param x position on the x-axis
+     * @param y position on the y-axis
+     * @param z position on the z-axis
+     * @return whether the block position is in this set
+     */
+    public boolean contains(int x, int y, int z) {
+        return BlockPos.isPackable(x, y, z) && contains(BlockPos.pack(x, y, z));
+    }
+
+    /**
+     * @return the amount of values in this set
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return whether this set has no values
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes every value from this set, keeping its current capacity.
+     */
+    public void clear() {
+        Arrays.fill(values, FREE);
+        containsFree = false;
+        size = 0;
+    }
+
+    /**
+     * Visits every value in this set, in no particular order.
+     *
+     * @param consumer the consumer to receive each value
+     */
+    public void forEach(@NotNull LongConsumer consumer) {
+        if (containsFree) {
+            consumer.accept(FREE);
+        }
+        for (long value : values) {
+            if (value != FREE) {
+                consumer.accept(value);
+            }
+        }
+    }
+
+    /**
+     * @return a new array of every value in this set, in no particular order
+     */
+    public long @NotNull [] toArray() {
+        long[] array = new long[size];
+        int index = 0;
+        if (containsFree) {
+            array[index++] = FREE;
+        }
+        for (long value : values) {
+            if (value != FREE) {
+                array[index++] = value;
+            }
+        }
+        return array;
+    }
+
+    private void allocate(int capacity) {
+        this.values = new long[capacity];
+        this.resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void rehash(int capacity) {
+        long[] oldValues = values;
+        allocate(capacity);
+        int mask = capacity - 1;
+        for (long value : oldValues) {
+            if (value != FREE) {
+                int slot = slotOf(value, mask);
+                while (values[slot] != FREE) {
+                    slot = (slot + 1) & mask;
+                }
+                values[slot] = value;
+            }
+        }
+    }
+
+    // Moves later values of the same probe sequence back into the freed slot, so no removal markers are needed
+    private void shiftBack(int freedSlot) {
+        int mask = values.length - 1;
+        int slot = freedSlot;
+        while (true) {
+            slot = (slot + 1) & mask;
+            long value = values[slot];
+            if (value == FREE) {
+                values[freedSlot] = FREE;
+                return;
+            }
+
+            int idealSlot = slotOf(value, mask);
+            if (((slot - idealSlot) & mask) >= ((slot - freedSlot) & mask)) {
+                values[freedSlot] = value;
+                freedSlot = slot;
+            }
+        }
+    }
+
+    /**
+     * Spreads the bits of a value so that nearby block positions do not probe the same slots.
+     *
+     * @param value the value
+     * @param mask  one less than the capacity, which is a power of two
+     * @return the first slot to probe for the value
+     */
+    static int slotOf(long value, int mask) {
+        long hash = value * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * @param expectedSize the expected amount of values
+     * @return the power of two capacity which holds the values without being resized
+     * @throws IllegalArgumentException if the expected size is negative
+     */
+    static int capacityFor(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size cannot be negative");
+        }
+        long capacity = Math.max(MIN_CAPACITY, (long) Math.ceil(expectedSize / (double) LOAD_FACTOR) + 1);
+        if (capacity > 1 << 30) {
+            throw new IllegalArgumentException("Expected size is too large: " + expectedSize);
+        }
+        return Integer.highestOneBit((int) capacity - 1) << 1;
+    }
+
+}
@@ -0,0 +1,278 @@
+package net.harieo.schematics.position;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.function.LongFunction;
+
+/**
+ * A map from {@code long} keys, such as block positions packed by {@link BlockPos#pack(int, int, int)}, to values,
+ * which stores its keys in a primitive array rather than boxing each key.
+ * <p>
+ * Keys are stored by open addressing with linear probing in the same way as a {@link LongHashSet}, with each value at
+ * the same slot of a parallel array.
+ *
+ * @param <V> the type of value
+ * @apiNote This class is not thread-safe. Null values are not permitted, so a null result always means the key is not
+ * present.
+ */
+public class LongObjectMap<V> {
+
+    private long[] keys;
+    private V[] values;
+    private @Nullable V freeKeyValue; // The value of the key which marks a free slot, if that key is present
+    private int size;
+    private int resizeThreshold;
+
+    /**
+     * An empty map with room for an expected amount of entries before it is resized.
+     *
+     * @param expectedSize the expected amount of entries
+     * @throws IllegalArgumentException if the expected size is negative
+     */
+    public LongObjectMap(int expectedSize) {
+        allocate(LongHashSet.capacityFor(expectedSize));
+    }
+
+    /**
+     * An empty map.
+     */
+    public LongObjectMap() {
+        this(0);
+    }
+
+    /**
+     * Gets the value of a key.
+     *
+     * @param key the key
+     * @return the value of the key, or null if the key is not present
+     */
+    public @Nullable V get(long key) {
+        if (key == LongHashSet.FREE) {
+            return freeKeyValue;
+        }
+
+        int slot = findSlot(key);
+        return slot >= 0 ? values[slot] : null;
+    }
+
+    /**
+     * @param key the key
+     * @return whether the key is in this map
+     */
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Sets the value of a key.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return the previous value of the key, or null if the key was not present
+     */
+    public @Nullable V put(long key, @NotNull V value) {
+        if (key == LongHashSet.FREE) {
+            V previousValue = freeKeyValue;
+            freeKeyValue = value;
+            if (previousValue == null) {
+                size++;
+            }
+            return previousValue;
+        }
+
+        int mask = keys.length - 1;
+        int slot = LongHashSet.slotOf(key, mask);
+        long existing;
+        while ((existing = keys[slot]) != LongHashSet.FREE) {
+            if (existing == key) {
+                V previousValue = values[slot];
+                values[slot] = value;
+                return previousValue;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > resizeThreshold) {
+            rehash(keys.length << 1);
+        }
+        return null;
+    }
+
+    /**
+     * Gets the value of a key, creating and storing it first if the key is not present.
+     *
+     * @param key             the key
+     * @param mappingFunction the function to create the value if the key is not present
+     * @return the existing or created value
+     */
+    public @NotNull V computeIfAbsent(long key, @NotNull LongFunction<? extends V> mappingFunction) {
+        V value = get(key);
+        if (value == null) {
+            value = mappingFunction.apply(key);
+            put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Removes a key from this map.
+     *
+     * @param key the key
+     * @return the value of the removed key, or null if the key was not present
+     */
+    public @Nullable V remove(long key) {
+        if (key == LongHashSet.FREE) {
+            V previousValue = freeKeyValue;
+            if (previousValue != null) {
+                freeKeyValue = null;
+                size--;
+            }
+            return previousValue;
+        }
+
+        int slot = findSlot(key);
+        if (slot < 0) {
+            return null;
+        }
+
+        V previousValue = values[slot];
+        shiftBack(slot);
+        size--;
+        return previousValue;
+    }
+
+    /**
+     * Gets the value of a block position.
+     *
+     * @param x position on the x-axis
+     * @param y position on the y-axis
+     * @param z position on the z-axis
+     * @return the value of the position, or null if the position is not present
+     */
+    public @Nullable V get(int x, int y, int z) {
+        return BlockPos.isPackable(x, y, z) ? get(BlockPos.pack(x, y, z)) : null;
+    }
+
+    /**
+     * @return the amount of entries in this map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return whether this map has no entries
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes every entry from this map, keeping its current capacity.
+     */
+    public void clear() {
+        Arrays.fill(keys, LongHashSet.FREE);
+        Arrays.fill(values, null);
+        freeKeyValue = null;
+        size = 0;
+    }
+
+    /**
+     * Visits every entry in this map, in no particular order.
+     *
+     * @param visitor the visitor to receive each entry
+     */
+    public void forEach(@NotNull EntryVisitor<? super V> visitor) {
+        if (freeKeyValue != null) {
+            visitor.visit(LongHashSet.FREE, freeKeyValue);
+        }
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != LongHashSet.FREE) {
+                visitor.visit(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    private int findSlot(long key) {
+        int mask = keys.length - 1;
+        int slot = LongHashSet.slotOf(key, mask);
+        long existing;
+        while ((existing = keys[slot]) != LongHashSet.FREE) {
+            if (existing == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void allocate(int capacity) {
+        this.keys = new long[capacity];
+        this.values = (V[]) new Object[capacity];
+        this.resizeThreshold = (int) (capacity * LongHashSet.LOAD_FACTOR);
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        V[] oldValues = values;
+        allocate(capacity);
+        int mask = capacity - 1;
+        for (int oldSlot = 0; oldSlot < oldKeys.length; oldSlot++) {
+            long key = oldKeys[oldSlot];
+            if (key != LongHashSet.FREE) {
+                int slot = LongHashSet.slotOf(key, mask);
+                while (keys[slot] != LongHashSet.FREE) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = oldValues[oldSlot];
+            }
+        }
+    }
+
+    // Moves later entries of the same probe sequence back into the freed slot, so no removal markers are needed
+    private void shiftBack(int freedSlot) {
+        int mask = keys.length - 1;
+        int slot = freedSlot;
+        while (true) {
+            slot = (slot + 1) & mask;
+            long key = keys[slot];
+            if (key == LongHashSet.FREE) {
+                keys[freedSlot] = LongHashSet.FREE;
+                values[freedSlot] = null;
+                return;
+            }
+
+            int idealSlot = LongHashSet.slotOf(key, mask);
+            if (((slot - idealSlot) & mask) >= ((slot - freedSlot) & mask)) {
+                keys[freedSlot] = key;
+                values[freedSlot] = values[slot];
+                freedSlot = slot;
+            }
+        }
+    }
+
+    /**
+     * A visitor for each entry of a {@link LongObjectMap}.
+     *
+     * @param <V> the type of value
+     */
+    @FunctionalInterface
+    public interface EntryVisitor<V> {
+
+        /**
+         * Visits an entry.
+         *
+         * @param key   the key of the entry
+         * @param value the value of the entry
+         */
+        void visit(long key, @NotNull V value);
+
+    }
+
+}
@@ -1,11 +1,13 @@
 package net.harieo.schematics.schematic;
 
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Sets;
 import net.harieo.schematics.modification.Modification;
 import net.harieo.schematics.modification.RelativeModification;
+import net.harieo.schematics.position.BlockPos;
 import net.harieo.schematics.position.Coordinate;
 import net.harieo.schematics.position.Vector;
+import net.harieo.schematics.schematic.volume.ModificationPalette;
+import net.harieo.schematics.schematic.volume.SchematicVolume;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Unmodifiable;
@@ -14,12 +16,15 @@ import java.util.*;
 
 /**
  * A set of {@link RelativeModification}s which can be sequentially applied based on an initial {@link Coordinate} to create this schematic.
+ * <p>
+ * Modifications are stored compactly in a {@link SchematicVolume}, which keeps each distinct modification once in a
+ * palette and each block-aligned position as a bit-packed palette index.
  */
 public class Schematic {
 
     private final String id;
     private final Coordinate initialPosition;
-    private final List<RelativeModification<? extends Modification>> modifications = new ArrayList<>();
+    private final SchematicVolume volume;
 
     /**
      * A schematic with an optional identifier and a non-optional initial {@link Coordinate} which modifications are
@@ -34,9 +39,7 @@ public class Schematic {
                      Set<RelativeModification<? extends Modification>> initialModifications) {
         this.id = id;
         this.initialPosition = initialPosition;
-        if (!initialModifications.isEmpty()) {
-            modifications.addAll(initialModifications);
-        }
+        this.volume = new SchematicVolume(initialModifications);
     }
 
     /**
@@ -55,6 +58,30 @@ public class Schematic {
         this(id, initialPosition, Sets.newHashSet(initialModifications));
     }
 
+    /**
+     * A schematic with an optional identifier and a non-optional initial {@link Coordinate} which takes ownership of an
+     * already populated {@link SchematicVolume}, so that deserializers can build the volume before the schematic exists.
+     *
+     * @param id an optional, unique alphanumeric identifier for this schematic
+     * @param initialPosition the initial {@link Coordinate}
+     * @param volume the volume of modifications, which should not be modified elsewhere afterwards
+     */
+    public Schematic(@Nullable String id, @NotNull Coordinate initialPosition, @NotNull SchematicVolume volume) {
+        this.id = id;
+        this.initialPosition = initialPosition;
+        this.volume = volume;
+    }
+
+    /**
+     * Clones an existing schematic into this object, so that the clone can be read while the original is changed. The
+     * modifications themselves are shared, not cloned.
+     *
+     * @param schematic the schematic to clone values from
+     */
+    public Schematic(@NotNull Schematic schematic) {
+        this(schematic.id, schematic.initialPosition, new SchematicVolume(schematic.volume));
+    }
+
     /**
      * An optional identifier for this schematic. This is typically used for saving to storage.
      *
@@ -74,21 +101,83 @@ public class Schematic {
     }
 
     /**
-     * The list of {@link Modification} in the order that they should be applied.
+     * Copies the modifications of this schematic into a new list of {@link RelativeModification}s.
+     * <p>
+     * The list is in grid order, by y then z then x, followed by any modifications which are not block-aligned in the
+     * order they were added. It is not the order in which the modifications were added, nor the order in which
+     * {@link #apply()} applies them. An identical modification added at a position which already holds it is only
+     * stored once, so it is only listed once.
      *
-     * @return the list of modifications to create this schematic
+     * @return a new list of the modifications to create this schematic
+     * @apiNote This creates one {@link RelativeModification} for each modification on every call, so it costs as much
+     * memory as the schematic did before it was stored compactly. {@link #getModificationCount()},
+     * {@link #hasModificationAt(int, int, int)}, {@link SchematicCursor} or {@link #getVolume()} should be preferred
+     * wherever the whole list is not required at once.
      */
     public @NotNull @Unmodifiable List<RelativeModification<? extends Modification>> getModifications() {
-        return ImmutableList.copyOf(modifications);
+        return volume.toRelativeModifications();
+    }
+
+    /**
+     * @return the amount of modifications in this schematic
+     */
+    public int getModificationCount() {
+        return volume.size();
+    }
+
+    /**
+     * Checks whether any modification of this schematic is inside a block.
+     *
+     * @param x the x-axis offset of the block from the initial position of this schematic
+     * @param y the y-axis offset of the block from the initial position of this schematic
+     * @param z the z-axis offset of the block from the initial position of this schematic
+     * @return whether a modification is inside the block
+     * @see SchematicVolume#hasModificationAt(int, int, int)
+     */
+    public boolean hasModificationAt(int x, int y, int z) {
+        return volume.hasModificationAt(x, y, z);
+    }
+
+    /**
+     * Checks whether any modification of this schematic is inside a block, once this schematic is placed at its
+     * initial position.
+     *
+     * @param block the block position
+     * @return whether a modification is inside the block
+     * @apiNote Positions are compared block by block, relative to the block of the initial position.
+     */
+    public boolean hasModificationAt(@NotNull BlockPos block) {
+        BlockPos initialBlock = BlockPos.of(initialPosition);
+        return volume.hasModificationAt(block.getX() - initialBlock.getX(), block.getY() - initialBlock.getY(),
+                block.getZ() - initialBlock.getZ());
+    }
+
+    /**
+     * @return a counter which changes whenever a modification is added to or removed from this schematic
+     * @see SchematicVolume#getRevision()
+     */
+    public long getRevision() {
+        return volume.getRevision();
+    }
+
+    /**
+     * The compact store backing the modifications of this schematic.
+     *
+     * @return the volume of modifications
+     */
+    public @NotNull SchematicVolume getVolume() {
+        return volume;
     }
 
     /**
      * Adds a {@link RelativeModification} to the list of modifications.
      *
      * @param relativeModification the relative modification
+     * @apiNote Adding a modification which is equal to one already at the same position does nothing, as the schematic
+     * stores each position once, as a set would.
      */
     public void addModification(@NotNull RelativeModification<? extends Modification> relativeModification) {
-        modifications.add(relativeModification);
+        volume.add(relativeModification);
     }
 
     /**
@@ -100,7 +189,7 @@ public class Schematic {
      * @param vector the vector which gives the correct coordinate relative to the schematic's initial coordinate
      */
     public void addModification(@NotNull Modification modification, @NotNull Vector vector) {
-        modifications.add(new RelativeModification<>(modification, vector));
+        volume.add(modification, vector, null);
     }
 
     /**
@@ -111,27 +200,42 @@ public class Schematic {
      * @param modification the modification to be made
      */
     public void addAbsoluteModification(@NotNull Modification modification) {
-        modifications.add(new RelativeModification<>(modification, new Vector(0, 0, 0)));
+        volume.add(modification, 0, 0, 0, null);
     }
 
     /**
      * Removes a {@link RelativeModification} from the list of modifications.
      *
      * @param modification the object to remove from the list
+     * @apiNote The modification is matched by its actual {@link Modification} and {@link Vector}, rather than by
+     * identity, because the stored modifications are not kept as {@link RelativeModification} objects.
      */
     public void removeModification(@NotNull RelativeModification<? extends Modification> modification) {
-        modifications.remove(modification);
+        volume.remove(modification.getActualModification(), modification.getVector());
     }
 
     /**
      * Calls {@link Modification#apply(Coordinate)} on the list of modifications using the initial position of this schematic.
      *
      * @implNote {@link Modification#isAvailable(Coordinate)} is checked and the modification is only applied if the check
-     * returns {@code true}
+     * returns {@code true}. Modifications are applied one chunk at a time in ascending y order, as described by
+     * {@link SchematicVolume#forEachCellByChunk(int, int, int, SchematicVolume.CellVisitor)}, so that each chunk is
+     * only visited once.
      */
     public void apply() {
         Coordinate coordinate = getInitialPosition();
-        getModifications().forEach(modification -> {
+        ModificationPalette palette = volume.getPalette();
+        BlockPos initialBlock = BlockPos.of(coordinate);
+        volume.forEachCellByChunk(initialBlock.getX(), initialBlock.getY(), initialBlock.getZ(),
+                (x, y, z, paletteIndex) -> {
+                    Modification modification = palette.get(paletteIndex);
+                    Coordinate relativeCoordinate = new Coordinate(coordinate.getX() + x, coordinate.getY() + y,
+                            coordinate.getZ() + z);
+                    if (modification.isAvailable(relativeCoordinate)) {
+                        modification.apply(relativeCoordinate);
+                    }
+                });
+        volume.getUngriddedModificationsByChunk(coordinate).forEach(modification -> {
             if (modification.isAvailable(coordinate)) {
                 modification.apply(coordinate);
             }
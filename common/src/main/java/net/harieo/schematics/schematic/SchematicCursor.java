@@ -0,0 +1,207 @@
+package net.harieo.schematics.schematic;
+
+import net.harieo.schematics.modification.Modification;
+import net.harieo.schematics.modification.RelativeModification;
+import net.harieo.schematics.position.BlockPos;
+import net.harieo.schematics.position.Coordinate;
+import net.harieo.schematics.schematic.volume.ModificationPalette;
+import net.harieo.schematics.schematic.volume.SchematicVolume;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Walks the modifications of a {@link Schematic} one at a time, so that a schematic can be applied over many calls
+ * rather than all at once as {@link Schematic#apply()} does.
+ * <p>
+ * Modifications are visited in the same order as {@link Schematic#apply()}: the grid of the {@link SchematicVolume} one
+ * chunk at a time, followed by the modifications outside the grid.
+ *
+ * @apiNote The schematic must not be changed while it is being walked, so a copy should be walked if the schematic may
+ * change in the meantime.
+ */
+public class SchematicCursor {
+
+    private final Coordinate initialPosition;
+    private final SchematicVolume volume;
+    private final ModificationPalette palette;
+    private final List<RelativeModification<? extends Modification>> ungriddedModifications;
+    private final int total;
+
+    // The block position of the lowest corner of the grid, which decides the chunk each grid position is in
+    private final int worldMinX;
+    private final int worldMinZ;
+    private final int minChunkX;
+    private final int maxChunkX;
+    private final int maxChunkZ;
+
+    // The current chunk, and the part of the grid within it as grid offsets, from inclusive to exclusive
+    private int chunkX;
+    private int chunkZ;
+    private int fromX;
+    private int toX;
+    private int fromZ;
+    private int toZ;
+
+    // The next grid position to check, as offsets from the grid origin
+    private int gridX;
+    private int gridY = 0;
+    private int gridZ;
+    private boolean gridFinished;
+    private int ungriddedIndex = 0;
+    private int visited = 0;
+
+    // The grid offsets of the last visited modification, if it was in the grid
+    private boolean lastGridded = false;
+    private int lastX;
+    private int lastY;
+    private int lastZ;
+
+    /**
+     * A cursor positioned before the first modification of a schematic.
+     *
+     * @param schematic the schematic to walk
+     */
+    public SchematicCursor(@NotNull Schematic schematic) {
+        this.initialPosition = schematic.getInitialPosition();
+        this.volume = schematic.getVolume();
+        this.palette = volume.getPalette();
+        this.ungriddedModifications = volume.getUngriddedModificationsByChunk(initialPosition);
+        this.total = volume.size();
+        this.gridFinished = volume.getGriddedCount() == 0;
+
+        this.worldMinX = BlockPos.floor(initialPosition.getX()) + volume.getGridOriginX();
+        this.worldMinZ = BlockPos.floor(initialPosition.getZ()) + volume.getGridOriginZ();
+        this.minChunkX = Math.floorDiv(worldMinX, SchematicVolume.CHUNK_SIZE);
+        this.maxChunkX = Math.floorDiv(worldMinX + volume.getGridSizeX() - 1, SchematicVolume.CHUNK_SIZE);
+        this.maxChunkZ = Math.floorDiv(worldMinZ + volume.getGridSizeZ() - 1, SchematicVolume.CHUNK_SIZE);
+        this.chunkX = minChunkX;
+        this.chunkZ = Math.floorDiv(worldMinZ, SchematicVolume.CHUNK_SIZE);
+        enterChunk();
+    }
+
+    /**
+     * Visits the next modification, if there is one.
+     *
+     * @param visitor the visitor to receive the modification and the coordinate it should be applied at
+     * @return true if a modification was visited, or false if every modification has already been visited
+     */
+    public boolean next(@NotNull ModificationVisitor visitor) {
+        while (!gridFinished) {
+            int x = volume.getGridOriginX() + gridX;
+            int y = volume.getGridOriginY() + gridY;
+            int z = volume.getGridOriginZ() + gridZ;
+            advanceGrid();
+
+            int paletteIndex = volume.getPaletteIndex(x, y, z);
+            if (paletteIndex != ModificationPalette.EMPTY) {
+                visited++;
+                lastGridded = true;
+                lastX = x;
+                lastY = y;
+                lastZ = z;
+                visitor.visit(palette.get(paletteIndex), new Coordinate(initialPosition.getX() + x,
+                        initialPosition.getY() + y, initialPosition.getZ() + z));
+                return true;
+            }
+        }
+
+        if (ungriddedIndex < ungriddedModifications.size()) {
+            RelativeModification<? extends Modification> modification = ungriddedModifications.get(ungriddedIndex++);
+            visited++;
+            lastGridded = false;
+            visitor.visit(modification.getActualModification(), modification.getRelativeCoordinate(initialPosition));
+            return true;
+        }
+        return false;
+    }
+
+    // Matches the order of SchematicVolume#forEachCellByChunk
+    private void advanceGrid() {
+        if (++gridX < toX) {
+            return;
+        }
+        gridX = fromX;
+        if (++gridZ < toZ) {
+            return;
+        }
+        gridZ = fromZ;
+        if (++gridY < volume.getGridSizeY()) {
+            return;
+        }
+        gridY = 0;
+
+        if (++chunkX > maxChunkX) {
+            chunkX = minChunkX;
+            if (++chunkZ > maxChunkZ) {
+                gridFinished = true;
+                return;
+            }
+        }
+        enterChunk();
+    }
+
+    private void enterChunk() {
+        fromX = Math.max(0, chunkX * SchematicVolume.CHUNK_SIZE - worldMinX);
+        toX = Math.min(volume.getGridSizeX(), (chunkX + 1) * SchematicVolume.CHUNK_SIZE - worldMinX);
+        fromZ = Math.max(0, chunkZ * SchematicVolume.CHUNK_SIZE - worldMinZ);
+        toZ = Math.min(volume.getGridSizeZ(), (chunkZ + 1) * SchematicVolume.CHUNK_SIZE - worldMinZ);
+        gridX = fromX;
+        gridZ = fromZ;
+    }
+
+    /**
+     * Whether the last visited modification is enclosed by the schematic, so that it has a modification of the grid on
+     * each of its six sides and cannot be next to anything outside the schematic.
+     *
+     * @return true if the last visited modification is enclosed, or false if it is on the surface of the schematic,
+     * outside the grid or nothing has been visited
+     */
+    public boolean isLastEnclosed() {
+        return lastGridded
+                && volume.getPaletteIndex(lastX - 1, lastY, lastZ) != ModificationPalette.EMPTY
+                && volume.getPaletteIndex(lastX + 1, lastY, lastZ) != ModificationPalette.EMPTY
+                && volume.getPaletteIndex(lastX, lastY - 1, lastZ) != ModificationPalette.EMPTY
+                && volume.getPaletteIndex(lastX, lastY + 1, lastZ) != ModificationPalette.EMPTY
+                && volume.getPaletteIndex(lastX, lastY, lastZ - 1) != ModificationPalette.EMPTY
+                && volume.getPaletteIndex(lastX, lastY, lastZ + 1) != ModificationPalette.EMPTY;
+    }
+
+    /**
+     * @return whether there are no more modifications to visit
+     */
+    public boolean isFinished() {
+        return visited >= total;
+    }
+
+    /**
+     * @return the amount of modifications visited so far
+     */
+    public int getVisitedCount() {
+        return visited;
+    }
+
+    /**
+     * @return the total amount of modifications in the schematic
+     */
+    public int getTotalCount() {
+        return total;
+    }
+
+    /**
+     * A visitor for each modification walked by a {@link SchematicCursor}.
+     */
+    @FunctionalInterface
+    public interface ModificationVisitor {
+
+        /**
+         * Visits a modification.
+         *
+         * @param modification the modification to be applied
+         * @param coordinate   the absolute coordinate the modification should be applied at
+         */
+        void visit(@NotNull Modification modification, @NotNull Coordinate coordinate);
+
+    }
+
+}
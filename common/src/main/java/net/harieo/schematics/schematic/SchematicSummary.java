@@ -0,0 +1,157 @@
+package net.harieo.schematics.schematic;
+
+import com.google.common.collect.ImmutableSortedMap;
+import net.harieo.schematics.modification.Modification;
+import net.harieo.schematics.modification.RelativeModification;
+import net.harieo.schematics.position.Coordinate;
+import net.harieo.schematics.position.Vector;
+import net.harieo.schematics.schematic.volume.ModificationPalette;
+import net.harieo.schematics.schematic.volume.SchematicVolume;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * A lightweight description of a {@link Schematic}, which can be kept and displayed without holding the modifications of
+ * the schematic in memory.
+ */
+public class SchematicSummary {
+
+    private final String id;
+    private final Coordinate initialPosition;
+    private final int modificationCount;
+    private final Map<String, Integer> typeCounts;
+    private final Vector minimum;
+    private final Vector maximum;
+
+    /**
+     * A summary of a schematic.
+     *
+     * @param id                an optional identifier of the schematic
+     * @param initialPosition   the initial position of the schematic
+     * @param modificationCount the total amount of modifications in the schematic
+     * @param typeCounts        the amount of modifications of each {@link Modification#getType()}
+     * @param minimum           the lowest corner of the bounding box relative to the initial position, or null if the
+     *                          schematic has no modifications
+     * @param maximum           the highest corner of the bounding box relative to the initial position, or null if the
+     *                          schematic has no modifications
+     * @throws IllegalArgumentException if only one corner of the bounding box is provided
+     */
+    public SchematicSummary(@Nullable String id,
+                            @NotNull Coordinate initialPosition,
+                            int modificationCount,
+                            @NotNull Map<String, Integer> typeCounts,
+                            @Nullable Vector minimum,
+                            @Nullable Vector maximum) {
+        if ((minimum == null) != (maximum == null)) {
+            throw new IllegalArgumentException("A bounding box requires both corners");
+        }
+        this.id = id;
+        this.initialPosition = initialPosition;
+        this.modificationCount = modificationCount;
+        this.typeCounts = ImmutableSortedMap.copyOf(typeCounts);
+        this.minimum = minimum;
+        this.maximum = maximum;
+    }
+
+    /**
+     * Creates a summary of the current modifications of a {@link Schematic}.
+     *
+     * @param schematic the schematic to summarize
+     * @return the summary of the schematic
+     * @implNote Modifications in the grid of the {@link SchematicVolume} are counted per palette entry, so no
+     * {@link RelativeModification} is created for them.
+     */
+    public static @NotNull SchematicSummary of(@NotNull Schematic schematic) {
+        SchematicVolume volume = schematic.getVolume();
+        ModificationPalette palette = volume.getPalette();
+        int[] paletteCounts = new int[palette.size()];
+        // Bounds are stored as min x, y, z, then max x, y, z
+        double[] bounds = {Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE,
+                -Double.MAX_VALUE, -Double.MAX_VALUE, -Double.MAX_VALUE};
+
+        volume.forEachCell((x, y, z, paletteIndex) -> {
+            paletteCounts[paletteIndex]++;
+            expand(bounds, x, y, z);
+        });
+
+        Map<String, Integer> typeCounts = new TreeMap<>();
+        for (int paletteIndex = 0; paletteIndex < paletteCounts.length; paletteIndex++) {
+            if (paletteCounts[paletteIndex] > 0) {
+                typeCounts.merge(palette.get(paletteIndex).getType(), paletteCounts[paletteIndex], Integer::sum);
+            }
+        }
+        for (RelativeModification<? extends Modification> modification : volume.getUngriddedModifications()) {
+            typeCounts.merge(modification.getActualModification().getType(), 1, Integer::sum);
+            Vector vector = modification.getVector();
+            expand(bounds, vector.getX(), vector.getY(), vector.getZ());
+        }
+
+        String id = schematic.getId().orElse(null);
+        // Only the position is kept, as the initial position may be a subclass holding more than the summary needs
+        Coordinate initialPosition = new Coordinate(schematic.getInitialPosition());
+        if (volume.isEmpty()) {
+            return new SchematicSummary(id, initialPosition, 0, typeCounts, null, null);
+        }
+        return new SchematicSummary(id, initialPosition, volume.size(), typeCounts,
+                new Vector(bounds[0], bounds[1], bounds[2]), new Vector(bounds[3], bounds[4], bounds[5]));
+    }
+
+    private static void expand(double[] bounds, double x, double y, double z) {
+        bounds[0] = Math.min(bounds[0], x);
+        bounds[1] = Math.min(bounds[1], y);
+        bounds[2] = Math.min(bounds[2], z);
+        bounds[3] = Math.max(bounds[3], x);
+        bounds[4] = Math.max(bounds[4], y);
+        bounds[5] = Math.max(bounds[5], z);
+    }
+
+    /**
+     * @return optionally the identifier of the schematic
+     */
+    public Optional<String> getId() {
+        return Optional.ofNullable(id);
+    }
+
+    /**
+     * @return the initial position of the schematic, which the bounding box is relative to
+     */
+    public @NotNull Coordinate getInitialPosition() {
+        return initialPosition;
+    }
+
+    /**
+     * @return the total amount of modifications in the schematic
+     */
+    public int getModificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * @return the amount of modifications of each type, sorted by type
+     */
+    public @Unmodifiable Map<String, Integer> getTypeCounts() {
+        return typeCounts;
+    }
+
+    /**
+     * @return optionally the lowest corner of the bounding box relative to the initial position, which is empty if the
+     * schematic has no modifications
+     */
+    public Optional<Vector> getMinimum() {
+        return Optional.ofNullable(minimum);
+    }
+
+    /**
+     * @return optionally the highest corner of the bounding box relative to the initial position, which is empty if the
+     * schematic has no modifications
+     */
+    public Optional<Vector> getMaximum() {
+        return Optional.ofNullable(maximum);
+    }
+
+}
@@ -0,0 +1,109 @@
+package net.harieo.schematics.schematic.volume;
+
+import com.google.gson.JsonObject;
+import net.harieo.schematics.modification.Modification;
+import net.harieo.schematics.serialization.Blueprint;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A palette of the distinct {@link Modification}s used by a {@link SchematicVolume}, so that each position in the volume
+ * only needs to store a small index into this palette.
+ *
+ * @apiNote Index {@link #EMPTY} is reserved to mark a position without a modification. Modifications are considered
+ * distinct by {@link Object#equals(Object)}, so implementations which do not override it will each take their own
+ * palette entry. Entries are never removed, as that would change the index of later entries, so an entry remains after
+ * the last modification using it is removed and serializers should only write the entries still in use.
+ */
+public class ModificationPalette {
+
+    public static final int EMPTY = 0;
+
+    private final List<Modification> modifications = new ArrayList<>();
+    private final List<Blueprint<? extends Modification, JsonObject>> jsonBlueprints = new ArrayList<>();
+    private final Map<Modification, Integer> indexes = new HashMap<>();
+
+    /**
+     * Creates a palette which only contains the reserved {@link #EMPTY} entry.
+     */
+    public ModificationPalette() {
+        modifications.add(null);
+        jsonBlueprints.add(null);
+    }
+
+    /**
+     * Clones an existing palette into this object.
+     *
+     * @param palette the palette to clone entries from
+     */
+    public ModificationPalette(@NotNull ModificationPalette palette) {
+        this.modifications.addAll(palette.modifications);
+        this.jsonBlueprints.addAll(palette.jsonBlueprints);
+        this.indexes.putAll(palette.indexes);
+    }
+
+    /**
+     * Finds the index of a {@link Modification}, adding it to the palette if it is not yet present.
+     *
+     * @param modification  the modification to find or add
+     * @param jsonBlueprint the blueprint used to serialize the modification, if one is known
+     * @return the palette index of the modification
+     */
+    public int getOrAdd(@NotNull Modification modification,
+                        @Nullable Blueprint<? extends Modification, JsonObject> jsonBlueprint) {
+        Integer index = indexes.get(modification);
+        if (index != null) {
+            if (jsonBlueprint != null && jsonBlueprints.get(index) == null) {
+                jsonBlueprints.set(index, jsonBlueprint);
+            }
+            return index;
+        }
+
+        int newIndex = modifications.size();
+        modifications.add(modification);
+        jsonBlueprints.add(jsonBlueprint);
+        indexes.put(modification, newIndex);
+        return newIndex;
+    }
+
+    /**
+     * Finds the index of a {@link Modification} without adding it.
+     *
+     * @param modification the modification to find
+     * @return the palette index, or {@link #EMPTY} if the modification is not in this palette
+     */
+    public int indexOf(@NotNull Modification modification) {
+        return indexes.getOrDefault(modification, EMPTY);
+    }
+
+    /**
+     * @param index the palette index
+     * @return the modification at the palette index, or null if the index is {@link #EMPTY}
+     * @throws IndexOutOfBoundsException if the index is not in this palette
+     */
+    public @Nullable Modification get(int index) {
+        return modifications.get(index);
+    }
+
+    /**
+     * @param index the palette index
+     * @return the JSON blueprint for the modification at the palette index, if one is known
+     * @throws IndexOutOfBoundsException if the index is not in this palette
+     */
+    public @Nullable Blueprint<? extends Modification, JsonObject> getJsonBlueprint(int index) {
+        return jsonBlueprints.get(index);
+    }
+
+    /**
+     * @return the amount of entries in this palette, including the reserved {@link #EMPTY} entry
+     */
+    public int size() {
+        return modifications.size();
+    }
+
+}
@@ -0,0 +1,166 @@
+package net.harieo.schematics.schematic.volume;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A fixed-length array of unsigned integers which are bit-packed into a {@code long[]}, using only as many bits per
+ * entry as the largest stored value requires.
+ *
+ * @apiNote Entries never span two longs, so a few bits per long may be unused in exchange for a branch-free lookup.
+ * The number of bits per entry grows automatically when a larger value is stored, but never shrinks.
+ */
+public class PackedIntArray {
+
+    private static final int MAX_BITS_PER_ENTRY = 32;
+
+    private final int length;
+
+    private int bitsPerEntry;
+    private int entriesPerLong;
+    private long entryMask;
+    private long[] data;
+
+    /**
+     * Creates an array where every entry is initially 0.
+     *
+     * @param length       the amount of entries in this array
+     * @param bitsPerEntry the initial amount of bits used to store each entry, between 1 and 32
+     * @throws IllegalArgumentException if the length is negative or the bits per entry are out of range
+     */
+    public PackedIntArray(int length, int bitsPerEntry) {
+        if (length < 0) {
+            throw new IllegalArgumentException("Length cannot be negative: " + length);
+        } else if (bitsPerEntry < 1 || bitsPerEntry > MAX_BITS_PER_ENTRY) {
+            throw new IllegalArgumentException("Bits per entry must be between 1 and " + MAX_BITS_PER_ENTRY);
+        }
+
+        this.length = length;
+        setBitsPerEntry(bitsPerEntry);
+        this.data = new long[requiredLongs(length, entriesPerLong)];
+    }
+
+    /**
+     * Clones an existing array into this object.
+     *
+     * @param packedIntArray the array to clone values from
+     */
+    public PackedIntArray(@NotNull PackedIntArray packedIntArray) {
+        this.length = packedIntArray.length;
+        setBitsPerEntry(packedIntArray.bitsPerEntry);
+        this.data = packedIntArray.data.clone();
+    }
+
+    /**
+     * @return the amount of entries in this array
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * @return the amount of bits currently used to store each entry
+     */
+    public int getBitsPerEntry() {
+        return bitsPerEntry;
+    }
+
+    /**
+     * @return the amount of memory, in bytes, used by the packed data
+     */
+    public long getDataSize() {
+        return (long) data.length * Long.BYTES;
+    }
+
+    /**
+     * Gets the value of an entry.
+     *
+     * @param index the index of the entry
+     * @return the unsigned value of the entry
+     * @throws IndexOutOfBoundsException if the index is outside of this array
+     */
+    public int get(int index) {
+        checkIndex(index);
+        int longIndex = index / entriesPerLong;
+        int bitOffset = (index - longIndex * entriesPerLong) * bitsPerEntry;
+        return (int) ((data[longIndex] >>> bitOffset) & entryMask);
+    }
+
+    /**
+     * Sets the value of an entry, growing the amount of bits per entry if the value does not fit.
+     *
+     * @param index the index of the entry
+     * @param value the unsigned value to store
+     * @throws IndexOutOfBoundsException if the index is outside of this array
+     * @throws IllegalArgumentException  if the value is negative
+     */
+    public void set(int index, int value) {
+        checkIndex(index);
+        if (value < 0) {
+            throw new IllegalArgumentException("Packed values must be unsigned: " + value);
+        }
+
+        ensureBitsFor(value);
+        int longIndex = index / entriesPerLong;
+        int bitOffset = (index - longIndex * entriesPerLong) * bitsPerEntry;
+        data[longIndex] = (data[longIndex] & ~(entryMask << bitOffset)) | ((long) value << bitOffset);
+    }
+
+    /**
+     * Re-packs this array, if necessary, so that the provided value can be stored.
+     *
+     * @param value the largest value which must be storable
+     */
+    public void ensureBitsFor(int value) {
+        int requiredBits = bitsRequired(value);
+        if (requiredBits <= bitsPerEntry) {
+            return;
+        }
+
+        long[] oldData = data;
+        int oldBitsPerEntry = bitsPerEntry;
+        int oldEntriesPerLong = entriesPerLong;
+        long oldEntryMask = entryMask;
+
+        setBitsPerEntry(requiredBits);
+        this.data = new long[requiredLongs(length, entriesPerLong)];
+        for (int index = 0; index < length; index++) {
+            int oldLongIndex = index / oldEntriesPerLong;
+            int oldBitOffset = (index - oldLongIndex * oldEntriesPerLong) * oldBitsPerEntry;
+            long oldValue = (oldData[oldLongIndex] >>> oldBitOffset) & oldEntryMask;
+            if (oldValue != 0) {
+                int longIndex = index / entriesPerLong;
+                int bitOffset = (index - longIndex * entriesPerLong) * bitsPerEntry;
+                data[longIndex] |= oldValue << bitOffset;
+            }
+        }
+    }
+
+    /**
+     * Calculates the amount of bits required to store an unsigned value.
+     *
+     * @param value the unsigned value
+     * @return the amount of bits required, which is at least 1
+     */
+    @Contract(pure = true)
+    public static int bitsRequired(int value) {
+        return Math.max(1, Integer.SIZE - Integer.numberOfLeadingZeros(value));
+    }
+
+    private void setBitsPerEntry(int bitsPerEntry) {
+        this.bitsPerEntry = bitsPerEntry;
+        this.entriesPerLong = Long.SIZE / bitsPerEntry;
+        this.entryMask = (1L << bitsPerEntry) - 1;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + length);
+        }
+    }
+
+    private static int requiredLongs(int length, int entriesPerLong) {
+        return (length + entriesPerLong - 1) / entriesPerLong;
+    }
+
+}
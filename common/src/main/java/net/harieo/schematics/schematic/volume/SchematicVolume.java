@@ -0,0 +1,712 @@
+package net.harieo.schematics.schematic.volume;
+
+import com.google.common.collect.ImmutableList;
+import com.google.gson.JsonObject;
+import net.harieo.schematics.modification.Modification;
+import net.harieo.schematics.modification.RelativeModification;
+import net.harieo.schematics.position.BlockPos;
+import net.harieo.schematics.position.Coordinate;
+import net.harieo.schematics.position.LongObjectMap;
+import net.harieo.schematics.position.Vector;
+import net.harieo.schematics.serialization.Blueprint;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact store of {@link RelativeModification}s which keeps one {@link ModificationPalette} of distinct modifications
+ * and a bit-packed grid of palette indexes over the bounding box of every block-aligned {@link Vector}.
+ * <p>
+ * Modifications which cannot be placed in the grid, because their vector is not block-aligned or because their
+ * position is already occupied by a different modification, are kept as plain {@link RelativeModification}s.
+ *
+ * @apiNote The grid is ordered y-major, then z, then x. Modifications kept outside the grid are always ordered after
+ * those inside it. {@link #forEachCellByChunk(int, int, int, CellVisitor)} visits the grid in chunk order instead,
+ * which is the order it should be applied to a world in.
+ */
+public class SchematicVolume {
+
+    /**
+     * The largest amount of cells the grid may cover before further modifications are kept outside the grid.
+     */
+    public static final long MAX_GRID_CELLS = 1L << 28;
+    /**
+     * The width of a chunk and the height of a chunk section, in blocks.
+     */
+    public static final int CHUNK_SIZE = 16;
+    private static final double MAX_GRID_OFFSET = 1 << 25;
+    private static final Comparator<Coordinate> CHUNK_ORDER = Comparator
+            .<Coordinate>comparingInt(coordinate -> Math.floorDiv(BlockPos.floor(coordinate.getZ()), CHUNK_SIZE))
+            .thenComparingInt(coordinate -> Math.floorDiv(BlockPos.floor(coordinate.getX()), CHUNK_SIZE))
+            .thenComparingDouble(Coordinate::getY)
+            .thenComparingDouble(Coordinate::getZ)
+            .thenComparingDouble(Coordinate::getX);
+
+    private final ModificationPalette palette;
+    private final List<RelativeModification<? extends Modification>> ungriddedModifications;
+    // The ungridded modifications by packed block position, built when first needed and dropped when they change
+    private @Nullable LongObjectMap<List<RelativeModification<? extends Modification>>> ungriddedIndex;
+
+    private int originX;
+    private int originY;
+    private int originZ;
+    private int sizeX;
+    private int sizeY;
+    private int sizeZ;
+    private PackedIntArray cells;
+    private int cellCount;
+    private long revision; // Counts changes to the modifications, not to the layout of the grid
+
+    /**
+     * Creates an empty volume.
+     */
+    public SchematicVolume() {
+        this.palette = new ModificationPalette();
+        this.ungriddedModifications = new ArrayList<>();
+    }
+
+    /**
+     * Creates a volume containing the provided modifications, sizing the grid once for all of them.
+     *
+     * @param modifications the initial modifications
+     */
+    public SchematicVolume(@NotNull Collection<? extends RelativeModification<? extends Modification>> modifications) {
+        this();
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+        for (RelativeModification<? extends Modification> modification : modifications) {
+            Vector vector = modification.getVector();
+            if (isBlockAligned(vector)) {
+                minX = Math.min(minX, (int) vector.getX());
+                minY = Math.min(minY, (int) vector.getY());
+                minZ = Math.min(minZ, (int) vector.getZ());
+                maxX = Math.max(maxX, (int) vector.getX());
+                maxY = Math.max(maxY, (int) vector.getY());
+                maxZ = Math.max(maxZ, (int) vector.getZ());
+            }
+        }
+
+        if (minX <= maxX && cellsBetween(minX, minY, minZ, maxX, maxY, maxZ) <= MAX_GRID_CELLS) {
+            allocateGrid(minX, minY, minZ, maxX, maxY, maxZ);
+        }
+        modifications.forEach(this::add);
+    }
+
+    /**
+     * Clones an existing volume into this object. The modifications themselves are shared, not cloned.
+     *
+     * @param volume the volume to clone values from
+     */
+    public SchematicVolume(@NotNull SchematicVolume volume) {
+        this.palette = new ModificationPalette(volume.palette);
+        this.ungriddedModifications = new ArrayList<>(volume.ungriddedModifications);
+        this.originX = volume.originX;
+        this.originY = volume.originY;
+        this.originZ = volume.originZ;
+        this.sizeX = volume.sizeX;
+        this.sizeY = volume.sizeY;
+        this.sizeZ = volume.sizeZ;
+        this.cells = volume.cells != null ? new PackedIntArray(volume.cells) : null;
+        this.cellCount = volume.cellCount;
+        this.revision = volume.revision;
+    }
+
+    /**
+     * @return the palette of distinct modifications in this volume
+     */
+    public @NotNull ModificationPalette getPalette() {
+        return palette;
+    }
+
+    /**
+     * Adds a {@link RelativeModification} to this volume, retaining its JSON blueprint if one is set.
+     *
+     * @param relativeModification the relative modification
+     */
+    public void add(@NotNull RelativeModification<? extends Modification> relativeModification) {
+        add(relativeModification.getActualModification(), relativeModification.getVector(),
+                relativeModification.getActualModificationJsonBlueprint().orElse(null));
+    }
+
+    /**
+     * Adds a {@link Modification} at the given {@link Vector}.
+     *
+     * @param modification  the modification
+     * @param vector        the vector relative to the initial position of the schematic
+     * @param jsonBlueprint the blueprint used to serialize the modification, if one is known
+     */
+    public void add(@NotNull Modification modification,
+                    @NotNull Vector vector,
+                    @Nullable Blueprint<? extends Modification, JsonObject> jsonBlueprint) {
+        if (isBlockAligned(vector) && add(modification, (int) vector.getX(), (int) vector.getY(), (int) vector.getZ(),
+                jsonBlueprint)) {
+            return;
+        }
+
+        addUngridded(modification, vector, jsonBlueprint);
+    }
+
+    /**
+     * Adds a {@link Modification} at the given block-aligned position, growing the grid if necessary.
+     *
+     * @param modification  the modification
+     * @param x             the x-axis offset from the initial position of the schematic
+     * @param y             the y-axis offset from the initial position of the schematic
+     * @param z             the z-axis offset from the initial position of the schematic
+     * @param jsonBlueprint the blueprint used to serialize the modification, if one is known
+     * @return true if the modification was stored in the grid, or false if the position is occupied by a different
+     * modification or the grid cannot grow to include it
+     */
+    public boolean add(@NotNull Modification modification, int x, int y, int z,
+                       @Nullable Blueprint<? extends Modification, JsonObject> jsonBlueprint) {
+        if (!isInGrid(x, y, z) && !growGrid(x, y, z)) {
+            return false;
+        }
+
+        return addToGrid(palette.getOrAdd(modification, jsonBlueprint), x, y, z);
+    }
+
+    /**
+     * Adds the {@link Modification} already at an index of the palette of this volume at the given block-aligned
+     * position, growing the grid if necessary.
+     *
+     * @param paletteIndex the index of the modification in {@link #getPalette()}
+     * @param x            the x-axis offset from the initial position of the schematic
+     * @param y            the y-axis offset from the initial position of the schematic
+     * @param z            the z-axis offset from the initial position of the schematic
+     * @return true if the modification was stored in the grid, or false if the position is occupied by a different
+     * modification or the grid cannot grow to include it
+     * @throws IndexOutOfBoundsException if the index is {@link ModificationPalette#EMPTY} or not in the palette
+     * @apiNote This saves looking up the same modification in the palette for every position, such as when copying
+     * a source which is already indexed by modification.
+     */
+    public boolean add(int paletteIndex, int x, int y, int z) {
+        if (paletteIndex <= ModificationPalette.EMPTY || paletteIndex >= palette.size()) {
+            throw new IndexOutOfBoundsException("Index " + paletteIndex + " is not a modification in the palette");
+        } else if (!isInGrid(x, y, z) && !growGrid(x, y, z)) {
+            return false;
+        }
+
+        return addToGrid(paletteIndex, x, y, z);
+    }
+
+    // Expects the position to be in the grid
+    private boolean addToGrid(int paletteIndex, int x, int y, int z) {
+        int cellIndex = cellIndex(x, y, z);
+        int existingIndex = cells.get(cellIndex);
+        if (existingIndex == ModificationPalette.EMPTY) {
+            cells.set(cellIndex, paletteIndex);
+            cellCount++;
+            revision++;
+            return true;
+        } else {
+            return existingIndex == paletteIndex; // An identical modification at the same position is already stored
+        }
+    }
+
+    /**
+     * Removes a {@link Modification} at the given {@link Vector}, if it is present in this volume.
+     *
+     * @param modification the modification, compared by {@link Object#equals(Object)}
+     * @param vector       the vector of the modification
+     * @return whether a modification was removed
+     */
+    public boolean remove(@NotNull Modification modification, @NotNull Vector vector) {
+        if (isBlockAligned(vector)) {
+            int x = (int) vector.getX(), y = (int) vector.getY(), z = (int) vector.getZ();
+            if (isInGrid(x, y, z)) {
+                int cellIndex = cellIndex(x, y, z);
+                int paletteIndex = cells.get(cellIndex);
+                if (paletteIndex != ModificationPalette.EMPTY && modification.equals(palette.get(paletteIndex))) {
+                    cells.set(cellIndex, ModificationPalette.EMPTY);
+                    cellCount--;
+                    revision++;
+                    return true;
+                }
+            }
+        }
+
+        Iterator<RelativeModification<? extends Modification>> iterator = ungriddedModifications.iterator();
+        while (iterator.hasNext()) {
+            RelativeModification<? extends Modification> relativeModification = iterator.next();
+            if (relativeModification.getActualModification().equals(modification)
+                    && isSameVector(relativeModification.getVector(), vector)) {
+                iterator.remove();
+                ungriddedIndex = null;
+                revision++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the palette index stored at a block-aligned position.
+     *
+     * @param x the x-axis offset from the initial position of the schematic
+     * @param y the y-axis offset from the initial position of the schematic
+     * @param z the z-axis offset from the initial position of the schematic
+     * @return the palette index, or {@link ModificationPalette#EMPTY} if the grid has no modification at the position
+     */
+    public int getPaletteIndex(int x, int y, int z) {
+        return isInGrid(x, y, z) ? cells.get(cellIndex(x, y, z)) : ModificationPalette.EMPTY;
+    }
+
+    /**
+     * Checks whether any modification is inside a block, whether it is stored in the grid or not.
+     *
+     * @param x the x-axis offset of the block from the initial position of the schematic
+     * @param y the y-axis offset of the block from the initial position of the schematic
+     * @param z the z-axis offset of the block from the initial position of the schematic
+     * @return whether a modification is inside the block
+     * @implNote The grid is checked directly, and modifications outside the grid are indexed by block the first time
+     * they are checked, so each check takes constant time.
+     */
+    public boolean hasModificationAt(int x, int y, int z) {
+        return getPaletteIndex(x, y, z) != ModificationPalette.EMPTY || !getUngriddedModificationsAt(x, y, z).isEmpty();
+    }
+
+    /**
+     * Gets the modifications outside the grid which are inside a block, including any with a vector which is not
+     * block-aligned.
+     *
+     * @param x the x-axis offset of the block from the initial position of the schematic
+     * @param y the y-axis offset of the block from the initial position of the schematic
+     * @param z the z-axis offset of the block from the initial position of the schematic
+     * @return the modifications inside the block, in the order they were added
+     */
+    public @Unmodifiable List<RelativeModification<? extends Modification>> getUngriddedModificationsAt(
+            int x, int y, int z) {
+        if (ungriddedModifications.isEmpty()) {
+            return List.of();
+        } else if (!BlockPos.isPackable(x, y, z)) {
+            BlockPos block = new BlockPos(x, y, z);
+            return ungriddedModifications.stream()
+                    .filter(modification -> block.equals(BlockPos.of(modification.getVector())))
+                    .collect(ImmutableList.toImmutableList());
+        }
+
+        List<RelativeModification<? extends Modification>> modifications =
+                getUngriddedIndex().get(BlockPos.pack(x, y, z));
+        return modifications != null ? Collections.unmodifiableList(modifications) : List.of();
+    }
+
+    private @NotNull LongObjectMap<List<RelativeModification<? extends Modification>>> getUngriddedIndex() {
+        if (ungriddedIndex == null) {
+            ungriddedIndex = new LongObjectMap<>(ungriddedModifications.size());
+            for (RelativeModification<? extends Modification> modification : ungriddedModifications) {
+                BlockPos block = BlockPos.of(modification.getVector());
+                if (BlockPos.isPackable(block.getX(), block.getY(), block.getZ())) {
+                    ungriddedIndex.computeIfAbsent(block.asLong(), key -> new ArrayList<>(1)).add(modification);
+                }
+            }
+        }
+        return ungriddedIndex;
+    }
+
+    /**
+     * @return the total amount of modifications in this volume
+     */
+    public int size() {
+        return cellCount + ungriddedModifications.size();
+    }
+
+    /**
+     * @return whether this volume has no modifications
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @return the amount of modifications stored in the grid
+     */
+    public int getGriddedCount() {
+        return cellCount;
+    }
+
+    /**
+     * A counter which changes whenever a modification is added to or removed from this volume, so that a caller can
+     * tell whether the volume has changed since it last looked without comparing the modifications.
+     *
+     * @return the current revision of this volume
+     * @apiNote Growing or trimming the grid does not change the revision, as the modifications stay the same. A copy of
+     * this volume starts with the same revision.
+     */
+    public long getRevision() {
+        return revision;
+    }
+
+    /**
+     * @return the modifications which could not be stored in the grid, in the order they were added
+     */
+    public @Unmodifiable List<RelativeModification<? extends Modification>> getUngriddedModifications() {
+        return ImmutableList.copyOf(ungriddedModifications);
+    }
+
+    /**
+     * Visits every non-empty position in the grid in grid order.
+     *
+     * @param visitor the visitor to receive each position and its palette index
+     */
+    public void forEachCell(@NotNull CellVisitor visitor) {
+        if (cells == null || cellCount == 0) {
+            return;
+        }
+
+        int cellIndex = 0;
+        for (int y = 0; y < sizeY; y++) {
+            for (int z = 0; z < sizeZ; z++) {
+                for (int x = 0; x < sizeX; x++) {
+                    int paletteIndex = cells.get(cellIndex++);
+                    if (paletteIndex != ModificationPalette.EMPTY) {
+                        visitor.visit(originX + x, originY + y, originZ + z, paletteIndex);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Visits every non-empty position in the grid grouped by the chunk it is in once placed at a block position, so
+     * that each chunk is visited once. Within each chunk, positions are visited in ascending y order, so each chunk
+     * section is finished before the next is started.
+     *
+     * @param baseX   the block x-coordinate which the offsets are relative to
+     * @param baseY   the block y-coordinate which the offsets are relative to
+     * @param baseZ   the block z-coordinate which the offsets are relative to
+     * @param visitor the visitor to receive each position and its palette index
+     * @implNote Chunks are visited in ascending z, then ascending x order. Within each section, positions are visited
+     * in ascending y, then z, then x order, matching the layout of a chunk section.
+     */
+    public void forEachCellByChunk(int baseX, int baseY, int baseZ, @NotNull CellVisitor visitor) {
+        if (cells == null || cellCount == 0) {
+            return;
+        }
+
+        int worldMinX = baseX + originX, worldMinZ = baseZ + originZ;
+        int minChunkX = Math.floorDiv(worldMinX, CHUNK_SIZE);
+        int maxChunkX = Math.floorDiv(worldMinX + sizeX - 1, CHUNK_SIZE);
+        int minChunkZ = Math.floorDiv(worldMinZ, CHUNK_SIZE);
+        int maxChunkZ = Math.floorDiv(worldMinZ + sizeZ - 1, CHUNK_SIZE);
+        for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+            // The part of the grid within this row of chunks, as grid offsets
+            int fromZ = Math.max(0, chunkZ * CHUNK_SIZE - worldMinZ);
+            int toZ = Math.min(sizeZ, (chunkZ + 1) * CHUNK_SIZE - worldMinZ);
+            for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+                int fromX = Math.max(0, chunkX * CHUNK_SIZE - worldMinX);
+                int toX = Math.min(sizeX, (chunkX + 1) * CHUNK_SIZE - worldMinX);
+                for (int y = 0; y < sizeY; y++) {
+                    for (int z = fromZ; z < toZ; z++) {
+                        int cellIndex = (y * sizeZ + z) * sizeX + fromX;
+                        for (int x = fromX; x < toX; x++) {
+                            int paletteIndex = cells.get(cellIndex++);
+                            if (paletteIndex != ModificationPalette.EMPTY) {
+                                visitor.visit(originX + x, originY + y, originZ + z, paletteIndex);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Sorts the modifications outside the grid into the same chunk order as {@link #forEachCellByChunk(int, int, int,
+     * CellVisitor)}, once placed at an initial position.
+     *
+     * @param initialPosition the position which the modifications are relative to
+     * @return the sorted modifications outside the grid
+     */
+    public @Unmodifiable List<RelativeModification<? extends Modification>> getUngriddedModificationsByChunk(
+            @NotNull Coordinate initialPosition) {
+        if (ungriddedModifications.size() < 2) {
+            return getUngriddedModifications();
+        }
+
+        // Each coordinate is only calculated once rather than on every comparison
+        Map<RelativeModification<? extends Modification>, Coordinate> coordinates = new IdentityHashMap<>();
+        ungriddedModifications.forEach(modification ->
+                coordinates.put(modification, modification.getRelativeCoordinate(initialPosition)));
+        return ungriddedModifications.stream()
+                .sorted(Comparator.comparing(coordinates::get, CHUNK_ORDER))
+                .collect(ImmutableList.toImmutableList());
+    }
+
+    /**
+     * Creates a list of every modification in this volume as {@link RelativeModification}s, with the JSON blueprint
+     * of each set from the palette.
+     *
+     * @return the list of modifications, in grid order followed by ungridded modifications
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public @Unmodifiable List<RelativeModification<? extends Modification>> toRelativeModifications() {
+        ImmutableList.Builder<RelativeModification<? extends Modification>> builder =
+                ImmutableList.builderWithExpectedSize(size());
+        forEachCell((x, y, z, paletteIndex) -> {
+            RelativeModification relativeModification =
+                    new RelativeModification<>(palette.get(paletteIndex), new Vector(x, y, z));
+            relativeModification.setActualModificationJsonBlueprint((Blueprint) palette.getJsonBlueprint(paletteIndex));
+            builder.add(relativeModification);
+        });
+        builder.addAll(ungriddedModifications);
+        return builder.build();
+    }
+
+    /**
+     * @return the x-axis offset of the lowest corner of the grid
+     */
+    public int getGridOriginX() {
+        return originX;
+    }
+
+    /**
+     * @return the y-axis offset of the lowest corner of the grid
+     */
+    public int getGridOriginY() {
+        return originY;
+    }
+
+    /**
+     * @return the z-axis offset of the lowest corner of the grid
+     */
+    public int getGridOriginZ() {
+        return originZ;
+    }
+
+    /**
+     * @return the width of the grid on the x-axis
+     */
+    public int getGridSizeX() {
+        return sizeX;
+    }
+
+    /**
+     * @return the height of the grid on the y-axis
+     */
+    public int getGridSizeY() {
+        return sizeY;
+    }
+
+    /**
+     * @return the length of the grid on the z-axis
+     */
+    public int getGridSizeZ() {
+        return sizeZ;
+    }
+
+    /**
+     * @return the amount of memory, in bytes, used by the packed grid
+     */
+    public long getGridDataSize() {
+        return cells != null ? cells.getDataSize() : 0;
+    }
+
+    /**
+     * Grows the grid, if necessary, to include the provided bounds exactly, so that a known set of positions can be
+     * added without the grid being re-packed as it grows.
+     *
+     * @param minX the lowest x-axis offset which will be added
+     * @param minY the lowest y-axis offset which will be added
+     * @param minZ the lowest z-axis offset which will be added
+     * @param maxX the highest x-axis offset which will be added
+     * @param maxY the highest y-axis offset which will be added
+     * @param maxZ the highest z-axis offset which will be added
+     * @apiNote This does nothing if the grid would cover more than {@link #MAX_GRID_CELLS}.
+     */
+    public void reserve(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        if (cells != null) {
+            minX = Math.min(minX, originX);
+            minY = Math.min(minY, originY);
+            minZ = Math.min(minZ, originZ);
+            maxX = Math.max(maxX, originX + sizeX - 1);
+            maxY = Math.max(maxY, originY + sizeY - 1);
+            maxZ = Math.max(maxZ, originZ + sizeZ - 1);
+        }
+
+        long reservedCells = cellsBetween(minX, minY, minZ, maxX, maxY, maxZ);
+        if (reservedCells > MAX_GRID_CELLS) {
+            return;
+        }
+
+        if (cells == null) {
+            allocateGrid(minX, minY, minZ, maxX, maxY, maxZ);
+        } else if (reservedCells > cells.length()) {
+            repackGrid(minX, minY, minZ, maxX, maxY, maxZ);
+        }
+    }
+
+    /**
+     * Re-packs the grid to the exact bounds of its non-empty positions, releasing any spare room left by growing the
+     * grid one modification at a time.
+     *
+     * @apiNote This is worthwhile after building a volume incrementally, such as when reading it from a stream.
+     */
+    public void trim() {
+        if (cells == null) {
+            return;
+        } else if (cellCount == 0) {
+            cells = null;
+            originX = originY = originZ = sizeX = sizeY = sizeZ = 0;
+            return;
+        }
+
+        int[] bounds = {Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE,
+                Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE};
+        forEachCell((x, y, z, paletteIndex) -> {
+            bounds[0] = Math.min(bounds[0], x);
+            bounds[1] = Math.min(bounds[1], y);
+            bounds[2] = Math.min(bounds[2], z);
+            bounds[3] = Math.max(bounds[3], x);
+            bounds[4] = Math.max(bounds[4], y);
+            bounds[5] = Math.max(bounds[5], z);
+        });
+        if (cellsBetween(bounds[0], bounds[1], bounds[2], bounds[3], bounds[4], bounds[5]) < cells.length()) {
+            repackGrid(bounds[0], bounds[1], bounds[2], bounds[3], bounds[4], bounds[5]);
+        }
+    }
+
+    /**
+     * Checks whether a {@link Vector} points exactly at a block and is small enough to be stored in the grid.
+     *
+     * @param vector the vector to check
+     * @return whether all three axes of the vector are whole numbers within the grid limits
+     */
+    public static boolean isBlockAligned(@NotNull Vector vector) {
+        return isBlockAligned(vector.getX()) && isBlockAligned(vector.getY()) && isBlockAligned(vector.getZ());
+    }
+
+    private static boolean isBlockAligned(double value) {
+        return value == Math.rint(value) && Math.abs(value) <= MAX_GRID_OFFSET;
+    }
+
+    private static boolean isSameVector(@NotNull Vector vector, @NotNull Vector otherVector) {
+        return vector.getX() == otherVector.getX()
+                && vector.getY() == otherVector.getY()
+                && vector.getZ() == otherVector.getZ();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void addUngridded(@NotNull Modification modification,
+                              @NotNull Vector vector,
+                              @Nullable Blueprint<? extends Modification, JsonObject> jsonBlueprint) {
+        // Share the palette instance so that equal modifications are not duplicated outside the grid either
+        int paletteIndex = palette.getOrAdd(modification, jsonBlueprint);
+        RelativeModification relativeModification = new RelativeModification<>(palette.get(paletteIndex), vector);
+        relativeModification.setActualModificationJsonBlueprint((Blueprint) palette.getJsonBlueprint(paletteIndex));
+        ungriddedModifications.add(relativeModification);
+        ungriddedIndex = null;
+        revision++;
+    }
+
+    private boolean isInGrid(int x, int y, int z) {
+        return cells != null
+                && x >= originX && x < originX + sizeX
+                && y >= originY && y < originY + sizeY
+                && z >= originZ && z < originZ + sizeZ;
+    }
+
+    private int cellIndex(int x, int y, int z) {
+        return ((y - originY) * sizeZ + (z - originZ)) * sizeX + (x - originX);
+    }
+
+    private static long cellsBetween(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        return ((long) maxX - minX + 1) * ((long) maxY - minY + 1) * ((long) maxZ - minZ + 1);
+    }
+
+    private void allocateGrid(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        this.originX = minX;
+        this.originY = minY;
+        this.originZ = minZ;
+        this.sizeX = maxX - minX + 1;
+        this.sizeY = maxY - minY + 1;
+        this.sizeZ = maxZ - minZ + 1;
+        this.cells = new PackedIntArray(sizeX * sizeY * sizeZ, PackedIntArray.bitsRequired(palette.size()));
+    }
+
+    /**
+     * Grows the grid to include the provided position, leaving spare room in the direction of growth so that
+     * sequential additions do not re-pack the grid every time.
+     *
+     * @return whether the grid now includes the position
+     */
+    private boolean growGrid(int x, int y, int z) {
+        if (cells == null) {
+            allocateGrid(x, y, z, x, y, z);
+            return true;
+        }
+
+        int maxX = originX + sizeX - 1, maxY = originY + sizeY - 1, maxZ = originZ + sizeZ - 1;
+        int exactMinX = Math.min(originX, x), exactMinY = Math.min(originY, y), exactMinZ = Math.min(originZ, z);
+        int exactMaxX = Math.max(maxX, x), exactMaxY = Math.max(maxY, y), exactMaxZ = Math.max(maxZ, z);
+        if (cellsBetween(exactMinX, exactMinY, exactMinZ, exactMaxX, exactMaxY, exactMaxZ) > MAX_GRID_CELLS) {
+            return false;
+        }
+
+        // Attempt to leave spare room of half the current size in each direction which is growing
+        int newMinX = x < originX ? exactMinX - (sizeX >> 1) : originX;
+        int newMinY = y < originY ? exactMinY - (sizeY >> 1) : originY;
+        int newMinZ = z < originZ ? exactMinZ - (sizeZ >> 1) : originZ;
+        int newMaxX = x > maxX ? exactMaxX + (sizeX >> 1) : maxX;
+        int newMaxY = y > maxY ? exactMaxY + (sizeY >> 1) : maxY;
+        int newMaxZ = z > maxZ ? exactMaxZ + (sizeZ >> 1) : maxZ;
+        if (cellsBetween(newMinX, newMinY, newMinZ, newMaxX, newMaxY, newMaxZ) > MAX_GRID_CELLS) {
+            newMinX = exactMinX;
+            newMinY = exactMinY;
+            newMinZ = exactMinZ;
+            newMaxX = exactMaxX;
+            newMaxY = exactMaxY;
+            newMaxZ = exactMaxZ;
+        }
+
+        repackGrid(newMinX, newMinY, newMinZ, newMaxX, newMaxY, newMaxZ);
+        return true;
+    }
+
+    private void repackGrid(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        PackedIntArray oldCells = cells;
+        int oldOriginX = originX, oldOriginY = originY, oldOriginZ = originZ;
+        int oldSizeX = sizeX, oldSizeY = sizeY, oldSizeZ = sizeZ;
+        allocateGrid(minX, minY, minZ, maxX, maxY, maxZ);
+
+        int oldCellIndex = 0;
+        for (int oldY = 0; oldY < oldSizeY; oldY++) {
+            for (int oldZ = 0; oldZ < oldSizeZ; oldZ++) {
+                for (int oldX = 0; oldX < oldSizeX; oldX++) {
+                    int paletteIndex = oldCells.get(oldCellIndex++);
+                    if (paletteIndex != ModificationPalette.EMPTY) {
+                        cells.set(cellIndex(oldOriginX + oldX, oldOriginY + oldY, oldOriginZ + oldZ), paletteIndex);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A visitor for each non-empty position in the grid of a {@link SchematicVolume}.
+     */
+    @FunctionalInterface
+    public interface CellVisitor {
+
+        /**
+         * Visits a non-empty position.
+         *
+         * @param x            the x-axis offset from the initial position of the schematic
+         * @param y            the y-axis offset from the initial position of the schematic
+         * @param z            the z-axis offset from the initial position of the schematic
+         * @param paletteIndex the palette index of the modification at this position
+         */
+        void visit(int x, int y, int z, int paletteIndex);
+
+    }
+
+}
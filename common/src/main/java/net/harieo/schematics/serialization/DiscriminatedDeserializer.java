@@ -0,0 +1,24 @@
+package net.harieo.schematics.serialization;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@link Deserializer} which only accepts serialized objects carrying a specific discriminator value, such as the
+ * {@code type} field of a JSON object. This allows a {@link net.harieo.schematics.serialization.registry.BlueprintRegistry}
+ * to find the deserializer by its discriminator rather than by checking {@link #isValidObject(Object)} on every
+ * deserializer it holds.
+ *
+ * @param <T> the type of the deserialized object
+ * @param <V> the type of the serialized object
+ * @apiNote {@link #isValidObject(Object)} should still be implemented in full, as it is checked after a deserializer is
+ * found by its discriminator.
+ */
+public interface DiscriminatedDeserializer<T, V> extends Deserializer<T, V> {
+
+    /**
+     * @return the discriminator value of every serialized object this deserializer can deserialize, which is compared
+     * without case
+     */
+    @NotNull String getDiscriminator();
+
+}
@@ -0,0 +1,25 @@
+package net.harieo.schematics.serialization;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+/**
+ * An interface which reads a serialized object from a source <i>R</i>, such as a stream or reader, and deserializes it
+ * into a regular object <i>T</i> without first loading the whole serialized object into memory.
+ *
+ * @param <T> the type of the deserialized object
+ * @param <R> the type of the source which the serialized object is read from
+ */
+public interface StreamDeserializer<T, R> {
+
+    /**
+     * Reads the serialized object from the source and deserializes it into the deserialized object <i>T</i>
+     *
+     * @param source the source to read the serialized object from, which is left positioned after the object
+     * @return the deserialized object
+     * @throws IOException if the source cannot be read or is not in the expected format
+     */
+    T deserialize(@NotNull R source) throws IOException;
+
+}
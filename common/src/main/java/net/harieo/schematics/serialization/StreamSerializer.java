@@ -0,0 +1,25 @@
+package net.harieo.schematics.serialization;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+/**
+ * An interface which serializes a regular object <i>T</i> directly into a destination <i>W</i>, such as a stream or
+ * writer, without first creating the whole serialized object in memory.
+ *
+ * @param <T> the type of the deserialized object
+ * @param <W> the type of the destination which the serialized object is written to
+ */
+public interface StreamSerializer<T, W> {
+
+    /**
+     * Serializes a regular object <i>T</i> into the destination <i>W</i>
+     *
+     * @param object      the regular object which should be serialized
+     * @param destination the destination to write the serialized object to
+     * @throws IOException if the destination cannot be written to
+     */
+    void serialize(@NotNull T object, @NotNull W destination) throws IOException;
+
+}
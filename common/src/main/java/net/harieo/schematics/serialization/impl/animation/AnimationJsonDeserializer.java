@@ -42,6 +42,7 @@ public abstract class AnimationJsonDeserializer<T extends Animation> implements
      * @param serializedObject the serialized object
      * @return the deserialized animation.
      * @throws NoSuchElementException if a serialized {@link Transition} cannot be deserialized from any provided blueprint
+     * @throws IllegalArgumentException if the serialized loop count is not valid
      */
     @Override
     public T deserialize(@NotNull JsonObject serializedObject) {
@@ -61,7 +62,11 @@ public abstract class AnimationJsonDeserializer<T extends Animation> implements
                 transitions.add(transition);
             }
         }
-        return deserializeToExactForm(id, transitions);
+        T animation = deserializeToExactForm(id, transitions);
+        if (serializedObject.has("loops")) {
+            animation.setLoopCount(serializedObject.get("loops").getAsInt());
+        }
+        return animation;
     }
 
     public abstract T deserializeToExactForm(@Nullable String id, @NotNull List<Transition> transitions);
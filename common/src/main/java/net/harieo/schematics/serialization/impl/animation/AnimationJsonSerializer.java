@@ -3,6 +3,7 @@ package net.harieo.schematics.serialization.impl.animation;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import net.harieo.schematics.animation.Animation;
+import net.harieo.schematics.animation.AnimationSnapshot;
 import net.harieo.schematics.animation.Transition;
 import net.harieo.schematics.animation.serialization.TransitionJsonSerializable;
 import net.harieo.schematics.serialization.Serializer;
@@ -30,10 +31,20 @@ public class AnimationJsonSerializer implements Serializer<Animation, JsonObject
 
     @Override
     public JsonObject serialize(@NotNull Animation animation) {
+        return serialize(AnimationSnapshot.sharing(animation));
+    }
+
+    /**
+     * Serializes a snapshot of an animation, in the same format as the animation itself.
+     *
+     * @param snapshot the snapshot of the animation
+     * @return the serialized animation
+     */
+    public JsonObject serialize(@NotNull AnimationSnapshot snapshot) {
         JsonObject object = new JsonObject();
-        animation.getId().ifPresent(id -> object.addProperty("id", id));
+        snapshot.getId().ifPresent(id -> object.addProperty("id", id));
         JsonArray transitionArray = new JsonArray();
-        for (Transition transition : animation.getAllTransitions()) {
+        for (Transition transition : snapshot.transitions()) {
             if (transition instanceof TransitionJsonSerializable transitionJsonSerializable) {
                 transitionArray.add(transitionJsonSerializable.serialize(transition));
             } else {
@@ -41,6 +52,9 @@ public class AnimationJsonSerializer implements Serializer<Animation, JsonObject
             }
         }
         object.add("transitions", transitionArray);
+        if (snapshot.loopCount() != 1) {
+            object.addProperty("loops", snapshot.loopCount());
+        }
         return object;
     }
 
@@ -0,0 +1,101 @@
+package net.harieo.schematics.serialization.impl.animation;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+import net.harieo.schematics.animation.Animation;
+import net.harieo.schematics.animation.AnimationSnapshot;
+import net.harieo.schematics.animation.Transition;
+import net.harieo.schematics.animation.impl.serializable.SerializableSchematicTransition;
+import net.harieo.schematics.animation.serialization.TransitionJsonSerializable;
+import net.harieo.schematics.schematic.Schematic;
+import net.harieo.schematics.serialization.StreamSerializer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+
+/**
+ * A {@link StreamSerializer} which writes {@link Animation} in the same JSON format as {@link AnimationJsonSerializer},
+ * but directly to a {@link JsonWriter}.
+ *
+ * @apiNote This class requires each {@link Transition} to conform to {@link TransitionJsonSerializable}. Each transition
+ * is serialized to its own small tree before being written, except for a {@link SerializableSchematicTransition}
+ * which is written with the provided schematic {@link StreamSerializer}, if there is one, so that its schematic is
+ * never held in memory as a tree.
+ */
+public class AnimationJsonStreamSerializer implements StreamSerializer<Animation, JsonWriter> {
+
+    // Only used to write small trees to the writer, which keeps the formatting of the writer
+    private static final Gson GSON = new Gson();
+
+    private final @Nullable StreamSerializer<Schematic, JsonWriter> schematicStreamSerializer;
+
+    /**
+     * A streaming animation serializer which writes schematic transitions with a schematic {@link StreamSerializer}.
+     *
+     * @param schematicStreamSerializer the serializer for the schematic of each {@link SerializableSchematicTransition},
+     *                                  or null to use the serializer of the transition
+     */
+    public AnimationJsonStreamSerializer(@Nullable StreamSerializer<Schematic, JsonWriter> schematicStreamSerializer) {
+        this.schematicStreamSerializer = schematicStreamSerializer;
+    }
+
+    /**
+     * A streaming animation serializer which uses the serializer of each transition.
+     */
+    public AnimationJsonStreamSerializer() {
+        this(null);
+    }
+
+    /**
+     * Writes the animation to the writer as a JSON object.
+     *
+     * @param animation the animation to serialize
+     * @param writer    the writer to write the animation object to
+     * @throws IOException           if the writer fails
+     * @throws IllegalStateException if a transition is not {@link TransitionJsonSerializable}
+     */
+    @Override
+    public void serialize(@NotNull Animation animation, @NotNull JsonWriter writer) throws IOException {
+        serialize(AnimationSnapshot.sharing(animation), writer);
+    }
+
+    /**
+     * Writes a snapshot of an animation to the writer, in the same format as the animation itself.
+     *
+     * @param snapshot the snapshot of the animation
+     * @param writer   the writer to write the animation object to
+     * @throws IOException           if the writer fails
+     * @throws IllegalStateException if a transition is not {@link TransitionJsonSerializable}
+     */
+    public void serialize(@NotNull AnimationSnapshot snapshot, @NotNull JsonWriter writer) throws IOException {
+        writer.beginObject();
+        if (snapshot.getId().isPresent()) {
+            writer.name("id").value(snapshot.getId().get());
+        }
+
+        writer.name("transitions").beginArray();
+        for (Transition transition : snapshot.transitions()) {
+            if (schematicStreamSerializer != null && transition instanceof SerializableSchematicTransition<?> schematicTransition) {
+                writer.beginObject();
+                writer.name("type").value(transition.getType());
+                writer.name("milliseconds-before").value(transition.getMillisecondsBefore());
+                writer.name("milliseconds-after").value(transition.getMillisecondsAfter());
+                writer.name("schematic");
+                schematicStreamSerializer.serialize(schematicTransition.getSchematic(), writer);
+                writer.endObject();
+            } else if (transition instanceof TransitionJsonSerializable transitionJsonSerializable) {
+                GSON.toJson(transitionJsonSerializable.serialize(transition), writer);
+            } else {
+                throw new IllegalStateException("Unserializable transition: " + transition.getType());
+            }
+        }
+        writer.endArray();
+
+        if (snapshot.loopCount() != 1) {
+            writer.name("loops").value(snapshot.loopCount());
+        }
+        writer.endObject();
+    }
+
+}
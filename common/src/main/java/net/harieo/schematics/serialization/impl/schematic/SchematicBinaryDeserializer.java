@@ -0,0 +1,235 @@
+package net.harieo.schematics.serialization.impl.schematic;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import net.harieo.schematics.modification.Modification;
+import net.harieo.schematics.position.Coordinate;
+import net.harieo.schematics.position.Vector;
+import net.harieo.schematics.schematic.Schematic;
+import net.harieo.schematics.schematic.volume.SchematicVolume;
+import net.harieo.schematics.serialization.Blueprint;
+import net.harieo.schematics.serialization.Deserializer;
+import net.harieo.schematics.serialization.registry.BlueprintRegistry;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static net.harieo.schematics.serialization.impl.schematic.SchematicBinaryFormat.*;
+
+/**
+ * A deserializer from the binary format described by {@link SchematicBinaryFormat} for {@link Schematic}.
+ *
+ * @param <T> the type of {@link Coordinate} used for the initial position.
+ */
+public class SchematicBinaryDeserializer<T extends Coordinate> implements Deserializer<Schematic, ByteBuffer> {
+
+    // Deflate cannot compress data by more than about 1032:1, so a larger inflated length can only be corrupt
+    private static final long MAX_DEFLATE_RATIO = 1032;
+
+    private final Deserializer<T, JsonObject> coordinateJsonDeserializer;
+
+    private final BlueprintRegistry<Modification, JsonObject> modificationBlueprintRegistry;
+
+    /**
+     * A deserializer from the binary format for {@link Schematic} with a specified {@link Deserializer} for
+     * deserializing coordinates.
+     *
+     * @param coordinateJsonDeserializer the deserializer for deserializing coordinates
+     * @param modificationBlueprints     the blueprints which can be used for deserializing palette modifications
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs") // The blueprints are only read from the array
+    public SchematicBinaryDeserializer(@NotNull Deserializer<T, JsonObject> coordinateJsonDeserializer,
+                                       @NotNull Blueprint<? extends Modification, JsonObject>... modificationBlueprints) {
+        this.coordinateJsonDeserializer = coordinateJsonDeserializer;
+        this.modificationBlueprintRegistry = new BlueprintRegistry<Modification, JsonObject>(
+                BlueprintRegistry.JSON_TYPE_DISCRIMINATOR, modificationBlueprints);
+    }
+
+    /**
+     * Adds a {@link Modification} {@link Blueprint} to the list of blueprints which can be used for deserializing palette
+     * modifications.
+     *
+     * @param blueprint the blueprint containing the relevant deserializer
+     */
+    public void addModificationBlueprint(@NotNull Blueprint<? extends Modification, JsonObject> blueprint) {
+        modificationBlueprintRegistry.addBlueprint(blueprint);
+    }
+
+    /**
+     * Deserializes a schematic from the remaining bytes of the buffer. The position of the provided buffer is not moved.
+     *
+     * @param serializedObject the serialized schematic
+     * @return the deserialized schematic
+     * @throws IllegalArgumentException if the buffer is not a binary schematic, is an unsupported version, or is
+     *                                  corrupt or truncated
+     * @throws NoSuchElementException   if a palette modification cannot be deserialized from any provided blueprint
+     * @implNote Every length and count is checked against the bytes which remain before anything is allocated for it,
+     * so a corrupt file fails with a format error rather than exhausting memory.
+     */
+    @Override
+    public Schematic deserialize(@NotNull ByteBuffer serializedObject) {
+        try {
+            return readSchematic(serializedObject.duplicate());
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Binary schematic is truncated", e);
+        }
+    }
+
+    private Schematic readSchematic(@NotNull ByteBuffer buffer) {
+        if (buffer.remaining() < Integer.BYTES || buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a binary schematic");
+        }
+
+        byte version = buffer.get();
+        if (version < 1 || version > VERSION) {
+            throw new IllegalArgumentException("Unsupported binary schematic version: " + version);
+        }
+
+        byte flags = buffer.get();
+        ByteBuffer body = (flags & FLAG_DEFLATED) != 0 ? inflate(buffer, readVarInt(buffer)) : buffer;
+
+        String id = body.get() != 0 ? readString(body) : null;
+        Coordinate initialPosition = coordinateJsonDeserializer.deserialize(parseObject(readString(body)));
+        Schematic schematic = new Schematic(id, initialPosition);
+        SchematicVolume volume = schematic.getVolume();
+
+        // The palette is indexed from 1, as it is in the volume, leaving index 0 empty
+        int paletteSize = readCount(body, 1);
+        Modification[] paletteModifications = new Modification[paletteSize + 1];
+        List<Blueprint<? extends Modification, JsonObject>> paletteBlueprints = new ArrayList<>(paletteSize + 1);
+        paletteBlueprints.add(null);
+        for (int paletteIndex = 1; paletteIndex <= paletteSize; paletteIndex++) {
+            JsonObject serializedModification = parseObject(readString(body));
+            Blueprint<? extends Modification, JsonObject> blueprint = modificationBlueprintRegistry
+                    .findBlueprint(serializedModification)
+                    .orElseThrow(() -> new NoSuchElementException("No deserializer for modification in palette"));
+            paletteModifications[paletteIndex] = blueprint.deserialize(serializedModification);
+            paletteBlueprints.add(blueprint);
+        }
+
+        int originX = readSignedVarInt(body), originY = readSignedVarInt(body), originZ = readSignedVarInt(body);
+        int sizeX = readVarInt(body), sizeY = readVarInt(body), sizeZ = readVarInt(body);
+        int griddedCount = readCount(body, 2);
+        long gridCellCount = 0;
+        if (griddedCount > 0) {
+            if (sizeX <= 0 || sizeY <= 0 || sizeZ <= 0) {
+                throw new IllegalArgumentException("Invalid grid size in binary schematic: " + sizeX + "x" + sizeY
+                        + "x" + sizeZ);
+            }
+
+            gridCellCount = (long) sizeX * sizeY * sizeZ;
+            if (gridCellCount > SchematicVolume.MAX_GRID_CELLS || griddedCount > gridCellCount) {
+                throw new IllegalArgumentException("Invalid grid size in binary schematic: " + sizeX + "x" + sizeY
+                        + "x" + sizeZ + " with " + griddedCount + " modifications");
+            }
+            volume.reserve(originX, originY, originZ, originX + sizeX - 1, originY + sizeY - 1, originZ + sizeZ - 1);
+        }
+
+        long gridIndex = -1;
+        for (int i = 0; i < griddedCount; i++) {
+            int gap = readVarInt(body);
+            gridIndex += gap + 1L;
+            if (gap < 0 || gridIndex >= gridCellCount) {
+                throw new IllegalArgumentException("Grid position out of range in binary schematic: " + gridIndex);
+            }
+
+            int paletteIndex = readPaletteIndex(body, paletteSize);
+            int x = (int) (gridIndex % sizeX);
+            int z = (int) ((gridIndex / sizeX) % sizeZ);
+            int y = (int) (gridIndex / sizeX / sizeZ);
+            addModification(volume, paletteModifications[paletteIndex], paletteBlueprints.get(paletteIndex),
+                    originX + x, originY + y, originZ + z);
+        }
+
+        int ungriddedCount = readCount(body, 3 * Double.BYTES + 1);
+        for (int i = 0; i < ungriddedCount; i++) {
+            Vector vector = new Vector(body.getDouble(), body.getDouble(), body.getDouble());
+            int paletteIndex = readPaletteIndex(body, paletteSize);
+            volume.add(paletteModifications[paletteIndex], vector, paletteBlueprints.get(paletteIndex));
+        }
+
+        return schematic;
+    }
+
+    @Override
+    public boolean isValidObject(@NotNull ByteBuffer serializedObject) {
+        return hasMagic(serializedObject);
+    }
+
+    private static void addModification(@NotNull SchematicVolume volume, @NotNull Modification modification,
+                                        @NotNull Blueprint<? extends Modification, JsonObject> blueprint,
+                                        int x, int y, int z) {
+        if (!volume.add(modification, x, y, z, blueprint)) {
+            volume.add(modification, new Vector(x, y, z), blueprint);
+        }
+    }
+
+    /**
+     * Reads a count of entries, checking that the rest of the body is long enough to hold them, so that a corrupt count
+     * cannot allocate more than the body could describe.
+     *
+     * @param body         the body to read from
+     * @param minEntrySize the fewest bytes which each entry takes
+     * @return the count
+     */
+    private static int readCount(@NotNull ByteBuffer body, int minEntrySize) {
+        int count = readVarInt(body);
+        if (count < 0 || (long) count * minEntrySize > body.remaining()) {
+            throw new IllegalArgumentException("Count out of range in binary schematic: " + count);
+        }
+        return count;
+    }
+
+    private static int readPaletteIndex(@NotNull ByteBuffer body, int paletteSize) {
+        int paletteIndex = readVarInt(body);
+        if (paletteIndex < 1 || paletteIndex > paletteSize) {
+            throw new IllegalArgumentException("Palette index out of range in binary schematic: " + paletteIndex);
+        }
+        return paletteIndex;
+    }
+
+    private static JsonObject parseObject(@NotNull String json) {
+        return JsonParser.parseString(json).getAsJsonObject();
+    }
+
+    private static ByteBuffer inflate(@NotNull ByteBuffer compressed, int inflatedLength) {
+        if (inflatedLength < 0 || inflatedLength > compressed.remaining() * MAX_DEFLATE_RATIO) {
+            throw new IllegalArgumentException("Invalid body length in binary schematic: " + inflatedLength);
+        }
+
+        byte[] inflated = new byte[inflatedLength];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            int offset = 0;
+            while (offset < inflatedLength && !inflater.finished()) {
+                int length = inflater.inflate(inflated, offset, inflatedLength - offset);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalArgumentException("Binary schematic body is truncated");
+                }
+                offset += length;
+            }
+
+            if (offset < inflatedLength) {
+                throw new IllegalArgumentException("Binary schematic body is shorter than its length");
+            }
+            // Reading on to the end of the stream checks its checksum, and that the body is no longer than its length
+            if (!inflater.finished() && (inflater.inflate(new byte[1]) != 0 || !inflater.finished())) {
+                throw new IllegalArgumentException("Binary schematic body does not end at its length");
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Binary schematic body is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+        return ByteBuffer.wrap(inflated);
+    }
+
+}
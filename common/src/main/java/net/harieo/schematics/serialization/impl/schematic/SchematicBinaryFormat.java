@@ -0,0 +1,156 @@
+package net.harieo.schematics.serialization.impl.schematic;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Constants and primitive encoding helpers for the binary schematic format written by {@link SchematicBinarySerializer}
+ * and read by {@link SchematicBinaryDeserializer}.
+ * <p>
+ * The format is laid out as:
+ * <ol>
+ *     <li>Header: the {@link #MAGIC} int, a version byte and a flags byte. If {@link #FLAG_DEFLATED} is set, the
+ *     header continues with the varint length of the inflated body.</li>
+ *     <li>Body, optionally deflated:
+ *     <ul>
+ *         <li>A presence byte for the id, followed by the id string if present.</li>
+ *         <li>The initial position as a compact JSON string.</li>
+ *         <li>The palette: a varint count followed by each modification as a compact JSON string.</li>
+ *         <li>The grid: zigzag varint origin, varint size, varint count of non-empty positions, then each position as a
+ *         varint gap from the previous grid index followed by its varint palette index.</li>
+ *         <li>Ungridded modifications: a varint count followed by three doubles and a varint palette index for each.</li>
+ *     </ul>
+ *     </li>
+ * </ol>
+ * Strings are written as a varint byte length followed by UTF-8 bytes. Palette indexes in the file start at 1, as 0
+ * is reserved for empty positions.
+ */
+public final class SchematicBinaryFormat {
+
+    /**
+     * The first four bytes of every binary schematic, which read as {@code SSCH} in ASCII.
+     */
+    public static final int MAGIC = 0x53534348;
+    /**
+     * The newest version of the format, which is the version written by {@link SchematicBinarySerializer}.
+     */
+    public static final byte VERSION = 1;
+    /**
+     * Marks that the body following the header is compressed with {@link java.util.zip.Deflater}.
+     */
+    public static final byte FLAG_DEFLATED = 1;
+
+    private SchematicBinaryFormat() {
+    }
+
+    /**
+     * Writes an unsigned variable-length integer, using 7 bits per byte.
+     *
+     * @param outputStream the stream to write to
+     * @param value        the value, which is treated as unsigned
+     */
+    public static void writeVarInt(@NotNull ByteArrayOutputStream outputStream, int value) {
+        while ((value & ~0x7F) != 0) {
+            outputStream.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        outputStream.write(value);
+    }
+
+    /**
+     * Reads an unsigned variable-length integer written by {@link #writeVarInt(ByteArrayOutputStream, int)}.
+     *
+     * @param buffer the buffer to read from
+     * @return the value
+     * @throws IllegalArgumentException if the varint is longer than 5 bytes
+     */
+    public static int readVarInt(@NotNull ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte currentByte = buffer.get();
+            value |= (currentByte & 0x7F) << shift;
+            if ((currentByte & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in binary schematic");
+    }
+
+    /**
+     * Writes a signed integer as a zigzag-encoded varint, so that small negative values remain small.
+     *
+     * @param outputStream the stream to write to
+     * @param value        the signed value
+     */
+    public static void writeSignedVarInt(@NotNull ByteArrayOutputStream outputStream, int value) {
+        writeVarInt(outputStream, (value << 1) ^ (value >> 31));
+    }
+
+    /**
+     * Reads a signed integer written by {@link #writeSignedVarInt(ByteArrayOutputStream, int)}.
+     *
+     * @param buffer the buffer to read from
+     * @return the signed value
+     */
+    public static int readSignedVarInt(@NotNull ByteBuffer buffer) {
+        int value = readVarInt(buffer);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Writes a double as its 8 raw bytes in big-endian order.
+     *
+     * @param outputStream the stream to write to
+     * @param value        the value
+     */
+    public static void writeDouble(@NotNull ByteArrayOutputStream outputStream, double value) {
+        long bits = Double.doubleToLongBits(value);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            outputStream.write((int) (bits >>> shift));
+        }
+    }
+
+    /**
+     * Writes a string as a varint byte length followed by its UTF-8 bytes.
+     *
+     * @param outputStream the stream to write to
+     * @param value        the string
+     */
+    public static void writeString(@NotNull ByteArrayOutputStream outputStream, @NotNull String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(outputStream, bytes.length);
+        outputStream.write(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(ByteArrayOutputStream, String)}.
+     *
+     * @param buffer the buffer to read from
+     * @return the string
+     * @throws IllegalArgumentException if the length of the string is longer than the rest of the buffer
+     */
+    public static String readString(@NotNull ByteBuffer buffer) {
+        int length = readVarInt(buffer);
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("String length out of range in binary schematic: " + length);
+        }
+
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Checks whether a buffer begins with the {@link #MAGIC} of a binary schematic, without moving its position.
+     *
+     * @param buffer the buffer to check
+     * @return whether the buffer appears to contain a binary schematic
+     */
+    public static boolean hasMagic(@NotNull ByteBuffer buffer) {
+        return buffer.remaining() >= Integer.BYTES && buffer.getInt(buffer.position()) == MAGIC;
+    }
+
+}
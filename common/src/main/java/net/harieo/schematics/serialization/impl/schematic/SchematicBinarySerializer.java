@@ -0,0 +1,214 @@
+package net.harieo.schematics.serialization.impl.schematic;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import net.harieo.schematics.modification.Modification;
+import net.harieo.schematics.modification.RelativeModification;
+import net.harieo.schematics.position.Coordinate;
+import net.harieo.schematics.position.Vector;
+import net.harieo.schematics.schematic.Schematic;
+import net.harieo.schematics.schematic.volume.ModificationPalette;
+import net.harieo.schematics.schematic.volume.SchematicVolume;
+import net.harieo.schematics.serialization.Blueprint;
+import net.harieo.schematics.serialization.Serializer;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.Deflater;
+
+import static net.harieo.schematics.serialization.impl.schematic.SchematicBinaryFormat.*;
+
+/**
+ * A serializer to the binary format described by {@link SchematicBinaryFormat} for {@link Schematic}.
+ *
+ * @param <T> the type of {@link Coordinate} used for the initial position.
+ * @apiNote The palette and initial position are stored as JSON, using the same blueprints as {@link SchematicJsonSerializer},
+ * so any {@link Modification} which can be serialized to JSON can also be serialized to this format.
+ */
+public class SchematicBinarySerializer<T extends Coordinate> implements Serializer<Schematic, ByteBuffer> {
+
+    private static final Gson COMPACT_GSON = new Gson();
+
+    private final Serializer<T, JsonObject> coordinateJsonSerializer;
+    private final boolean deflate;
+
+    /**
+     * A schematic serializer to the binary format with a specified {@link Serializer} to serialize coordinates.
+     *
+     * @param coordinateJsonSerializer the serializer for coordinates
+     * @param deflate                  whether to compress the body of the format
+     */
+    public SchematicBinarySerializer(@NotNull Serializer<T, JsonObject> coordinateJsonSerializer, boolean deflate) {
+        this.coordinateJsonSerializer = coordinateJsonSerializer;
+        this.deflate = deflate;
+    }
+
+    /**
+     * An overload of {@link #SchematicBinarySerializer(Serializer, boolean)} which compresses the body.
+     *
+     * @param coordinateJsonSerializer the serializer for coordinates
+     */
+    public SchematicBinarySerializer(@NotNull Serializer<T, JsonObject> coordinateJsonSerializer) {
+        this(coordinateJsonSerializer, true);
+    }
+
+    /**
+     * @return whether the body of the format is compressed
+     */
+    public boolean isDeflate() {
+        return deflate;
+    }
+
+    /**
+     * Serializes the schematic.
+     *
+     * @param schematic the schematic to serialize
+     * @return a buffer containing the serialized schematic, ready to be read, whose array may be longer than its
+     * remaining bytes
+     * @throws IllegalStateException if a modification in the palette has no JSON blueprint
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public ByteBuffer serialize(@NotNull Schematic schematic) {
+        SchematicVolume volume = schematic.getVolume();
+        ModificationPalette palette = volume.getPalette();
+        BufferOutputStream body = new BufferOutputStream(Math.max(64, volume.size() * 2));
+        if (!deflate) {
+            writeHeader(body, 0); // An uncompressed body follows its header directly, so it is never copied
+        }
+
+        schematic.getId().ifPresentOrElse(id -> {
+            body.write(1);
+            writeString(body, id);
+        }, () -> body.write(0));
+        writeString(body, COMPACT_GSON.toJson(coordinateJsonSerializer.serialize((T) schematic.getInitialPosition())));
+
+        // Palette, excluding the reserved empty entry and any entry whose modifications have all been removed
+        int[] fileIndexes = numberUsedPaletteEntries(volume);
+        int filePaletteSize = 0;
+        for (int fileIndex : fileIndexes) {
+            filePaletteSize = Math.max(filePaletteSize, fileIndex);
+        }
+        writeVarInt(body, filePaletteSize);
+        for (int paletteIndex = 1; paletteIndex < palette.size(); paletteIndex++) {
+            if (fileIndexes[paletteIndex] == ModificationPalette.EMPTY) {
+                continue;
+            }
+            Blueprint<Modification, JsonObject> blueprint =
+                    (Blueprint<Modification, JsonObject>) palette.getJsonBlueprint(paletteIndex);
+            if (blueprint == null) {
+                throw new IllegalStateException("No actual modification blueprint provided");
+            }
+            writeString(body, COMPACT_GSON.toJson(blueprint.serialize(palette.get(paletteIndex))));
+        }
+
+        // Grid positions as gaps between grid indexes, which are mostly 0 for dense schematics
+        int sizeX = volume.getGridSizeX(), sizeZ = volume.getGridSizeZ();
+        int originX = volume.getGridOriginX(), originY = volume.getGridOriginY(), originZ = volume.getGridOriginZ();
+        writeSignedVarInt(body, originX);
+        writeSignedVarInt(body, originY);
+        writeSignedVarInt(body, originZ);
+        writeVarInt(body, sizeX);
+        writeVarInt(body, volume.getGridSizeY());
+        writeVarInt(body, sizeZ);
+        writeVarInt(body, volume.getGriddedCount());
+        int[] previousGridIndex = {-1};
+        volume.forEachCell((x, y, z, paletteIndex) -> {
+            int gridIndex = ((y - originY) * sizeZ + (z - originZ)) * sizeX + (x - originX);
+            writeVarInt(body, gridIndex - previousGridIndex[0] - 1);
+            writeVarInt(body, fileIndexes[paletteIndex]);
+            previousGridIndex[0] = gridIndex;
+        });
+
+        // Modifications outside the grid
+        writeVarInt(body, volume.getUngriddedModifications().size());
+        for (RelativeModification<? extends Modification> relativeModification : volume.getUngriddedModifications()) {
+            Vector vector = relativeModification.getVector();
+            writeDouble(body, vector.getX());
+            writeDouble(body, vector.getY());
+            writeDouble(body, vector.getZ());
+            writeVarInt(body, fileIndexes[palette.indexOf(relativeModification.getActualModification())]);
+        }
+
+        if (!deflate) {
+            return body.toByteBuffer();
+        }
+        // The length of the body comes before it, so the body is compressed from its buffer once it is complete
+        BufferOutputStream output = new BufferOutputStream(body.size() / 4 + 16);
+        writeHeader(output, body.size());
+        deflate(body.toByteBuffer(), output);
+        return output.toByteBuffer();
+    }
+
+    /**
+     * Numbers the palette entries which are still used by a modification of a volume from 1, in palette order, as
+     * entries are kept in the palette after the last modification using them is removed.
+     *
+     * @param volume the volume to number the palette entries of
+     * @return the index in the file of each palette index, or {@link ModificationPalette#EMPTY} if it is not used
+     */
+    private static int[] numberUsedPaletteEntries(@NotNull SchematicVolume volume) {
+        ModificationPalette palette = volume.getPalette();
+        int[] fileIndexes = new int[palette.size()];
+        volume.forEachCell((x, y, z, paletteIndex) -> fileIndexes[paletteIndex] = 1);
+        for (RelativeModification<? extends Modification> relativeModification : volume.getUngriddedModifications()) {
+            fileIndexes[palette.indexOf(relativeModification.getActualModification())] = 1;
+        }
+
+        int fileIndex = 0;
+        for (int paletteIndex = 1; paletteIndex < fileIndexes.length; paletteIndex++) {
+            if (fileIndexes[paletteIndex] != ModificationPalette.EMPTY) {
+                fileIndexes[paletteIndex] = ++fileIndex;
+            }
+        }
+        return fileIndexes;
+    }
+
+    // The length of the body is only written for a compressed body
+    private void writeHeader(@NotNull ByteArrayOutputStream output, int bodyLength) {
+        output.write(MAGIC >>> 24);
+        output.write(MAGIC >>> 16);
+        output.write(MAGIC >>> 8);
+        output.write(MAGIC);
+        output.write(VERSION);
+        output.write(deflate ? FLAG_DEFLATED : 0);
+        if (deflate) {
+            writeVarInt(output, bodyLength);
+        }
+    }
+
+    private static void deflate(@NotNull ByteBuffer input, @NotNull ByteArrayOutputStream output) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(chunk);
+                output.write(chunk, 0, length);
+            }
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * A {@link ByteArrayOutputStream} whose contents can be wrapped in a buffer rather than copied.
+     */
+    private static class BufferOutputStream extends ByteArrayOutputStream {
+
+        private BufferOutputStream(int size) {
+            super(size);
+        }
+
+        /**
+         * @return a buffer over the bytes written so far, which shares the array of this stream
+         */
+        private @NotNull ByteBuffer toByteBuffer() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+
+    }
+
+}
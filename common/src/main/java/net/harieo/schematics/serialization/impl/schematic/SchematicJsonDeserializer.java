@@ -7,26 +7,33 @@ import net.harieo.schematics.modification.Modification;
 import net.harieo.schematics.modification.RelativeModification;
 import net.harieo.schematics.position.Coordinate;
 import net.harieo.schematics.schematic.Schematic;
+import net.harieo.schematics.schematic.volume.SchematicVolume;
 import net.harieo.schematics.serialization.Blueprint;
 import net.harieo.schematics.serialization.Deserializer;
-import net.harieo.schematics.serialization.impl.modification.RelativeModificationJsonBlueprint;
+import net.harieo.schematics.serialization.impl.modification.RelativeModificationJsonBlueprint.RelativeModificationJsonDeserializer;
+import net.harieo.schematics.serialization.registry.BlueprintRegistry;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Set;
-import java.util.stream.StreamSupport;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A deserializer from JSON format for {@link Schematic}.
  *
  * @param <T> the type of {@link Coordinate} used for the initial position.
+ * @implNote Actual modifications are dispatched to their blueprint by their {@code type} field through a
+ * {@link BlueprintRegistry}, and the first blueprint which accepts a modification is the only one used.
  */
 public class SchematicJsonDeserializer<T extends Coordinate> implements Deserializer<Schematic, JsonObject> {
 
     private final Deserializer<T, JsonObject> coordinateJsonDeserializer;
 
-    private final Set<Blueprint<? extends Modification, JsonObject>> modificationBlueprints = new HashSet<>();
+    private final BlueprintRegistry<Modification, JsonObject> modificationBlueprintRegistry;
+    // Relative modification deserializers are only created once for each actual modification blueprint
+    private final Map<Blueprint<? extends Modification, JsonObject>, RelativeModificationJsonDeserializer<Modification>>
+            relativeModificationDeserializers = new ConcurrentHashMap<>();
 
     /**
      * A deserializer from JSON format for {@link Schematic} with a specified {@link Deserializer} for
@@ -35,10 +42,12 @@ public class SchematicJsonDeserializer<T extends Coordinate> implements Deserial
      * @param coordinateJsonDeserializer the deserializer for deserializing coordinates
      */
     @SafeVarargs
+    @SuppressWarnings("varargs") // The blueprints are only read from the array
     public SchematicJsonDeserializer(@NotNull Deserializer<T, JsonObject> coordinateJsonDeserializer,
                                      @NotNull Blueprint<? extends Modification, JsonObject>... modificationBlueprints) {
         this.coordinateJsonDeserializer = coordinateJsonDeserializer;
-        this.modificationBlueprints.addAll(Arrays.asList(modificationBlueprints));
+        this.modificationBlueprintRegistry = new BlueprintRegistry<Modification, JsonObject>(
+                BlueprintRegistry.JSON_TYPE_DISCRIMINATOR, modificationBlueprints);
     }
 
     /**
@@ -48,7 +57,7 @@ public class SchematicJsonDeserializer<T extends Coordinate> implements Deserial
      * @param deserializer the blueprint containing the relevant deserializer
      */
     public void addModificationBlueprint(@NotNull Blueprint<? extends Modification, JsonObject> deserializer) {
-        modificationBlueprints.add(deserializer);
+        modificationBlueprintRegistry.addBlueprint(deserializer);
     }
 
     @Override
@@ -64,40 +73,35 @@ public class SchematicJsonDeserializer<T extends Coordinate> implements Deserial
         Coordinate initialPosition = coordinateJsonDeserializer.deserialize(
                 serializedObject.getAsJsonObject("initial-position"));
 
-        // Load and deserialize all the relative modifications (complicated part)
-        Set<RelativeModification<? extends Modification>> modifications = new HashSet<>();
         // Get the array of serialized modifications
         JsonArray rawModificationArray = serializedObject.getAsJsonArray("modifications");
-        // Stream the modification JSON element and ensure they are formatted as JsonObjects
-        StreamSupport.stream(rawModificationArray.spliterator(), false) // Older method to provide legacy support of JsonArray
-                .filter(JsonElement::isJsonObject)
-                .map(JsonElement::getAsJsonObject)
-                .forEach(serializedRelativeModification ->
-                    modificationBlueprints.forEach(actualModificationBlueprint -> { // Check all actual modification blueprints
-                        // Get the deserializer, as our primary function is deserialization of this modification
-                        Deserializer<? extends Modification, JsonObject> actualModificationDeserializer =
-                                actualModificationBlueprint.getDeserializer();
-                        // Load a relative modification deserializer with the actual modification deserializer
-                        // Remember: We are deserializing a relative modification with an unknown actual modification inside it
-                        RelativeModificationJsonBlueprint.RelativeModificationJsonDeserializer<Modification>
-                                relativeModificationJsonDeserializer = (RelativeModificationJsonBlueprint.RelativeModificationJsonDeserializer<Modification>) new RelativeModificationJsonBlueprint
-                                .RelativeModificationJsonDeserializer<>(actualModificationDeserializer);
+        List<RelativeModification<? extends Modification>> modifications = new ArrayList<>(rawModificationArray.size());
+        for (JsonElement rawModificationElement : rawModificationArray) {
+            // Relative modifications must be objects with a vector and an actual modification object
+            if (!rawModificationElement.isJsonObject()) {
+                continue;
+            }
+            JsonObject serializedRelativeModification = rawModificationElement.getAsJsonObject();
+            JsonElement actualModificationElement = serializedRelativeModification.get("actual-modification");
+            if (actualModificationElement == null || !actualModificationElement.isJsonObject()
+                    || !serializedRelativeModification.has("vector")) {
+                continue;
+            }
 
-                        // If this deserializer is capable of deserializing our relative modification
-                        if (relativeModificationJsonDeserializer.isValidObject(serializedRelativeModification)) {
-                            // Then do actually deserialize it
-                            RelativeModification<Modification> deserializedModification =
-                                    relativeModificationJsonDeserializer.deserialize(serializedRelativeModification);
-                            // Set the blueprint while we have it so that we can re-serialize if necessary
-                            deserializedModification.setActualModificationJsonBlueprint(
-                                    (Blueprint<Modification, JsonObject>) actualModificationBlueprint);
-                            // Add to the list of deserialized modifications
-                            modifications.add(deserializedModification);
-                        }
-                    })
-                );
+            // Find the blueprint by the type of the actual modification, then deserialize the relative modification
+            modificationBlueprintRegistry.findBlueprint(actualModificationElement.getAsJsonObject())
+                    .ifPresent(actualModificationBlueprint -> {
+                        RelativeModification<Modification> deserializedModification =
+                                getRelativeModificationDeserializer(actualModificationBlueprint)
+                                        .deserialize(serializedRelativeModification);
+                        // Set the blueprint while we have it so that we can re-serialize if necessary
+                        deserializedModification.setActualModificationJsonBlueprint(
+                                (Blueprint<Modification, JsonObject>) actualModificationBlueprint);
+                        modifications.add(deserializedModification);
+                    });
+        }
 
-        return new Schematic(id, initialPosition, modifications);
+        return new Schematic(id, initialPosition, new SchematicVolume(modifications));
     }
 
     @Override
@@ -105,4 +109,12 @@ public class SchematicJsonDeserializer<T extends Coordinate> implements Deserial
         return serializedObject.has("initial-position") && serializedObject.has("modifications");
     }
 
+    @SuppressWarnings("unchecked")
+    private RelativeModificationJsonDeserializer<Modification> getRelativeModificationDeserializer(
+            @NotNull Blueprint<? extends Modification, JsonObject> actualModificationBlueprint) {
+        return relativeModificationDeserializers.computeIfAbsent(actualModificationBlueprint,
+                blueprint -> (RelativeModificationJsonDeserializer<Modification>)
+                        new RelativeModificationJsonDeserializer<>(blueprint.getDeserializer()));
+    }
+
 }
@@ -0,0 +1,198 @@
+package net.harieo.schematics.serialization.impl.schematic;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import net.harieo.schematics.modification.Modification;
+import net.harieo.schematics.position.Coordinate;
+import net.harieo.schematics.position.Vector;
+import net.harieo.schematics.schematic.Schematic;
+import net.harieo.schematics.schematic.volume.SchematicVolume;
+import net.harieo.schematics.serialization.Blueprint;
+import net.harieo.schematics.serialization.Deserializer;
+import net.harieo.schematics.serialization.StreamDeserializer;
+import net.harieo.schematics.serialization.registry.BlueprintRegistry;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A deserializer which reads {@link Schematic} from the same JSON format as {@link SchematicJsonDeserializer}, but from a
+ * {@link JsonReader} as tokens arrive rather than from a fully parsed {@link JsonObject}.
+ * <p>
+ * Only the small objects for the initial position and each actual modification are parsed into trees. Each element of
+ * the modifications array is added straight into the {@link SchematicVolume} of the schematic, so the whole file is
+ * never held in memory at once.
+ *
+ * @param <T> the type of {@link Coordinate} used for the initial position.
+ * @apiNote Vectors are read in the format of {@link Coordinate#DEFAULT_JSON_BLUEPRINT}, which is the format written by
+ * {@link SchematicJsonSerializer}. As with {@link SchematicJsonDeserializer}, each actual modification is dispatched by
+ * its {@code type} field to the first blueprint which accepts it.
+ */
+public class SchematicJsonStreamDeserializer<T extends Coordinate> implements StreamDeserializer<Schematic, JsonReader> {
+
+    // Limits the cache of deserialized actual modifications for schematics where most modifications are distinct
+    private static final int MAX_CACHED_MODIFICATIONS = 4096;
+
+    private final Deserializer<T, JsonObject> coordinateJsonDeserializer;
+
+    private final BlueprintRegistry<Modification, JsonObject> modificationBlueprintRegistry;
+
+    /**
+     * A streaming deserializer from JSON format for {@link Schematic} with a specified {@link Deserializer} for
+     * deserializing coordinates.
+     *
+     * @param coordinateJsonDeserializer the deserializer for deserializing coordinates
+     * @param modificationBlueprints     the blueprints which can be used for deserializing actual modifications
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs") // The blueprints are only read from the array
+    public SchematicJsonStreamDeserializer(@NotNull Deserializer<T, JsonObject> coordinateJsonDeserializer,
+                                           @NotNull Blueprint<? extends Modification, JsonObject>... modificationBlueprints) {
+        this.coordinateJsonDeserializer = coordinateJsonDeserializer;
+        this.modificationBlueprintRegistry = new BlueprintRegistry<Modification, JsonObject>(
+                BlueprintRegistry.JSON_TYPE_DISCRIMINATOR, modificationBlueprints);
+    }
+
+    /**
+     * Adds a {@link Modification} {@link Blueprint} to the list of blueprints which can be used for deserializing actual
+     * modifications.
+     *
+     * @param blueprint the blueprint containing the relevant deserializer
+     */
+    public void addModificationBlueprint(@NotNull Blueprint<? extends Modification, JsonObject> blueprint) {
+        modificationBlueprintRegistry.addBlueprint(blueprint);
+    }
+
+    /**
+     * Reads a schematic object from the reader.
+     *
+     * @param reader the reader, positioned before the schematic object
+     * @return the deserialized schematic
+     * @throws IOException        if the reader fails or the JSON is malformed
+     * @throws JsonParseException if the schematic object has no initial position
+     */
+    @Override
+    public Schematic deserialize(@NotNull JsonReader reader) throws IOException {
+        String id = null;
+        Coordinate initialPosition = null;
+        SchematicVolume volume = new SchematicVolume();
+        // Equal JSON is deserialized once, which also lets the volume palette share one instance
+        Map<JsonObject, ResolvedModification> resolvedModifications = new HashMap<>();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id" -> {
+                    if (reader.peek() == JsonToken.NULL) {
+                        reader.nextNull();
+                    } else {
+                        id = reader.nextString();
+                    }
+                }
+                case "initial-position" -> initialPosition = coordinateJsonDeserializer.deserialize(readObject(reader));
+                case "modifications" -> {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        readRelativeModification(reader, volume, resolvedModifications);
+                    }
+                    reader.endArray();
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (initialPosition == null) {
+            throw new JsonParseException("Schematic has no initial-position");
+        }
+
+        volume.trim();
+        return new Schematic(id, initialPosition, volume);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void readRelativeModification(@NotNull JsonReader reader,
+                                          @NotNull SchematicVolume volume,
+                                          @NotNull Map<JsonObject, ResolvedModification> resolvedModifications)
+            throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue(); // Only objects can be relative modifications
+            return;
+        }
+
+        Vector vector = null;
+        JsonObject serializedActualModification = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "vector" -> vector = readVector(reader);
+                case "actual-modification" -> {
+                    if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+                        serializedActualModification = readObject(reader);
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (vector == null || serializedActualModification == null) {
+            return;
+        }
+
+        ResolvedModification resolved = resolvedModifications.get(serializedActualModification);
+        if (resolved == null) {
+            resolved = resolve(serializedActualModification);
+            if (resolved == null) {
+                return; // No blueprint accepts this modification
+            } else if (resolvedModifications.size() < MAX_CACHED_MODIFICATIONS) {
+                resolvedModifications.put(serializedActualModification, resolved);
+            }
+        }
+
+        volume.add(resolved.modification(), vector, (Blueprint) resolved.blueprint());
+    }
+
+    private @Nullable ResolvedModification resolve(@NotNull JsonObject serializedActualModification) {
+        return modificationBlueprintRegistry.findBlueprint(serializedActualModification)
+                .map(blueprint -> new ResolvedModification(blueprint.deserialize(serializedActualModification), blueprint))
+                .orElse(null);
+    }
+
+    private static @NotNull Vector readVector(@NotNull JsonReader reader) throws IOException {
+        double x = 0, y = 0, z = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "x" -> x = reader.nextDouble();
+                case "y" -> y = reader.nextDouble();
+                case "z" -> z = reader.nextDouble();
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new Vector(x, y, z);
+    }
+
+    private static @NotNull JsonObject readObject(@NotNull JsonReader reader) {
+        JsonElement element = JsonParser.parseReader(reader);
+        if (!element.isJsonObject()) {
+            throw new JsonParseException("Expected a JSON object but found " + element);
+        }
+        return element.getAsJsonObject();
+    }
+
+    private record ResolvedModification(@NotNull Modification modification,
+                                        @NotNull Blueprint<? extends Modification, JsonObject> blueprint) {
+    }
+
+}
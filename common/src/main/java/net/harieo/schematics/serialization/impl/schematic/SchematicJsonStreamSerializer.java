@@ -0,0 +1,125 @@
+package net.harieo.schematics.serialization.impl.schematic;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
+import net.harieo.schematics.modification.Modification;
+import net.harieo.schematics.modification.RelativeModification;
+import net.harieo.schematics.position.Coordinate;
+import net.harieo.schematics.position.Vector;
+import net.harieo.schematics.schematic.Schematic;
+import net.harieo.schematics.schematic.volume.ModificationPalette;
+import net.harieo.schematics.schematic.volume.SchematicVolume;
+import net.harieo.schematics.serialization.Blueprint;
+import net.harieo.schematics.serialization.Serializer;
+import net.harieo.schematics.serialization.StreamSerializer;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * A serializer which writes {@link Schematic} in the same JSON format as {@link SchematicJsonSerializer}, but directly
+ * to a {@link JsonWriter} rather than into a {@link JsonObject}.
+ * <p>
+ * Modifications are written as they are iterated from the {@link SchematicVolume} of the schematic. Each distinct
+ * actual modification is serialized once per call, so only the small tree for each palette entry is held in memory.
+ *
+ * @param <T> the type of {@link Coordinate} used for the initial position.
+ */
+public class SchematicJsonStreamSerializer<T extends Coordinate> implements StreamSerializer<Schematic, JsonWriter> {
+
+    // Only used to write small trees to the writer, which keeps the formatting of the writer
+    private static final Gson GSON = new Gson();
+    private static final String RELATIVE_MODIFICATION_TYPE = "relative-modification";
+
+    private final Serializer<T, JsonObject> coordinateJsonSerializer;
+
+    /**
+     * A streaming schematic serializer to JSON with a specified {@link Serializer} to serialize coordinates.
+     *
+     * @param coordinateJsonSerializer the serializer for coordinates
+     */
+    public SchematicJsonStreamSerializer(@NotNull Serializer<T, JsonObject> coordinateJsonSerializer) {
+        this.coordinateJsonSerializer = coordinateJsonSerializer;
+    }
+
+    /**
+     * Writes the schematic to the writer as a JSON object.
+     *
+     * @param schematic the schematic to serialize
+     * @param writer    the writer to write the schematic object to
+     * @throws IOException           if the writer fails
+     * @throws IllegalStateException if a modification in the schematic has no JSON blueprint
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void serialize(@NotNull Schematic schematic, @NotNull JsonWriter writer) throws IOException {
+        SchematicVolume volume = schematic.getVolume();
+        ModificationPalette palette = volume.getPalette();
+        JsonObject[] serializedPalette = new JsonObject[palette.size()];
+
+        writer.beginObject();
+        if (schematic.getId().isPresent()) {
+            writer.name("id").value(schematic.getId().get());
+        }
+        writer.name("initial-position");
+        GSON.toJson(coordinateJsonSerializer.serialize((T) schematic.getInitialPosition()), writer);
+
+        writer.name("modifications").beginArray();
+        try {
+            volume.forEachCell((x, y, z, paletteIndex) -> {
+                try {
+                    writeRelativeModification(writer, x, y, z, serializedPalette, palette, paletteIndex);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        for (RelativeModification<? extends Modification> relativeModification : volume.getUngriddedModifications()) {
+            Vector vector = relativeModification.getVector();
+            writeRelativeModification(writer, vector.getX(), vector.getY(), vector.getZ(), serializedPalette, palette,
+                    palette.indexOf(relativeModification.getActualModification()));
+        }
+        writer.endArray();
+
+        writer.endObject();
+    }
+
+    private static void writeRelativeModification(@NotNull JsonWriter writer,
+                                                  double x, double y, double z,
+                                                  @NotNull JsonObject[] serializedPalette,
+                                                  @NotNull ModificationPalette palette,
+                                                  int paletteIndex) throws IOException {
+        writer.beginObject();
+        writer.name("type").value(RELATIVE_MODIFICATION_TYPE);
+        writer.name("vector").beginObject()
+                .name("x").value(x)
+                .name("y").value(y)
+                .name("z").value(z)
+                .endObject();
+        writer.name("actual-modification");
+        GSON.toJson(getSerializedModification(serializedPalette, palette, paletteIndex), writer);
+        writer.endObject();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static @NotNull JsonObject getSerializedModification(@NotNull JsonObject[] serializedPalette,
+                                                                 @NotNull ModificationPalette palette,
+                                                                 int paletteIndex) {
+        JsonObject serializedModification = serializedPalette[paletteIndex];
+        if (serializedModification == null) {
+            Blueprint<Modification, JsonObject> blueprint =
+                    (Blueprint<Modification, JsonObject>) palette.getJsonBlueprint(paletteIndex);
+            if (blueprint == null) {
+                throw new IllegalStateException("No actual modification blueprint provided");
+            }
+            serializedModification = blueprint.serialize(palette.get(paletteIndex));
+            serializedPalette[paletteIndex] = serializedModification;
+        }
+        return serializedModification;
+    }
+
+}
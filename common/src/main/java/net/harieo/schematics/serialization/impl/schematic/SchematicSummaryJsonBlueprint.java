@@ -0,0 +1,94 @@
+package net.harieo.schematics.serialization.impl.schematic;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import net.harieo.schematics.position.Coordinate;
+import net.harieo.schematics.position.Vector;
+import net.harieo.schematics.schematic.SchematicSummary;
+import net.harieo.schematics.serialization.Blueprint;
+import net.harieo.schematics.serialization.Deserializer;
+import net.harieo.schematics.serialization.Serializer;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A {@link Blueprint} for the serialization and deserialization of {@link SchematicSummary} in JSON format.
+ *
+ * @apiNote The corners of the bounding box are written in the format of {@link Coordinate#DEFAULT_JSON_BLUEPRINT}.
+ */
+public class SchematicSummaryJsonBlueprint extends Blueprint<SchematicSummary, JsonObject> {
+
+    /**
+     * Loads the default {@link SchematicSummaryJsonSerializer} and {@link SchematicSummaryJsonDeserializer} into this
+     * class.
+     */
+    public SchematicSummaryJsonBlueprint() {
+        super(new SchematicSummaryJsonSerializer(), new SchematicSummaryJsonDeserializer());
+    }
+
+    /**
+     * A default {@link Serializer} for {@link SchematicSummary} into JSON.
+     */
+    public static class SchematicSummaryJsonSerializer implements Serializer<SchematicSummary, JsonObject> {
+
+        @Override
+        public JsonObject serialize(@NotNull SchematicSummary summary) {
+            JsonObject serializedObject = new JsonObject();
+            serializedObject.addProperty("id", summary.getId().orElse(null));
+            serializedObject.add("initial-position",
+                    Coordinate.DEFAULT_JSON_BLUEPRINT.serialize(summary.getInitialPosition()));
+            serializedObject.addProperty("modification-count", summary.getModificationCount());
+
+            JsonObject typeCounts = new JsonObject();
+            summary.getTypeCounts().forEach(typeCounts::addProperty);
+            serializedObject.add("type-counts", typeCounts);
+
+            summary.getMinimum().ifPresent(minimum ->
+                    serializedObject.add("minimum", Coordinate.DEFAULT_JSON_BLUEPRINT.serialize(minimum)));
+            summary.getMaximum().ifPresent(maximum ->
+                    serializedObject.add("maximum", Coordinate.DEFAULT_JSON_BLUEPRINT.serialize(maximum)));
+            return serializedObject;
+        }
+
+    }
+
+    /**
+     * A default {@link Deserializer} for {@link SchematicSummary} from JSON.
+     */
+    public static class SchematicSummaryJsonDeserializer implements Deserializer<SchematicSummary, JsonObject> {
+
+        @Override
+        public SchematicSummary deserialize(@NotNull JsonObject serializedObject) {
+            JsonElement idElement = serializedObject.get("id");
+            String id = idElement != null && !idElement.isJsonNull() ? idElement.getAsString() : null;
+            Coordinate initialPosition = Coordinate.DEFAULT_JSON_BLUEPRINT
+                    .deserialize(serializedObject.getAsJsonObject("initial-position"));
+            int modificationCount = serializedObject.get("modification-count").getAsInt();
+
+            Map<String, Integer> typeCounts = new HashMap<>();
+            if (serializedObject.has("type-counts")) {
+                serializedObject.getAsJsonObject("type-counts").entrySet()
+                        .forEach(entry -> typeCounts.put(entry.getKey(), entry.getValue().getAsInt()));
+            }
+
+            Vector minimum = null;
+            Vector maximum = null;
+            if (serializedObject.has("minimum") && serializedObject.has("maximum")) {
+                minimum = Coordinate.DEFAULT_JSON_BLUEPRINT.deserialize(serializedObject.getAsJsonObject("minimum"))
+                        .toVector();
+                maximum = Coordinate.DEFAULT_JSON_BLUEPRINT.deserialize(serializedObject.getAsJsonObject("maximum"))
+                        .toVector();
+            }
+            return new SchematicSummary(id, initialPosition, modificationCount, typeCounts, minimum, maximum);
+        }
+
+        @Override
+        public boolean isValidObject(@NotNull JsonObject serializedObject) {
+            return serializedObject.has("initial-position") && serializedObject.has("modification-count");
+        }
+
+    }
+
+}
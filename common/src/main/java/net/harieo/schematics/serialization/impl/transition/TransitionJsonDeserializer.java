@@ -2,10 +2,10 @@ package net.harieo.schematics.serialization.impl.transition;
 
 import com.google.gson.JsonObject;
 import net.harieo.schematics.animation.Transition;
-import net.harieo.schematics.serialization.Deserializer;
+import net.harieo.schematics.serialization.DiscriminatedDeserializer;
 import org.jetbrains.annotations.NotNull;
 
-public abstract class TransitionJsonDeserializer implements Deserializer<Transition, JsonObject> {
+public abstract class TransitionJsonDeserializer implements DiscriminatedDeserializer<Transition, JsonObject> {
 
 	@Override
 	public Transition deserialize(@NotNull JsonObject serializedObject) {
@@ -2,16 +2,27 @@ package net.harieo.schematics.serialization.registry;
 
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import net.harieo.schematics.serialization.Blueprint;
+import net.harieo.schematics.serialization.DiscriminatedDeserializer;
 import net.harieo.schematics.serialization.Deserializer;
 import net.harieo.schematics.serialization.Serializer;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Unmodifiable;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 
 /**
  * A registry for {@link Blueprint} for the purpose of caching all available {@link Blueprint} instances.
@@ -19,11 +30,58 @@ import java.util.Set;
  * @param <T> the type of deserialized object
  * @param <V> the type of serialized object
  * @apiNote This is useful primarily for caching deserializers which can then be checked via
- * {@link net.harieo.schematics.serialization.Deserializer#isValidObject(Object)}
+ * {@link net.harieo.schematics.serialization.Deserializer#isValidObject(Object)}. If the registry is given a
+ * discriminator extractor, blueprints with a {@link DiscriminatedDeserializer} are indexed by their discriminator so
+ * that they can be found without checking every blueprint.
  */
 public class BlueprintRegistry<T, V> {
 
+    /**
+     * Extracts the {@code type} field of a JSON object as a discriminator, which is the field written for both
+     * modifications and transitions.
+     */
+    public static final Function<JsonObject, String> JSON_TYPE_DISCRIMINATOR = serializedObject -> {
+        JsonElement type = serializedObject.get("type");
+        return type != null && type.isJsonPrimitive() ? type.getAsString() : null;
+    };
+
     private final Set<Blueprint<? extends T, V>> blueprints = new HashSet<>();
+    private final @Nullable Function<V, String> discriminatorExtractor;
+
+    // Lookup index, which is rebuilt when the blueprints change so that lookups are never affected by a change
+    private volatile Map<String, List<Blueprint<? extends T, V>>> discriminatedBlueprints = Collections.emptyMap();
+    private volatile List<Blueprint<? extends T, V>> undiscriminatedBlueprints = Collections.emptyList();
+    private volatile List<Blueprint<? extends T, V>> allBlueprints = Collections.emptyList();
+
+    /**
+     * A new registry for {@link Blueprint} with a collection of initial blueprints and a function to extract the
+     * discriminator from serialized objects.
+     *
+     * @param discriminatorExtractor a function which returns the discriminator of a serialized object, or null if it
+     *                               has none, or null to always check every blueprint
+     * @param initialBlueprints      the collection of initial blueprints
+     */
+    public BlueprintRegistry(@Nullable Function<V, String> discriminatorExtractor,
+                             @NotNull Collection<Blueprint<? extends T, V>> initialBlueprints) {
+        this.discriminatorExtractor = discriminatorExtractor;
+        this.blueprints.addAll(initialBlueprints);
+        rebuildIndex();
+    }
+
+    /**
+     * A new registry with a function to extract the discriminator from serialized objects and an optional initial
+     * {@link Blueprint} array.
+     *
+     * @param discriminatorExtractor a function which returns the discriminator of a serialized object, or null if it
+     *                               has none, or null to always check every blueprint
+     * @param initialBlueprints      an optional array of initial blueprints
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs") // The blueprints are only read from the array
+    public BlueprintRegistry(@Nullable Function<V, String> discriminatorExtractor,
+                             @NotNull Blueprint<? extends T, V>... initialBlueprints) {
+        this(discriminatorExtractor, Sets.newHashSet(initialBlueprints));
+    }
 
     /**
      * A new registry for {@link Blueprint} with a collection of initial blueprints.
@@ -31,7 +89,7 @@ public class BlueprintRegistry<T, V> {
      * @param initialBlueprints the collection of initial blueprints
      */
     public BlueprintRegistry(@NotNull Collection<Blueprint<? extends T, V>> initialBlueprints) {
-        this.blueprints.addAll(initialBlueprints);
+        this(null, initialBlueprints);
     }
 
     /**
@@ -40,6 +98,7 @@ public class BlueprintRegistry<T, V> {
      * @param initialBlueprints an optional array of initial blueprints
      */
     @SafeVarargs
+    @SuppressWarnings("varargs") // The blueprints are only read from the array
     public BlueprintRegistry(@NotNull Blueprint<? extends T, V>... initialBlueprints) {
         this(Sets.newHashSet(initialBlueprints));
     }
@@ -49,8 +108,10 @@ public class BlueprintRegistry<T, V> {
      *
      * @param blueprint the blueprint to add
      */
-    public void addBlueprint(@NotNull Blueprint<? extends T, V> blueprint) {
-        blueprints.add(blueprint);
+    public synchronized void addBlueprint(@NotNull Blueprint<? extends T, V> blueprint) {
+        if (blueprints.add(blueprint)) {
+            rebuildIndex();
+        }
     }
 
     /**
@@ -58,14 +119,16 @@ public class BlueprintRegistry<T, V> {
      *
      * @param blueprint the blueprint to remove
      */
-    public void removeBlueprint(@NotNull Blueprint<? extends T, V> blueprint) {
-        blueprints.remove(blueprint);
+    public synchronized void removeBlueprint(@NotNull Blueprint<? extends T, V> blueprint) {
+        if (blueprints.remove(blueprint)) {
+            rebuildIndex();
+        }
     }
 
     /**
      * @return an immutable set of all blueprints in the register
      */
-    public @Unmodifiable Set<Blueprint<? extends T, V>> getBlueprints() {
+    public synchronized @Unmodifiable Set<Blueprint<? extends T, V>> getBlueprints() {
         return ImmutableSet.copyOf(blueprints);
     }
 
@@ -74,12 +137,66 @@ public class BlueprintRegistry<T, V> {
      *
      * @param serializedObject the serialized object requiring a deserializer
      * @return the matching deserializer, if one is found
+     * @implNote See {@link #findBlueprint(Object)} for the order in which blueprints are checked.
      */
     public Optional<? extends Deserializer<? extends T, V>> findDeserializer(@NotNull V serializedObject) {
-        return getBlueprints().stream()
-                .filter(blueprint -> blueprint.getDeserializer().isValidObject(serializedObject))
-                .map(Blueprint::getDeserializer)
-                .findAny();
+        return findBlueprint(serializedObject).map(Blueprint::getDeserializer);
+    }
+
+    /**
+     * Attempts to find the {@link Blueprint} whose deserializer can deserialize the provided serialized object.
+     *
+     * @param serializedObject the serialized object requiring a blueprint
+     * @return the first matching blueprint, if one is found
+     * @implNote If the serialized object has a discriminator, only blueprints with a matching
+     * {@link DiscriminatedDeserializer} are checked before the blueprints which have no discriminator. If it has no
+     * discriminator, every blueprint is checked so that objects written before discriminators existed can still be
+     * found.
+     */
+    public Optional<Blueprint<? extends T, V>> findBlueprint(@NotNull V serializedObject) {
+        List<Blueprint<? extends T, V>> fallbackBlueprints = allBlueprints;
+        if (discriminatorExtractor != null) {
+            String discriminator = discriminatorExtractor.apply(serializedObject);
+            if (discriminator != null) {
+                List<Blueprint<? extends T, V>> candidates = discriminatedBlueprints.get(normalize(discriminator));
+                if (candidates != null) {
+                    for (Blueprint<? extends T, V> candidate : candidates) {
+                        if (candidate.getDeserializer().isValidObject(serializedObject)) {
+                            return Optional.of(candidate);
+                        }
+                    }
+                }
+                fallbackBlueprints = undiscriminatedBlueprints;
+            }
+        }
+
+        for (Blueprint<? extends T, V> candidate : fallbackBlueprints) {
+            if (candidate.getDeserializer().isValidObject(serializedObject)) {
+                return Optional.of(candidate);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void rebuildIndex() {
+        Map<String, List<Blueprint<? extends T, V>>> discriminated = new HashMap<>();
+        List<Blueprint<? extends T, V>> undiscriminated = new ArrayList<>();
+        for (Blueprint<? extends T, V> blueprint : blueprints) {
+            if (discriminatorExtractor != null
+                    && blueprint.getDeserializer() instanceof DiscriminatedDeserializer<?, ?> discriminatedDeserializer) {
+                discriminated.computeIfAbsent(normalize(discriminatedDeserializer.getDiscriminator()),
+                        key -> new ArrayList<>()).add(blueprint);
+            } else {
+                undiscriminated.add(blueprint);
+            }
+        }
+        this.discriminatedBlueprints = discriminated;
+        this.undiscriminatedBlueprints = undiscriminated;
+        this.allBlueprints = new ArrayList<>(blueprints);
+    }
+
+    private static String normalize(@NotNull String discriminator) {
+        return discriminator.toLowerCase(Locale.ROOT);
     }
 
 }
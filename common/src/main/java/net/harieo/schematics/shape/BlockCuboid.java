@@ -0,0 +1,246 @@
+package net.harieo.schematics.shape;
+
+import net.harieo.schematics.position.BlockPos;
+import net.harieo.schematics.position.Coordinate;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Optional;
+
+/**
+ * An immutable cuboid of whole blocks on the block grid, between two inclusive corner {@link BlockPos}.
+ * <p>
+ * Blocks have an index, ordered y-major, then z, then x, in the same layout as the grid of a
+ * {@link net.harieo.schematics.schematic.volume.SchematicVolume}, so that the blocks of a cuboid can be stored in a
+ * primitive array.
+ */
+public final class BlockCuboid {
+
+    private final int minX;
+    private final int minY;
+    private final int minZ;
+    private final int maxX;
+    private final int maxY;
+    private final int maxZ;
+
+    /**
+     * A cuboid between two corners, which may be in any order.
+     *
+     * @param x1 the x-axis position of a corner
+     * @param y1 the y-axis position of a corner
+     * @param z1 the z-axis position of a corner
+     * @param x2 the x-axis position of the opposite corner
+     * @param y2 the y-axis position of the opposite corner
+     * @param z2 the z-axis position of the opposite corner
+     */
+    public BlockCuboid(int x1, int y1, int z1, int x2, int y2, int z2) {
+        this.minX = Math.min(x1, x2);
+        this.minY = Math.min(y1, y2);
+        this.minZ = Math.min(z1, z2);
+        this.maxX = Math.max(x1, x2);
+        this.maxY = Math.max(y1, y2);
+        this.maxZ = Math.max(z1, z2);
+    }
+
+    /**
+     * A cuboid between two corner blocks, which may be in any order.
+     *
+     * @param corner         a corner block
+     * @param oppositeCorner the opposite corner block
+     */
+    public BlockCuboid(@NotNull BlockPos corner, @NotNull BlockPos oppositeCorner) {
+        this(corner.getX(), corner.getY(), corner.getZ(), oppositeCorner.getX(), oppositeCorner.getY(),
+                oppositeCorner.getZ());
+    }
+
+    /**
+     * Gets the cuboid of every block which contains part of a {@link Cuboid}.
+     *
+     * @param cuboid the cuboid
+     * @return the block cuboid containing the cuboid
+     * @throws IllegalStateException if the cuboid is not valid
+     */
+    public static @NotNull BlockCuboid of(@NotNull Cuboid<? extends Coordinate> cuboid) {
+        if (!cuboid.isValid()) {
+            throw new IllegalStateException("Invalid cuboid");
+        }
+        return new BlockCuboid(BlockPos.of(cuboid.getLowerCorner().orElseThrow()),
+                BlockPos.of(cuboid.getUpperCorner().orElseThrow()));
+    }
+
+    public int getMinX() {
+        return minX;
+    }
+
+    public int getMinY() {
+        return minY;
+    }
+
+    public int getMinZ() {
+        return minZ;
+    }
+
+    public int getMaxX() {
+        return maxX;
+    }
+
+    public int getMaxY() {
+        return maxY;
+    }
+
+    public int getMaxZ() {
+        return maxZ;
+    }
+
+    /**
+     * @return the lowest corner block of this cuboid
+     */
+    public @NotNull BlockPos getMinimum() {
+        return new BlockPos(minX, minY, minZ);
+    }
+
+    /**
+     * @return the highest corner block of this cuboid
+     */
+    public @NotNull BlockPos getMaximum() {
+        return new BlockPos(maxX, maxY, maxZ);
+    }
+
+    /**
+     * @return the width of this cuboid on the x-axis
+     */
+    public int getSizeX() {
+        return maxX - minX + 1;
+    }
+
+    /**
+     * @return the height of this cuboid on the y-axis
+     */
+    public int getSizeY() {
+        return maxY - minY + 1;
+    }
+
+    /**
+     * @return the length of this cuboid on the z-axis
+     */
+    public int getSizeZ() {
+        return maxZ - minZ + 1;
+    }
+
+    /**
+     * @return the amount of blocks in this cuboid
+     */
+    public long getBlockCount() {
+        return (long) getSizeX() * getSizeY() * getSizeZ();
+    }
+
+    /**
+     * @param x position on the x-axis
+     * @param y position on the y-axis
+     * @param z position on the z-axis
+     * @return whether the block is inside this cuboid
+     */
+    public boolean contains(int x, int y, int z) {
+        return x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
+    }
+
+    /**
+     * @param packedPosition a position packed by {@link BlockPos#pack(int, int, int)}
+     * @return whether the block is inside this cuboid
+     */
+    public boolean contains(long packedPosition) {
+        return contains(BlockPos.unpackX(packedPosition), BlockPos.unpackY(packedPosition),
+                BlockPos.unpackZ(packedPosition));
+    }
+
+    /**
+     * @param other another cuboid
+     * @return whether any block is inside both cuboids
+     */
+    public boolean intersects(@NotNull BlockCuboid other) {
+        return minX <= other.maxX && maxX >= other.minX
+                && minY <= other.maxY && maxY >= other.minY
+                && minZ <= other.maxZ && maxZ >= other.minZ;
+    }
+
+    /**
+     * Limits this cuboid to a range of heights, such as the height of a world.
+     *
+     * @param lowestY  the lowest y-axis position to include
+     * @param highestY the highest y-axis position to include
+     * @return optionally the limited cuboid, or empty if no block of this cuboid is within the heights
+     */
+    public Optional<BlockCuboid> clampY(int lowestY, int highestY) {
+        int clampedMinY = Math.max(minY, lowestY);
+        int clampedMaxY = Math.min(maxY, highestY);
+        if (clampedMinY > clampedMaxY) {
+            return Optional.empty();
+        }
+        return Optional.of(new BlockCuboid(minX, clampedMinY, minZ, maxX, clampedMaxY, maxZ));
+    }
+
+    /**
+     * Gets the index of a block inside this cuboid.
+     *
+     * @param x position on the x-axis
+     * @param y position on the y-axis
+     * @param z position on the z-axis
+     * @return the index of the block
+     * @apiNote The block is not checked to be inside this cuboid.
+     */
+    public long indexOf(int x, int y, int z) {
+        return ((long) (y - minY) * getSizeZ() + (z - minZ)) * getSizeX() + (x - minX);
+    }
+
+    /**
+     * Visits every block of this cuboid in index order.
+     *
+     * @param visitor the visitor to receive each block
+     */
+    public void forEach(@NotNull BlockVisitor visitor) {
+        for (int y = minY; y <= maxY; y++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                for (int x = minX; x <= maxX; x++) {
+                    visitor.visit(x, y, z);
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        return object instanceof BlockCuboid other
+                && minX == other.minX && minY == other.minY && minZ == other.minZ
+                && maxX == other.maxX && maxY == other.maxY && maxZ == other.maxZ;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * getMinimum().hashCode() + getMaximum().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return getMinimum() + " -> " + getMaximum();
+    }
+
+    /**
+     * A visitor for each block of a {@link BlockCuboid}.
+     */
+    @FunctionalInterface
+    public interface BlockVisitor {
+
+        /**
+         * Visits a block.
+         *
+         * @param x position on the x-axis
+         * @param y position on the y-axis
+         * @param z position on the z-axis
+         */
+        void visit(int x, int y, int z);
+
+    }
+
+}
@@ -2,11 +2,13 @@ package net.harieo.schematics.shape;
 
 import com.google.common.collect.ImmutableSet;
 import net.harieo.schematics.position.Axis;
+import net.harieo.schematics.position.BlockPos;
 import net.harieo.schematics.position.Coordinate;
+import net.harieo.schematics.position.LongHashSet;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Unmodifiable;
 
-import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
 
@@ -96,32 +98,71 @@ public abstract class Cuboid<T extends Coordinate> {
     }
 
     /**
-     * Gets all the coordinates for every point inside this cuboid in all 3 dimensions.
+     * Gets the points inside this cuboid in all 3 dimensions, which can be visited without creating an object for each
+     * point.
      *
      * @param differenceBetweenPoints the difference between each point in the cuboid
-     * @return the set of all coordinates inside the cuboid
+     * @return the points inside the cuboid
      * @throws IllegalStateException if {@link #isValid()} returns false
-     * @throws java.util.NoSuchElementException if one of the {@link Axis} is not present
+     * @throws IllegalArgumentException if the difference is not positive
      */
-    public @Unmodifiable Set<T> getInnerCoordinates(double differenceBetweenPoints) {
+    public CuboidPoints getPoints(double differenceBetweenPoints) {
         if (!isValid()) {
             throw new IllegalStateException("Invalid cuboid");
         }
+        return new CuboidPoints(getXAxis().orElseThrow(), getYAxis().orElseThrow(), getZAxis().orElseThrow(),
+                differenceBetweenPoints);
+    }
+
+    /**
+     * Visits every point inside this cuboid in all 3 dimensions without creating an object for each point.
+     *
+     * @param differenceBetweenPoints the difference between each point in the cuboid
+     * @param visitor the visitor to receive each point
+     * @throws IllegalStateException if {@link #isValid()} returns false
+     * @throws IllegalArgumentException if the difference is not positive
+     * @see #getPoints(double)
+     */
+    public void forEachPoint(double differenceBetweenPoints, @NotNull CuboidPoints.PointVisitor visitor) {
+        getPoints(differenceBetweenPoints).forEach(visitor);
+    }
+
+    /**
+     * Gets all the coordinates for every point inside this cuboid in all 3 dimensions.
+     *
+     * @param differenceBetweenPoints the difference between each point in the cuboid
+     * @return the set of all coordinates inside the cuboid
+     * @throws IllegalStateException if {@link #isValid()} returns false
+     * @apiNote A coordinate is created for every point, so {@link #forEachPoint(double, CuboidPoints.PointVisitor)}
+     * should be preferred for large cuboids.
+     */
+    public @Unmodifiable Set<T> getInnerCoordinates(double differenceBetweenPoints) {
+        CuboidPoints points = getPoints(differenceBetweenPoints);
+        ImmutableSet.Builder<T> coordinates = ImmutableSet.builderWithExpectedSize((int) Math.min(points.size(),
+                Integer.MAX_VALUE));
+        points.forEach((x, y, z) -> coordinates.add(createCoordinate(x, y, z)));
+        return coordinates.build();
+    }
 
-        Set<T> coordinates = new HashSet<>();
-        Axis xAxis = getXAxis().orElseThrow();
-        Axis yAxis = getYAxis().orElseThrow();
-        Axis zAxis = getZAxis().orElseThrow();
-
-        for (double xPoint : xAxis.getRange(differenceBetweenPoints)) {
-            for (double yPoint : yAxis.getRange(differenceBetweenPoints)) {
-                for (double zPoint : zAxis.getRange(differenceBetweenPoints)) {
-                    coordinates.add(createCoordinate(xPoint, yPoint, zPoint));
-                }
-            }
+    /**
+     * Gets every block which contains part of this cuboid, packed by {@link BlockPos#pack(int, int, int)}, so that
+     * blocks can be checked against this cuboid or another shape without creating an object for each block.
+     *
+     * @return the set of packed block positions inside this cuboid
+     * @throws IllegalStateException    if {@link #isValid()} returns false
+     * @throws IllegalArgumentException if a block inside this cuboid cannot be packed, or there are too many blocks to
+     *                                  store in a set
+     * @see BlockCuboid#of(Cuboid)
+     */
+    public @NotNull LongHashSet getInnerBlocks() {
+        BlockCuboid blocks = BlockCuboid.of(this);
+        if (blocks.getBlockCount() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Cuboid covers too many blocks: " + blocks.getBlockCount());
         }
 
-        return ImmutableSet.copyOf(coordinates);
+        LongHashSet packedBlocks = new LongHashSet((int) blocks.getBlockCount());
+        blocks.forEach(packedBlocks::add);
+        return packedBlocks;
     }
 
     /**
@@ -0,0 +1,144 @@
+package net.harieo.schematics.shape;
+
+import net.harieo.schematics.position.Axis;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Spliterator;
+import java.util.stream.LongStream;
+
+/**
+ * The points inside a {@link Cuboid} with a fixed difference between each point, which can be visited without creating
+ * an object for each point.
+ * <p>
+ * Each point has an index, ordered y-major, then z, then x, from which its position is calculated. The points on each
+ * axis are the same as {@link Axis#getPoint(long, double)}, so the last point on each axis is exactly its upper endpoint.
+ *
+ * @apiNote The points are fixed when they are created, so later changes to the corners of the cuboid do not change them.
+ */
+public class CuboidPoints {
+
+    private final double differenceBetweenPoints;
+    private final double lowerX;
+    private final double lowerY;
+    private final double lowerZ;
+    private final double upperX;
+    private final double upperY;
+    private final double upperZ;
+    private final long countX;
+    private final long countY;
+    private final long countZ;
+    private final long size;
+
+    /**
+     * The points between three axes.
+     *
+     * @param xAxis                   the x-axis of the cuboid
+     * @param yAxis                   the y-axis of the cuboid
+     * @param zAxis                   the z-axis of the cuboid
+     * @param differenceBetweenPoints the difference between each point on each axis
+     * @throws IllegalArgumentException if the difference is not positive
+     * @throws ArithmeticException      if there are more than {@link Long#MAX_VALUE} points
+     */
+    public CuboidPoints(@NotNull Axis xAxis, @NotNull Axis yAxis, @NotNull Axis zAxis, double differenceBetweenPoints) {
+        this.differenceBetweenPoints = differenceBetweenPoints;
+        this.lowerX = xAxis.getLowerEndpoint();
+        this.lowerY = yAxis.getLowerEndpoint();
+        this.lowerZ = zAxis.getLowerEndpoint();
+        this.upperX = xAxis.getUpperEndpoint();
+        this.upperY = yAxis.getUpperEndpoint();
+        this.upperZ = zAxis.getUpperEndpoint();
+        this.countX = xAxis.getPointCount(differenceBetweenPoints);
+        this.countY = yAxis.getPointCount(differenceBetweenPoints);
+        this.countZ = zAxis.getPointCount(differenceBetweenPoints);
+        this.size = Math.multiplyExact(Math.multiplyExact(countX, countY), countZ);
+    }
+
+    /**
+     * @return the amount of points
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @param index the index of a point
+     * @return the x-axis position of the point
+     */
+    public double getX(long index) {
+        return point(index % countX, countX, lowerX, upperX);
+    }
+
+    /**
+     * @param index the index of a point
+     * @return the y-axis position of the point
+     */
+    public double getY(long index) {
+        return point(index / (countX * countZ), countY, lowerY, upperY);
+    }
+
+    /**
+     * @param index the index of a point
+     * @return the z-axis position of the point
+     */
+    public double getZ(long index) {
+        return point((index / countX) % countZ, countZ, lowerZ, upperZ);
+    }
+
+    private double point(long axisIndex, long axisCount, double lower, double upper) {
+        return axisIndex == axisCount - 1 ? upper : lower + axisIndex * differenceBetweenPoints;
+    }
+
+    /**
+     * Visits every point in index order.
+     *
+     * @param visitor the visitor to receive each point
+     */
+    public void forEach(@NotNull PointVisitor visitor) {
+        for (long y = 0; y < countY; y++) {
+            double pointY = point(y, countY, lowerY, upperY);
+            for (long z = 0; z < countZ; z++) {
+                double pointZ = point(z, countZ, lowerZ, upperZ);
+                for (long x = 0; x < countX; x++) {
+                    visitor.visit(point(x, countX, lowerX, upperX), pointY, pointZ);
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a stream of the index of every point, which can be split to visit the points in parallel.
+     *
+     * @return the stream of point indexes, in index order
+     * @see #getX(long)
+     * @see #getY(long)
+     * @see #getZ(long)
+     */
+    public @NotNull LongStream indexes() {
+        return LongStream.range(0, size);
+    }
+
+    /**
+     * @return a spliterator of the index of every point, which splits evenly for parallel streams
+     */
+    public @NotNull Spliterator.OfLong spliterator() {
+        return indexes().spliterator();
+    }
+
+    /**
+     * A visitor for each point of a {@link CuboidPoints}.
+     */
+    @FunctionalInterface
+    public interface PointVisitor {
+
+        /**
+         * Visits a point.
+         *
+         * @param x the x-axis position of the point
+         * @param y the y-axis position of the point
+         * @param z the z-axis position of the point
+         */
+        void visit(double x, double y, double z);
+
+    }
+
+}
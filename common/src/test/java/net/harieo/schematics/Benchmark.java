@@ -0,0 +1,40 @@
+package net.harieo.schematics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Supplier;
+
+/**
+ * Times the benchmarks among the tests, which only run with {@code -Dbenchmark=true} as they take far longer than the
+ * rest of the tests.
+ */
+public final class Benchmark {
+
+    public static final String PROPERTY = "benchmark";
+
+    // Results are kept so that the work being timed cannot be skipped as unused
+    private static volatile Object lastResult;
+
+    private Benchmark() {
+    }
+
+    /**
+     * Runs a task several times and reports the fastest run, so that the first runs warm up the code being timed.
+     *
+     * @param name   the name of the task in the report
+     * @param rounds the amount of times to run the task
+     * @param task   the task, returning its result
+     * @return the nanoseconds taken by the fastest run
+     */
+    public static long time(@NotNull String name, int rounds, @NotNull Supplier<?> task) {
+        long fastest = Long.MAX_VALUE;
+        for (int round = 0; round < rounds; round++) {
+            long start = System.nanoTime();
+            lastResult = task.get();
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+        System.out.printf("%-50s %10.2f ms%n", name, fastest / 1_000_000.0);
+        return fastest;
+    }
+
+}
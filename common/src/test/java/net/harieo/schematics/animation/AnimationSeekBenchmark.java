@@ -0,0 +1,122 @@
+package net.harieo.schematics.animation;
+
+import net.harieo.schematics.Benchmark;
+import net.harieo.schematics.animation.impl.basic.SchematicTransition;
+import net.harieo.schematics.modification.TestModification;
+import net.harieo.schematics.modification.TestSpace;
+import net.harieo.schematics.position.BlockPos;
+import net.harieo.schematics.position.Coordinate;
+import net.harieo.schematics.position.Vector;
+import net.harieo.schematics.schematic.Schematic;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares seeking through an animation of schematic frames, which collapses the frames it skips, with ticking
+ * through every frame to the same point.
+ * <p>
+ * Collapsing checks each skipped modification once to find whether a later frame replaces its block, which costs
+ * about as much as setting a block of a {@link TestSpace}. Seeking is only faster once a block change costs more than
+ * that, as it does in a world, so the frames are also timed with a block change which takes a fixed time.
+ */
+@EnabledIfSystemProperty(named = Benchmark.PROPERTY, matches = "true")
+class AnimationSeekBenchmark {
+
+    private static final int FRAME_COUNT = 500;
+    private static final int FRAME_SIZE = 16;
+    private static final long FRAME_TIME = 50;
+    private static final long BLOCK_CHANGE_NANOS = 1_000;
+    private static final int ROUNDS = 3;
+
+    private final TestSpace space = new TestSpace();
+
+    @Test
+    void seekAgainstTicking() {
+        compare("in memory", createFrames(false));
+    }
+
+    @Test
+    void seekAgainstTickingWithBlockChangeCost() {
+        compare(BLOCK_CHANGE_NANOS + " ns per block", createFrames(true));
+    }
+
+    private void compare(@NotNull String name, @NotNull List<Transition> frames) {
+        long target = FRAME_COUNT * FRAME_TIME * 3 / 4;
+        long skippedFrames = FRAME_COUNT * 3 / 4;
+
+        long ticked = Benchmark.time("Tick through " + skippedFrames + " frames, " + name, ROUNDS, () -> {
+            space.clear();
+            new TestAnimation(frames).tickTo(target);
+            return space;
+        });
+        Map<BlockPos, Integer> tickedBlocks = space.getBlocks();
+        int tickedApplyCount = space.getApplyCount();
+
+        long sought = Benchmark.time("Seek past " + skippedFrames + " frames, " + name, ROUNDS, () -> {
+            space.clear();
+            new TestAnimation(frames).seek(target);
+            return space;
+        });
+        System.out.printf("Blocks applied: %d ticking, %d seeking%n", tickedApplyCount, space.getApplyCount());
+        System.out.printf("Ticking takes %.2fx as long%n", (double) ticked / sought);
+
+        // Seeking leaves the same blocks, changing each only once
+        assertEquals(tickedBlocks, space.getBlocks());
+        assertEquals(FRAME_SIZE * FRAME_SIZE * FRAME_SIZE, space.getApplyCount());
+    }
+
+    /**
+     * Creates frames which each replace every block of the same cube, as an animation played in place does.
+     *
+     * @param costly whether each block change should take {@link #BLOCK_CHANGE_NANOS}
+     * @return the frames
+     */
+    private List<Transition> createFrames(boolean costly) {
+        Random random = new Random(1);
+        List<Transition> frames = new ArrayList<>(FRAME_COUNT);
+        for (int frame = 0; frame < FRAME_COUNT; frame++) {
+            Schematic schematic = new Schematic("frame-" + frame, new Coordinate(0, 64, 0));
+            for (int y = 0; y < FRAME_SIZE; y++) {
+                for (int z = 0; z < FRAME_SIZE; z++) {
+                    for (int x = 0; x < FRAME_SIZE; x++) {
+                        int value = random.nextInt(8);
+                        schematic.addModification(costly ? new CostlyModification(space, value)
+                                : new TestModification(space, value), new Vector(x, y, z));
+                    }
+                }
+            }
+            frames.add(new SchematicTransition(schematic, FRAME_TIME, 0));
+        }
+        return frames;
+    }
+
+    /**
+     * A {@link TestModification} which takes {@link #BLOCK_CHANGE_NANOS} to apply, standing in for the work a world
+     * does for each block change.
+     */
+    private static class CostlyModification extends TestModification {
+
+        private CostlyModification(@NotNull TestSpace space, int value) {
+            super(space, value);
+        }
+
+        @Override
+        public void apply(@NotNull Coordinate coordinate) {
+            super.apply(coordinate);
+            long end = System.nanoTime() + BLOCK_CHANGE_NANOS;
+            while (System.nanoTime() < end) {
+                Thread.onSpinWait();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,181 @@
+package net.harieo.schematics.animation;
+
+import net.harieo.schematics.animation.impl.basic.SchematicTransition;
+import net.harieo.schematics.modification.TestModification;
+import net.harieo.schematics.modification.TestSpace;
+import net.harieo.schematics.position.BlockPos;
+import net.harieo.schematics.position.Coordinate;
+import net.harieo.schematics.position.Vector;
+import net.harieo.schematics.schematic.Schematic;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnimationTest {
+
+    private final TestSpace space = new TestSpace();
+    private final List<String> log = new ArrayList<>();
+
+    @Test
+    void seekingMatchesTickingFromTheStart() {
+        Random random = new Random(5);
+        for (int trial = 0; trial < 100; trial++) {
+            List<Transition> transitions = createTransitions(random);
+            long total = new AnimationTimeline(transitions).getTotalTime();
+            long target = random.nextInt((int) total + 2);
+
+            TestAnimation ticked = new TestAnimation(transitions);
+            ticked.tickTo(target);
+            Map<BlockPos, Integer> tickedBlocks = space.getBlocks();
+            List<String> tickedLog = new ArrayList<>(log);
+            int tickedApplyCount = space.getApplyCount();
+            space.clear();
+            log.clear();
+
+            TestAnimation sought = new TestAnimation(transitions);
+            sought.seek(target);
+            // Transitions due exactly at the target have run after seeking, as they have after ticking
+            sought.tickTo(target);
+            assertEquals(tickedBlocks, space.getBlocks(), "Trial " + trial + " to " + target);
+            assertEquals(tickedLog, log, "Trial " + trial + " to " + target);
+            assertTrue(space.getApplyCount() <= tickedApplyCount, "Seeking should collapse replaced blocks");
+            assertEquals(ticked.getElapsedAnimationTime(), sought.getElapsedAnimationTime());
+            assertEquals(ticked.getState(), sought.getState());
+
+            // Both should carry on the same way from the target
+            ticked.tickTo(total);
+            sought.tickTo(total);
+            assertEquals(ticked.getState(), sought.getState());
+            space.clear();
+            log.clear();
+        }
+    }
+
+    @Test
+    void seekingBackwardsRunsFromTheStart() {
+        TestAnimation animation = new TestAnimation(
+                new RecordingTransition("a", log, 5, 5),
+                new RecordingTransition("b", log, 5, 5),
+                new RecordingTransition("c", log, 5, 5));
+        animation.seek(25);
+        assertEquals(List.of("a", "b", "c"), log);
+
+        log.clear();
+        animation.seek(15);
+        assertEquals(List.of("a", "b"), log);
+        assertEquals(15, animation.getElapsedAnimationTime());
+
+        log.clear();
+        animation.seek(1_000); // Clamped to the end
+        assertEquals(List.of("c"), log);
+        assertEquals(30, animation.getElapsedAnimationTime());
+        assertThrows(IllegalArgumentException.class, () -> animation.seek(-1));
+    }
+
+    @Test
+    void loopingMatchesPlayingTheTransitionsRepeatedly() {
+        Random random = new Random(3);
+        for (int trial = 0; trial < 200; trial++) {
+            List<Transition> transitions = new ArrayList<>();
+            int count = 1 + random.nextInt(6);
+            for (int index = 0; index < count; index++) {
+                transitions.add(new RecordingTransition("t" + index, log, random.nextInt(10), random.nextInt(10)));
+            }
+            int loopCount = 1 + random.nextInt(4);
+            List<Transition> repeatedTransitions = new ArrayList<>();
+            for (int loop = 0; loop < loopCount; loop++) {
+                repeatedTransitions.addAll(transitions);
+            }
+            if (new AnimationTimeline(transitions).getTotalTime() == 0) {
+                continue; // An animation with no time does not loop
+            }
+
+            TestAnimation looping = new TestAnimation(transitions);
+            looping.setLoopCount(loopCount);
+            TestAnimation repeated = new TestAnimation(repeatedTransitions);
+            List<String> loopingLog = new ArrayList<>();
+            List<String> repeatedLog = new ArrayList<>();
+            long total = repeated.getTotalAnimationTime();
+            for (long elapsed = 0; elapsed < total + 20; elapsed++) {
+                long step = random.nextInt(3);
+                looping.tick(step);
+                loopingLog.addAll(log);
+                log.clear();
+                repeated.tick(step);
+                repeatedLog.addAll(log);
+                log.clear();
+
+                assertEquals(repeated.getState(), looping.getState(), "Trial " + trial + " at " + elapsed);
+                assertEquals(repeated.getTimeUntilNextStep(), looping.getTimeUntilNextStep());
+            }
+            assertEquals(repeatedLog, loopingLog, "Trial " + trial);
+            assertEquals(loopCount - 1, looping.getCompletedLoops());
+        }
+    }
+
+    @Test
+    void loopsForeverWhenInfinite() {
+        TestAnimation animation = new TestAnimation(
+                new RecordingTransition("a", log, 3, 2),
+                new RecordingTransition("b", log, 0, 5));
+        animation.setLoopCount(Animation.LOOP_INFINITE);
+        for (int i = 0; i < 10_000; i++) {
+            animation.tick(1);
+            assertEquals(Animation.State.RUNNING, animation.getState());
+        }
+        int completedLoops = animation.getCompletedLoops();
+        assertTrue(completedLoops > 500, "Completed " + completedLoops + " loops");
+        // Each completed loop ran both transitions, and the loop in progress may have run some of them
+        assertTrue(log.size() >= completedLoops * 2 && log.size() <= completedLoops * 2 + 2);
+
+        animation.reset();
+        assertEquals(0, animation.getCompletedLoops());
+    }
+
+    @Test
+    void doesNotLoopWithoutTime() {
+        TestAnimation animation = new TestAnimation(new RecordingTransition("a", log, 0, 0));
+        animation.setLoopCount(Animation.LOOP_INFINITE);
+        animation.tick(0);
+        animation.tick(0);
+        animation.tick(0);
+        assertEquals(List.of("a"), log);
+        assertEquals(Animation.State.FINISHED, animation.getState());
+    }
+
+    @Test
+    void rejectsInvalidLoopCounts() {
+        TestAnimation animation = new TestAnimation();
+        assertThrows(IllegalArgumentException.class, () -> animation.setLoopCount(0));
+        assertThrows(IllegalArgumentException.class, () -> animation.setLoopCount(-2));
+    }
+
+    private List<Transition> createTransitions(Random random) {
+        List<Transition> transitions = new ArrayList<>();
+        int count = 1 + random.nextInt(6);
+        for (int index = 0; index < count; index++) {
+            long before = random.nextInt(3) == 0 ? 0 : random.nextInt(10);
+            long after = random.nextInt(3) == 0 ? 0 : random.nextInt(10);
+            if (random.nextInt(4) == 0) {
+                transitions.add(new RecordingTransition("t" + index, log, before, after));
+                continue;
+            }
+
+            Schematic schematic = new Schematic("s" + index, new Coordinate(random.nextInt(3), 64, 0));
+            for (int i = 0; i < 10; i++) {
+                schematic.addModification(new TestModification(space, random.nextInt(50)),
+                        new Vector(random.nextInt(4), random.nextInt(2), random.nextInt(2)));
+            }
+            transitions.add(new SchematicTransition(schematic, before, after));
+        }
+        return transitions;
+    }
+
+}
@@ -0,0 +1,182 @@
+package net.harieo.schematics.animation;
+
+import net.harieo.schematics.animation.impl.basic.SchematicTransition;
+import net.harieo.schematics.modification.Modification;
+import net.harieo.schematics.modification.TestModification;
+import net.harieo.schematics.modification.TestSpace;
+import net.harieo.schematics.position.BlockPos;
+import net.harieo.schematics.position.Coordinate;
+import net.harieo.schematics.position.Vector;
+import net.harieo.schematics.schematic.Schematic;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AnimationTimelineTest {
+
+    private final List<String> log = new ArrayList<>();
+
+    @Test
+    void findsStartAndRunTimes() {
+        AnimationTimeline timeline = new AnimationTimeline(List.of(
+                new RecordingTransition("a", log, 5, 10),
+                new RecordingTransition("b", log, 0, 0),
+                new RecordingTransition("c", log, 3, 2)));
+
+        assertEquals(3, timeline.size());
+        assertEquals(20, timeline.getTotalTime());
+        assertEquals(List.of(0L, 15L, 15L, 20L), List.of(timeline.getStartTime(0), timeline.getStartTime(1),
+                timeline.getStartTime(2), timeline.getStartTime(3)));
+        assertEquals(List.of(5L, 15L, 18L), List.of(timeline.getRunTime(0), timeline.getRunTime(1),
+                timeline.getRunTime(2)));
+    }
+
+    @Test
+    void findsTransitionInProgress() {
+        AnimationTimeline timeline = new AnimationTimeline(List.of(
+                new RecordingTransition("a", log, 5, 10),
+                new RecordingTransition("b", log, 0, 0),
+                new RecordingTransition("c", log, 3, 2)));
+
+        assertEquals(0, timeline.indexAt(0));
+        assertEquals(0, timeline.indexAt(14));
+        // The transition with no time starts at the same time as the next, which is the one in progress
+        assertEquals(2, timeline.indexAt(15));
+        assertEquals(2, timeline.indexAt(19));
+        assertEquals(3, timeline.indexAt(20));
+        assertEquals(3, timeline.indexAt(Long.MAX_VALUE));
+
+        assertEquals(0, timeline.countRunBy(4));
+        assertEquals(1, timeline.countRunBy(5));
+        assertEquals(2, timeline.countRunBy(15));
+        assertEquals(2, timeline.countRunBy(17));
+        assertEquals(3, timeline.countRunBy(18));
+    }
+
+    @Test
+    void countsNegativeTimesAsZero() {
+        List<Transition> transitions = List.of(
+                new RecordingTransition("a", log, -5, 10),
+                new RecordingTransition("b", log, 3, -100));
+        AnimationTimeline timeline = new AnimationTimeline(transitions);
+        assertEquals(13, timeline.getTotalTime());
+        assertEquals(0, timeline.getRunTime(0));
+        assertEquals(13, timeline.getRunTime(1));
+
+        // An animation compiles its timeline when it is created, so it must not fail either
+        TestAnimation animation = new TestAnimation(transitions);
+        animation.tickTo(13);
+        assertEquals(List.of("a", "b"), log);
+    }
+
+    @Test
+    void collapsesReplacedBlocksToTheirFinalState() {
+        TestSpace space = new TestSpace();
+        Schematic first = new Schematic("first", new Coordinate(0, 0, 0));
+        first.addModification(new TestModification(space, 1), new Vector(0, 0, 0));
+        first.addModification(new TestModification(space, 2), new Vector(1, 0, 0));
+        Schematic second = new Schematic("second", new Coordinate(0, 0, 0));
+        second.addModification(new TestModification(space, 3), new Vector(0, 0, 0));
+
+        AnimationTimeline timeline = new AnimationTimeline(List.of(
+                new SchematicTransition(first, 10, 0),
+                new RecordingTransition("between", log, 0, 0),
+                new SchematicTransition(second, 10, 0)));
+        timeline.collapse(0, 3).run();
+
+        assertEquals(Map.of(new BlockPos(0, 0, 0), 3, new BlockPos(1, 0, 0), 2), space.getBlocks());
+        assertEquals(2, space.getApplyCount(), "The replaced block should only be changed once");
+        assertEquals(List.of("between"), log);
+    }
+
+    @Test
+    void keepsModificationsWhichDoNotReplaceTheirBlock() {
+        TestSpace space = new TestSpace();
+        Schematic spawn = new Schematic("spawn", new Coordinate(0, 0, 0));
+        spawn.addModification(new SpawnModification(space, log), new Vector(0, 0, 0));
+        Schematic change = new Schematic("change", new Coordinate(0, 0, 0));
+        change.addModification(new TestModification(space, 1), new Vector(0, 0, 0));
+        List<Transition> transitions = List.of(
+                new SchematicTransition(spawn, 10, 0),
+                new SchematicTransition(change, 10, 0));
+
+        new AnimationTimeline(transitions).collapse(0, 2).run();
+        assertEquals(List.of("spawn"), log);
+        assertEquals(Map.of(new BlockPos(0, 0, 0), 1), space.getBlocks());
+
+        // Seeking past both must spawn the entity, as ticking through them does
+        log.clear();
+        new TestAnimation(transitions).seek(20);
+        assertEquals(List.of("spawn"), log);
+    }
+
+    @Test
+    void collapsesOnlyItsRange() {
+        TestSpace space = new TestSpace();
+        Schematic first = new Schematic("first", new Coordinate(0, 0, 0));
+        first.addModification(new TestModification(space, 1), new Vector(0, 0, 0));
+        Schematic second = new Schematic("second", new Coordinate(0, 0, 0));
+        second.addModification(new TestModification(space, 2), new Vector(0, 0, 0));
+
+        AnimationTimeline timeline = new AnimationTimeline(List.of(
+                new SchematicTransition(first, 0, 0),
+                new SchematicTransition(second, 0, 0)));
+        timeline.collapse(0, 1).run();
+        assertEquals(Map.of(new BlockPos(0, 0, 0), 1), space.getBlocks());
+        timeline.collapse(1, 1).run();
+        assertEquals(1, space.getApplyCount());
+
+        assertThrows(IndexOutOfBoundsException.class, () -> timeline.collapse(-1, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> timeline.collapse(0, 3));
+        assertThrows(IndexOutOfBoundsException.class, () -> timeline.collapse(2, 1));
+    }
+
+    @Test
+    void doesNotChangeWithItsAnimation() {
+        TestAnimation animation = new TestAnimation(new RecordingTransition("a", log, 5, 5));
+        AnimationTimeline timeline = animation.getTimeline();
+        animation.addTransition(new RecordingTransition("b", log, 5, 5));
+
+        assertEquals(1, timeline.size());
+        assertEquals(10, timeline.getTotalTime());
+        assertEquals(20, animation.getTimeline().getTotalTime());
+    }
+
+    /**
+     * A modification which records that it spawned something at its block, without changing the block itself.
+     */
+    private static class SpawnModification extends Modification {
+
+        private final TestSpace space;
+        private final List<String> log;
+
+        private SpawnModification(@NotNull TestSpace space, @NotNull List<String> log) {
+            super("spawn");
+            this.space = space;
+            this.log = log;
+        }
+
+        @Override
+        public boolean isAvailable(@NotNull Coordinate coordinate) {
+            return true;
+        }
+
+        @Override
+        public void apply(@NotNull Coordinate coordinate) {
+            log.add("spawn");
+        }
+
+        @Override
+        public @NotNull TestSpace getSpace() {
+            return space;
+        }
+
+    }
+
+}
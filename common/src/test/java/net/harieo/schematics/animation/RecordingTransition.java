@@ -0,0 +1,27 @@
+package net.harieo.schematics.animation;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * A {@link Transition} which records its name in a shared log each time it runs.
+ */
+public class RecordingTransition extends Transition {
+
+    private final String name;
+    private final List<String> log;
+
+    public RecordingTransition(@NotNull String name, @NotNull List<String> log, long millisecondsBefore,
+                               long millisecondsAfter) {
+        super("recording", millisecondsBefore, millisecondsAfter);
+        this.name = name;
+        this.log = log;
+    }
+
+    @Override
+    public void run() {
+        log.add(name);
+    }
+
+}
@@ -0,0 +1,50 @@
+package net.harieo.schematics.animation;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * An {@link Animation} which is always activated, so that it can be ticked directly.
+ */
+public class TestAnimation extends Animation {
+
+    public TestAnimation(@NotNull List<Transition> orderedTransitions) {
+        super("test", orderedTransitions);
+    }
+
+    public TestAnimation(@NotNull Transition... orderedTransitions) {
+        super("test", orderedTransitions);
+    }
+
+    @Override
+    public void activate() {
+    }
+
+    @Override
+    public boolean isActivated() {
+        return true;
+    }
+
+    /**
+     * Ticks this animation from where it is to a point of its current loop, taking every step which is due on the way
+     * one millisecond at a time.
+     *
+     * @param milliseconds the milliseconds from the start of the loop
+     */
+    public void tickTo(long milliseconds) {
+        long elapsed = getElapsedAnimationTime();
+        while (true) {
+            while (getState() != State.FINISHED && getTimeUntilNextStep() == 0) {
+                tick(0);
+            }
+            // A finished animation may still be waiting out the time after its last transition
+            if (elapsed >= milliseconds) {
+                return;
+            }
+            tick(1);
+            elapsed++;
+        }
+    }
+
+}
@@ -0,0 +1,99 @@
+package net.harieo.schematics.animation.impl.basic;
+
+import net.harieo.schematics.animation.RecordingTransition;
+import net.harieo.schematics.animation.Transition;
+import net.harieo.schematics.animation.TransitionExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScheduledAnimationTest {
+
+    private final AnimationScheduler scheduler = new AnimationScheduler("Test Animation Scheduler");
+    private final List<String> log = Collections.synchronizedList(new ArrayList<>());
+
+    @AfterEach
+    void shutdownScheduler() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void runsTransitionsWithTheDefaultExecutorOfTheScheduler() throws InterruptedException {
+        CountDownLatch executed = new CountDownLatch(2);
+        List<String> executedBy = Collections.synchronizedList(new ArrayList<>());
+        scheduler.setDefaultTransitionExecutor((transition, dueNanos) -> {
+            executedBy.add("default");
+            transition.run();
+            executed.countDown();
+        });
+
+        ScheduledAnimation animation = new ScheduledAnimation(null, List.<Transition>of(
+                new RecordingTransition("a", log, 0, 1), new RecordingTransition("b", log, 0, 0)), scheduler);
+        assertSame(scheduler.getDefaultTransitionExecutor(), animation.getTransitionExecutor());
+        animation.activate();
+
+        assertTrue(executed.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("a", "b"), log);
+        assertEquals(List.of("default", "default"), executedBy);
+    }
+
+    @Test
+    void reactivatingReplacesAStepWaitingForTheLock() throws InterruptedException {
+        CountDownLatch executed = new CountDownLatch(1);
+        scheduler.setDefaultTransitionExecutor((transition, dueNanos) -> {
+            transition.run();
+            executed.countDown();
+        });
+        AtomicInteger runs = new AtomicInteger();
+        // The second transition keeps the animation waiting after the first, rather than finishing
+        ScheduledAnimation animation = new ScheduledAnimation(null, List.<Transition>of(
+                new RecordingTransition("a", log, 0, 10_000), new RecordingTransition("b", log, 0, 0)), scheduler) {
+            @Override
+            public synchronized void run() {
+                runs.incrementAndGet();
+                super.run();
+            }
+        };
+
+        synchronized (animation) {
+            animation.activate();
+            Thread.sleep(100); // The first step is due at once, so it is now waiting for the lock
+            animation.activate();
+        }
+
+        assertTrue(executed.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100); // Long enough for a second chain of steps to run, if there were one
+        animation.deactivate();
+        assertEquals(List.of("a"), log);
+        assertEquals(1, runs.get(), "Only the step scheduled by the second activation should run");
+    }
+
+    @Test
+    void prefersItsOwnExecutor() throws InterruptedException {
+        CountDownLatch executed = new CountDownLatch(1);
+        scheduler.setDefaultTransitionExecutor((transition, dueNanos) -> log.add("default"));
+
+        ScheduledAnimation animation = new ScheduledAnimation(null,
+                List.<Transition>of(new RecordingTransition("a", log, 0, 0)), scheduler);
+        animation.setTransitionExecutor((transition, dueNanos) -> {
+            transition.run();
+            executed.countDown();
+        });
+        animation.activate();
+
+        assertTrue(executed.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("a"), log);
+        assertSame(TransitionExecutor.DIRECT, new AnimationScheduler("Unused").getDefaultTransitionExecutor());
+    }
+
+}
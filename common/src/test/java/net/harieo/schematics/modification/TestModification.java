@@ -0,0 +1,97 @@
+package net.harieo.schematics.modification;
+
+import com.google.gson.JsonObject;
+import net.harieo.schematics.position.BlockPos;
+import net.harieo.schematics.position.Coordinate;
+import net.harieo.schematics.serialization.Blueprint;
+import net.harieo.schematics.serialization.Deserializer;
+import net.harieo.schematics.serialization.Serializer;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * A {@link Modification} which sets a block of a {@link TestSpace} to a value, replacing whatever was there.
+ */
+public class TestModification extends Modification {
+
+    public static final String TYPE = "test";
+
+    private final TestSpace space;
+    private final int value;
+
+    public TestModification(@NotNull TestSpace space, int value) {
+        super(TYPE);
+        this.space = space;
+        this.value = value;
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    @Override
+    public boolean isAvailable(@NotNull Coordinate coordinate) {
+        return true;
+    }
+
+    @Override
+    public void apply(@NotNull Coordinate coordinate) {
+        space.set(BlockPos.of(coordinate), value);
+    }
+
+    @Override
+    public boolean replacesBlock() {
+        return true;
+    }
+
+    @Override
+    public @NotNull TestSpace getSpace() {
+        return space;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        return object instanceof TestModification modification
+                && modification.space == space
+                && modification.value == value;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(System.identityHashCode(space), value);
+    }
+
+    @Override
+    public String toString() {
+        return "TestModification{value=" + value + "}";
+    }
+
+    /**
+     * Creates a blueprint which serializes the value of a modification and deserializes it into a space.
+     *
+     * @param space the space of the deserialized modifications
+     * @return the blueprint
+     */
+    public static @NotNull Blueprint<TestModification, JsonObject> blueprint(@NotNull TestSpace space) {
+        Serializer<TestModification, JsonObject> serializer = modification -> {
+            JsonObject serializedObject = new JsonObject();
+            serializedObject.addProperty("type", TYPE);
+            serializedObject.addProperty("value", modification.value);
+            return serializedObject;
+        };
+        Deserializer<TestModification, JsonObject> deserializer = new Deserializer<>() {
+            @Override
+            public TestModification deserialize(@NotNull JsonObject serializedObject) {
+                return new TestModification(space, serializedObject.get("value").getAsInt());
+            }
+
+            @Override
+            public boolean isValidObject(@NotNull JsonObject serializedObject) {
+                return serializedObject.has("value");
+            }
+        };
+        return new Blueprint<>(serializer, deserializer);
+    }
+
+}
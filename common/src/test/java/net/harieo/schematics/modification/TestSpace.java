@@ -0,0 +1,53 @@
+package net.harieo.schematics.modification;
+
+import net.harieo.schematics.position.BlockPos;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An in-memory stand-in for a world, which records the value each {@link TestModification} leaves at each block.
+ */
+public class TestSpace {
+
+    private final Map<BlockPos, Integer> blocks = new HashMap<>();
+    private int applyCount = 0;
+
+    void set(@NotNull BlockPos block, int value) {
+        blocks.put(block, value);
+        applyCount++;
+    }
+
+    /**
+     * @param block the block to check
+     * @return the value of the last modification applied at the block, or null if none has been applied
+     */
+    public @Nullable Integer get(@NotNull BlockPos block) {
+        return blocks.get(block);
+    }
+
+    /**
+     * @return a copy of the value at every block which has been modified
+     */
+    public @NotNull Map<BlockPos, Integer> getBlocks() {
+        return new HashMap<>(blocks);
+    }
+
+    /**
+     * @return the amount of times a modification has been applied in this space
+     */
+    public int getApplyCount() {
+        return applyCount;
+    }
+
+    /**
+     * Forgets every modified block and the amount of modifications applied.
+     */
+    public void clear() {
+        blocks.clear();
+        applyCount = 0;
+    }
+
+}
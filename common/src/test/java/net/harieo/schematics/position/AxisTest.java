@@ -0,0 +1,58 @@
+package net.harieo.schematics.position;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AxisTest {
+
+    @Test
+    void ordersEndpoints() {
+        Axis axis = new Axis(5, -2);
+        assertEquals(-2, axis.getLowerEndpoint());
+        assertEquals(5, axis.getUpperEndpoint());
+    }
+
+    @Test
+    void listsPointsFromLowerToUpperEndpoint() {
+        Axis axis = new Axis(3, 0);
+        assertEquals(4, axis.getPointCount(1));
+        assertEquals(List.of(0.0, 1.0, 2.0, 3.0), new ArrayList<>(axis.getRange(1)));
+    }
+
+    @Test
+    void endsOnUpperEndpointWhenStepsDoNotLandOnIt() {
+        Axis axis = new Axis(0, 2.5);
+        assertEquals(4, axis.getPointCount(1));
+        assertEquals(List.of(0.0, 1.0, 2.0, 2.5), new ArrayList<>(axis.getRange(1)));
+    }
+
+    @Test
+    void doesNotGatherFloatingPointError() {
+        // Adding 0.1 ten times gives 0.9999999999999999, which must still be treated as the upper endpoint
+        Axis axis = new Axis(0, 1);
+        assertEquals(11, axis.getPointCount(0.1));
+        assertEquals(1.0, axis.getPoint(10, 0.1));
+        assertEquals(0.3, axis.getPoint(3, 0.1), 1e-12);
+    }
+
+    @Test
+    void hasOnePointWhenEndpointsAreEqual() {
+        Axis axis = new Axis(7, 7);
+        assertEquals(1, axis.getPointCount(1));
+        assertEquals(List.of(7.0), new ArrayList<>(axis.getRange(1)));
+    }
+
+    @Test
+    void rejectsDifferenceWhichIsNotPositive() {
+        Axis axis = new Axis(0, 1);
+        assertThrows(IllegalArgumentException.class, () -> axis.getPointCount(0));
+        assertThrows(IllegalArgumentException.class, () -> axis.getPointCount(-1));
+        assertThrows(IllegalArgumentException.class, () -> axis.getPointCount(Double.NaN));
+    }
+
+}
@@ -0,0 +1,103 @@
+package net.harieo.schematics.position;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlockPosTest {
+
+    private static final int[] XZ_BOUNDS = {BlockPos.MIN_PACKED_XZ, BlockPos.MIN_PACKED_XZ + 1, -1, 0, 1,
+            BlockPos.MAX_PACKED_XZ - 1, BlockPos.MAX_PACKED_XZ};
+    private static final int[] Y_BOUNDS = {BlockPos.MIN_PACKED_Y, BlockPos.MIN_PACKED_Y + 1, -1, 0, 1,
+            BlockPos.MAX_PACKED_Y - 1, BlockPos.MAX_PACKED_Y};
+
+    @Test
+    void packedBoundsMatchBitWidths() {
+        assertEquals(-33_554_432, BlockPos.MIN_PACKED_XZ);
+        assertEquals(33_554_431, BlockPos.MAX_PACKED_XZ);
+        assertEquals(-2_048, BlockPos.MIN_PACKED_Y);
+        assertEquals(2_047, BlockPos.MAX_PACKED_Y);
+    }
+
+    @Test
+    void roundTripsEveryCombinationOfBounds() {
+        Set<Long> packedPositions = new HashSet<>();
+        for (int x : XZ_BOUNDS) {
+            for (int y : Y_BOUNDS) {
+                for (int z : XZ_BOUNDS) {
+                    assertRoundTrips(x, y, z);
+                    assertTrue(packedPositions.add(BlockPos.pack(x, y, z)), "Collision at " + x + "," + y + "," + z);
+                }
+            }
+        }
+    }
+
+    @Test
+    void roundTripsRandomPositions() {
+        Random random = new Random(1);
+        for (int i = 0; i < 10_000; i++) {
+            int x = random.nextInt(BlockPos.MIN_PACKED_XZ, BlockPos.MAX_PACKED_XZ + 1);
+            int y = random.nextInt(BlockPos.MIN_PACKED_Y, BlockPos.MAX_PACKED_Y + 1);
+            int z = random.nextInt(BlockPos.MIN_PACKED_XZ, BlockPos.MAX_PACKED_XZ + 1);
+            assertRoundTrips(x, y, z);
+        }
+    }
+
+    @Test
+    void packsNegativeAxesWithoutSpillingIntoOthers() {
+        // Each negative axis must keep its sign bits to itself, leaving the other axes at zero
+        assertEquals(new BlockPos(-1, 0, 0), BlockPos.fromLong(BlockPos.pack(-1, 0, 0)));
+        assertEquals(new BlockPos(0, -1, 0), BlockPos.fromLong(BlockPos.pack(0, -1, 0)));
+        assertEquals(new BlockPos(0, 0, -1), BlockPos.fromLong(BlockPos.pack(0, 0, -1)));
+        assertEquals(0, BlockPos.pack(0, 0, 0));
+        assertEquals(0, BlockPos.ZERO.asLong());
+    }
+
+    @Test
+    void isPackableOnlyWithinBounds() {
+        assertTrue(BlockPos.isPackable(BlockPos.MIN_PACKED_XZ, BlockPos.MIN_PACKED_Y, BlockPos.MIN_PACKED_XZ));
+        assertTrue(BlockPos.isPackable(BlockPos.MAX_PACKED_XZ, BlockPos.MAX_PACKED_Y, BlockPos.MAX_PACKED_XZ));
+
+        assertFalse(BlockPos.isPackable(BlockPos.MIN_PACKED_XZ - 1, 0, 0));
+        assertFalse(BlockPos.isPackable(BlockPos.MAX_PACKED_XZ + 1, 0, 0));
+        assertFalse(BlockPos.isPackable(0, BlockPos.MIN_PACKED_Y - 1, 0));
+        assertFalse(BlockPos.isPackable(0, BlockPos.MAX_PACKED_Y + 1, 0));
+        assertFalse(BlockPos.isPackable(0, 0, BlockPos.MIN_PACKED_XZ - 1));
+        assertFalse(BlockPos.isPackable(0, 0, BlockPos.MAX_PACKED_XZ + 1));
+        assertFalse(BlockPos.isPackable(Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE));
+    }
+
+    @Test
+    void rejectsPackingOutOfBounds() {
+        assertThrows(IllegalArgumentException.class, () -> BlockPos.pack(BlockPos.MAX_PACKED_XZ + 1, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> BlockPos.pack(0, BlockPos.MIN_PACKED_Y - 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BlockPos(0, 0, BlockPos.MIN_PACKED_XZ - 1).asLong());
+    }
+
+    @Test
+    void floorsTowardsNegativeInfinity() {
+        assertEquals(0, BlockPos.floor(0.0));
+        assertEquals(0, BlockPos.floor(0.99));
+        assertEquals(-1, BlockPos.floor(-0.01));
+        assertEquals(-1, BlockPos.floor(-1.0));
+        assertEquals(-2, BlockPos.floor(-1.5));
+        assertEquals(new BlockPos(-1, 64, 2), BlockPos.of(new Coordinate(-0.5, 64.9, 2.0)));
+    }
+
+    private static void assertRoundTrips(int x, int y, int z) {
+        long packed = BlockPos.pack(x, y, z);
+        String position = x + "," + y + "," + z;
+        assertEquals(x, BlockPos.unpackX(packed), position);
+        assertEquals(y, BlockPos.unpackY(packed), position);
+        assertEquals(z, BlockPos.unpackZ(packed), position);
+        assertEquals(new BlockPos(x, y, z), BlockPos.fromLong(packed), position);
+    }
+
+}
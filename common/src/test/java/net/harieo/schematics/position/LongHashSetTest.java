@@ -0,0 +1,119 @@
+package net.harieo.schematics.position;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongHashSetTest {
+
+    // One less than the capacity of a new set, which is used to find values which collide in it
+    private static final int MIN_MASK = LongHashSet.MIN_CAPACITY - 1;
+
+    @Test
+    void addsAndRemovesFreeMarkerLikeAnyOtherValue() {
+        LongHashSet set = new LongHashSet();
+        assertFalse(set.contains(LongHashSet.FREE));
+        assertTrue(set.add(LongHashSet.FREE));
+        assertFalse(set.add(LongHashSet.FREE));
+        assertTrue(set.contains(LongHashSet.FREE));
+        assertEquals(1, set.size());
+        assertArrayEquals(new long[]{LongHashSet.FREE}, set.toArray());
+
+        assertTrue(set.remove(LongHashSet.FREE));
+        assertFalse(set.remove(LongHashSet.FREE));
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    void removeShiftsBackCollidingValuesAcrossTheEndOfTheTable() {
+        // Each value probes from one of the last two slots, so the probe sequences wrap around to the start
+        List<Long> values = new ArrayList<>();
+        values.addAll(valuesWithSlot(MIN_MASK - 1, 3));
+        values.addAll(valuesWithSlot(MIN_MASK, 3));
+        values.addAll(valuesWithSlot(0, 2));
+
+        Random random = new Random(1);
+        for (int trial = 0; trial < 200; trial++) {
+            Collections.shuffle(values, random);
+            LongHashSet set = new LongHashSet();
+            values.forEach(set::add);
+
+            List<Long> removalOrder = new ArrayList<>(values);
+            Collections.shuffle(removalOrder, random);
+            Set<Long> remaining = new HashSet<>(values);
+            for (long value : removalOrder) {
+                assertTrue(set.remove(value));
+                remaining.remove(value);
+                assertEquals(remaining.size(), set.size());
+                for (long other : values) {
+                    assertEquals(remaining.contains(other), set.contains(other), "Value " + other);
+                }
+            }
+        }
+    }
+
+    @Test
+    void matchesHashSetThroughRandomOperations() {
+        LongHashSet set = new LongHashSet();
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 200_000; i++) {
+            long value = random.nextInt(2_000) - 1_000;
+            switch (random.nextInt(3)) {
+                case 0 -> assertEquals(expected.add(value), set.add(value));
+                case 1 -> assertEquals(expected.remove(value), set.remove(value));
+                default -> assertEquals(expected.contains(value), set.contains(value));
+            }
+            assertEquals(expected.size(), set.size());
+        }
+
+        long[] values = set.toArray();
+        Arrays.sort(values);
+        assertArrayEquals(expected.stream().mapToLong(Long::longValue).sorted().toArray(), values);
+        Set<Long> visited = new HashSet<>();
+        set.forEach(visited::add);
+        assertEquals(expected, visited);
+
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(values[0]));
+    }
+
+    @Test
+    void storesBlockPositions() {
+        LongHashSet set = new LongHashSet(4);
+        assertTrue(set.add(1, -64, 3));
+        assertFalse(set.add(1, -64, 3));
+        assertTrue(set.contains(1, -64, 3));
+        assertTrue(set.contains(BlockPos.pack(1, -64, 3)));
+        assertFalse(set.contains(3, -64, 1));
+    }
+
+    @Test
+    void rejectsNegativeExpectedSize() {
+        assertThrows(IllegalArgumentException.class, () -> new LongHashSet(-1));
+    }
+
+    static List<Long> valuesWithSlot(int slot, int count) {
+        List<Long> values = new ArrayList<>();
+        for (long value = 1; values.size() < count; value++) {
+            if (LongHashSet.slotOf(value, MIN_MASK) == slot) {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+
+}
@@ -0,0 +1,103 @@
+package net.harieo.schematics.position;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongObjectMapTest {
+
+    @Test
+    void putsAndRemovesFreeMarkerKey() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        assertNull(map.put(LongHashSet.FREE, "a"));
+        assertEquals("a", map.put(LongHashSet.FREE, "b"));
+        assertEquals("b", map.get(LongHashSet.FREE));
+        assertEquals(1, map.size());
+
+        assertEquals("b", map.remove(LongHashSet.FREE));
+        assertNull(map.remove(LongHashSet.FREE));
+        assertFalse(map.containsKey(LongHashSet.FREE));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    void removeShiftsBackCollidingEntriesWithTheirValues() {
+        List<Long> keys = new ArrayList<>();
+        keys.addAll(LongHashSetTest.valuesWithSlot(LongHashSet.MIN_CAPACITY - 2, 3));
+        keys.addAll(LongHashSetTest.valuesWithSlot(LongHashSet.MIN_CAPACITY - 1, 3));
+        keys.addAll(LongHashSetTest.valuesWithSlot(0, 2));
+
+        Random random = new Random(1);
+        for (int trial = 0; trial < 200; trial++) {
+            Collections.shuffle(keys, random);
+            LongObjectMap<String> map = new LongObjectMap<>();
+            keys.forEach(key -> map.put(key, "value " + key));
+
+            List<Long> removalOrder = new ArrayList<>(keys);
+            Collections.shuffle(removalOrder, random);
+            Map<Long, String> remaining = new HashMap<>();
+            keys.forEach(key -> remaining.put(key, "value " + key));
+            for (long key : removalOrder) {
+                assertEquals("value " + key, map.remove(key));
+                remaining.remove(key);
+                assertEquals(remaining.size(), map.size());
+                for (long other : keys) {
+                    assertEquals(remaining.get(other), map.get(other), "Key " + other);
+                }
+            }
+        }
+    }
+
+    @Test
+    void matchesHashMapThroughRandomOperations() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        Map<Long, String> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextInt(2_000) - 1_000;
+            switch (random.nextInt(3)) {
+                case 0 -> assertEquals(expected.put(key, "v" + i), map.put(key, "v" + i));
+                case 1 -> assertEquals(expected.remove(key), map.remove(key));
+                default -> assertEquals(expected.get(key), map.get(key));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+
+        Map<Long, String> visited = new HashMap<>();
+        map.forEach(visited::put);
+        assertEquals(expected, visited);
+
+        map.clear();
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    void computesAbsentValuesOnce() {
+        LongObjectMap<List<String>> map = new LongObjectMap<>();
+        List<String> created = map.computeIfAbsent(5, key -> new ArrayList<>());
+        created.add("a");
+        assertSame(created, map.computeIfAbsent(5, key -> new ArrayList<>()));
+        assertEquals(List.of("a"), map.get(5));
+    }
+
+    @Test
+    void getsBlockPositions() {
+        LongObjectMap<String> map = new LongObjectMap<>(4);
+        map.put(BlockPos.pack(1, -64, 3), "block");
+        assertEquals("block", map.get(1, -64, 3));
+        assertNull(map.get(3, -64, 1));
+        assertNull(map.get(Integer.MAX_VALUE, 0, 0)); // Cannot be packed, so cannot be present
+    }
+
+}
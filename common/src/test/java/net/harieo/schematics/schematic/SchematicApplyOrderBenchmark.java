@@ -0,0 +1,208 @@
+package net.harieo.schematics.schematic;
+
+import net.harieo.schematics.Benchmark;
+import net.harieo.schematics.modification.Modification;
+import net.harieo.schematics.position.BlockPos;
+import net.harieo.schematics.position.Coordinate;
+import net.harieo.schematics.position.Vector;
+import net.harieo.schematics.schematic.volume.SchematicVolume;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares applying the modifications of a schematic in a random order, as they were applied when they were kept in a
+ * set, with the chunk order of {@link SchematicCursor} and {@link Schematic#apply()}, in a world which only keeps a
+ * few chunks loaded at once.
+ */
+@EnabledIfSystemProperty(named = Benchmark.PROPERTY, matches = "true")
+class SchematicApplyOrderBenchmark {
+
+    private static final int SIZE = 64;
+    private static final int LOADED_CHUNKS = 4;
+    private static final int ROUNDS = 3;
+
+    @Test
+    void randomAgainstChunkOrder() {
+        ChunkedWorld world = new ChunkedWorld(LOADED_CHUNKS);
+        Schematic schematic = createSchematic(world);
+        List<PlacedModification> chunkOrder = new ArrayList<>(schematic.getModificationCount());
+        SchematicCursor cursor = new SchematicCursor(schematic);
+        while (cursor.next((modification, coordinate) ->
+                chunkOrder.add(new PlacedModification(modification, coordinate)))) {
+            // Each modification is collected by the visitor
+        }
+        List<PlacedModification> randomOrder = new ArrayList<>(chunkOrder);
+        Collections.shuffle(randomOrder, new Random(1));
+
+        long random = Benchmark.time("Apply in random order", ROUNDS, () -> apply(world, randomOrder));
+        long randomLoads = world.getLoadCount() / ROUNDS;
+        Map<Long, int[]> randomBlocks = world.save();
+        long ordered = Benchmark.time("Apply in chunk order", ROUNDS, () -> apply(world, chunkOrder));
+        long orderedLoads = world.getLoadCount() / ROUNDS;
+        Map<Long, int[]> orderedBlocks = world.save();
+        Benchmark.time("Schematic.apply()", ROUNDS, () -> {
+            schematic.apply();
+            return world;
+        });
+        long applyLoads = world.getLoadCount() / ROUNDS;
+        System.out.printf("Chunk loads per apply: %d random, %d in chunk order, %d by Schematic.apply()%n",
+                randomLoads, orderedLoads, applyLoads);
+        System.out.printf("Random order takes %.2fx as long%n", (double) random / ordered);
+
+        // Both orders must leave the same blocks, and the chunk order loads each chunk once
+        assertEquals(randomBlocks.keySet(), orderedBlocks.keySet());
+        randomBlocks.forEach((chunk, blocks) -> assertTrue(Arrays.equals(blocks, orderedBlocks.get(chunk))));
+        int chunkCount = (SIZE / SchematicVolume.CHUNK_SIZE) * (SIZE / SchematicVolume.CHUNK_SIZE);
+        assertEquals(chunkCount, orderedLoads);
+        assertEquals(chunkCount, applyLoads);
+    }
+
+    private static ChunkedWorld apply(@NotNull ChunkedWorld world, @NotNull List<PlacedModification> modifications) {
+        for (PlacedModification placedModification : modifications) {
+            placedModification.modification().apply(placedModification.coordinate());
+        }
+        return world;
+    }
+
+    private static Schematic createSchematic(@NotNull ChunkedWorld world) {
+        Schematic schematic = new Schematic("benchmark", new Coordinate(0, 0, 0));
+        Random random = new Random(1);
+        for (int y = 0; y < SIZE; y++) {
+            for (int z = 0; z < SIZE; z++) {
+                for (int x = 0; x < SIZE; x++) {
+                    schematic.addModification(new WorldModification(world, 1 + random.nextInt(16)),
+                            new Vector(x, y, z));
+                }
+            }
+        }
+        return schematic;
+    }
+
+    private record PlacedModification(@NotNull Modification modification, @NotNull Coordinate coordinate) {
+    }
+
+    /**
+     * An in-memory stand-in for a world which keeps only a few chunks loaded, as a server does for a region nobody is
+     * near. Setting a block in a chunk which is not loaded first saves the least recently used chunk and loads the
+     * chunk, each of which copies the whole chunk.
+     */
+    private static class ChunkedWorld {
+
+        private static final int CHUNK_BLOCKS = SchematicVolume.CHUNK_SIZE * SchematicVolume.CHUNK_SIZE * SIZE;
+
+        private final Map<Long, int[]> savedChunks = new HashMap<>();
+        private final LinkedHashMap<Long, int[]> loadedChunks;
+        private long loadCount = 0;
+
+        private ChunkedWorld(int loadedChunkLimit) {
+            this.loadedChunks = new LinkedHashMap<>(loadedChunkLimit * 2, 0.75F, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, int[]> eldest) {
+                    if (size() <= loadedChunkLimit) {
+                        return false;
+                    }
+                    savedChunks.put(eldest.getKey(), eldest.getValue().clone());
+                    return true;
+                }
+            };
+        }
+
+        private void set(@NotNull BlockPos block, int value) {
+            int chunkX = Math.floorDiv(block.getX(), SchematicVolume.CHUNK_SIZE);
+            int chunkZ = Math.floorDiv(block.getZ(), SchematicVolume.CHUNK_SIZE);
+            long chunkKey = (long) chunkX << 32 | (chunkZ & 0xFFFFFFFFL);
+            int[] chunk = loadedChunks.get(chunkKey);
+            if (chunk == null) {
+                int[] savedChunk = savedChunks.get(chunkKey);
+                chunk = savedChunk != null ? savedChunk.clone() : new int[CHUNK_BLOCKS];
+                loadedChunks.put(chunkKey, chunk);
+                loadCount++;
+            }
+            int localX = block.getX() & (SchematicVolume.CHUNK_SIZE - 1);
+            int localZ = block.getZ() & (SchematicVolume.CHUNK_SIZE - 1);
+            chunk[(block.getY() * SchematicVolume.CHUNK_SIZE + localZ) * SchematicVolume.CHUNK_SIZE + localX] = value;
+        }
+
+        /**
+         * Saves and unloads every loaded chunk, and forgets the amount of chunks loaded.
+         *
+         * @return a copy of every chunk by its key
+         */
+        private Map<Long, int[]> save() {
+            loadedChunks.forEach((chunkKey, chunk) -> savedChunks.put(chunkKey, chunk.clone()));
+            loadedChunks.clear();
+            loadCount = 0;
+            Map<Long, int[]> chunks = new HashMap<>();
+            savedChunks.forEach((chunkKey, chunk) -> chunks.put(chunkKey, chunk.clone()));
+            return chunks;
+        }
+
+        private long getLoadCount() {
+            return loadCount;
+        }
+
+    }
+
+    /**
+     * A modification which sets a block of a {@link ChunkedWorld} to a value.
+     */
+    private static class WorldModification extends Modification {
+
+        private final ChunkedWorld world;
+        private final int value;
+
+        private WorldModification(@NotNull ChunkedWorld world, int value) {
+            super("world");
+            this.world = world;
+            this.value = value;
+        }
+
+        @Override
+        public boolean isAvailable(@NotNull Coordinate coordinate) {
+            return true;
+        }
+
+        @Override
+        public void apply(@NotNull Coordinate coordinate) {
+            world.set(BlockPos.of(coordinate), value);
+        }
+
+        @Override
+        public boolean replacesBlock() {
+            return true;
+        }
+
+        @Override
+        public @NotNull ChunkedWorld getSpace() {
+            return world;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            return object instanceof WorldModification modification
+                    && modification.world == world
+                    && modification.value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(world), value);
+        }
+
+    }
+
+}
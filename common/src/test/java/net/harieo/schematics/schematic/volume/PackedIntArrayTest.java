@@ -0,0 +1,102 @@
+package net.harieo.schematics.schematic.volume;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PackedIntArrayTest {
+
+    @Test
+    void startsWithEveryEntryZero() {
+        PackedIntArray array = new PackedIntArray(100, 3);
+        for (int index = 0; index < array.length(); index++) {
+            assertEquals(0, array.get(index));
+        }
+    }
+
+    @Test
+    void keepsEachEntryWithoutChangingItsNeighbours() {
+        // 5 bits leaves 4 unused bits in each long, so entries near the end of a long are checked too
+        PackedIntArray array = new PackedIntArray(1000, 5);
+        int[] expected = new int[array.length()];
+        Random random = new Random(1);
+        for (int i = 0; i < 10_000; i++) {
+            int index = random.nextInt(array.length());
+            expected[index] = random.nextInt(32);
+            array.set(index, expected[index]);
+        }
+
+        assertEquals(5, array.getBitsPerEntry());
+        for (int index = 0; index < array.length(); index++) {
+            assertEquals(expected[index], array.get(index), "Entry " + index);
+        }
+    }
+
+    @Test
+    void growsBitsPerEntryWithoutLosingEntries() {
+        PackedIntArray array = new PackedIntArray(500, 1);
+        for (int index = 0; index < array.length(); index++) {
+            array.set(index, index % 2);
+        }
+
+        array.set(7, 1000);
+        assertEquals(PackedIntArray.bitsRequired(1000), array.getBitsPerEntry());
+        for (int index = 0; index < array.length(); index++) {
+            assertEquals(index == 7 ? 1000 : index % 2, array.get(index), "Entry " + index);
+        }
+
+        array.set(8, Integer.MAX_VALUE);
+        assertEquals(Integer.MAX_VALUE, array.get(8));
+        assertEquals(1000, array.get(7));
+        assertEquals(1, array.get(9));
+    }
+
+    @Test
+    void neverShrinksBitsPerEntry() {
+        PackedIntArray array = new PackedIntArray(10, 1);
+        array.set(0, 300);
+        array.set(0, 0);
+        assertEquals(PackedIntArray.bitsRequired(300), array.getBitsPerEntry());
+    }
+
+    @Test
+    void copiesAreIndependent() {
+        PackedIntArray array = new PackedIntArray(10, 2);
+        array.set(3, 2);
+        PackedIntArray copy = new PackedIntArray(array);
+        copy.set(3, 1);
+        copy.set(4, 100);
+
+        assertEquals(2, array.get(3));
+        assertEquals(0, array.get(4));
+        assertEquals(2, array.getBitsPerEntry());
+        assertEquals(1, copy.get(3));
+        assertEquals(100, copy.get(4));
+    }
+
+    @Test
+    void calculatesBitsRequired() {
+        assertEquals(1, PackedIntArray.bitsRequired(0));
+        assertEquals(1, PackedIntArray.bitsRequired(1));
+        assertEquals(2, PackedIntArray.bitsRequired(2));
+        assertEquals(8, PackedIntArray.bitsRequired(255));
+        assertEquals(9, PackedIntArray.bitsRequired(256));
+        assertEquals(31, PackedIntArray.bitsRequired(Integer.MAX_VALUE));
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new PackedIntArray(-1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new PackedIntArray(1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new PackedIntArray(1, 33));
+
+        PackedIntArray array = new PackedIntArray(4, 1);
+        assertThrows(IllegalArgumentException.class, () -> array.set(0, -1));
+        assertThrows(IndexOutOfBoundsException.class, () -> array.get(4));
+        assertThrows(IndexOutOfBoundsException.class, () -> array.set(-1, 0));
+    }
+
+}
@@ -0,0 +1,152 @@
+package net.harieo.schematics.schematic.volume;
+
+import net.harieo.schematics.modification.Modification;
+import net.harieo.schematics.modification.RelativeModification;
+import net.harieo.schematics.modification.TestModification;
+import net.harieo.schematics.modification.TestSpace;
+import net.harieo.schematics.position.BlockPos;
+import net.harieo.schematics.position.Vector;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchematicVolumeTest {
+
+    private final TestSpace space = new TestSpace();
+
+    @Test
+    void growsGridInEveryDirection() {
+        SchematicVolume volume = new SchematicVolume();
+        Map<BlockPos, Integer> expected = new HashMap<>();
+        Random random = new Random(1);
+        for (int i = 0; i < 5_000; i++) {
+            BlockPos block = new BlockPos(random.nextInt(80) - 40, random.nextInt(30) - 10, random.nextInt(80) - 40);
+            if (expected.containsKey(block)) {
+                continue;
+            }
+
+            int value = random.nextInt(40);
+            expected.put(block, value);
+            assertTrue(volume.add(new TestModification(space, value), block.getX(), block.getY(), block.getZ(), null));
+        }
+
+        assertEquals(expected.size(), volume.size());
+        assertEquals(expected.size(), volume.getGriddedCount());
+        assertTrue(volume.getUngriddedModifications().isEmpty());
+        expected.forEach((block, value) -> assertEquals(new TestModification(space, value),
+                volume.getPalette().get(volume.getPaletteIndex(block.getX(), block.getY(), block.getZ()))));
+
+        volume.trim();
+        assertEquals(expected.size(), volume.size());
+        int[] visited = {0};
+        volume.forEachCell((x, y, z, paletteIndex) -> {
+            assertEquals(new TestModification(space, expected.get(new BlockPos(x, y, z))),
+                    volume.getPalette().get(paletteIndex));
+            visited[0]++;
+        });
+        assertEquals(expected.size(), visited[0]);
+    }
+
+    @Test
+    void trimsGridToItsModifications() {
+        SchematicVolume volume = new SchematicVolume();
+        volume.reserve(-50, -50, -50, 50, 50, 50);
+        volume.add(new TestModification(space, 1), 3, 4, 5, null);
+        volume.add(new TestModification(space, 2), 6, 4, 7, null);
+
+        volume.trim();
+        assertEquals(3, volume.getGridOriginX());
+        assertEquals(4, volume.getGridOriginY());
+        assertEquals(5, volume.getGridOriginZ());
+        assertEquals(4, volume.getGridSizeX());
+        assertEquals(1, volume.getGridSizeY());
+        assertEquals(3, volume.getGridSizeZ());
+        assertEquals(2, volume.size());
+    }
+
+    @Test
+    void keepsIdenticalModificationOnce() {
+        SchematicVolume volume = new SchematicVolume();
+        assertTrue(volume.add(new TestModification(space, 1), 0, 0, 0, null));
+        assertTrue(volume.add(new TestModification(space, 1), 0, 0, 0, null));
+        assertEquals(1, volume.size());
+        assertEquals(2, volume.getPalette().size()); // The empty entry and the one modification
+    }
+
+    @Test
+    void keepsModificationsOutsideGridWhenTheyCannotBeGridded() {
+        SchematicVolume volume = new SchematicVolume();
+        volume.add(new TestModification(space, 1), new Vector(0, 0, 0), null);
+        // Occupied by a different modification
+        volume.add(new TestModification(space, 2), new Vector(0, 0, 0), null);
+        // Not block-aligned
+        volume.add(new TestModification(space, 3), new Vector(1.5, 0, 0), null);
+        // Too far away for the grid to grow to
+        volume.add(new TestModification(space, 4), new Vector(1 << 20, 0, 1 << 20), null);
+
+        assertEquals(4, volume.size());
+        assertEquals(1, volume.getGriddedCount());
+        List<RelativeModification<? extends Modification>> ungridded = volume.getUngriddedModifications();
+        assertEquals(3, ungridded.size());
+        assertEquals(new TestModification(space, 2), ungridded.get(0).getActualModification());
+        assertEquals(new TestModification(space, 3), ungridded.get(1).getActualModification());
+        assertEquals(new TestModification(space, 4), ungridded.get(2).getActualModification());
+
+        assertEquals(1, volume.getUngriddedModificationsAt(0, 0, 0).size());
+        assertEquals(1, volume.getUngriddedModificationsAt(1, 0, 0).size());
+        assertTrue(volume.hasModificationAt(1 << 20, 0, 1 << 20));
+        assertFalse(volume.hasModificationAt(2, 0, 0));
+        // Ungridded modifications share the palette instance of an equal modification
+        assertEquals(volume.getPalette().indexOf(new TestModification(space, 2)),
+                volume.getPalette().indexOf(ungridded.get(0).getActualModification()));
+    }
+
+    @Test
+    void removesFromGridAndOutsideIt() {
+        SchematicVolume volume = new SchematicVolume();
+        volume.add(new TestModification(space, 1), new Vector(0, 0, 0), null);
+        volume.add(new TestModification(space, 2), new Vector(0.5, 0, 0), null);
+        long revision = volume.getRevision();
+
+        assertFalse(volume.remove(new TestModification(space, 2), new Vector(0, 0, 0)));
+        assertTrue(volume.remove(new TestModification(space, 1), new Vector(0, 0, 0)));
+        assertTrue(volume.remove(new TestModification(space, 2), new Vector(0.5, 0, 0)));
+        assertTrue(volume.isEmpty());
+        assertEquals(revision + 2, volume.getRevision());
+    }
+
+    @Test
+    void addsByPaletteIndex() {
+        SchematicVolume volume = new SchematicVolume();
+        int paletteIndex = volume.getPalette().getOrAdd(new TestModification(space, 5), null);
+        assertTrue(volume.add(paletteIndex, 2, 3, 4));
+        assertTrue(volume.add(paletteIndex, -2, 3, 4));
+        assertEquals(2, volume.size());
+        assertEquals(paletteIndex, volume.getPaletteIndex(-2, 3, 4));
+
+        assertThrows(IndexOutOfBoundsException.class, () -> volume.add(ModificationPalette.EMPTY, 0, 0, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> volume.add(paletteIndex + 1, 0, 0, 0));
+    }
+
+    @Test
+    void copiesAreIndependent() {
+        SchematicVolume volume = new SchematicVolume();
+        volume.add(new TestModification(space, 1), 0, 0, 0, null);
+        SchematicVolume copy = new SchematicVolume(volume);
+        copy.add(new TestModification(space, 2), 1, 0, 0, null);
+        copy.add(new TestModification(space, 3), new Vector(0.5, 0, 0), null);
+
+        assertEquals(1, volume.size());
+        assertEquals(3, copy.size());
+        assertEquals(ModificationPalette.EMPTY, volume.getPaletteIndex(1, 0, 0));
+    }
+
+}
@@ -0,0 +1,164 @@
+package net.harieo.schematics.serialization.impl.animation;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+import net.harieo.schematics.animation.Animation;
+import net.harieo.schematics.animation.AnimationSnapshot;
+import net.harieo.schematics.animation.TestAnimation;
+import net.harieo.schematics.animation.Transition;
+import net.harieo.schematics.animation.impl.basic.SchematicTransition;
+import net.harieo.schematics.animation.serialization.TransitionJsonSerializable;
+import net.harieo.schematics.modification.TestModification;
+import net.harieo.schematics.modification.TestSpace;
+import net.harieo.schematics.position.Coordinate;
+import net.harieo.schematics.position.Vector;
+import net.harieo.schematics.schematic.Schematic;
+import net.harieo.schematics.serialization.Blueprint;
+import net.harieo.schematics.serialization.Serializer;
+import net.harieo.schematics.serialization.impl.transition.TransitionJsonDeserializer;
+import net.harieo.schematics.serialization.impl.transition.TransitionJsonSerializer;
+import net.harieo.schematics.serialization.registry.BlueprintRegistry;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AnimationJsonSerializerTest {
+
+    private final AnimationJsonDeserializer<TestAnimation> deserializer = new AnimationJsonDeserializer<>(
+            new BlueprintRegistry<Transition, JsonObject>(BlueprintRegistry.JSON_TYPE_DISCRIMINATOR,
+                    new Blueprint<>(new DelayTransition.DelaySerializer(), new DelayTransition.DelayDeserializer()))) {
+        @Override
+        public TestAnimation deserializeToExactForm(@Nullable String id, @NotNull List<Transition> transitions) {
+            return new TestAnimation(transitions);
+        }
+    };
+
+    @Test
+    void roundTripsLoopCount() throws IOException {
+        for (int loopCount : new int[]{1, 3, Animation.LOOP_INFINITE}) {
+            TestAnimation animation = new TestAnimation(new DelayTransition(5, 10), new DelayTransition(0, 3));
+            animation.setLoopCount(loopCount);
+
+            JsonObject treeJson = new AnimationJsonSerializer().serialize(animation);
+            assertEquals(loopCount, deserializer.deserialize(treeJson).getLoopCount());
+            assertEquals(loopCount != 1, treeJson.has("loops"), "A single play should not be written");
+
+            JsonObject streamJson = JsonParser.parseString(writeStream(AnimationSnapshot.of(animation)))
+                    .getAsJsonObject();
+            assertEquals(treeJson, streamJson);
+            TestAnimation deserialized = deserializer.deserialize(streamJson);
+            assertEquals(loopCount, deserialized.getLoopCount());
+            assertEquals(animation.getTotalAnimationTime(), deserialized.getTotalAnimationTime());
+        }
+    }
+
+    @Test
+    void snapshotKeepsLoopCountAndTransitions() {
+        TestAnimation animation = new TestAnimation(new DelayTransition(5, 10));
+        animation.setLoopCount(4);
+        AnimationSnapshot snapshot = AnimationSnapshot.of(animation);
+        animation.setLoopCount(1);
+        animation.addTransition(new DelayTransition(1, 1));
+
+        assertEquals(4, snapshot.loopCount());
+        assertEquals(1, snapshot.transitions().size());
+        assertEquals(4, deserializer.deserialize(new AnimationJsonSerializer().serialize(snapshot)).getLoopCount());
+        assertThrows(IllegalArgumentException.class, () -> new AnimationSnapshot(null, List.of(), 0));
+    }
+
+    @Test
+    void snapshotCopiesSchematicsOfTransitions() {
+        TestSpace space = new TestSpace();
+        Schematic schematic = new Schematic("frame", new Coordinate(0, 0, 0));
+        schematic.addModification(new TestModification(space, 1), new Vector(0, 0, 0));
+        TestAnimation animation = new TestAnimation(new SchematicTransition(schematic, 5, 10));
+        AnimationSnapshot snapshot = AnimationSnapshot.of(animation);
+        schematic.addModification(new TestModification(space, 2), new Vector(1, 0, 0));
+
+        SchematicTransition copy = (SchematicTransition) snapshot.transitions().get(0);
+        assertNotSame(schematic, copy.getSchematic());
+        assertEquals(1, copy.getSchematic().getModificationCount());
+        assertEquals(5, copy.getMillisecondsBefore());
+        assertEquals(10, copy.getMillisecondsAfter());
+    }
+
+    @Test
+    void readsAnimationsWithoutLoopCount() {
+        JsonObject json = JsonParser.parseString("{\"transitions\": [{\"type\": \"delay\","
+                + " \"milliseconds-before\": -5, \"milliseconds-after\": 5}]}").getAsJsonObject();
+        TestAnimation animation = deserializer.deserialize(json);
+        assertEquals(1, animation.getLoopCount());
+        assertEquals(5, animation.getTotalAnimationTime(), "A negative time should count as 0");
+    }
+
+    @Test
+    void rejectsInvalidLoopCount() {
+        JsonObject json = JsonParser.parseString("{\"transitions\": [], \"loops\": 0}").getAsJsonObject();
+        assertThrows(IllegalArgumentException.class, () -> deserializer.deserialize(json));
+    }
+
+    private static String writeStream(AnimationSnapshot snapshot) throws IOException {
+        StringWriter output = new StringWriter();
+        JsonWriter writer = new JsonWriter(output);
+        new AnimationJsonStreamSerializer().serialize(snapshot, writer);
+        writer.flush();
+        return output.toString();
+    }
+
+    private static class DelayTransition extends Transition implements TransitionJsonSerializable {
+
+        private static final String TYPE = "delay";
+
+        private DelayTransition(long millisecondsBefore, long millisecondsAfter) {
+            super(TYPE, millisecondsBefore, millisecondsAfter);
+        }
+
+        @Override
+        public void run() {
+        }
+
+        @Override
+        public @NotNull Serializer<Transition, JsonObject> getSerializer() {
+            return new DelaySerializer();
+        }
+
+        private static class DelaySerializer extends TransitionJsonSerializer {
+
+            @Override
+            public void addExtraData(@NotNull Transition transition, @NotNull JsonObject serializedObject) {
+            }
+
+        }
+
+        private static class DelayDeserializer extends TransitionJsonDeserializer {
+
+            @Override
+            public Transition deserializeToSpecific(@NotNull JsonObject serializedObject, long millisecondsBefore,
+                                                    long millisecondsAfter) {
+                return new DelayTransition(millisecondsBefore, millisecondsAfter);
+            }
+
+            @Override
+            public boolean isValidObject(@NotNull JsonObject serializedObject) {
+                return TYPE.equals(parseType(serializedObject));
+            }
+
+            @Override
+            public @NotNull String getDiscriminator() {
+                return TYPE;
+            }
+
+        }
+
+    }
+
+}
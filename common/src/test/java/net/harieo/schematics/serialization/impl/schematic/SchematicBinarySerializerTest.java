@@ -0,0 +1,222 @@
+package net.harieo.schematics.serialization.impl.schematic;
+
+import net.harieo.schematics.modification.Modification;
+import net.harieo.schematics.modification.RelativeModification;
+import net.harieo.schematics.modification.TestModification;
+import net.harieo.schematics.modification.TestSpace;
+import net.harieo.schematics.position.Coordinate;
+import net.harieo.schematics.position.Vector;
+import net.harieo.schematics.schematic.Schematic;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchematicBinarySerializerTest {
+
+    private final TestSpace space = new TestSpace();
+    private final SchematicBinaryDeserializer<Coordinate> deserializer = new SchematicBinaryDeserializer<>(
+            Coordinate.DEFAULT_JSON_BLUEPRINT.getDeserializer(), TestModification.blueprint(space));
+
+    @Test
+    void roundTripsEveryModification() {
+        Schematic schematic = createSchematic(2_000);
+        for (boolean deflate : new boolean[]{false, true}) {
+            ByteBuffer buffer = new SchematicBinarySerializer<>(Coordinate.DEFAULT_JSON_BLUEPRINT.getSerializer(),
+                    deflate).serialize(schematic);
+            assertTrue(deserializer.isValidObject(buffer));
+
+            Schematic deserialized = deserializer.deserialize(buffer);
+            assertEquals(schematic.getId(), deserialized.getId());
+            assertEquals(schematic.getInitialPosition().getY(), deserialized.getInitialPosition().getY());
+            assertEquals(schematic.getModificationCount(), deserialized.getModificationCount());
+            assertEquals(describe(schematic), describe(deserialized));
+            assertEquals(0, buffer.position(), "Deserializing should not move the buffer");
+        }
+    }
+
+    @Test
+    void roundTripsEmptySchematic() {
+        Schematic schematic = new Schematic(null, new Coordinate(1, 2, 3));
+        ByteBuffer buffer = new SchematicBinarySerializer<>(Coordinate.DEFAULT_JSON_BLUEPRINT.getSerializer())
+                .serialize(schematic);
+        Schematic deserialized = deserializer.deserialize(buffer);
+        assertTrue(deserialized.getId().isEmpty());
+        assertEquals(0, deserialized.getModificationCount());
+    }
+
+    @Test
+    void leavesOutRemovedPaletteEntries() {
+        Schematic schematic = new Schematic("test", new Coordinate(0, 0, 0));
+        schematic.getVolume().add(new TestModification(space, 1), new Vector(0, 0, 0),
+                TestModification.blueprint(space));
+        // Without a blueprint, this modification could not be written if its palette entry were kept
+        schematic.addModification(new TestModification(space, 2), new Vector(1, 0, 0));
+        schematic.getVolume().add(new TestModification(space, 3), new Vector(0.5, 0, 0),
+                TestModification.blueprint(space));
+        schematic.removeModification(new RelativeModification<>(new TestModification(space, 2),
+                new Vector(1, 0, 0)));
+        schematic.getVolume().trim(); // So that the grid is no larger than if the removed modification was never added
+
+        Schematic withoutRemoved = new Schematic("test", new Coordinate(0, 0, 0));
+        withoutRemoved.getVolume().add(new TestModification(space, 1), new Vector(0, 0, 0),
+                TestModification.blueprint(space));
+        withoutRemoved.getVolume().add(new TestModification(space, 3), new Vector(0.5, 0, 0),
+                TestModification.blueprint(space));
+
+        SchematicBinarySerializer<Coordinate> serializer = new SchematicBinarySerializer<>(
+                Coordinate.DEFAULT_JSON_BLUEPRINT.getSerializer());
+        ByteBuffer buffer = serializer.serialize(schematic);
+        assertEquals(serializer.serialize(withoutRemoved), buffer);
+        assertEquals(Set.of("0.0,0.0,0.0=1", "0.5,0.0,0.0=3"), describe(deserializer.deserialize(buffer)));
+    }
+
+    @Test
+    void rejectsOtherFormatsAndVersions() {
+        ByteBuffer notSchematic = ByteBuffer.wrap("{\"json\": true}".getBytes());
+        assertFalse(deserializer.isValidObject(notSchematic));
+        assertThrows(IllegalArgumentException.class, () -> deserializer.deserialize(notSchematic));
+        assertThrows(IllegalArgumentException.class, () -> deserializer.deserialize(ByteBuffer.allocate(0)));
+
+        ByteBuffer newerVersion = serialize(false);
+        newerVersion.put(Integer.BYTES, (byte) (SchematicBinaryFormat.VERSION + 1));
+        assertThrows(IllegalArgumentException.class, () -> deserializer.deserialize(newerVersion));
+    }
+
+    @Test
+    void rejectsEveryTruncation() {
+        for (boolean deflate : new boolean[]{false, true}) {
+            ByteBuffer buffer = serialize(deflate);
+            for (int length = 0; length < buffer.remaining(); length++) {
+                ByteBuffer truncated = buffer.duplicate().limit(length);
+                assertThrows(IllegalArgumentException.class, () -> deserializer.deserialize(truncated),
+                        "Truncated to " + length + " bytes, deflate " + deflate);
+            }
+        }
+    }
+
+    @Test
+    void rejectsImpossibleInflatedLength() {
+        ByteBuffer buffer = serialize(true);
+        ByteArrayOutputStream corrupt = new ByteArrayOutputStream();
+        corrupt.write(buffer.array(), 0, Integer.BYTES + 2);
+        SchematicBinaryFormat.writeVarInt(corrupt, Integer.MAX_VALUE);
+        ByteBuffer header = buffer.duplicate().position(Integer.BYTES + 2);
+        SchematicBinaryFormat.readVarInt(header); // Skips the real inflated length
+        corrupt.write(buffer.array(), header.position(), header.remaining());
+
+        ByteBuffer corruptBuffer = ByteBuffer.wrap(corrupt.toByteArray());
+        assertThrows(IllegalArgumentException.class, () -> deserializer.deserialize(corruptBuffer));
+    }
+
+    @Test
+    void rejectsCorruptGrid() {
+        // An empty grid cannot hold a modification
+        assertThrows(IllegalArgumentException.class, () -> deserializer.deserialize(createBody(body -> {
+            writeGrid(body, 0, 1, 1);
+            SchematicBinaryFormat.writeVarInt(body, 1);
+            SchematicBinaryFormat.writeVarInt(body, 0);
+            SchematicBinaryFormat.writeVarInt(body, 1);
+        })));
+        // A grid larger than a volume can hold
+        assertThrows(IllegalArgumentException.class, () -> deserializer.deserialize(createBody(body -> {
+            writeGrid(body, 1 << 15, 1 << 15, 1);
+            SchematicBinaryFormat.writeVarInt(body, 1);
+            SchematicBinaryFormat.writeVarInt(body, 0);
+            SchematicBinaryFormat.writeVarInt(body, 1);
+        })));
+        // A gap past the end of the grid
+        assertThrows(IllegalArgumentException.class, () -> deserializer.deserialize(createBody(body -> {
+            writeGrid(body, 1, 1, 1);
+            SchematicBinaryFormat.writeVarInt(body, 1);
+            SchematicBinaryFormat.writeVarInt(body, 1);
+            SchematicBinaryFormat.writeVarInt(body, 1);
+        })));
+        // A palette index which is not in the palette
+        assertThrows(IllegalArgumentException.class, () -> deserializer.deserialize(createBody(body -> {
+            writeGrid(body, 1, 1, 1);
+            SchematicBinaryFormat.writeVarInt(body, 1);
+            SchematicBinaryFormat.writeVarInt(body, 0);
+            SchematicBinaryFormat.writeVarInt(body, 2);
+        })));
+        // More modifications than there are bytes left to describe them
+        assertThrows(IllegalArgumentException.class, () -> deserializer.deserialize(createBody(body -> {
+            writeGrid(body, 4, 4, 4);
+            SchematicBinaryFormat.writeVarInt(body, 64);
+        })));
+    }
+
+    @Test
+    void acceptsHandWrittenBody() {
+        Schematic schematic = deserializer.deserialize(createBody(body -> {
+            writeGrid(body, 2, 1, 1);
+            SchematicBinaryFormat.writeVarInt(body, 1);
+            SchematicBinaryFormat.writeVarInt(body, 1);
+            SchematicBinaryFormat.writeVarInt(body, 1);
+            SchematicBinaryFormat.writeVarInt(body, 0); // No ungridded modifications
+        }));
+        assertEquals(Set.of("1.0,0.0,0.0=1"), describe(schematic));
+    }
+
+    // Small enough that every truncation can be checked quickly
+    private ByteBuffer serialize(boolean deflate) {
+        return new SchematicBinarySerializer<>(Coordinate.DEFAULT_JSON_BLUEPRINT.getSerializer(), deflate)
+                .serialize(createSchematic(100));
+    }
+
+    private Schematic createSchematic(int count) {
+        Schematic schematic = new Schematic("test", new Coordinate(100, 64, 100));
+        Random random = new Random(1);
+        for (int i = 0; i < count; i++) {
+            schematic.getVolume().add(new TestModification(space, random.nextInt(20)),
+                    new Vector(random.nextInt(30) - 15, random.nextInt(10), random.nextInt(30) - 15),
+                    TestModification.blueprint(space));
+        }
+        schematic.getVolume().add(new TestModification(space, 3), new Vector(0.5, 0, -0.25),
+                TestModification.blueprint(space));
+        return schematic;
+    }
+
+    // A body with no id, an initial position and a palette of one modification, followed by the provided bytes
+    private static ByteBuffer createBody(Consumer<ByteArrayOutputStream> rest) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        output.writeBytes(ByteBuffer.allocate(Integer.BYTES).putInt(SchematicBinaryFormat.MAGIC).array());
+        output.write(SchematicBinaryFormat.VERSION);
+        output.write(0);
+        output.write(0);
+        SchematicBinaryFormat.writeString(output, "{\"x\":0,\"y\":0,\"z\":0}");
+        SchematicBinaryFormat.writeVarInt(output, 1);
+        SchematicBinaryFormat.writeString(output, "{\"type\":\"" + TestModification.TYPE + "\",\"value\":1}");
+        rest.accept(output);
+        return ByteBuffer.wrap(output.toByteArray());
+    }
+
+    private static void writeGrid(ByteArrayOutputStream body, int sizeX, int sizeY, int sizeZ) {
+        SchematicBinaryFormat.writeSignedVarInt(body, 0);
+        SchematicBinaryFormat.writeSignedVarInt(body, 0);
+        SchematicBinaryFormat.writeSignedVarInt(body, 0);
+        SchematicBinaryFormat.writeVarInt(body, sizeX);
+        SchematicBinaryFormat.writeVarInt(body, sizeY);
+        SchematicBinaryFormat.writeVarInt(body, sizeZ);
+    }
+
+    private static Set<String> describe(Schematic schematic) {
+        Set<String> modifications = new HashSet<>();
+        for (RelativeModification<? extends Modification> modification : schematic.getModifications()) {
+            Vector vector = modification.getVector();
+            modifications.add(vector.getX() + "," + vector.getY() + "," + vector.getZ() + "="
+                    + ((TestModification) modification.getActualModification()).getValue());
+        }
+        return modifications;
+    }
+
+}
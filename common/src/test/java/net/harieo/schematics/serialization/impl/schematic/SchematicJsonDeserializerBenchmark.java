@@ -0,0 +1,157 @@
+package net.harieo.schematics.serialization.impl.schematic;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import net.harieo.schematics.Benchmark;
+import net.harieo.schematics.modification.Modification;
+import net.harieo.schematics.modification.TestModification;
+import net.harieo.schematics.modification.TestSpace;
+import net.harieo.schematics.position.Coordinate;
+import net.harieo.schematics.schematic.Schematic;
+import net.harieo.schematics.serialization.Blueprint;
+import net.harieo.schematics.serialization.Deserializer;
+import net.harieo.schematics.serialization.DiscriminatedDeserializer;
+import net.harieo.schematics.serialization.Serializer;
+import net.harieo.schematics.serialization.registry.BlueprintRegistry;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares finding the blueprint of each modification of a million-block schematic by its type with checking every
+ * blueprint in turn, as {@link SchematicJsonDeserializer} does for blueprints which have no discriminator.
+ */
+@EnabledIfSystemProperty(named = Benchmark.PROPERTY, matches = "true")
+class SchematicJsonDeserializerBenchmark {
+
+    private static final int SIZE = 100;
+    private static final int TYPE_COUNT = 12;
+    private static final int ROUNDS = 5;
+
+    private final TestSpace space = new TestSpace();
+
+    @Test
+    void dispatchByTypeAgainstScanning() {
+        JsonObject json = createJson();
+        SchematicJsonDeserializer<Coordinate> dispatching = createDeserializer(true);
+        SchematicJsonDeserializer<Coordinate> scanning = createDeserializer(false);
+
+        long dispatched = Benchmark.time("JSON deserialize, dispatched by type", ROUNDS,
+                () -> dispatching.deserialize(json));
+        long scanned = Benchmark.time("JSON deserialize, scanning " + TYPE_COUNT + " blueprints", ROUNDS,
+                () -> scanning.deserialize(json));
+        System.out.printf("Scanning takes %.2fx as long%n", (double) scanned / dispatched);
+
+        int blockCount = SIZE * SIZE * SIZE;
+        assertEquals(blockCount, dispatching.deserialize(json).getModificationCount());
+        assertEquals(blockCount, scanning.deserialize(json).getModificationCount());
+    }
+
+    private SchematicJsonDeserializer<Coordinate> createDeserializer(boolean discriminated) {
+        SchematicJsonDeserializer<Coordinate> deserializer = new SchematicJsonDeserializer<>(
+                Coordinate.DEFAULT_JSON_BLUEPRINT.getDeserializer());
+        for (int type = 0; type < TYPE_COUNT; type++) {
+            deserializer.addModificationBlueprint(createBlueprint("test-" + type, discriminated));
+        }
+        return deserializer;
+    }
+
+    /**
+     * Creates the JSON of a cube of modifications, cycling through every type. Equal values are shared between
+     * objects, as a tree parsed from a file would not be any faster to deserialize for holding its own copies.
+     */
+    private static JsonObject createJson() {
+        List<JsonPrimitive> numbers = new ArrayList<>();
+        for (int i = 0; i < SIZE; i++) {
+            numbers.add(new JsonPrimitive((double) i));
+        }
+        List<JsonObject> actualModifications = new ArrayList<>();
+        for (int type = 0; type < TYPE_COUNT; type++) {
+            JsonObject actualModification = new JsonObject();
+            actualModification.addProperty("type", "test-" + type);
+            actualModification.addProperty("value", type);
+            actualModifications.add(actualModification);
+        }
+
+        JsonArray modifications = new JsonArray(SIZE * SIZE * SIZE);
+        int index = 0;
+        for (int y = 0; y < SIZE; y++) {
+            for (int z = 0; z < SIZE; z++) {
+                for (int x = 0; x < SIZE; x++) {
+                    JsonObject vector = new JsonObject();
+                    vector.add("x", numbers.get(x));
+                    vector.add("y", numbers.get(y));
+                    vector.add("z", numbers.get(z));
+                    JsonObject modification = new JsonObject();
+                    modification.add("vector", vector);
+                    modification.add("actual-modification", actualModifications.get(index++ % TYPE_COUNT));
+                    modifications.add(modification);
+                }
+            }
+        }
+
+        JsonObject json = new JsonObject();
+        json.add("initial-position", Coordinate.DEFAULT_JSON_BLUEPRINT.serialize(new Coordinate(0, 64, 0)));
+        json.add("modifications", modifications);
+        return json;
+    }
+
+    private Blueprint<TestModification, JsonObject> createBlueprint(@NotNull String type, boolean discriminated) {
+        Serializer<TestModification, JsonObject> serializer = modification -> {
+            JsonObject serializedObject = new JsonObject();
+            serializedObject.addProperty("type", type);
+            serializedObject.addProperty("value", modification.getValue());
+            return serializedObject;
+        };
+        Deserializer<TestModification, JsonObject> deserializer = discriminated
+                ? new DiscriminatedTypedDeserializer(type)
+                : new TypedDeserializer(type);
+        return new Blueprint<>(serializer, deserializer);
+    }
+
+    /**
+     * Deserializes modifications of one type, checking the type and value as a real modification deserializer checks
+     * its fields.
+     */
+    private class TypedDeserializer implements Deserializer<TestModification, JsonObject> {
+
+        final String type;
+
+        private TypedDeserializer(@NotNull String type) {
+            this.type = type;
+        }
+
+        @Override
+        public TestModification deserialize(@NotNull JsonObject serializedObject) {
+            return new TestModification(space, serializedObject.get("value").getAsInt());
+        }
+
+        @Override
+        public boolean isValidObject(@NotNull JsonObject serializedObject) {
+            return type.equals(BlueprintRegistry.JSON_TYPE_DISCRIMINATOR.apply(serializedObject))
+                    && serializedObject.has("value");
+        }
+
+    }
+
+    private class DiscriminatedTypedDeserializer extends TypedDeserializer
+            implements DiscriminatedDeserializer<TestModification, JsonObject> {
+
+        private DiscriminatedTypedDeserializer(@NotNull String type) {
+            super(type);
+        }
+
+        @Override
+        public @NotNull String getDiscriminator() {
+            return type;
+        }
+
+    }
+
+}
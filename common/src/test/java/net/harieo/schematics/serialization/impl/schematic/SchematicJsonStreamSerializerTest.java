@@ -0,0 +1,130 @@
+package net.harieo.schematics.serialization.impl.schematic;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import net.harieo.schematics.modification.Modification;
+import net.harieo.schematics.modification.RelativeModification;
+import net.harieo.schematics.modification.TestModification;
+import net.harieo.schematics.modification.TestSpace;
+import net.harieo.schematics.position.Coordinate;
+import net.harieo.schematics.position.Vector;
+import net.harieo.schematics.schematic.Schematic;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class SchematicJsonStreamSerializerTest {
+
+    private final TestSpace space = new TestSpace();
+    private final SchematicJsonStreamDeserializer<Coordinate> deserializer = new SchematicJsonStreamDeserializer<>(
+            Coordinate.DEFAULT_JSON_BLUEPRINT.getDeserializer(), TestModification.blueprint(space));
+
+    @Test
+    void writesSameJsonAsTreeSerializer() throws IOException {
+        Schematic schematic = createSchematic(500);
+        JsonObject treeJson = new SchematicJsonSerializer<>(Coordinate.DEFAULT_JSON_BLUEPRINT.getSerializer())
+                .serialize(schematic);
+        assertEquals(treeJson, JsonParser.parseString(write(schematic)));
+    }
+
+    @Test
+    void roundTripsEveryModification() throws IOException {
+        Schematic schematic = createSchematic(2_000);
+        Schematic deserialized = deserializer.deserialize(new JsonReader(new StringReader(write(schematic))));
+
+        assertEquals(schematic.getId(), deserialized.getId());
+        assertEquals(schematic.getInitialPosition().getX(), deserialized.getInitialPosition().getX());
+        assertEquals(schematic.getModificationCount(), deserialized.getModificationCount());
+        assertEquals(describe(schematic), describe(deserialized));
+    }
+
+    @Test
+    void readsTreeDeserializerOutputTheSame() throws IOException {
+        Schematic schematic = createSchematic(500);
+        String json = write(schematic);
+        Schematic treeDeserialized = new SchematicJsonDeserializer<>(
+                Coordinate.DEFAULT_JSON_BLUEPRINT.getDeserializer(), TestModification.blueprint(space))
+                .deserialize(JsonParser.parseString(json).getAsJsonObject());
+        Schematic streamDeserialized = deserializer.deserialize(new JsonReader(new StringReader(json)));
+        assertEquals(describe(treeDeserialized), describe(streamDeserialized));
+    }
+
+    @Test
+    void skipsUnknownFieldsAndModifications() throws IOException {
+        String json = "{\"extra\": [1, {\"a\": 2}], \"initial-position\": {\"x\": 1, \"y\": 2, \"z\": 3},"
+                + " \"modifications\": [5, {\"vector\": {\"x\": 1, \"y\": 0, \"z\": 0},"
+                + " \"actual-modification\": {\"type\": \"unknown\"}},"
+                + " {\"vector\": {\"x\": 2, \"y\": 0, \"z\": 0},"
+                + " \"actual-modification\": {\"type\": \"test\", \"value\": 7}}]}";
+        Schematic schematic = deserializer.deserialize(new JsonReader(new StringReader(json)));
+        assertTrue(schematic.getId().isEmpty());
+        assertEquals(Set.of("2.0,0.0,0.0=7"), describe(schematic));
+    }
+
+    @Test
+    void rejectsMissingInitialPosition() {
+        assertRejected("{\"id\": \"test\", \"modifications\": []}");
+    }
+
+    @Test
+    void rejectsEveryTruncation() throws IOException {
+        String json = write(createSchematic(20));
+        for (int length = 0; length < json.length(); length++) {
+            assertRejected(json.substring(0, length));
+        }
+    }
+
+    private void assertRejected(String json) {
+        try {
+            deserializer.deserialize(new JsonReader(new StringReader(json)));
+            fail("Deserialized " + json);
+        } catch (IOException | JsonParseException | IllegalStateException e) {
+            // Malformed JSON is an IOException, and an unexpected token is an IllegalStateException
+        }
+    }
+
+    private String write(Schematic schematic) throws IOException {
+        StringWriter output = new StringWriter();
+        JsonWriter writer = new JsonWriter(output);
+        new SchematicJsonStreamSerializer<>(Coordinate.DEFAULT_JSON_BLUEPRINT.getSerializer())
+                .serialize(schematic, writer);
+        writer.flush();
+        return output.toString();
+    }
+
+    private Schematic createSchematic(int count) {
+        Schematic schematic = new Schematic("test", new Coordinate(100, 64, 100));
+        Random random = new Random(1);
+        for (int i = 0; i < count; i++) {
+            schematic.getVolume().add(new TestModification(space, random.nextInt(20)),
+                    new Vector(random.nextInt(30) - 15, random.nextInt(10), random.nextInt(30) - 15),
+                    TestModification.blueprint(space));
+        }
+        schematic.getVolume().add(new TestModification(space, 3), new Vector(0.5, 0, -0.25),
+                TestModification.blueprint(space));
+        return schematic;
+    }
+
+    private static Set<String> describe(Schematic schematic) {
+        Set<String> modifications = new HashSet<>();
+        for (RelativeModification<? extends Modification> modification : schematic.getModifications()) {
+            Vector vector = modification.getVector();
+            modifications.add(vector.getX() + "," + vector.getY() + "," + vector.getZ() + "="
+                    + ((TestModification) modification.getActualModification()).getValue());
+        }
+        return modifications;
+    }
+
+}
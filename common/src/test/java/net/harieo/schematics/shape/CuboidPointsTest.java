@@ -0,0 +1,70 @@
+package net.harieo.schematics.shape;
+
+import net.harieo.schematics.position.Axis;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CuboidPointsTest {
+
+    @Test
+    void visitsPointsYMajorThenZThenX() {
+        CuboidPoints points = new CuboidPoints(new Axis(0, 1), new Axis(0, 1), new Axis(0, 1), 1);
+        assertEquals(8, points.size());
+
+        List<String> visited = new ArrayList<>();
+        points.forEach((x, y, z) -> visited.add(describe(x, y, z)));
+        assertEquals(List.of(
+                "0.0,0.0,0.0", "1.0,0.0,0.0", "0.0,0.0,1.0", "1.0,0.0,1.0",
+                "0.0,1.0,0.0", "1.0,1.0,0.0", "0.0,1.0,1.0", "1.0,1.0,1.0"), visited);
+    }
+
+    @Test
+    void indexesMatchVisitingOrder() {
+        // Uneven counts on each axis, and an upper endpoint which the steps do not land on
+        CuboidPoints points = new CuboidPoints(new Axis(-1, 1), new Axis(0, 2.5), new Axis(3, 4), 1);
+        assertEquals(3 * 4 * 2, points.size());
+
+        List<String> visited = new ArrayList<>();
+        points.forEach((x, y, z) -> visited.add(describe(x, y, z)));
+        List<String> indexed = new ArrayList<>();
+        points.indexes().forEach(index -> indexed.add(describe(points.getX(index), points.getY(index),
+                points.getZ(index))));
+        assertEquals(visited, indexed);
+        assertEquals("-1.0,0.0,3.0", visited.get(0));
+        assertEquals("1.0,2.5,4.0", visited.get(visited.size() - 1));
+    }
+
+    @Test
+    void matchesPointsOfEachAxis() {
+        Axis xAxis = new Axis(0, 1);
+        Axis yAxis = new Axis(0, 0.3);
+        Axis zAxis = new Axis(0, 0.25);
+        double difference = 0.1;
+        CuboidPoints points = new CuboidPoints(xAxis, yAxis, zAxis, difference);
+
+        long countX = xAxis.getPointCount(difference);
+        long countZ = zAxis.getPointCount(difference);
+        assertEquals(countX * yAxis.getPointCount(difference) * countZ, points.size());
+        points.indexes().forEach(index -> {
+            assertEquals(xAxis.getPoint(index % countX, difference), points.getX(index));
+            assertEquals(yAxis.getPoint(index / (countX * countZ), difference), points.getY(index));
+            assertEquals(zAxis.getPoint(index / countX % countZ, difference), points.getZ(index));
+        });
+    }
+
+    @Test
+    void rejectsDifferenceWhichIsNotPositive() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new CuboidPoints(new Axis(0, 1), new Axis(0, 1), new Axis(0, 1), 0));
+    }
+
+    private static String describe(double x, double y, double z) {
+        return x + "," + y + "," + z;
+    }
+
+}
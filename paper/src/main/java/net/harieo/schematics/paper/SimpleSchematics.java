@@ -1,47 +1,65 @@
 package net.harieo.schematics.paper;
 
 import co.aikar.commands.PaperCommandManager;
-import net.harieo.schematics.animation.Animation;
+import net.harieo.schematics.animation.impl.basic.AnimationScheduler;
+import net.harieo.schematics.paper.animation.AnimationDriver;
 import net.harieo.schematics.paper.animation.AnimationStorage;
+import net.harieo.schematics.paper.animation.MainThreadTransitionQueue;
 import net.harieo.schematics.paper.animation.TickingAnimationDeserializer;
 import net.harieo.schematics.paper.command.CommandPosition;
 import net.harieo.schematics.paper.command.animation.AnimationCommand;
 import net.harieo.schematics.paper.command.schematic.SchematicCommand;
 import net.harieo.schematics.paper.command.transition.TransitionIntentRegistry;
+import net.harieo.schematics.paper.job.JobScheduler;
+import net.harieo.schematics.paper.job.PhysicsMode;
 import net.harieo.schematics.paper.schematic.SchematicStorage;
 import net.harieo.schematics.paper.tool.SchematicToolConfiguration;
 import net.harieo.schematics.paper.modification.registry.BukkitJsonBlueprintRegistry;
 import net.harieo.schematics.paper.tool.SchematicToolListener;
-import net.harieo.schematics.schematic.Schematic;
 import org.bukkit.Bukkit;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
 import java.util.Arrays;
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
 import java.util.stream.Collectors;
 import net.harieo.schematics.serialization.impl.animation.AnimationJsonSerializer;
+import net.harieo.schematics.serialization.impl.animation.AnimationJsonStreamSerializer;
 
 /**
  * The {@link JavaPlugin} which allows this library to be loaded as a standalone plugin.
  */
 public class SimpleSchematics extends JavaPlugin {
 
+    // The longest time the server waits for schematics and animations to be written when stopping
+    public static long SHUTDOWN_SAVE_TIMEOUT_SECONDS = 30;
+
     private static SimpleSchematics INSTANCE;
 
     private SchematicToolConfiguration schematicToolConfiguration;
     private SchematicStorage schematicStorage;
     private AnimationStorage animationStorage;
     private TransitionIntentRegistry transitionIntentRegistry;
+    private JobScheduler jobScheduler;
+    private MainThreadTransitionQueue transitionQueue;
 
     @Override
     public void onEnable() {
         INSTANCE = this;
 
         this.schematicToolConfiguration = new SchematicToolConfiguration();
+        this.jobScheduler = new JobScheduler(this);
+        this.transitionQueue = new MainThreadTransitionQueue(this);
+        // Scheduled animations are timed on the scheduler thread, but must change the world on the server thread
+        AnimationScheduler.SHARED.setDefaultTransitionExecutor(transitionQueue);
         this.schematicStorage = new SchematicStorage(new BukkitJsonBlueprintRegistry());
         this.animationStorage = new AnimationStorage(new AnimationJsonSerializer(),
-                new TickingAnimationDeserializer(this, schematicStorage.getSchematicJsonBlueprint()));
+                new TickingAnimationDeserializer(this, schematicStorage.getSchematicJsonBlueprint()),
+                new AnimationJsonStreamSerializer(schematicStorage.getSchematicJsonStreamSerializer().orElse(null)));
 
         try {
             schematicToolConfiguration.load(this);
@@ -59,18 +77,15 @@ public class SimpleSchematics extends JavaPlugin {
                         .map(CommandPosition::getId)
                         .collect(Collectors.toSet())
         );
+        commandManager.getCommandCompletions().registerCompletion("physics",
+                handler -> Arrays.stream(PhysicsMode.values())
+                        .map(PhysicsMode::getId)
+                        .collect(Collectors.toSet())
+        );
         commandManager.getCommandCompletions().registerCompletion("schematics",
-                handler -> schematicStorage.getSchematics().stream()
-                        .map(Schematic::getId)
-                        .filter(Optional::isPresent)
-                        .map(Optional::get)
-                        .collect(Collectors.toSet()));
+                handler -> schematicStorage.getSchematicIds());
         commandManager.getCommandCompletions().registerCompletion("animations",
-                handler -> animationStorage.getAnimations().stream()
-                        .map(Animation::getId)
-                        .filter(Optional::isPresent)
-                        .map(Optional::get)
-                        .collect(Collectors.toSet()));
+                handler -> animationStorage.getAnimationIds());
         transitionIntentRegistry.registerCommandCompletions("transitions", commandManager);
 
         SchematicCommand schematicCommand = new SchematicCommand(this);
@@ -83,22 +98,42 @@ public class SimpleSchematics extends JavaPlugin {
 
     @Override
     public void onDisable() {
+        jobScheduler.shutdown(); // Unfinished pastes are left as they are, as the server cannot tick them any further
+        AnimationDriver.get(this).shutdown();
+        AnimationScheduler.SHARED.shutdown();
+        transitionQueue.shutdown(); // Stopped after the scheduler, so that no more transitions can be handed to it
+
+        getLogger().info("Saving schematics and animations to file...");
+        CompletableFuture<Boolean> schematicSave = schematicStorage.saveAllAsync(this, true);
+        CompletableFuture<Boolean> animationSave = animationStorage.saveAllAsync(this, true);
+
+        // Any earlier saves are still queued ahead of these, so all of them are given a bounded time to finish
         try {
-            getLogger().info("Saving schematics to file...");
-            if (schematicStorage.saveAll(this, true)) {
-                getLogger().info("Successfully saved all cached schematics.");
-            } else {
-                getLogger().warning("Failed to save all cached schematics.");
-            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SHUTDOWN_SAVE_TIMEOUT_SECONDS);
+            schematicStorage.shutdownWriter(SHUTDOWN_SAVE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            animationStorage.shutdownWriter(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        logSaveResult(schematicSave, "schematics");
+        logSaveResult(animationSave, "animations");
+    }
 
-            getLogger().info("Saving animations to file...");
-            if (animationStorage.saveAll(this, true)) {
-                getLogger().info("Saved all cached animations.");
+    private void logSaveResult(@NotNull CompletableFuture<Boolean> save, @NotNull String type) {
+        if (!save.isDone()) {
+            getLogger().warning("Timed out saving " + type + ", so some may not have been saved.");
+            return;
+        }
+
+        try {
+            if (save.join()) {
+                getLogger().info("Successfully saved all cached " + type + ".");
             } else {
-                getLogger().warning("Failed to save all cached animations.");
+                getLogger().warning("Failed to save all cached " + type + ".");
             }
-        } catch (IOException e) {
-            e.printStackTrace();
+        } catch (CompletionException e) {
+            getLogger().log(Level.SEVERE, "Failed to save " + type, e.getCause());
         }
     }
 
@@ -118,6 +153,14 @@ public class SimpleSchematics extends JavaPlugin {
         return transitionIntentRegistry;
     }
 
+    public JobScheduler getJobScheduler() {
+        return jobScheduler;
+    }
+
+    public MainThreadTransitionQueue getTransitionQueue() {
+        return transitionQueue;
+    }
+
     public static SimpleSchematics get() {
         return INSTANCE;
     }
@@ -0,0 +1,248 @@
+package net.harieo.schematics.paper.animation;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+
+/**
+ * Ticks every active {@link TickingAnimation} of a plugin from a single repeating task.
+ * <p>
+ * Active animations are kept in a hierarchical timing wheel by the tick on which they next have work to do, so each
+ * tick only visits the animations which are due rather than every active animation. Activating, re-activating and
+ * deactivating an animation each take constant time.
+ *
+ * @apiNote The repeating task is only scheduled while an animation is active, so an idle driver costs nothing. This
+ * class is not thread-safe, so it should only be used on the server thread.
+ */
+public class AnimationDriver {
+
+    // Each level of the wheel has 64 slots, and each slot of a level covers every slot of the level below it
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS_PER_LEVEL = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS_PER_LEVEL - 1;
+    private static final int LEVELS = 4;
+    // Animations due further ahead than this are placed at the furthest slot, and placed again when it is reached
+    private static final long MAX_DELAY_TICKS = (1L << (SLOT_BITS * LEVELS)) - 1;
+    // The list of animations which are due in the current tick, after the slots of every level
+    private static final int DUE_LIST = LEVELS * SLOTS_PER_LEVEL;
+
+    private static final Map<Plugin, AnimationDriver> DRIVERS = new HashMap<>();
+
+    private final Plugin plugin;
+    // The first entry of each slot, followed by the list of due entries
+    private final Entry[] lists = new Entry[DUE_LIST + 1];
+
+    private @Nullable BukkitTask task;
+    private long currentTick = 0;
+    private int activeCount = 0;
+
+    private AnimationDriver(@NotNull Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Gets the driver of a plugin, creating it if the plugin does not have one.
+     *
+     * @param plugin the plugin which owns the repeating task of the driver
+     * @return the driver of the plugin
+     */
+    public static @NotNull AnimationDriver get(@NotNull Plugin plugin) {
+        return DRIVERS.computeIfAbsent(plugin, AnimationDriver::new);
+    }
+
+    /**
+     * Activates an animation to be ticked from the next tick, or ticks it again from the next tick if it is already
+     * active.
+     *
+     * @param entry the entry of the animation
+     */
+    void activate(@NotNull Entry entry) {
+        if (entry.isScheduled()) {
+            unlink(entry);
+        } else {
+            activeCount++;
+        }
+
+        entry.lastTick = currentTick;
+        entry.dueTick = currentTick + 1;
+        insert(entry);
+        if (task == null) {
+            task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1, 1);
+        }
+    }
+
+    /**
+     * Deactivates an animation, if it is active.
+     *
+     * @param entry the entry of the animation
+     */
+    void deactivate(@NotNull Entry entry) {
+        if (entry.isScheduled()) {
+            unlink(entry);
+            activeCount--;
+        }
+    }
+
+    /**
+     * @return the amount of animations which are active on this driver
+     */
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    private void tick() {
+        currentTick++;
+        cascade();
+
+        // Due entries are moved to their own list first, so that ticking one animation may activate or deactivate
+        // any other animation
+        int slotList = (int) (currentTick & SLOT_MASK);
+        Entry entry;
+        while ((entry = lists[slotList]) != null) {
+            unlink(entry);
+            if (entry.dueTick <= currentTick) {
+                link(entry, DUE_LIST);
+            } else {
+                insert(entry); // Placed at the furthest slot, but not yet due
+            }
+        }
+        while ((entry = lists[DUE_LIST]) != null) {
+            tick(entry);
+        }
+
+        if (activeCount == 0) {
+            stopTask();
+        }
+    }
+
+    private void tick(@NotNull Entry entry) {
+        long elapsedTicks = currentTick - entry.lastTick;
+        entry.lastTick = currentTick;
+        long delayTicks;
+        try {
+            delayTicks = entry.animation.advance(elapsedTicks);
+        } catch (RuntimeException e) {
+            plugin.getLogger().log(Level.SEVERE, "Deactivated an animation which failed to tick", e);
+            delayTicks = -1;
+        }
+
+        if (entry.list != DUE_LIST) {
+            return; // The animation was deactivated or activated again while it was ticking
+        }
+
+        unlink(entry);
+        if (delayTicks < 0) {
+            activeCount--;
+        } else {
+            entry.dueTick = currentTick + Math.max(1, delayTicks);
+            insert(entry);
+        }
+    }
+
+    /**
+     * Moves the entries of each level which has reached its next slot down to the levels below, which happens for
+     * the first level every 64 ticks, for the second every 4096 ticks, and so on.
+     */
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            int levelShift = SLOT_BITS * level;
+            if ((currentTick & ((1L << levelShift) - 1)) != 0) {
+                return;
+            }
+
+            int list = level * SLOTS_PER_LEVEL + (int) ((currentTick >>> levelShift) & SLOT_MASK);
+            Entry entry;
+            while ((entry = lists[list]) != null) {
+                unlink(entry);
+                insert(entry);
+            }
+        }
+    }
+
+    private void insert(@NotNull Entry entry) {
+        long delayTicks = Math.min(Math.max(0, entry.dueTick - currentTick), MAX_DELAY_TICKS);
+        int level = 0;
+        while (delayTicks >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+
+        int slot = (int) (((currentTick + delayTicks) >>> (SLOT_BITS * level)) & SLOT_MASK);
+        link(entry, level * SLOTS_PER_LEVEL + slot);
+    }
+
+    private void link(@NotNull Entry entry, int list) {
+        Entry head = lists[list];
+        entry.next = head;
+        if (head != null) {
+            head.previous = entry;
+        }
+        lists[list] = entry;
+        entry.list = list;
+    }
+
+    private void unlink(@NotNull Entry entry) {
+        if (entry.previous != null) {
+            entry.previous.next = entry.next;
+        } else {
+            lists[entry.list] = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.previous = entry.previous;
+        }
+        entry.previous = entry.next = null;
+        entry.list = Entry.NOT_SCHEDULED;
+    }
+
+    private void stopTask() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * Deactivates every animation of this driver and stops its task, such as when its plugin is disabled.
+     */
+    public void shutdown() {
+        stopTask();
+        for (int list = 0; list < lists.length; list++) {
+            Entry entry;
+            while ((entry = lists[list]) != null) {
+                unlink(entry);
+            }
+        }
+        activeCount = 0;
+        DRIVERS.remove(plugin, this);
+    }
+
+    /**
+     * The place of a {@link TickingAnimation} in the wheel of a driver.
+     */
+    static class Entry {
+
+        private static final int NOT_SCHEDULED = -1;
+
+        private final TickingAnimation animation;
+        private @Nullable Entry previous;
+        private @Nullable Entry next;
+        private int list = NOT_SCHEDULED;
+        private long dueTick;
+        private long lastTick;
+
+        Entry(@NotNull TickingAnimation animation) {
+            this.animation = animation;
+        }
+
+        boolean isScheduled() {
+            return list != NOT_SCHEDULED;
+        }
+
+    }
+
+}
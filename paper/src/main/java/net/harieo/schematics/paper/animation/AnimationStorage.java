@@ -1,23 +1,48 @@
 package net.harieo.schematics.paper.animation;
 
+import org.bukkit.Bukkit;
 import org.bukkit.plugin.Plugin;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
 import com.google.gson.*;
+import com.google.gson.stream.JsonWriter;
+import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.nio.file.FileAlreadyExistsException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.NotDirectoryException;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.logging.Level;
 import net.harieo.schematics.animation.Animation;
+import net.harieo.schematics.animation.AnimationSnapshot;
+import net.harieo.schematics.file.AtomicFiles;
+import net.harieo.schematics.file.CoalescingWriteQueue;
+import net.harieo.schematics.file.ParallelFileLoader;
 import net.harieo.schematics.serialization.Deserializer;
 import net.harieo.schematics.serialization.Serializer;
+import net.harieo.schematics.serialization.StreamSerializer;
+import net.harieo.schematics.serialization.impl.animation.AnimationJsonSerializer;
+import net.harieo.schematics.serialization.impl.animation.AnimationJsonStreamSerializer;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Unmodifiable;
 
 /**
@@ -28,12 +53,27 @@ public class AnimationStorage {
 	public static String DEFAULT_SUBDIRECTORY_NAME = "animations";
 	public static Function<Animation, String> DEFAULT_FILENAME_GENERATOR = animation -> animation.getId()
 			.orElseThrow(() -> new IllegalStateException("Animation must have id to be saved")) + ".json";
+	// Appended to a filename while it is being written, so that a failed save leaves the previous file intact
+	public static final String TEMPORARY_FILE_SUFFIX = ".tmp";
+	public static String PRETTY_PRINT_INDENT = "  ";
 
 	private final Serializer<Animation, JsonObject> animationJsonSerializer;
 	private final Deserializer<? extends Animation, JsonObject> animationJsonDeserializer;
-	private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+	private final @Nullable StreamSerializer<Animation, JsonWriter> animationJsonStreamSerializer;
+	private final Gson gson = new Gson(); // For writing trees to a JsonWriter, which decides the format
+	private boolean prettyPrint = true;
+	private ParallelFileLoader fileLoader = new ParallelFileLoader();
+	// Saves are coalesced by the directory they are saved to
+	private final CoalescingWriteQueue<File, Boolean> writeQueue = new CoalescingWriteQueue<>("animation");
+	private final Object writeLock = new Object(); // Held while any save is written
 
-	private final Set<Animation> animations = new HashSet<>();
+	// Animations with an id are keyed by it in lower case, as ids are matched without case
+	private final Map<String, Animation> animationsById = new ConcurrentHashMap<>();
+	// The key each animation in animationsById is cached under, found by identity in case its id has since changed
+	private final Map<Animation, String> cachedKeys = Collections.synchronizedMap(new IdentityHashMap<>());
+	private final Set<Animation> unnamedAnimations = ConcurrentHashMap.newKeySet();
+	// Sorted ids of all animations for command completions, which is cleared when an animation is added
+	private volatile @Nullable List<String> sortedAnimationIds;
 
 	/**
 	 * Takes a {@link Serializer} and {@link Deserializer} for {@link Animation}.
@@ -43,36 +83,143 @@ public class AnimationStorage {
 	 */
 	public AnimationStorage(@NotNull Serializer<Animation, JsonObject> animationJsonSerializer,
 			@NotNull Deserializer<? extends Animation, JsonObject> animationJsonDeserializer) {
+		this(animationJsonSerializer, animationJsonDeserializer, null);
+	}
+
+	/**
+	 * Takes a {@link Serializer} and {@link Deserializer} for {@link Animation}, and an optional {@link StreamSerializer}
+	 * for writing animation files without holding the whole file in memory.
+	 *
+	 * @param animationJsonSerializer a serializer for animation
+	 * @param animationJsonDeserializer a deserializer for animation
+	 * @param animationJsonStreamSerializer a streaming serializer for animation, or null to use the serializer
+	 * @apiNote Animations are only saved on the writer thread if the serializer which writes them is an
+	 * {@link AnimationJsonSerializer} or {@link AnimationJsonStreamSerializer}, which can write an
+	 * {@link AnimationSnapshot}. Otherwise, {@link #saveAllAsync(Plugin, String, Function, boolean)} saves on the
+	 * calling thread, as the animations could change while another thread serializes them.
+	 */
+	public AnimationStorage(@NotNull Serializer<Animation, JsonObject> animationJsonSerializer,
+			@NotNull Deserializer<? extends Animation, JsonObject> animationJsonDeserializer,
+			@Nullable StreamSerializer<Animation, JsonWriter> animationJsonStreamSerializer) {
 		this.animationJsonSerializer = animationJsonSerializer;
 		this.animationJsonDeserializer = animationJsonDeserializer;
+		this.animationJsonStreamSerializer = animationJsonStreamSerializer;
+	}
+
+	/**
+	 * @return the loader used to read and deserialize animation files in parallel
+	 */
+	public ParallelFileLoader getFileLoader() {
+		return fileLoader;
+	}
+
+	/**
+	 * Sets the loader used to read and deserialize animation files in parallel, which controls how many threads are used
+	 * when loading.
+	 *
+	 * @param fileLoader the loader to use
+	 */
+	public void setFileLoader(@NotNull ParallelFileLoader fileLoader) {
+		this.fileLoader = fileLoader;
+	}
+
+	/**
+	 * @return whether animation files are saved in an indented, human-readable format
+	 */
+	public boolean isPrettyPrint() {
+		return prettyPrint;
+	}
+
+	/**
+	 * Sets whether animation files are saved in an indented, human-readable format, which is the default, or in a
+	 * compact format without whitespace.
+	 *
+	 * @param prettyPrint whether to indent saved animation files
+	 */
+	public void setPrettyPrint(boolean prettyPrint) {
+		this.prettyPrint = prettyPrint;
 	}
 
 	/**
 	 * @return an unmodifiable set of the cached animations
 	 */
 	public @Unmodifiable Set<Animation> getAnimations() {
-		return ImmutableSet.copyOf(animations);
+		return ImmutableSet.<Animation>builder()
+				.addAll(animationsById.values())
+				.addAll(unnamedAnimations)
+				.build();
+	}
+
+	/**
+	 * @return an immutable list of the id of every cached animation, sorted without case
+	 * @implNote The list is cached until an animation is added, so it is cheap to call for every command completion.
+	 */
+	public @Unmodifiable List<String> getAnimationIds() {
+		List<String> animationIds = sortedAnimationIds;
+		if (animationIds == null) {
+			List<String> ids = new ArrayList<>(animationsById.size());
+			animationsById.values().forEach(animation -> animation.getId().ifPresent(ids::add));
+			ids.sort(String.CASE_INSENSITIVE_ORDER);
+			animationIds = ImmutableList.copyOf(ids);
+			sortedAnimationIds = animationIds;
+		}
+		return animationIds;
 	}
 
 	/**
-	 * Finds a cached animation based on its id.
+	 * Finds a cached animation based on its id, which is matched without case.
 	 *
 	 * @param animationId the id of the animation to find
 	 * @return the cached animation, if a matching animation is present
 	 */
 	public Optional<Animation> getAnimation(@NotNull String animationId) {
-		return getAnimations().stream()
-				.filter(animation -> animation.getId().map(id -> id.equalsIgnoreCase(animationId)).orElse(false))
-				.findAny();
+		return Optional.ofNullable(animationsById.get(normalizeId(animationId)));
 	}
 
 	/**
-	 * Adds an animation to the cache, but does not save it.
+	 * Adds an animation to the cache, but does not save it. This replaces any animation with the same id.
 	 *
 	 * @param animation the animation to add to the cache
+	 * @apiNote An animation is found by the id it had when it was added, so an animation whose id has changed should
+	 * be added again.
 	 */
 	public void addAnimation(@NotNull Animation animation) {
-		animations.add(animation);
+		// Remove the animation under any previous id, as its id may have been changed since it was added
+		uncacheAnimation(animation);
+		cacheAnimation(animation);
+		sortedAnimationIds = null;
+	}
+
+	/**
+	 * Removes an animation from the cache, but does not edit the file storage.
+	 *
+	 * @param animation the animation to remove from the cache
+	 * @return whether the animation was cached
+	 */
+	public boolean removeAnimation(@NotNull Animation animation) {
+		boolean removed = uncacheAnimation(animation);
+		sortedAnimationIds = null;
+		return removed;
+	}
+
+	private void cacheAnimation(@NotNull Animation animation) {
+		animation.getId().ifPresentOrElse(id -> {
+			String key = normalizeId(id);
+			Animation replacedAnimation = animationsById.put(key, animation);
+			if (replacedAnimation != null && replacedAnimation != animation) {
+				cachedKeys.remove(replacedAnimation);
+			}
+			cachedKeys.put(animation, key);
+		}, () -> unnamedAnimations.add(animation));
+	}
+
+	private boolean uncacheAnimation(@NotNull Animation animation) {
+		String key = cachedKeys.remove(animation);
+		return key != null ? animationsById.remove(key, animation) : unnamedAnimations.remove(animation);
+	}
+
+	private static String normalizeId(@NotNull String animationId) {
+		return animationId.toLowerCase(Locale.ROOT);
 	}
 
 	/**
@@ -81,6 +228,8 @@ public class AnimationStorage {
 	 * @param plugin the plugin which manages the files
 	 * @param subdirectory the name of the subdirectory within the plugin directory
 	 * @throws IOException if the subdirectory provided is not a directory
+	 * @implNote Files are read and deserialized in parallel by the {@link ParallelFileLoader} of this storage. A file
+	 * which cannot be loaded is logged and skipped, rather than stopping the remaining files from loading.
 	 */
 	public void load(@NotNull Plugin plugin, @NotNull String subdirectory) throws IOException {
 		File animationDirectory = new File(plugin.getDataFolder(), subdirectory);
@@ -95,15 +244,29 @@ public class AnimationStorage {
 			return;
 		}
 
-		for (File animationFile : animationFiles) {
-			try (FileReader reader = new FileReader(animationFile)) {
-				JsonElement rawAnimationElement = JsonParser.parseReader(reader);
-				if (rawAnimationElement.isJsonObject()) {
-					JsonObject rawAnimationJson = rawAnimationElement.getAsJsonObject();
-					animations.add(animationJsonDeserializer.deserialize(rawAnimationJson));
-				}
+		List<File> filesToLoad = Arrays.stream(animationFiles)
+				// Temporary files are left over from a failed save
+				.filter(animationFile -> animationFile.isFile() && !animationFile.getName().endsWith(TEMPORARY_FILE_SUFFIX))
+				.toList();
+		// Files are loaded in parallel, but added to the cache in the order of their names
+		for (ParallelFileLoader.Result<Animation> result : fileLoader.load(filesToLoad, this::deserializeFile)) {
+			if (result.isSuccess()) {
+				cacheAnimation(result.value());
+			} else {
+				plugin.getLogger().log(Level.WARNING, "Unable to load animation file " + result.file().getName(),
+						result.error());
 			}
 		}
+		sortedAnimationIds = null;
+	}
+
+	private Animation deserializeFile(@NotNull File animationFile, byte[] contents) {
+		Reader reader = new InputStreamReader(new ByteArrayInputStream(contents), StandardCharsets.UTF_8);
+		JsonElement rawAnimationElement = JsonParser.parseReader(reader);
+		if (!rawAnimationElement.isJsonObject()) {
+			throw new JsonParseException("Unable to deserialize an animation JSON object in " + animationFile.getName());
+		}
+		return animationJsonDeserializer.deserialize(rawAnimationElement.getAsJsonObject());
 	}
 
 	/**
@@ -125,48 +288,164 @@ public class AnimationStorage {
 	 * @param fileNamingFunction the function for naming animation files
 	 * @param overwrite whether to overwrite existing files
 	 * @return whether all animations were saved to file. If overwrite is not permitted, this may return false.
-	 * @throws IOException if there is an issue with the subdirectory
+	 * @throws IOException if there is an issue with the subdirectory or a file cannot be written
+	 * @implNote Each animation is written to a temporary file which then atomically replaces the existing file, so that
+	 * an animation which fails to serialize or a crash while saving does not remove the existing file. An animation which
+	 * fails to serialize is logged and counted as not saved. Only one save of this storage writes at a time, so this
+	 * waits for an asynchronous save which is being written to finish first.
 	 */
 	public boolean saveAll(@NotNull Plugin plugin,
 			@NotNull String subdirectory,
 			@NotNull Function<Animation, String> fileNamingFunction,
 			boolean overwrite) throws IOException {
 		File animationDirectory = new File(plugin.getDataFolder(), subdirectory);
-		if (!animationDirectory.exists() && !animationDirectory.mkdir()) {
-			throw new IOException("Unable to create animation subdirectory");
-		} else if (!animationDirectory.isDirectory()) {
-			throw new NotDirectoryException("Animation subdirectory is not directory: " + subdirectory);
-		}
+		List<PendingSave> saves = collectSaves(animationDirectory, fileNamingFunction, false);
+		return writeSaves(plugin, animationDirectory, saves, overwrite, AnimationStorage::resetIfIdle);
+	}
 
-		boolean savedAll = true;
-		for (Animation animation : animations) {
-			// Make sure serialization throws no exceptions before deleting the file
-			JsonObject serializedAnimation;
+	/**
+	 * Saves all cached animations as {@link #saveAll(Plugin, String, Function, boolean)} does, but without waiting for
+	 * the animations to be written. The id, transitions and loop count of each animation are copied before this method
+	 * returns, then the copies are serialized and written on the writer thread of this storage.
+	 *
+	 * @param plugin the plugin managing the files
+	 * @param subdirectory the name of the subdirectory within the plugin directory
+	 * @param fileNamingFunction the function for naming animation files
+	 * @param overwrite whether to overwrite existing files
+	 * @return a future completed with the result described by {@link #saveAll(Plugin, String, Function, boolean)}, or
+	 * exceptionally with any {@link IOException} it would throw
+	 * @apiNote If a save of the same subdirectory is still waiting to be written, it is replaced by this save and both
+	 * futures are completed with the result of this save. Each saved animation which is not activated is reset on the
+	 * server thread once it has been written, while the plugin is enabled. If the serializer of this storage cannot
+	 * write an {@link AnimationSnapshot}, the animations are saved on the calling thread before this method returns.
+	 */
+	public CompletableFuture<Boolean> saveAllAsync(@NotNull Plugin plugin,
+			@NotNull String subdirectory,
+			@NotNull Function<Animation, String> fileNamingFunction,
+			boolean overwrite) {
+		if (!canSaveSnapshots()) {
 			try {
-				serializedAnimation = animationJsonSerializer.serialize(animation);
-			} catch (Exception e) {
-				e.printStackTrace();
-				continue;
+				return CompletableFuture.completedFuture(saveAll(plugin, subdirectory, fileNamingFunction, overwrite));
+			} catch (IOException e) {
+				return CompletableFuture.failedFuture(e);
 			}
+		}
+
+		File animationDirectory = new File(plugin.getDataFolder(), subdirectory);
+		List<PendingSave> saves = collectSaves(animationDirectory, fileNamingFunction, true);
+		return writeQueue.submit(animationDirectory.getAbsoluteFile(), () -> writeSaves(plugin, animationDirectory,
+				saves, overwrite, animation -> {
+					// Transient values are only used on the server thread, so they are reset there
+					if (plugin.isEnabled()) {
+						Bukkit.getScheduler().runTask(plugin, () -> resetIfIdle(animation));
+					}
+				}));
+	}
+
+	/**
+	 * An overload of {@link #saveAllAsync(Plugin, String, Function, boolean)} which uses
+	 * {@link #DEFAULT_SUBDIRECTORY_NAME} and {@link #DEFAULT_FILENAME_GENERATOR}.
+	 */
+	public CompletableFuture<Boolean> saveAllAsync(@NotNull Plugin plugin, boolean overwrite) {
+		return saveAllAsync(plugin, DEFAULT_SUBDIRECTORY_NAME, DEFAULT_FILENAME_GENERATOR, overwrite);
+	}
+
+	/**
+	 * Stops accepting asynchronous saves and waits for any which have been requested to be written.
+	 *
+	 * @param timeout the longest time to wait
+	 * @param unit the unit of the timeout
+	 * @return true if all saves were written, or false if the timeout passed first
+	 * @throws InterruptedException if the calling thread is interrupted while waiting
+	 */
+	public boolean shutdownWriter(long timeout, @NotNull TimeUnit unit) throws InterruptedException {
+		return writeQueue.shutdown(timeout, unit);
+	}
 
+	// Whether the serializer which writes animations can write a snapshot of an animation
+	private boolean canSaveSnapshots() {
+		return animationJsonStreamSerializer != null
+				? animationJsonStreamSerializer instanceof AnimationJsonStreamSerializer
+				: animationJsonSerializer instanceof AnimationJsonSerializer;
+	}
+
+	private List<PendingSave> collectSaves(@NotNull File animationDirectory,
+			@NotNull Function<Animation, String> fileNamingFunction,
+			boolean snapshot) {
+		List<PendingSave> saves = new ArrayList<>();
+		for (Animation animation : Iterables.concat(animationsById.values(), unnamedAnimations)) {
 			File animationFile = new File(animationDirectory, fileNamingFunction.apply(animation));
-			if (animationFile.exists()) {
-				if (overwrite && !animationFile.delete()) {
-					throw new FileAlreadyExistsException("Animation file cannot be overwritten: " + animationFile.getAbsolutePath());
-				} else if (!overwrite) {
+			saves.add(new PendingSave(animation, snapshot ? AnimationSnapshot.of(animation) : null, animationFile));
+		}
+		return saves;
+	}
+
+	// Saving an animation which is playing does not rewind it
+	private static void resetIfIdle(@NotNull Animation animation) {
+		if (!animation.isActivated()) {
+			animation.reset();
+		}
+	}
+
+	private boolean writeSaves(@NotNull Plugin plugin,
+			@NotNull File animationDirectory,
+			@NotNull List<PendingSave> saves,
+			boolean overwrite,
+			@NotNull Consumer<Animation> savedAction) throws IOException {
+		// Synchronous and asynchronous saves share the temporary files, so only one save writes at a time
+		synchronized (writeLock) {
+			if (!animationDirectory.exists() && !animationDirectory.mkdir()) {
+				throw new IOException("Unable to create animation subdirectory");
+			} else if (!animationDirectory.isDirectory()) {
+				throw new NotDirectoryException("Animation subdirectory is not directory: " + animationDirectory.getName());
+			}
+
+			boolean savedAll = true;
+			for (PendingSave save : saves) {
+				File animationFile = save.file();
+				if (animationFile.exists() && !overwrite) {
 					savedAll = false;
 					continue;
 				}
-			}
 
-			try (FileWriter writer = new FileWriter(animationFile)) {
-				writer.write(gson.toJson(serializedAnimation));
+				// Make sure serialization throws no exceptions before replacing the file
+				File temporaryFile = new File(animationDirectory, animationFile.getName() + TEMPORARY_FILE_SUFFIX);
+				try {
+					writeJson(save, temporaryFile);
+				} catch (IOException e) {
+					Files.deleteIfExists(temporaryFile.toPath());
+					throw e;
+				} catch (RuntimeException e) {
+					plugin.getLogger().log(Level.SEVERE, "Unable to save animation file " + animationFile.getName(), e);
+					Files.deleteIfExists(temporaryFile.toPath());
+					savedAll = false;
+					continue;
+				}
+				AtomicFiles.replace(temporaryFile, animationFile);
+
+				savedAction.accept(save.animation()); // Reset transient values to reflect that this animation is now complete
 			}
 
-			animation.reset(); // Reset transient values to reflect that this animation is now complete
+			return savedAll;
 		}
+	}
 
-		return savedAll;
+	private void writeJson(@NotNull PendingSave save, @NotNull File file) throws IOException {
+		AnimationSnapshot snapshot = save.contents();
+		try (JsonWriter writer = new JsonWriter(Files.newBufferedWriter(file.toPath()))) {
+			writer.setIndent(prettyPrint ? PRETTY_PRINT_INDENT : "");
+			if (animationJsonStreamSerializer instanceof AnimationJsonStreamSerializer snapshotSerializer
+					&& snapshot != null) {
+				snapshotSerializer.serialize(snapshot, writer);
+			} else if (animationJsonStreamSerializer != null) {
+				animationJsonStreamSerializer.serialize(save.animation(), writer);
+			} else if (animationJsonSerializer instanceof AnimationJsonSerializer snapshotSerializer
+					&& snapshot != null) {
+				gson.toJson(snapshotSerializer.serialize(snapshot), writer);
+			} else {
+				gson.toJson(animationJsonSerializer.serialize(save.animation()), writer);
+			}
+		}
 	}
 
 	/**
@@ -191,4 +470,10 @@ public class AnimationStorage {
 		return saveAll(plugin, true);
 	}
 
+	/**
+	 * An animation to be saved, where the contents are null if the animation itself is written on the calling thread.
+	 */
+	private record PendingSave(@NotNull Animation animation, @Nullable AnimationSnapshot contents, @NotNull File file) {
+	}
+
 }
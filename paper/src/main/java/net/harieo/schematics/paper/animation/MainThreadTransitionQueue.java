@@ -0,0 +1,148 @@
+package net.harieo.schematics.paper.animation;
+
+import net.harieo.schematics.animation.Transition;
+import net.harieo.schematics.animation.TransitionExecutor;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/**
+ * A {@link TransitionExecutor} which hands transitions from any thread to the server thread, so that an animation
+ * timed on another thread, such as a {@link net.harieo.schematics.animation.impl.basic.ScheduledAnimation}, can still
+ * change the world safely.
+ * <p>
+ * Transitions are queued without locking, and a single task on the server thread runs the queued transitions once per
+ * tick in the order they were due, within a time budget. Transitions left over when the budget runs out are run first
+ * on the next tick.
+ */
+public class MainThreadTransitionQueue implements TransitionExecutor {
+
+    // The time given to transitions each tick, which leaves most of the 50ms of a tick to the server
+    public static long DEFAULT_TICK_BUDGET_MILLIS = 5;
+
+    private static final Comparator<QueuedTransition> DUE_ORDER = Comparator
+            .comparingLong(QueuedTransition::dueNanos)
+            .thenComparingLong(QueuedTransition::sequence);
+
+    private final Plugin plugin;
+    private final long tickBudgetNanos;
+    // Written by any thread and read only by the server thread
+    private final Queue<QueuedTransition> handoffQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+    // Only used on the server thread, holding the transitions which are waiting for a later tick
+    private final PriorityQueue<QueuedTransition> dueTransitions = new PriorityQueue<>(DUE_ORDER);
+
+    private volatile boolean shutdown = false;
+    private volatile @Nullable BukkitTask drainTask;
+
+    /**
+     * A queue which gives transitions a budget of {@link #DEFAULT_TICK_BUDGET_MILLIS} each tick.
+     *
+     * @param plugin the plugin to schedule the draining task for
+     */
+    public MainThreadTransitionQueue(@NotNull Plugin plugin) {
+        this(plugin, DEFAULT_TICK_BUDGET_MILLIS);
+    }
+
+    /**
+     * A queue which gives transitions a custom budget each tick.
+     *
+     * @param plugin           the plugin to schedule the draining task for
+     * @param tickBudgetMillis the time in milliseconds shared by all queued transitions each tick
+     * @throws IllegalArgumentException if the budget is not positive
+     */
+    public MainThreadTransitionQueue(@NotNull Plugin plugin, long tickBudgetMillis) {
+        if (tickBudgetMillis <= 0) {
+            throw new IllegalArgumentException("The tick budget must be positive");
+        }
+        this.plugin = plugin;
+        this.tickBudgetNanos = TimeUnit.MILLISECONDS.toNanos(tickBudgetMillis);
+    }
+
+    /**
+     * Queues a transition to be run on the server thread.
+     *
+     * @param transition the transition which is due
+     * @param dueNanos   the {@link System#nanoTime()} at which the transition was due
+     * @apiNote This may be called from any thread. Transitions queued after {@link #shutdown()} are dropped.
+     */
+    @Override
+    public void execute(@NotNull Transition transition, long dueNanos) {
+        if (shutdown) {
+            return;
+        }
+
+        handoffQueue.add(new QueuedTransition(transition, dueNanos, nextSequence.getAndIncrement()));
+        // Only one task is scheduled no matter how many threads queue transitions before it runs
+        if (drainScheduled.compareAndSet(false, true)) {
+            drainTask = Bukkit.getScheduler().runTask(plugin, this::drain);
+        }
+    }
+
+    private void drain() {
+        drainScheduled.set(false); // Transitions queued from now are left for another drain
+        drainTask = null;
+        QueuedTransition queuedTransition;
+        while ((queuedTransition = handoffQueue.poll()) != null) {
+            dueTransitions.add(queuedTransition);
+        }
+
+        long deadline = System.nanoTime() + tickBudgetNanos;
+        // At least one transition is run each tick, so a transition which overruns the budget cannot stall the queue
+        do {
+            queuedTransition = dueTransitions.poll();
+            if (queuedTransition == null) {
+                return;
+            }
+
+            try {
+                queuedTransition.transition().run();
+            } catch (RuntimeException e) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to run a queued transition", e);
+            }
+        } while (System.nanoTime() < deadline);
+
+        if (!dueTransitions.isEmpty() && !shutdown && drainScheduled.compareAndSet(false, true)) {
+            drainTask = Bukkit.getScheduler().runTask(plugin, this::drain);
+        }
+    }
+
+    /**
+     * @return the amount of transitions which are waiting to run, including those which are still being handed off
+     * @apiNote This should be called on the server thread.
+     */
+    public int getQueuedCount() {
+        return handoffQueue.size() + dueTransitions.size();
+    }
+
+    /**
+     * Stops running queued transitions and drops any which are still waiting, such as when the plugin is disabled.
+     *
+     * @apiNote This should be called on the server thread.
+     */
+    public void shutdown() {
+        shutdown = true;
+        if (drainTask != null) {
+            drainTask.cancel();
+            drainTask = null;
+        }
+        handoffQueue.clear();
+        dueTransitions.clear();
+    }
+
+    private record QueuedTransition(@NotNull Transition transition, long dueNanos, long sequence) {
+    }
+
+}
@@ -2,31 +2,31 @@ package net.harieo.schematics.paper.animation;
 
 import net.harieo.schematics.animation.Animation;
 import net.harieo.schematics.animation.Transition;
-import org.bukkit.Bukkit;
 import org.bukkit.plugin.Plugin;
-import org.bukkit.scheduler.BukkitTask;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import javax.sound.midi.Track;
 import java.util.List;
 
 /**
- * An {@link Animation} which runs on the {@link org.bukkit.scheduler.BukkitScheduler}.
+ * An {@link Animation} which runs on the {@link org.bukkit.scheduler.BukkitScheduler}, through the
+ * {@link AnimationDriver} of its plugin.
  * <p>
  * Due to the limitations of the speed of the scheduler, the animation will tick at a rate of
- * {@code 500 milliseconds = 1 tick} or {@code 0.5 seconds = 1 tick}.
+ * {@code 50 milliseconds = 1 tick} or {@code 0.05 seconds = 1 tick}.
  */
-public class TickingAnimation extends Animation implements Runnable {
+public class TickingAnimation extends Animation {
+
+    public static final long MILLISECONDS_PER_TICK = 50;
 
     private final Plugin plugin;
 
-    private transient BukkitTask task;
+    private final transient AnimationDriver.Entry driverEntry = new AnimationDriver.Entry(this);
 
     /**
-     * Accepts {@link Plugin} to register this task with the Bukkit scheduler.
+     * Accepts {@link Plugin} to register this animation with the {@link AnimationDriver} of the plugin.
      *
-     * @param plugin the plugin to pass to the scheduler to register this task
+     * @param plugin the plugin which drives this animation
      */
     public TickingAnimation(@NotNull Plugin plugin,
                             @Nullable String id,
@@ -36,30 +36,56 @@ public class TickingAnimation extends Animation implements Runnable {
     }
 
     /**
-     * Activates this {@link Runnable} {@link Animation} at a rate of 1 tick with a delay of 1 tick.
+     * Activates this {@link Animation} to be ticked from the next tick.
      */
     @Override
     public void activate() {
-        task = Bukkit.getScheduler().runTaskTimer(plugin, this, 1, 1);
+        AnimationDriver.get(plugin).activate(driverEntry);
+    }
+
+    /**
+     * Deactivates this animation, leaving it where it is so that it can be activated again later.
+     */
+    public void deactivate() {
+        AnimationDriver.get(plugin).deactivate(driverEntry);
+    }
+
+    /**
+     * Moves this animation to a point on its timeline, then ticks it again from the next tick if it is activated.
+     *
+     * @param milliseconds the milliseconds from the start of this animation, which is clamped to the total time
+     */
+    @Override
+    public void seek(long milliseconds) {
+        super.seek(milliseconds);
+        if (isActivated()) {
+            activate();
+        }
     }
 
     @Override
     public boolean isActivated() {
-        return task != null;
+        return driverEntry.isScheduled();
     }
 
     /**
-     * Ticks the animation by 500 milliseconds, and cancels the task when the animation is finished
+     * Ticks this animation by the time which has passed since it was last ticked.
+     *
+     * @param elapsedTicks the ticks since this animation was last ticked
+     * @return the ticks until this animation should next be ticked, or -1 if it is finished and should be deactivated
+     * @implNote Between ticks which run or leave a transition, ticking only counts time, so the driver skips those
+     * ticks and passes their time to the next tick which does something.
      */
-    @Override
-    public void run() {
+    long advance(long elapsedTicks) {
         if (getState() == State.FINISHED) {
-            task.cancel();
-            task = null;
-            return;
+            return -1;
         }
 
-        tick(50);
+        tick(elapsedTicks * MILLISECONDS_PER_TICK);
+        if (getState() == State.FINISHED) {
+            return 1; // Deactivated on the next tick, as it was when each animation had its own task
+        }
+        return Math.max(1, (getTimeUntilNextStep() + MILLISECONDS_PER_TICK - 1) / MILLISECONDS_PER_TICK);
     }
 
 }
@@ -44,7 +44,7 @@ public class TickingAnimationDeserializer extends AnimationJsonDeserializer<Tick
 	public TickingAnimationDeserializer(@NotNull Plugin plugin,
 			@NotNull Blueprint<Schematic, JsonObject> schematicJsonBlueprint) {
 		this(plugin,
-				new BlueprintRegistry<>(
+				new BlueprintRegistry<>(BlueprintRegistry.JSON_TYPE_DISCRIMINATOR,
 						new Blueprint<>(new EmptyTransitionJsonSerializer(), new EmptyTransitionDeserializer()),
 						new Blueprint<>(new SoundTransitionJsonSerializer(), new SoundTransitionDeserializer()),
 						new Blueprint<>(new SchematicTransitionJsonSerializer(schematicJsonBlueprint.getSerializer()),
@@ -2,7 +2,6 @@ package net.harieo.schematics.paper.command.animation;
 
 import co.aikar.commands.BaseCommand;
 import co.aikar.commands.annotation.*;
-import java.io.IOException;
 import net.harieo.schematics.animation.Animation;
 import net.harieo.schematics.animation.Transition;
 import net.harieo.schematics.animation.impl.basic.ScheduledAnimation;
@@ -11,6 +10,7 @@ import net.harieo.schematics.paper.animation.AnimationStorage;
 import net.harieo.schematics.paper.animation.TickingAnimation;
 import net.harieo.schematics.paper.command.transition.TransitionIntentRegistry;
 
+import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
@@ -19,6 +19,7 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.Collections;
 import java.util.Locale;
+import java.util.logging.Level;
 
 @CommandAlias("animation|simpleanimation|animations|simpleanimations")
 public class AnimationCommand extends BaseCommand {
@@ -43,6 +44,7 @@ public class AnimationCommand extends BaseCommand {
 		Animation animation;
 		switch (animationType.toLowerCase(Locale.ROOT)) {
 			case "ticking" -> animation = new TickingAnimation(plugin, animationId, Collections.emptyList());
+			// Transitions are handed to the server thread by the default executor of the shared scheduler
 			case "native", "scheduled" -> animation = new ScheduledAnimation(animationId, Collections.emptyList());
 			default -> {
 				player.sendMessage(ChatColor.RED + "Unknown animation type: " + animationType);
@@ -157,14 +159,18 @@ public class AnimationCommand extends BaseCommand {
 			}
 
 			animationStorage.addAnimation(animation);
-			try {
-				animationStorage.saveAll(plugin, true);
-				player.sendMessage(ChatColor.GREEN + "Saved animation with id " + animation.getId().orElseThrow());
-			} catch (IOException e) {
-				e.printStackTrace();
-				player.sendMessage(
-						ChatColor.RED + "An error occurred saving animations to file. Check console for details.");
-			}
+			String animationId = animation.getId().orElseThrow();
+			// Written off the server thread, then reported back on it
+			animationStorage.saveAllAsync(plugin, true).whenComplete((saved, error) ->
+					Bukkit.getScheduler().runTask(plugin, () -> {
+						if (error == null) {
+							player.sendMessage(ChatColor.GREEN + "Saved animation with id " + animationId);
+						} else {
+							plugin.getLogger().log(Level.SEVERE, "Failed to save animations", error);
+							player.sendMessage(ChatColor.RED
+									+ "An error occurred saving animations to file. Check console for details.");
+						}
+					}));
 		}, () -> player.sendMessage(ChatColor.RED + "You are not creating an animation."));
 	}
 
@@ -2,29 +2,33 @@ package net.harieo.schematics.paper.command.schematic;
 
 import co.aikar.commands.BaseCommand;
 import co.aikar.commands.annotation.*;
-import net.harieo.schematics.modification.Modification;
-import net.harieo.schematics.modification.RelativeModification;
 import net.harieo.schematics.paper.SimpleSchematics;
 import net.harieo.schematics.paper.command.CommandPosition;
+import net.harieo.schematics.paper.job.BudgetedJob;
+import net.harieo.schematics.paper.job.JobState;
+import net.harieo.schematics.paper.job.PhysicsMode;
+import net.harieo.schematics.paper.job.SchematicPasteJob;
+import net.harieo.schematics.paper.undo.UndoJournal;
+import net.harieo.schematics.paper.undo.UndoRestoreJob;
+import net.harieo.schematics.paper.schematic.CapturePolicy;
+import net.harieo.schematics.paper.schematic.SchematicCapture;
 import net.harieo.schematics.paper.schematic.SchematicStorage;
-import net.harieo.schematics.paper.modification.impl.BlockModification;
-import net.harieo.schematics.paper.position.BukkitCoordinate;
-import net.harieo.schematics.position.Vector;
 import net.harieo.schematics.schematic.Schematic;
+import net.harieo.schematics.schematic.SchematicSummary;
+import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
-import org.bukkit.block.Block;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.PlayerInventory;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+import java.util.logging.Level;
 
 @CommandAlias("schematic|schematics|simpleschematics|simpleschematic|schema")
 public class SchematicCommand extends BaseCommand {
@@ -32,6 +36,7 @@ public class SchematicCommand extends BaseCommand {
     private final SimpleSchematics plugin;
 
     private final SchematicCommandPersistence persistence = new SchematicCommandPersistence();
+    private final SchematicCapture schematicCapture = new SchematicCapture();
 
     public SchematicCommand(@NotNull SimpleSchematics plugin) {
         this.plugin = plugin;
@@ -46,22 +51,24 @@ public class SchematicCommand extends BaseCommand {
     @Default
     public void listSchematics(CommandSender sender) {
         SchematicStorage schematicStorage = plugin.getSchematicStorage();
-        Set<Schematic> schematics = schematicStorage.getSchematics();
-        if (schematics.isEmpty()) {
+        // Summaries are used so that schematics which have not been loaded yet do not need to be loaded to be listed
+        List<SchematicSummary> summaries = schematicStorage.getSummaries();
+        if (summaries.isEmpty()) {
             sender.sendMessage(ChatColor.RED + "There are no loaded schematics.");
         } else {
-            schematics.forEach(schematic -> {
+            summaries.forEach(summary -> {
                 // Display schematic name
-                sender.sendMessage(ChatColor.YELLOW + schematic.getId().orElse("[Unnamed Schematic]"));
+                sender.sendMessage(ChatColor.YELLOW + summary.getId().orElse("[Unnamed Schematic]"));
                 // Display the initial position
-                sender.sendMessage(ChatColor.GREEN + "Initial Position: " + schematic.getInitialPosition());
+                sender.sendMessage(ChatColor.GREEN + "Initial Position: " + summary.getInitialPosition());
+                // Display the bounding box, if there are any modifications to have one
+                if (summary.getMinimum().isPresent() && summary.getMaximum().isPresent()) {
+                    sender.sendMessage(ChatColor.GREEN + "Bounds: " + summary.getMinimum().get() + " to "
+                            + summary.getMaximum().get());
+                }
                 // Print out a count of all the modification types in the schematic
-                Map<String, Integer> typeCountMap = new HashMap<>();
-                schematic.getModifications().stream().map(RelativeModification::getActualModification).forEach(modification -> {
-                    String type = modification.getType();
-                    typeCountMap.put(type, typeCountMap.getOrDefault(type, 0) + 1);
-                });
-                typeCountMap.forEach((type, count) -> sender.sendMessage(ChatColor.LIGHT_PURPLE + "    " + type + " x" + count));
+                summary.getTypeCounts().forEach((type, count) ->
+                        sender.sendMessage(ChatColor.LIGHT_PURPLE + "    " + type + " x" + count));
             });
         }
     }
@@ -100,8 +107,11 @@ public class SchematicCommand extends BaseCommand {
     }
 
     @Subcommand("create|make|schematic")
+    @CommandCompletion("@nothing noair|only:|exclude:|ground:")
     @CommandPermission("schematics.create")
-    public void createSchematic(Player player, @Name("schematic id") String schematicId) {
+    public void createSchematic(Player player,
+                                @Name("schematic id") String schematicId,
+                                @Name("options") @Default("") String options) {
         SchematicStorage schematicStorage = plugin.getSchematicStorage();
         Optional<Schematic> optionalExistingSchematic = schematicStorage.getSchematic(schematicId);
         if (optionalExistingSchematic.isPresent()) {
@@ -109,25 +119,45 @@ public class SchematicCommand extends BaseCommand {
             return;
         }
 
+        CapturePolicy policy;
+        try {
+            policy = CapturePolicy.parse(options);
+        } catch (IllegalArgumentException e) {
+            player.sendMessage(ChatColor.RED + e.getMessage() + ": Expected: /... create <id> [noair] "
+                    + "[only:<materials>] [exclude:<materials>] [ground:<block states>]");
+            return;
+        }
+
         persistence.getCuboid(player.getUniqueId()).ifPresentOrElse(cuboid -> {
             if (cuboid.isValid()) {
-                BukkitCoordinate initialPosition = cuboid.getLowerCorner().orElseThrow();
-                Set<RelativeModification<? extends Modification>> modifications = cuboid.getInnerCoordinates(1)
-                        .stream()
-                        .map(coordinate -> {
-                            Block block = coordinate.toLocation().getBlock();
-                            BlockModification blockModification = new BlockModification(cuboid.getWorld(), block.getType());
-                            Vector vector = initialPosition.getRelativeVector(coordinate);
-                            RelativeModification<BlockModification> relativeModification = new RelativeModification<>(blockModification, vector);
-                            relativeModification.setActualModificationJsonBlueprint(BlockModification.BLUEPRINT_JSON);
-                            return relativeModification;
-                        })
-                        .collect(Collectors.toSet());
-
-                Schematic schematic = new Schematic(schematicId, initialPosition, modifications);
-                schematicStorage.addSchematic(schematic);
-                player.sendMessage(ChatColor.GREEN + "The schematic has been stored with id " + schematicId + ".");
-                player.sendMessage(ChatColor.GRAY + "Use " + ChatColor.YELLOW + "/schematics save " + ChatColor.GRAY + "to save to file.");
+                CompletableFuture<Schematic> capture;
+                try {
+                    // Chunks are snapshot now, then read off the server thread
+                    capture = schematicCapture.capture(schematicId, cuboid, policy);
+                } catch (IllegalArgumentException e) {
+                    player.sendMessage(ChatColor.RED + "That area is too large to store as a schematic.");
+                    return;
+                }
+
+                player.sendMessage(ChatColor.GRAY + "Capturing the schematic...");
+                capture.whenComplete((schematic, error) -> Bukkit.getScheduler().runTask(plugin, () -> {
+                    if (error != null) {
+                        plugin.getLogger().log(Level.SEVERE, "Failed to capture schematic " + schematicId, error);
+                        player.sendMessage(ChatColor.RED + "Failed to capture the schematic. " +
+                                "Please check console for an error.");
+                    } else if (schematicStorage.getSchematic(schematicId).isPresent()) {
+                        // Another schematic may have taken the id while this one was captured
+                        player.sendMessage(ChatColor.RED + "A schematic with that id already exists.");
+                    } else if (schematic.getModificationCount() == 0) {
+                        player.sendMessage(ChatColor.RED + "No blocks in that area were captured by those options.");
+                    } else {
+                        schematicStorage.addSchematic(schematic);
+                        player.sendMessage(ChatColor.GREEN + "The schematic has been stored with id " + schematicId
+                                + ".");
+                        player.sendMessage(ChatColor.GRAY + "Use " + ChatColor.YELLOW + "/schematics save "
+                                + ChatColor.GRAY + "to save to file.");
+                    }
+                }));
             }
         }, () -> player.sendMessage(ChatColor.RED + "A schematic requires two positions to form a cuboid region. " +
                 "You have none set."));
@@ -138,24 +168,130 @@ public class SchematicCommand extends BaseCommand {
     @CommandPermission("schematics.save")
     public void saveSchematic(Player player, @Default(value = "true") boolean overwrite) {
         SchematicStorage schematicStorage = plugin.getSchematicStorage();
-        try {
-            if (schematicStorage.saveAll(plugin, overwrite)) {
-                player.sendMessage(ChatColor.GREEN + "Successfully saved all cached schematics.");
-            } else {
-                player.sendMessage(ChatColor.YELLOW + "Successfully saved some schematics. " +
-                        "No overwriting occurred, so some schematics were not saved.");
+        // Written off the server thread, then reported back on it
+        schematicStorage.saveAllAsync(plugin, overwrite).whenComplete((allSaved, error) ->
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    if (error != null) {
+                        plugin.getLogger().log(Level.SEVERE, "Failed to save schematics", error);
+                        player.sendMessage(ChatColor.RED + "Failed to save all schematics. " +
+                                "Please check console for an error.");
+                    } else if (allSaved) {
+                        player.sendMessage(ChatColor.GREEN + "Successfully saved all cached schematics.");
+                    } else {
+                        player.sendMessage(ChatColor.YELLOW + "Successfully saved some schematics. " +
+                                "No overwriting occurred, so some schematics were not saved.");
+                    }
+                }));
+    }
+
+    @Subcommand("paste|pasteschematic")
+    @CommandCompletion("@schematics @physics")
+    @CommandPermission("schematics.paste")
+    public void pasteSchematic(Player player,
+                               @Name("schematic id") @Values("@schematics") String schematicId,
+                               @Name("physics") @Default("immediate") String physics) {
+        PhysicsMode physicsMode = PhysicsMode.fromId(physics).orElse(null);
+        if (physicsMode == null) {
+            player.sendMessage(ChatColor.RED + "Unknown physics mode: Expected: /... paste <schematic> "
+                    + "[immediate/deferred/none]");
+            return;
+        }
+
+        SchematicStorage schematicStorage = plugin.getSchematicStorage();
+        schematicStorage.getSchematic(schematicId).ifPresentOrElse(schematic -> {
+            // Pasted over as many ticks as it needs, so that large schematics do not stall the server
+            SchematicPasteJob job = plugin.getJobScheduler().submit(new SchematicPasteJob(schematic, physicsMode,
+                    true));
+            persistence.addPaste(player.getUniqueId(), job);
+            player.sendMessage(ChatColor.GREEN + "Pasting " + schematicId + " as job #" + job.getId() + " ("
+                    + job.getTotalCount() + " modifications).");
+            job.getCompletion().thenAccept(state -> {
+                switch (state) {
+                    case COMPLETED -> player.sendMessage(ChatColor.GREEN + "Finished pasting " + schematicId + ": "
+                            + job.getAppliedCount() + " applied, " + job.getFailedCount() + " failed.");
+                    case CANCELLED -> player.sendMessage(ChatColor.YELLOW + "Cancelled pasting " + schematicId
+                            + " after " + job.getProcessedCount() + " of " + job.getTotalCount() + " modifications.");
+                    case FAILED -> {
+                        job.getFailure().ifPresent(failure ->
+                                plugin.getLogger().log(Level.SEVERE, "Failed to paste " + schematicId, failure));
+                        player.sendMessage(ChatColor.RED + "Failed to paste " + schematicId + ". " +
+                                "Please check console for an error.");
+                    }
+                    default -> {
+                    }
+                }
+            });
+        }, () -> player.sendMessage(ChatColor.RED + "There is no schematic with id " + schematicId + "."));
+    }
+
+    @Subcommand("undo|undopaste")
+    @CommandPermission("schematics.paste")
+    public void undoPaste(Player player) {
+        SchematicCommandPersistence.UndoablePaste paste = persistence.pollLastPaste(player.getUniqueId())
+                .orElse(null);
+        if (paste == null) {
+            player.sendMessage(ChatColor.RED + "You have no pastes to undo.");
+            return;
+        }
+
+        // A paste which is still running is stopped, so that it does not write over the undo
+        plugin.getJobScheduler().getJob(paste.jobId()).ifPresent(BudgetedJob::cancel);
+        UndoJournal journal = paste.undoJournal();
+        UndoRestoreJob restoreJob = plugin.getJobScheduler().submit(new UndoRestoreJob(
+                "undo " + paste.description(), journal, paste.physicsMode() != PhysicsMode.NONE));
+        player.sendMessage(ChatColor.GREEN + "Undoing job #" + paste.jobId() + " as job #" + restoreJob.getId()
+                + " (" + journal.size() + " blocks).");
+        restoreJob.getCompletion().thenAccept(state -> {
+            if (state == JobState.COMPLETED) {
+                player.sendMessage(ChatColor.GREEN + "Finished undoing job #" + paste.jobId() + ".");
             }
-        } catch (IOException e) {
-            e.printStackTrace();
-            player.sendMessage(ChatColor.RED + "Failed to save all schematics. Please check console for an error.");
+        });
+    }
+
+    @Subcommand("jobs|pastes|listjobs")
+    @CommandPermission("schematics.paste")
+    public void listJobs(CommandSender sender) {
+        List<BudgetedJob> jobs = plugin.getJobScheduler().getJobs();
+        if (jobs.isEmpty()) {
+            sender.sendMessage(ChatColor.RED + "There are no running pastes.");
+            return;
         }
+
+        jobs.forEach(job -> sender.sendMessage(ChatColor.YELLOW + "#" + job.getId() + " " + ChatColor.GRAY
+                + job.getDescription() + ": " + ChatColor.GREEN + Math.round(job.getProgress() * 100) + "% "
+                + ChatColor.GRAY + "(" + job.getState().name().toLowerCase(Locale.ROOT) + ")"));
     }
 
-    @Subcommand("paste|pasteschematic")
-    @CommandCompletion("@schematics")
+    @Subcommand("pause|pausepaste")
     @CommandPermission("schematics.paste")
-    public void pasteSchematic(Player player, @Name("schematic id") @Values("@schematics") String schematicId) {
+    public void pauseJob(CommandSender sender, @Name("job id") int jobId) {
+        changeJob(sender, jobId, BudgetedJob::pause, "Paused", "is not running");
+    }
 
+    @Subcommand("resume|resumepaste")
+    @CommandPermission("schematics.paste")
+    public void resumeJob(CommandSender sender, @Name("job id") int jobId) {
+        changeJob(sender, jobId, BudgetedJob::resume, "Resumed", "is not paused");
+    }
+
+    @Subcommand("cancel|cancelpaste")
+    @CommandPermission("schematics.paste")
+    public void cancelJob(CommandSender sender, @Name("job id") int jobId) {
+        changeJob(sender, jobId, BudgetedJob::cancel, "Cancelled", "has already finished");
+    }
+
+    private void changeJob(@NotNull CommandSender sender,
+                           int jobId,
+                           @NotNull Predicate<BudgetedJob> change,
+                           @NotNull String changedMessage,
+                           @NotNull String unchangedMessage) {
+        plugin.getJobScheduler().getJob(jobId).ifPresentOrElse(job -> {
+            if (change.test(job)) {
+                sender.sendMessage(ChatColor.GREEN + changedMessage + " job #" + jobId + ".");
+            } else {
+                sender.sendMessage(ChatColor.RED + "Job #" + jobId + " " + unchangedMessage + ".");
+            }
+        }, () -> sender.sendMessage(ChatColor.RED + "There is no unfinished job #" + jobId + "."));
     }
 
 }
@@ -1,9 +1,14 @@
 package net.harieo.schematics.paper.command.schematic;
 
+import net.harieo.schematics.paper.job.PhysicsMode;
+import net.harieo.schematics.paper.job.SchematicPasteJob;
 import net.harieo.schematics.paper.position.BukkitCoordinate;
 import net.harieo.schematics.paper.shape.BukkitCuboid;
+import net.harieo.schematics.paper.undo.UndoJournal;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -14,7 +19,11 @@ import java.util.UUID;
  */
 public class SchematicCommandPersistence {
     
+    // The most pastes kept for each user to undo, as each holds a journal of every block it changed
+    public static int MAX_UNDO_HISTORY = 5;
+
     private final Map<UUID, BukkitCuboid> markedAreaMap = new HashMap<>();
+    private final Map<UUID, Deque<UndoablePaste>> pasteHistoryMap = new HashMap<>();
 
     /**
      * Gets the {@link BukkitCuboid} which the user is actively forming.
@@ -55,5 +64,50 @@ public class SchematicCommandPersistence {
             return cuboid;
         }).setUpperCorner(bukkitCoordinate);
     }
-    
+
+    /**
+     * Records a paste made by the user so that it can be undone, forgetting their oldest paste if they have more than
+     * {@link #MAX_UNDO_HISTORY}. Pastes which are not undoable are not recorded.
+     *
+     * @param uuid the uuid of the user
+     * @param pasteJob the job of the paste
+     * @apiNote Only the journal and description of the paste are kept, not the job, so the schematic which the job
+     * copied can be released once the paste finishes.
+     */
+    public void addPaste(@NotNull UUID uuid, @NotNull SchematicPasteJob pasteJob) {
+        if (pasteJob.getUndoJournal().isEmpty()) {
+            return;
+        }
+
+        Deque<UndoablePaste> pasteHistory = pasteHistoryMap.computeIfAbsent(uuid, key -> new ArrayDeque<>());
+        pasteHistory.addLast(new UndoablePaste(pasteJob.getId(), pasteJob.getDescription(), pasteJob.getPhysicsMode(),
+                pasteJob.getUndoJournal().get()));
+        while (pasteHistory.size() > MAX_UNDO_HISTORY) {
+            pasteHistory.removeFirst();
+        }
+    }
+
+    /**
+     * Removes and returns the most recent paste made by the user.
+     *
+     * @param uuid the uuid of the user
+     * @return the most recent paste, if the user has any pastes left to undo
+     */
+    public Optional<UndoablePaste> pollLastPaste(@NotNull UUID uuid) {
+        Deque<UndoablePaste> pasteHistory = pasteHistoryMap.get(uuid);
+        return pasteHistory != null ? Optional.ofNullable(pasteHistory.pollLast()) : Optional.empty();
+    }
+
+    /**
+     * What is needed to undo a paste, once the paste itself is no longer held.
+     *
+     * @param jobId       the id of the job which made the paste, which can be used to cancel it if it is still running
+     * @param description the description of the job which made the paste
+     * @param physicsMode how physics were triggered by the paste
+     * @param undoJournal the journal of the blocks changed by the paste
+     */
+    public record UndoablePaste(int jobId, @NotNull String description, @NotNull PhysicsMode physicsMode,
+                                @NotNull UndoJournal undoJournal) {
+    }
+
 }
@@ -0,0 +1,157 @@
+package net.harieo.schematics.paper.job;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A job which is too large to run in a single tick, so is run a piece at a time by a {@link JobScheduler} within a time
+ * budget for each tick.
+ *
+ * @apiNote Jobs are run, paused, resumed and cancelled on the server thread.
+ */
+public abstract class BudgetedJob {
+
+    private static final AtomicInteger JOB_COUNT = new AtomicInteger();
+
+    private final int id = JOB_COUNT.incrementAndGet();
+    private final String description;
+    private final CompletableFuture<JobState> completion = new CompletableFuture<>();
+
+    private JobState state = JobState.RUNNING;
+    private @Nullable RuntimeException failure;
+
+    /**
+     * A job which is running until it is paused, cancelled or completes.
+     *
+     * @param description a short description of what the job does
+     */
+    protected BudgetedJob(@NotNull String description) {
+        this.description = description;
+    }
+
+    /**
+     * Runs the next piece of this job, stopping once the deadline has passed.
+     *
+     * @param deadlineNanos the {@link System#nanoTime()} after which the job should stop until the next tick
+     * @return true if the job has no more work to do, otherwise false
+     * @implNote The deadline is only checked between pieces of work, so an implementation may overrun it by the time of
+     * one piece.
+     */
+    protected abstract boolean step(long deadlineNanos);
+
+    /**
+     * @return the fraction of this job which is done, from 0 to 1
+     */
+    public abstract double getProgress();
+
+    /**
+     * Runs the next piece of this job if it is running, completing or failing it as needed.
+     *
+     * @param deadlineNanos the {@link System#nanoTime()} after which the job should stop until the next tick
+     */
+    void run(long deadlineNanos) {
+        if (state != JobState.RUNNING) {
+            return;
+        }
+
+        try {
+            if (step(deadlineNanos)) {
+                finish(JobState.COMPLETED);
+            }
+        } catch (RuntimeException e) {
+            this.failure = e;
+            finish(JobState.FAILED);
+        }
+    }
+
+    /**
+     * Stops this job from running until it is resumed.
+     *
+     * @return true if the job was running, otherwise false
+     */
+    public boolean pause() {
+        if (state != JobState.RUNNING) {
+            return false;
+        }
+        state = JobState.PAUSED;
+        return true;
+    }
+
+    /**
+     * Allows this job to run again after it was paused.
+     *
+     * @return true if the job was paused, otherwise false
+     */
+    public boolean resume() {
+        if (state != JobState.PAUSED) {
+            return false;
+        }
+        state = JobState.RUNNING;
+        return true;
+    }
+
+    /**
+     * Stops this job permanently, leaving any work already done in place.
+     *
+     * @return true if the job had not already finished, otherwise false
+     */
+    public boolean cancel() {
+        if (state.isFinished()) {
+            return false;
+        }
+        finish(JobState.CANCELLED);
+        return true;
+    }
+
+    private void finish(@NotNull JobState finalState) {
+        state = finalState;
+        completion.complete(finalState);
+    }
+
+    /**
+     * @return the unique id of this job
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @return a short description of what this job does
+     */
+    public @NotNull String getDescription() {
+        return description;
+    }
+
+    /**
+     * @return the current state of this job
+     */
+    public @NotNull JobState getState() {
+        return state;
+    }
+
+    /**
+     * @return whether this job will never run again
+     */
+    public boolean isFinished() {
+        return state.isFinished();
+    }
+
+    /**
+     * @return optionally the exception which failed this job
+     */
+    public Optional<RuntimeException> getFailure() {
+        return Optional.ofNullable(failure);
+    }
+
+    /**
+     * @return a future completed with the final state of this job when it finishes, on the server thread
+     */
+    public @NotNull CompletableFuture<JobState> getCompletion() {
+        return completion;
+    }
+
+}
@@ -0,0 +1,130 @@
+package net.harieo.schematics.paper.job;
+
+import com.google.common.collect.ImmutableList;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@link BudgetedJob}s on the server thread, giving all running jobs a shared time budget in each tick so that
+ * large jobs are spread over many ticks rather than stalling the server.
+ *
+ * @apiNote This class is not thread-safe, so it should only be used on the server thread.
+ */
+public class JobScheduler {
+
+    // The time given to jobs each tick, which leaves most of the 50ms of a tick to the server
+    public static long DEFAULT_TICK_BUDGET_MILLIS = 10;
+
+    private final Plugin plugin;
+    private final long tickBudgetNanos;
+    private final List<BudgetedJob> jobs = new ArrayList<>();
+
+    private @Nullable BukkitTask task;
+    private int nextJobIndex = 0;
+
+    /**
+     * A scheduler which gives jobs a budget of {@link #DEFAULT_TICK_BUDGET_MILLIS} each tick.
+     *
+     * @param plugin the plugin to schedule the ticking task for
+     */
+    public JobScheduler(@NotNull Plugin plugin) {
+        this(plugin, DEFAULT_TICK_BUDGET_MILLIS);
+    }
+
+    /**
+     * A scheduler which gives jobs a custom budget each tick.
+     *
+     * @param plugin           the plugin to schedule the ticking task for
+     * @param tickBudgetMillis the time in milliseconds shared by all running jobs each tick
+     */
+    public JobScheduler(@NotNull Plugin plugin, long tickBudgetMillis) {
+        if (tickBudgetMillis <= 0) {
+            throw new IllegalArgumentException("The tick budget must be positive");
+        }
+        this.plugin = plugin;
+        this.tickBudgetNanos = TimeUnit.MILLISECONDS.toNanos(tickBudgetMillis);
+    }
+
+    /**
+     * Submits a job to be run from the next tick.
+     *
+     * @param job the job to run
+     * @param <J> the type of job
+     * @return the provided job
+     */
+    public <J extends BudgetedJob> @NotNull J submit(@NotNull J job) {
+        if (job.isFinished()) {
+            throw new IllegalArgumentException("Job #" + job.getId() + " has already finished");
+        }
+
+        jobs.add(job);
+        if (task == null) {
+            // Only ticks while there are jobs, so an idle scheduler costs nothing
+            task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1, 1);
+        }
+        return job;
+    }
+
+    private void tick() {
+        jobs.removeIf(BudgetedJob::isFinished);
+        if (jobs.isEmpty()) {
+            stopTask();
+            return;
+        }
+
+        long deadline = System.nanoTime() + tickBudgetNanos;
+        int jobCount = jobs.size();
+        // Each tick starts from the next job, so a job which overruns the budget cannot starve the others
+        int startIndex = nextJobIndex++ % jobCount;
+        for (int i = 0; i < jobCount && System.nanoTime() < deadline; i++) {
+            jobs.get((startIndex + i) % jobCount).run(deadline);
+        }
+    }
+
+    private void stopTask() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * Finds a job which has not finished by its id.
+     *
+     * @param id the id of the job
+     * @return optionally the job with that id
+     */
+    public Optional<BudgetedJob> getJob(int id) {
+        return jobs.stream()
+                .filter(job -> job.getId() == id && !job.isFinished())
+                .findFirst();
+    }
+
+    /**
+     * @return an immutable list of the jobs which have not finished, in the order they were submitted
+     */
+    public @Unmodifiable List<BudgetedJob> getJobs() {
+        return jobs.stream()
+                .filter(job -> !job.isFinished())
+                .collect(ImmutableList.toImmutableList());
+    }
+
+    /**
+     * Cancels every job and stops the ticking task.
+     */
+    public void shutdown() {
+        jobs.forEach(BudgetedJob::cancel);
+        jobs.clear();
+        stopTask();
+    }
+
+}
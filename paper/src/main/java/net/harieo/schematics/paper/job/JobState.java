@@ -0,0 +1,32 @@
+package net.harieo.schematics.paper.job;
+
+/**
+ * The states of a {@link BudgetedJob}.
+ */
+public enum JobState {
+
+    RUNNING(false),
+    PAUSED(false),
+    CANCELLED(true),
+    COMPLETED(true),
+    FAILED(true);
+
+    private final boolean finished;
+
+    /**
+     * A state of a job.
+     *
+     * @param finished whether a job in this state will never run again
+     */
+    JobState(boolean finished) {
+        this.finished = finished;
+    }
+
+    /**
+     * @return whether a job in this state will never run again
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+}
@@ -0,0 +1,68 @@
+package net.harieo.schematics.paper.job;
+
+import net.harieo.schematics.paper.modification.BukkitModification;
+import net.harieo.schematics.position.Coordinate;
+import net.harieo.schematics.schematic.Schematic;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * How a {@link SchematicPasteJob} triggers block physics, such as neighbour updates, while it pastes.
+ *
+ * @apiNote Only {@link BukkitModification}s which support {@link BukkitModification#applyWithoutPhysics(Coordinate)}
+ * are applied without physics. Lighting is always updated by the server, whichever mode is used.
+ */
+public enum PhysicsMode {
+
+    /**
+     * Every modification triggers physics as it is applied, which is the same as {@link Schematic#apply()}.
+     */
+    IMMEDIATE("immediate"),
+    /**
+     * Modifications inside the schematic are applied without physics, and modifications on its surface are applied
+     * with physics in a final pass, so the surroundings of the paste are updated once it is complete. A modification
+     * inside the schematic is not updated even where it is on the edge of a chunk, as its neighbours in the next chunk
+     * are part of the paste too.
+     */
+    DEFERRED("deferred"),
+    /**
+     * No modification triggers physics, which suits decorative builds with nothing to update.
+     */
+    NONE("none");
+
+    private final String id;
+
+    /**
+     * A mode with an id for commands.
+     *
+     * @param id the identifying string
+     */
+    PhysicsMode(String id) {
+        this.id = id;
+    }
+
+    /**
+     * @return the identifying string
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Finds a mode by its id, ignoring case.
+     *
+     * @param id the identifying string
+     * @return optionally the mode with that id
+     */
+    public static Optional<PhysicsMode> fromId(String id) {
+        String lowerId = id.toLowerCase(Locale.ROOT);
+        for (PhysicsMode mode : values()) {
+            if (mode.id.equals(lowerId)) {
+                return Optional.of(mode);
+            }
+        }
+        return Optional.empty();
+    }
+
+}
@@ -0,0 +1,183 @@
+package net.harieo.schematics.paper.job;
+
+import net.harieo.schematics.exception.ModificationException;
+import net.harieo.schematics.modification.Modification;
+import net.harieo.schematics.paper.modification.BukkitModification;
+import net.harieo.schematics.paper.undo.UndoJournal;
+import net.harieo.schematics.position.BlockPos;
+import net.harieo.schematics.position.Coordinate;
+import net.harieo.schematics.schematic.Schematic;
+import net.harieo.schematics.schematic.SchematicCursor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Optional;
+
+/**
+ * A {@link BudgetedJob} which applies a {@link Schematic} a batch of modifications at a time, in the same order and
+ * with the same availability checks as {@link Schematic#apply()}.
+ * <p>
+ * The {@link PhysicsMode} of the job decides whether modifications trigger physics as they are applied. By default,
+ * each block is captured in an {@link UndoJournal} before it is changed, so that the paste can be undone.
+ *
+ * @implNote The schematic is copied when the job is created, so changes to the schematic during the paste do not affect
+ * it. When physics are {@link PhysicsMode#DEFERRED}, the copy is walked a second time to find the modifications on its
+ * surface again, rather than each deferred modification being kept until the end of the paste.
+ */
+public class SchematicPasteJob extends BudgetedJob {
+
+    // Reading the clock costs more than most modifications, so it is only read after each batch of this many
+    public static int MODIFICATIONS_PER_DEADLINE_CHECK = 64;
+
+    private final Schematic schematic;
+    private final SchematicCursor cursor;
+    private final PhysicsMode physicsMode;
+    private final @Nullable UndoJournal undoJournal;
+    private final SchematicCursor.ModificationVisitor applyVisitor = this::applyModification;
+    private final SchematicCursor.ModificationVisitor surfaceVisitor = this::applySurfaceModification;
+    // Walks the schematic again once the first walk is finished, to apply the deferred surface with physics
+    private @Nullable SchematicCursor surfaceCursor;
+    private int deferredCount = 0;
+    private int surfaceAppliedCount = 0;
+
+    private int appliedCount = 0;
+    private int failedCount = 0;
+
+    /**
+     * A job to paste a schematic at its initial position, triggering physics for each modification and capturing the
+     * changed blocks in an {@link UndoJournal}.
+     *
+     * @param schematic the schematic to paste
+     */
+    public SchematicPasteJob(@NotNull Schematic schematic) {
+        this(schematic, PhysicsMode.IMMEDIATE, true);
+    }
+
+    /**
+     * A job to paste a schematic at its initial position.
+     *
+     * @param schematic   the schematic to paste
+     * @param physicsMode how physics are triggered by the paste
+     * @param undoable    whether the changed blocks should be captured in an {@link UndoJournal}
+     */
+    public SchematicPasteJob(@NotNull Schematic schematic, @NotNull PhysicsMode physicsMode, boolean undoable) {
+        super("paste " + schematic.getId().orElse("[Unnamed Schematic]"));
+        this.schematic = new Schematic(schematic);
+        this.cursor = new SchematicCursor(this.schematic);
+        this.physicsMode = physicsMode;
+        this.undoJournal = undoable ? new UndoJournal() : null;
+    }
+
+    @Override
+    protected boolean step(long deadlineNanos) {
+        while (true) {
+            for (int i = 0; i < MODIFICATIONS_PER_DEADLINE_CHECK; i++) {
+                if (!cursor.next(applyVisitor) && !nextSurfaceModification()) {
+                    return true;
+                }
+            }
+            if (System.nanoTime() >= deadlineNanos) {
+                return cursor.isFinished() && surfaceAppliedCount >= deferredCount;
+            }
+        }
+    }
+
+    private void applyModification(@NotNull Modification modification, @NotNull Coordinate coordinate) {
+        if (physicsMode == PhysicsMode.DEFERRED && !cursor.isLastEnclosed()) {
+            deferredCount++; // Applied by the second walk, which finds the same surface
+        } else if (modification.isAvailable(coordinate)) {
+            apply(modification, coordinate, physicsMode == PhysicsMode.IMMEDIATE);
+        }
+    }
+
+    private boolean nextSurfaceModification() {
+        // The second walk stops once every deferred modification is applied, skipping the rest of the inside
+        if (surfaceAppliedCount >= deferredCount) {
+            return false;
+        } else if (surfaceCursor == null) {
+            surfaceCursor = new SchematicCursor(schematic);
+        }
+        return surfaceCursor.next(surfaceVisitor);
+    }
+
+    private void applySurfaceModification(@NotNull Modification modification, @NotNull Coordinate coordinate) {
+        if (surfaceCursor.isLastEnclosed()) {
+            return; // Applied without physics by the first walk
+        }
+
+        surfaceAppliedCount++;
+        if (modification.isAvailable(coordinate)) {
+            apply(modification, coordinate, true);
+        }
+    }
+
+    private void apply(@NotNull Modification modification, @NotNull Coordinate coordinate, boolean physics) {
+        if (undoJournal != null && modification instanceof BukkitModification bukkitModification
+                && bukkitModification.changesBlock()) {
+            undoJournal.capture(bukkitModification.getWorld(), BlockPos.floor(coordinate.getX()),
+                    BlockPos.floor(coordinate.getY()), BlockPos.floor(coordinate.getZ()));
+        }
+
+        try {
+            if (!physics && modification instanceof BukkitModification bukkitModification) {
+                bukkitModification.applyWithoutPhysics(coordinate);
+            } else {
+                modification.apply(coordinate);
+            }
+            appliedCount++;
+        } catch (ModificationException e) {
+            failedCount++; // A single failed modification should not abandon the rest of the paste
+        }
+    }
+
+    @Override
+    public double getProgress() {
+        int total = cursor.getTotalCount();
+        // Deferred modifications are counted as done only once they have been applied
+        int remainingDeferred = deferredCount - surfaceAppliedCount;
+        return total == 0 ? 1 : (double) (cursor.getVisitedCount() - remainingDeferred) / total;
+    }
+
+    /**
+     * @return the amount of modifications which have been applied
+     */
+    public int getAppliedCount() {
+        return appliedCount;
+    }
+
+    /**
+     * @return the amount of modifications which failed to apply
+     */
+    public int getFailedCount() {
+        return failedCount;
+    }
+
+    /**
+     * @return the amount of modifications which have been checked, whether or not they were applied
+     */
+    public int getProcessedCount() {
+        return cursor.getVisitedCount();
+    }
+
+    /**
+     * @return the total amount of modifications in the schematic
+     */
+    public int getTotalCount() {
+        return cursor.getTotalCount();
+    }
+
+    /**
+     * @return how physics are triggered by this paste
+     */
+    public @NotNull PhysicsMode getPhysicsMode() {
+        return physicsMode;
+    }
+
+    /**
+     * @return optionally the journal of the blocks changed by this paste, if the paste is undoable
+     */
+    public Optional<UndoJournal> getUndoJournal() {
+        return Optional.ofNullable(undoJournal);
+    }
+
+}
@@ -35,6 +35,14 @@ public abstract class BukkitModification extends Modification {
         return world;
     }
 
+    /**
+     * @return the world in which this modification takes place
+     */
+    @Override
+    public @NotNull Object getSpace() {
+        return world;
+    }
+
     @Override
     public boolean isAvailable(@NotNull Coordinate coordinate) {
         return isAvailable(toBukkit(coordinate));
@@ -60,6 +68,40 @@ public abstract class BukkitModification extends Modification {
      */
     public abstract void apply(@NotNull BukkitCoordinate bukkitCoordinate);
 
+    /**
+     * Whether applying this modification changes the block at its coordinate, so that the block can be recorded before
+     * it is applied to allow the change to be undone.
+     *
+     * @return true if this modification changes the block at its coordinate, otherwise false
+     * @implNote By default this returns {@code false}.
+     */
+    public boolean changesBlock() {
+        return false;
+    }
+
+    /**
+     * Applies this modification at the given {@link Coordinate} without triggering physics.
+     *
+     * @param coordinate the api coordinate
+     * @throws ModificationException if the modification cannot be applied
+     * @see #applyWithoutPhysics(BukkitCoordinate)
+     */
+    public void applyWithoutPhysics(@NotNull Coordinate coordinate) throws ModificationException {
+        applyWithoutPhysics(toBukkit(coordinate));
+    }
+
+    /**
+     * Applies this modification at the given {@link BukkitCoordinate} without triggering physics, such as updates to
+     * neighbouring blocks, so that many modifications can be applied together without each one updating the others.
+     *
+     * @param bukkitCoordinate the platform-specific coordinate
+     * @implNote By default this calls {@link #apply(BukkitCoordinate)}, so physics are still triggered by modifications
+     * which do not override it.
+     */
+    public void applyWithoutPhysics(@NotNull BukkitCoordinate bukkitCoordinate) {
+        apply(bukkitCoordinate);
+    }
+
     /**
      * Converts an API {@link Coordinate} into a platform compatible {@link BukkitCoordinate} using the {@link World}
      * provided to this object.
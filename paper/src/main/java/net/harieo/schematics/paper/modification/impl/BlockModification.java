@@ -12,11 +12,14 @@ import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Objects;
+
 /**
  * A {@link BukkitModification} which changes the {@link Block} type at the given {@link Coordinate}.
  */
 public class BlockModification extends BukkitModification {
 
+    public static final String TYPE = "block-edit";
     public static final String MATERIAL_KEY = "material";
     public static final Blueprint<BlockModification, JsonObject> BLUEPRINT_JSON =
             new Blueprint<>(
@@ -34,7 +37,7 @@ public class BlockModification extends BukkitModification {
      * @throws IllegalArgumentException if the provided material returns {@code Material#isBlock() == false}
      */
     public BlockModification(@NotNull World world, @NotNull Material blockMaterial) {
-        super("block-edit", world);
+        super(TYPE, world);
         if (!blockMaterial.isBlock()) {
             throw new IllegalArgumentException("Not a block material: " + blockMaterial.name());
         }
@@ -56,11 +59,41 @@ public class BlockModification extends BukkitModification {
         toBlock(bukkitCoordinate).setType(blockMaterial);
     }
 
+    @Override
+    public boolean changesBlock() {
+        return true;
+    }
+
+    @Override
+    public boolean replacesBlock() {
+        return true;
+    }
+
+    @Override
+    public void applyWithoutPhysics(@NotNull BukkitCoordinate bukkitCoordinate) {
+        toBlock(bukkitCoordinate).setType(blockMaterial, false);
+    }
+
     @Override
     public Blueprint<? extends BukkitModification, JsonObject> getJsonBlueprint() {
         return BLUEPRINT_JSON;
     }
 
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        return object instanceof BlockModification other
+                && blockMaterial == other.blockMaterial
+                && getWorld().equals(other.getWorld());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getWorld(), blockMaterial);
+    }
+
     public Block toBlock(@NotNull BukkitCoordinate bukkitCoordinate) {
         return bukkitCoordinate.toLocation().getBlock();
     }
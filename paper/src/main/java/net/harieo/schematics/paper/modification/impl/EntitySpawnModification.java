@@ -11,11 +11,14 @@ import org.bukkit.World;
 import org.bukkit.entity.EntityType;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Objects;
+
 /**
  * A {@link BukkitModification} which spawns an entity at the given {@link BukkitCoordinate}.
  */
 public class EntitySpawnModification extends BukkitModification {
 
+    public static final String TYPE = "entity-spawn";
     public static final String ENTITY_TYPE_KEY = "entity-type";
     public static final Blueprint<EntitySpawnModification, JsonObject> BLUEPRINT_JSON =
             new Blueprint<>(
@@ -32,7 +35,7 @@ public class EntitySpawnModification extends BukkitModification {
      * @param entityType the type of entity to spawn
      */
     public EntitySpawnModification(@NotNull World world, @NotNull EntityType entityType) {
-        super("entity-spawn", world);
+        super(TYPE, world);
         this.entityType = entityType;
     }
 
@@ -56,4 +59,19 @@ public class EntitySpawnModification extends BukkitModification {
         return BLUEPRINT_JSON;
     }
 
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        return object instanceof EntitySpawnModification other
+                && entityType == other.entityType
+                && getWorld().equals(other.getWorld());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getWorld(), entityType);
+    }
+
 }
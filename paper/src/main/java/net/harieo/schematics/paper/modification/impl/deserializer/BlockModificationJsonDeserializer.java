@@ -3,13 +3,15 @@ package net.harieo.schematics.paper.modification.impl.deserializer;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
 import net.harieo.schematics.paper.modification.impl.BlockModification;
+import net.harieo.schematics.serialization.DiscriminatedDeserializer;
 import org.bukkit.Material;
 import org.bukkit.World;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Locale;
 
-public class BlockModificationJsonDeserializer extends BukkitModificationJsonDeserializer<BlockModification> {
+public class BlockModificationJsonDeserializer extends BukkitModificationJsonDeserializer<BlockModification>
+        implements DiscriminatedDeserializer<BlockModification, JsonObject> {
 
     @Override
     public BlockModification deserialize(@NotNull JsonObject object, @NotNull World world) {
@@ -22,6 +24,11 @@ public class BlockModificationJsonDeserializer extends BukkitModificationJsonDes
         }
     }
 
+    @Override
+    public @NotNull String getDiscriminator() {
+        return BlockModification.TYPE;
+    }
+
     @Override
     public boolean isValidObject(@NotNull JsonObject serializedObject) {
         return serializedObject.has(BlockModification.MATERIAL_KEY);
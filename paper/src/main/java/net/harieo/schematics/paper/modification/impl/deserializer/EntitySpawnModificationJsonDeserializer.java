@@ -3,13 +3,15 @@ package net.harieo.schematics.paper.modification.impl.deserializer;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
 import net.harieo.schematics.paper.modification.impl.EntitySpawnModification;
+import net.harieo.schematics.serialization.DiscriminatedDeserializer;
 import org.bukkit.World;
 import org.bukkit.entity.EntityType;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Locale;
 
-public class EntitySpawnModificationJsonDeserializer extends BukkitModificationJsonDeserializer<EntitySpawnModification> {
+public class EntitySpawnModificationJsonDeserializer extends BukkitModificationJsonDeserializer<EntitySpawnModification>
+        implements DiscriminatedDeserializer<EntitySpawnModification, JsonObject> {
 
     @Override
     public EntitySpawnModification deserialize(@NotNull JsonObject object, @NotNull World world) {
@@ -22,6 +24,11 @@ public class EntitySpawnModificationJsonDeserializer extends BukkitModificationJ
         }
     }
 
+    @Override
+    public @NotNull String getDiscriminator() {
+        return EntitySpawnModification.TYPE;
+    }
+
     @Override
     public boolean isValidObject(@NotNull JsonObject serializedObject) {
         return serializedObject.has(EntitySpawnModification.ENTITY_TYPE_KEY);
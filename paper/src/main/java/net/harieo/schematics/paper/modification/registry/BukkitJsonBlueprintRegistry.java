@@ -18,7 +18,8 @@ public class BukkitJsonBlueprintRegistry extends BlueprintRegistry<BukkitModific
      * Sets up this registry with a default set of blueprints for modifications in this library.
      */
     public BukkitJsonBlueprintRegistry() {
-        super(new Blueprint<>
+        super(JSON_TYPE_DISCRIMINATOR,
+                new Blueprint<>
                         (new BlockModificationJsonSerializer(), new BlockModificationJsonDeserializer()),
                 new Blueprint<>
                         (new EntitySpawnModificationJsonSerializer(), new EntitySpawnModificationJsonDeserializer())
@@ -5,6 +5,8 @@ import org.bukkit.Location;
 import org.bukkit.World;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Objects;
+
 public class BukkitCoordinate extends Coordinate {
 
     private final World world;
@@ -49,4 +51,14 @@ public class BukkitCoordinate extends Coordinate {
         return new Location(world, getX(), getY(), getZ());
     }
 
+    @Override
+    public boolean equals(Object object) {
+        return super.equals(object) && Objects.equals(world, ((BukkitCoordinate) object).world);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + Objects.hashCode(world);
+    }
+
 }
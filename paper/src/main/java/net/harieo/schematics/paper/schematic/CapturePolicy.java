@@ -0,0 +1,232 @@
+package net.harieo.schematics.paper.schematic;
+
+import com.google.common.collect.ImmutableList;
+import org.bukkit.Bukkit;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.block.data.BlockData;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Decides which blocks are captured into a schematic by a {@link SchematicCapture}, so that blocks which do not belong
+ * to a build, such as air or the ground it stands on, are left out of the schematic.
+ * <p>
+ * A block is captured if its material is included, and it does not match any of the ground states. Ground states are
+ * {@link BlockData} which are compared with {@link BlockData#matches(BlockData)}, so a ground state only has to specify
+ * the properties which matter, such as {@code water[level=0]}.
+ *
+ * @apiNote Policies are immutable, so one policy can be used by many threads at once.
+ */
+public class CapturePolicy {
+
+    /**
+     * A policy which captures every block.
+     */
+    public static final CapturePolicy ALL = new CapturePolicy(false, null, Set.of(), List.of());
+
+    private final boolean skipAir;
+    private final @Nullable Set<Material> onlyMaterials;
+    private final Set<Material> excludedMaterials;
+    private final List<BlockData> groundStates;
+
+    // Indexed by material ordinal, so that the check of each block is a single array read
+    private final boolean[] capturedMaterials;
+    private final boolean[] groundMaterials;
+
+    /**
+     * A policy for which blocks to capture.
+     *
+     * @param skipAir           whether air should not be captured
+     * @param onlyMaterials     the only materials which should be captured, or null to capture every material
+     * @param excludedMaterials the materials which should not be captured
+     * @param groundStates      the block states which should not be captured
+     */
+    public CapturePolicy(boolean skipAir,
+                         @Nullable Collection<Material> onlyMaterials,
+                         @NotNull Collection<Material> excludedMaterials,
+                         @NotNull List<BlockData> groundStates) {
+        this.skipAir = skipAir;
+        this.onlyMaterials = onlyMaterials != null ? toSet(onlyMaterials) : null;
+        this.excludedMaterials = toSet(excludedMaterials);
+        this.groundStates = ImmutableList.copyOf(groundStates);
+
+        Material[] materials = Material.values();
+        this.capturedMaterials = new boolean[materials.length];
+        this.groundMaterials = new boolean[materials.length];
+        for (Material material : materials) {
+            capturedMaterials[material.ordinal()] = (!skipAir || !material.isAir())
+                    && (this.onlyMaterials == null || this.onlyMaterials.contains(material))
+                    && !this.excludedMaterials.contains(material);
+        }
+        this.groundStates.forEach(groundState -> groundMaterials[groundState.getMaterial().ordinal()] = true);
+    }
+
+    private static @NotNull Set<Material> toSet(@NotNull Collection<Material> materials) {
+        return materials.isEmpty() ? EnumSet.noneOf(Material.class) : EnumSet.copyOf(materials);
+    }
+
+    /**
+     * Reads a block from a snapshot if this policy captures it.
+     *
+     * @param snapshot the snapshot of the chunk of the block
+     * @param x        the x-coordinate of the block within its chunk
+     * @param y        the y-coordinate of the block
+     * @param z        the z-coordinate of the block within its chunk
+     * @return the material of the block, or null if the block should not be captured
+     * @implNote The full state of the block is only read if its material is the material of a ground state, so most
+     * blocks are decided without creating any objects.
+     */
+    public @Nullable Material capture(@NotNull ChunkSnapshot snapshot, int x, int y, int z) {
+        Material material = snapshot.getBlockType(x, y, z);
+        if (!capturedMaterials[material.ordinal()]) {
+            return null;
+        } else if (groundMaterials[material.ordinal()]) {
+            BlockData blockData = snapshot.getBlockData(x, y, z);
+            for (BlockData groundState : groundStates) {
+                if (blockData.matches(groundState)) {
+                    return null;
+                }
+            }
+        }
+        return material;
+    }
+
+    /**
+     * @return whether this policy may leave out any block
+     */
+    public boolean isFiltering() {
+        for (boolean captured : capturedMaterials) {
+            if (!captured) {
+                return true;
+            }
+        }
+        return !groundStates.isEmpty();
+    }
+
+    /**
+     * @return whether air is not captured
+     */
+    public boolean isSkippingAir() {
+        return skipAir;
+    }
+
+    /**
+     * @return optionally a copy of the only materials which are captured
+     */
+    public Optional<Set<Material>> getOnlyMaterials() {
+        return Optional.ofNullable(onlyMaterials).map(EnumSet::copyOf);
+    }
+
+    /**
+     * @return a copy of the materials which are not captured
+     */
+    public @NotNull Set<Material> getExcludedMaterials() {
+        return EnumSet.copyOf(excludedMaterials);
+    }
+
+    /**
+     * @return the block states which are not captured
+     */
+    public @Unmodifiable List<BlockData> getGroundStates() {
+        return groundStates;
+    }
+
+    /**
+     * Parses a policy from options separated by spaces:
+     * <ul>
+     *     <li>{@code noair} to skip air</li>
+     *     <li>{@code only:<materials>} to capture only the listed materials</li>
+     *     <li>{@code exclude:<materials>} to skip the listed materials</li>
+     *     <li>{@code ground:<block states>} to skip blocks matching any of the listed block states</li>
+     * </ul>
+     * Lists are separated by commas, such as {@code exclude:stone,dirt} or {@code ground:grass_block,water[level=0]}.
+     *
+     * @param options the options, which may be empty to capture every block
+     * @return the parsed policy
+     * @throws IllegalArgumentException if an option, material or block state is not recognised
+     */
+    public static @NotNull CapturePolicy parse(@NotNull String options) {
+        boolean skipAir = false;
+        List<Material> onlyMaterials = null;
+        List<Material> excludedMaterials = new ArrayList<>();
+        List<BlockData> groundStates = new ArrayList<>();
+
+        for (String option : options.trim().split("\\s+")) {
+            if (option.isEmpty()) {
+                continue;
+            }
+
+            int separatorIndex = option.indexOf(':');
+            String key = (separatorIndex < 0 ? option : option.substring(0, separatorIndex)).toLowerCase(Locale.ROOT);
+            String value = separatorIndex < 0 ? "" : option.substring(separatorIndex + 1);
+            switch (key) {
+                case "noair" -> skipAir = true;
+                case "only" -> {
+                    if (onlyMaterials == null) {
+                        onlyMaterials = new ArrayList<>();
+                    }
+                    onlyMaterials.addAll(parseMaterials(value));
+                }
+                case "exclude" -> excludedMaterials.addAll(parseMaterials(value));
+                case "ground" -> {
+                    for (String state : splitList(value)) {
+                        try {
+                            groundStates.add(Bukkit.createBlockData(state.toLowerCase(Locale.ROOT)));
+                        } catch (IllegalArgumentException e) {
+                            throw new IllegalArgumentException("Unknown block state: " + state, e);
+                        }
+                    }
+                }
+                default -> throw new IllegalArgumentException("Unknown capture option: " + option);
+            }
+        }
+        return new CapturePolicy(skipAir, onlyMaterials, excludedMaterials, groundStates);
+    }
+
+    private static @NotNull List<Material> parseMaterials(@NotNull String value) {
+        List<Material> materials = new ArrayList<>();
+        for (String name : splitList(value)) {
+            Material material = Material.matchMaterial(name);
+            if (material == null || !material.isBlock()) {
+                throw new IllegalArgumentException("Unknown block material: " + name);
+            }
+            materials.add(material);
+        }
+        return materials;
+    }
+
+    // Splits on commas which are not inside the brackets of a block state
+    private static @NotNull List<String> splitList(@NotNull String value) {
+        List<String> entries = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char character = value.charAt(i);
+            if (character == '[') {
+                depth++;
+            } else if (character == ']') {
+                depth--;
+            } else if (character == ',' && depth == 0) {
+                entries.add(value.substring(start, i));
+                start = i + 1;
+            }
+        }
+        entries.add(value.substring(start));
+        entries.removeIf(String::isEmpty);
+        if (entries.isEmpty()) {
+            throw new IllegalArgumentException("Expected a list of values");
+        }
+        return entries;
+    }
+
+}
@@ -0,0 +1,256 @@
+package net.harieo.schematics.paper.schematic;
+
+import net.harieo.schematics.paper.modification.impl.BlockModification;
+import net.harieo.schematics.paper.position.BukkitCoordinate;
+import net.harieo.schematics.paper.shape.BukkitCuboid;
+import net.harieo.schematics.position.Vector;
+import net.harieo.schematics.schematic.Schematic;
+import net.harieo.schematics.schematic.volume.ModificationPalette;
+import net.harieo.schematics.schematic.volume.PackedIntArray;
+import net.harieo.schematics.schematic.volume.SchematicVolume;
+import net.harieo.schematics.shape.BlockCuboid;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Captures the blocks of a {@link BukkitCuboid} into a {@link Schematic} of {@link BlockModification}s without reading
+ * each block on the server thread.
+ * <p>
+ * A {@link ChunkSnapshot} of each chunk in the cuboid is taken on the server thread, then the blocks of each snapshot are
+ * read in parallel on a bounded {@link ForkJoinPool}. Each chunk is read into its own palette of materials and packed
+ * indexes, which are merged into the {@link SchematicVolume} of the schematic in chunk order as they are read.
+ *
+ * @apiNote A pool is created for each capture and shut down once the capture completes, so no threads are left running
+ * between captures.
+ */
+public class SchematicCapture {
+
+    public static int DEFAULT_PARALLELISM = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    // The most blocks a single capture may cover, which is the most a schematic can keep in its grid
+    public static long MAX_CAPTURE_BLOCKS = SchematicVolume.MAX_GRID_CELLS;
+
+    private final int parallelism;
+
+    /**
+     * A capture with a specific amount of threads.
+     *
+     * @param parallelism the amount of threads reading chunks at once
+     * @throws IllegalArgumentException if the amount is less than 1
+     */
+    public SchematicCapture(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Capture must have at least 1 thread");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * A capture with {@link #DEFAULT_PARALLELISM}.
+     */
+    public SchematicCapture() {
+        this(DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * Captures every block inside a cuboid into a new schematic, relative to the block of the lower corner of the
+     * cuboid.
+     *
+     * @param id     an optional identifier for the schematic
+     * @param cuboid the cuboid to capture
+     * @return a future completed with the schematic on a worker thread, which should not be used on the server thread
+     * without returning to it first
+     * @throws IllegalStateException    if the cuboid is not valid
+     * @throws IllegalArgumentException if the cuboid covers more than {@link #MAX_CAPTURE_BLOCKS}
+     * @apiNote This must be called on the server thread, as the chunks of the cuboid are loaded and snapshot before
+     * this returns.
+     */
+    public CompletableFuture<Schematic> capture(@Nullable String id, @NotNull BukkitCuboid cuboid) {
+        return capture(id, cuboid, CapturePolicy.ALL);
+    }
+
+    /**
+     * Captures the blocks inside a cuboid which are accepted by a policy into a new schematic, relative to the block of
+     * the lower corner of the cuboid.
+     *
+     * @param id     an optional identifier for the schematic
+     * @param cuboid the cuboid to capture
+     * @param policy the policy deciding which blocks are captured
+     * @return a future completed with the schematic on a worker thread, which should not be used on the server thread
+     * without returning to it first
+     * @throws IllegalStateException    if the cuboid is not valid
+     * @throws IllegalArgumentException if the cuboid covers more than {@link #MAX_CAPTURE_BLOCKS}
+     * @apiNote This must be called on the server thread, as the chunks of the cuboid are loaded and snapshot before
+     * this returns.
+     */
+    public CompletableFuture<Schematic> capture(@Nullable String id,
+                                                @NotNull BukkitCuboid cuboid,
+                                                @NotNull CapturePolicy policy) {
+        if (!cuboid.isValid()) {
+            throw new IllegalStateException("Invalid cuboid");
+        }
+
+        World world = cuboid.getWorld();
+        BukkitCoordinate initialPosition = new BukkitCoordinate(world,
+                cuboid.getLowerCorner().orElseThrow().toBlockPos().toCoordinate());
+        // Blocks outside the height of the world cannot be read
+        Optional<BlockCuboid> readableBlocks = BlockCuboid.of(cuboid).clampY(world.getMinHeight(), world.getMaxHeight() - 1);
+        if (readableBlocks.isEmpty()) {
+            return CompletableFuture.completedFuture(new Schematic(id, initialPosition, new SchematicVolume()));
+        }
+
+        BlockCuboid region = readableBlocks.get();
+        if (region.getBlockCount() > MAX_CAPTURE_BLOCKS) {
+            throw new IllegalArgumentException("Cuboid covers more than " + MAX_CAPTURE_BLOCKS + " blocks");
+        }
+
+        List<ChunkSnapshot> snapshots = new ArrayList<>();
+        for (int chunkZ = region.getMinZ() >> 4; chunkZ <= region.getMaxZ() >> 4; chunkZ++) {
+            for (int chunkX = region.getMinX() >> 4; chunkX <= region.getMaxX() >> 4; chunkX++) {
+                // Heightmaps and biomes are not needed, so they are left out of the snapshot
+                snapshots.add(world.getChunkAt(chunkX, chunkZ).getChunkSnapshot(false, false, false));
+            }
+        }
+
+        // The offset of the region from the initial position, which is where its blocks are placed in the volume
+        int offsetX = region.getMinX() - (int) initialPosition.getX();
+        int offsetY = region.getMinY() - (int) initialPosition.getY();
+        int offsetZ = region.getMinZ() - (int) initialPosition.getZ();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        CompletableFuture<SchematicVolume> volumeFuture = CompletableFuture.supplyAsync(() -> {
+            SchematicVolume volume = new SchematicVolume();
+            volume.reserve(offsetX, offsetY, offsetZ, offsetX + region.getSizeX() - 1,
+                    offsetY + region.getSizeY() - 1, offsetZ + region.getSizeZ() - 1);
+            return volume;
+        }, pool);
+        // Chunks are read in parallel, but merged one at a time in the order of the snapshots, so that each chunk is
+        // released once it is merged and the palette is the same for every capture of the same blocks
+        for (ChunkSnapshot snapshot : snapshots) {
+            CompletableFuture<ChunkCapture> chunkRead = CompletableFuture.supplyAsync(
+                    () -> readChunk(snapshot, region, policy), pool);
+            volumeFuture = volumeFuture.thenCombine(chunkRead, (volume, chunkCapture) -> {
+                chunkCapture.mergeInto(volume, world, offsetX - region.getMinX(), offsetY - region.getMinY(),
+                        offsetZ - region.getMinZ());
+                return volume;
+            });
+        }
+        return volumeFuture
+                .thenApply(volume -> {
+                    if (policy.isFiltering()) {
+                        volume.trim(); // The blocks which were left out may have left much of the reserved grid empty
+                    }
+                    return new Schematic(id, initialPosition, volume);
+                })
+                .whenComplete((schematic, error) -> pool.shutdown());
+    }
+
+    private @NotNull ChunkCapture readChunk(@NotNull ChunkSnapshot snapshot,
+                                            @NotNull BlockCuboid region,
+                                            @NotNull CapturePolicy policy) {
+        int chunkMinX = snapshot.getX() << 4, chunkMinZ = snapshot.getZ() << 4;
+        int fromX = Math.max(region.getMinX(), chunkMinX), toX = Math.min(region.getMaxX(), chunkMinX + 15);
+        int fromZ = Math.max(region.getMinZ(), chunkMinZ), toZ = Math.min(region.getMaxZ(), chunkMinZ + 15);
+        ChunkCapture chunkCapture = new ChunkCapture(fromX, region.getMinY(), fromZ,
+                toX - fromX + 1, region.getSizeY(), toZ - fromZ + 1);
+        int index = 0;
+        for (int y = region.getMinY(); y <= region.getMaxY(); y++) {
+            for (int z = fromZ; z <= toZ; z++) {
+                for (int x = fromX; x <= toX; x++) {
+                    Material material = policy.capture(snapshot, x & 15, y, z & 15);
+                    if (material != null) {
+                        chunkCapture.set(index, material);
+                    }
+                    index++;
+                }
+            }
+        }
+        return chunkCapture;
+    }
+
+    /**
+     * The blocks captured from the part of the region inside one chunk, as indexes into a palette of only the materials
+     * found in that chunk, so that each block takes only a few bits until the chunk is merged.
+     */
+    private static class ChunkCapture {
+
+        private final int minX;
+        private final int minY;
+        private final int minZ;
+        private final int sizeX;
+        private final int sizeY;
+        private final int sizeZ;
+        // Index 0 marks a block which was not captured, so each material is stored as its index in this list plus 1
+        private final List<Material> materials = new ArrayList<>();
+        private final Map<Material, Integer> materialIndexes = new EnumMap<>(Material.class);
+        private final PackedIntArray blocks;
+
+        private ChunkCapture(int minX, int minY, int minZ, int sizeX, int sizeY, int sizeZ) {
+            this.minX = minX;
+            this.minY = minY;
+            this.minZ = minZ;
+            this.sizeX = sizeX;
+            this.sizeY = sizeY;
+            this.sizeZ = sizeZ;
+            this.blocks = new PackedIntArray(sizeX * sizeY * sizeZ, 1);
+        }
+
+        private void set(int index, @NotNull Material material) {
+            Integer materialIndex = materialIndexes.get(material);
+            if (materialIndex == null) {
+                materials.add(material);
+                materialIndex = materials.size();
+                materialIndexes.put(material, materialIndex);
+            }
+            blocks.set(index, materialIndex);
+        }
+
+        /**
+         * Adds the captured blocks to a volume.
+         *
+         * @param volume  the volume to add the blocks to
+         * @param world   the world of the blocks
+         * @param offsetX the offset added to the x-coordinate of each block to find its position in the volume
+         * @param offsetY the offset added to the y-coordinate of each block to find its position in the volume
+         * @param offsetZ the offset added to the z-coordinate of each block to find its position in the volume
+         * @implNote Each material is looked up in the palette of the volume once, rather than once for each block.
+         */
+        private void mergeInto(@NotNull SchematicVolume volume, @NotNull World world,
+                               int offsetX, int offsetY, int offsetZ) {
+            int[] paletteIndexes = new int[materials.size() + 1];
+            for (int materialIndex = 0; materialIndex < materials.size(); materialIndex++) {
+                paletteIndexes[materialIndex + 1] = volume.getPalette().getOrAdd(
+                        new BlockModification(world, materials.get(materialIndex)), BlockModification.BLUEPRINT_JSON);
+            }
+
+            int index = 0;
+            for (int y = minY + offsetY; y < minY + offsetY + sizeY; y++) {
+                for (int z = minZ + offsetZ; z < minZ + offsetZ + sizeZ; z++) {
+                    for (int x = minX + offsetX; x < minX + offsetX + sizeX; x++) {
+                        int materialIndex = blocks.get(index++);
+                        if (materialIndex == ModificationPalette.EMPTY) {
+                            continue;
+                        }
+
+                        int paletteIndex = paletteIndexes[materialIndex];
+                        if (!volume.add(paletteIndex, x, y, z)) {
+                            volume.add(volume.getPalette().get(paletteIndex), new Vector(x, y, z),
+                                    BlockModification.BLUEPRINT_JSON);
+                        }
+                    }
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,192 @@
+package net.harieo.schematics.paper.schematic;
+
+import com.google.common.collect.ImmutableList;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+import net.harieo.schematics.schematic.SchematicSummary;
+import net.harieo.schematics.serialization.impl.schematic.SchematicSummaryJsonBlueprint;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * An index of the schematic files in a directory, which holds a {@link SchematicSummary} of each file so that schematics
+ * can be listed and found without deserializing every file.
+ * <p>
+ * Each entry records the size and last modified time of its file when it was summarized. An entry is only trusted while
+ * its file still has the same size and last modified time, so a file which was edited outside the plugin is loaded again
+ * rather than described by a stale summary.
+ */
+public class SchematicManifest {
+
+    public static final int VERSION = 1;
+
+    private static final SchematicSummaryJsonBlueprint SUMMARY_JSON_BLUEPRINT = new SchematicSummaryJsonBlueprint();
+
+    // Keyed by file name, which is how the files of a directory are matched to their entries
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    /**
+     * Reads a manifest from a file.
+     *
+     * @param manifestFile the manifest file
+     * @return the manifest, which is empty if the file does not exist
+     * @throws IOException        if the file cannot be read
+     * @throws JsonParseException if the file is not a valid manifest
+     */
+    public static @NotNull SchematicManifest read(@NotNull File manifestFile) throws IOException {
+        SchematicManifest manifest = new SchematicManifest();
+        if (!manifestFile.isFile()) {
+            return manifest;
+        }
+
+        JsonElement rawElement;
+        try (Reader reader = Files.newBufferedReader(manifestFile.toPath(), StandardCharsets.UTF_8)) {
+            rawElement = JsonParser.parseReader(reader);
+        }
+        if (!rawElement.isJsonObject()) {
+            throw new JsonParseException("Unable to deserialize a manifest JSON object in " + manifestFile.getName());
+        }
+
+        JsonObject serializedManifest = rawElement.getAsJsonObject();
+        if (!serializedManifest.has("version") || serializedManifest.get("version").getAsInt() != VERSION) {
+            return manifest; // An unknown version is treated as no manifest, so that every file is loaded again
+        }
+
+        for (JsonElement serializedEntry : serializedManifest.getAsJsonArray("schematics")) {
+            JsonObject entryObject = serializedEntry.getAsJsonObject();
+            JsonObject serializedSummary = entryObject.getAsJsonObject("summary");
+            if (serializedSummary == null || !SUMMARY_JSON_BLUEPRINT.getDeserializer().isValidObject(serializedSummary)) {
+                continue;
+            }
+
+            manifest.putEntry(new Entry(
+                    entryObject.get("file").getAsString(),
+                    entryObject.get("size").getAsLong(),
+                    entryObject.get("last-modified").getAsLong(),
+                    SUMMARY_JSON_BLUEPRINT.deserialize(serializedSummary)
+            ));
+        }
+        return manifest;
+    }
+
+    /**
+     * Writes this manifest to a file, replacing the file only once it has been fully written.
+     *
+     * @param manifestFile the manifest file
+     * @param indent       the indent for the JSON, which is empty to write it without whitespace
+     * @throws IOException if the file cannot be written
+     */
+    public void write(@NotNull File manifestFile, @NotNull String indent) throws IOException {
+        JsonArray serializedEntries = new JsonArray();
+        for (Entry entry : entries.values()) {
+            JsonObject entryObject = new JsonObject();
+            entryObject.addProperty("file", entry.fileName());
+            entryObject.addProperty("size", entry.size());
+            entryObject.addProperty("last-modified", entry.lastModified());
+            entryObject.add("summary", SUMMARY_JSON_BLUEPRINT.serialize(entry.summary()));
+            serializedEntries.add(entryObject);
+        }
+
+        JsonObject serializedManifest = new JsonObject();
+        serializedManifest.addProperty("version", VERSION);
+        serializedManifest.add("schematics", serializedEntries);
+
+        File temporaryFile = new File(manifestFile.getParentFile(),
+                manifestFile.getName() + SchematicStorage.TEMPORARY_FILE_SUFFIX);
+        try {
+            try (JsonWriter writer = new JsonWriter(
+                    Files.newBufferedWriter(temporaryFile.toPath(), StandardCharsets.UTF_8))) {
+                writer.setIndent(indent);
+                new Gson().toJson(serializedManifest, writer);
+            }
+            Files.move(temporaryFile.toPath(), manifestFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporaryFile.toPath());
+            throw e;
+        }
+    }
+
+    /**
+     * Finds the entry for a file, if the file has not changed since the entry was created.
+     *
+     * @param file the schematic file
+     * @return optionally the entry for the file
+     */
+    public Optional<Entry> getCurrentEntry(@NotNull File file) {
+        return Optional.ofNullable(entries.get(file.getName())).filter(entry -> entry.isCurrent(file));
+    }
+
+    /**
+     * @return an immutable list of all entries, in the order they were added
+     */
+    public @Unmodifiable List<Entry> getEntries() {
+        return ImmutableList.copyOf(entries.values());
+    }
+
+    /**
+     * Adds an entry, replacing any entry for the same file name.
+     *
+     * @param entry the entry to add
+     */
+    public void putEntry(@NotNull Entry entry) {
+        entries.put(entry.fileName(), entry);
+    }
+
+    /**
+     * Removes the entries for any file which is not a file in the provided directory.
+     *
+     * @param directory the directory of the schematic files
+     * @return whether any entries were removed
+     */
+    public boolean removeMissingEntries(@NotNull File directory) {
+        return entries.keySet().removeIf(fileName -> !new File(directory, fileName).isFile());
+    }
+
+    /**
+     * An entry of the manifest, describing a single schematic file.
+     *
+     * @param fileName     the name of the schematic file
+     * @param size         the size of the file in bytes when it was summarized
+     * @param lastModified the last modified time of the file when it was summarized
+     * @param summary      the summary of the schematic in the file
+     */
+    public record Entry(@NotNull String fileName, long size, long lastModified, @NotNull SchematicSummary summary) {
+
+        /**
+         * Creates an entry from the current size and last modified time of a file.
+         *
+         * @param file    the schematic file
+         * @param summary the summary of the schematic in the file
+         * @return the entry for the file
+         */
+        public static @NotNull Entry of(@NotNull File file, @NotNull SchematicSummary summary) {
+            return new Entry(file.getName(), file.length(), file.lastModified(), summary);
+        }
+
+        /**
+         * @param file the schematic file
+         * @return whether the file still has the size and last modified time recorded in this entry
+         */
+        public boolean isCurrent(@NotNull File file) {
+            return file.isFile() && file.length() == size && file.lastModified() == lastModified;
+        }
+
+    }
+
+}
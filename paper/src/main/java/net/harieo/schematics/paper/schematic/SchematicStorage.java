@@ -1,26 +1,59 @@
 package net.harieo.schematics.paper.schematic;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
 import com.google.gson.*;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import net.harieo.schematics.file.AtomicFiles;
+import net.harieo.schematics.file.CoalescingWriteQueue;
+import net.harieo.schematics.file.ParallelFileLoader;
 import net.harieo.schematics.paper.modification.registry.BukkitJsonBlueprintRegistry;
 import net.harieo.schematics.paper.position.BukkitCoordinate;
 import net.harieo.schematics.paper.position.BukkitJsonCoordinateBlueprint;
 import net.harieo.schematics.schematic.Schematic;
+import net.harieo.schematics.schematic.SchematicSummary;
 import net.harieo.schematics.serialization.Blueprint;
+import net.harieo.schematics.serialization.StreamDeserializer;
+import net.harieo.schematics.serialization.StreamSerializer;
+import net.harieo.schematics.serialization.impl.schematic.SchematicBinaryDeserializer;
+import net.harieo.schematics.serialization.impl.schematic.SchematicBinarySerializer;
 import net.harieo.schematics.serialization.impl.schematic.SchematicJsonDeserializer;
 import net.harieo.schematics.serialization.impl.schematic.SchematicJsonSerializer;
+import net.harieo.schematics.serialization.impl.schematic.SchematicJsonStreamDeserializer;
+import net.harieo.schematics.serialization.impl.schematic.SchematicJsonStreamSerializer;
 import org.bukkit.plugin.Plugin;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Unmodifiable;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.NotDirectoryException;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * A handler for reading and writing schematic files in storage.
@@ -29,16 +62,44 @@ public class SchematicStorage {
 
     // Static constants
     public static String DEFAULT_SUBDIRECTORY_NAME = "schematics";
+    public static final String JSON_FILE_EXTENSION = ".json";
+    public static final String BINARY_FILE_EXTENSION = ".ssch";
+    // Appended to a filename while it is being written, so that a failed save leaves the previous file intact
+    public static final String TEMPORARY_FILE_SUFFIX = ".tmp";
+    public static String PRETTY_PRINT_INDENT = "  ";
+    // Lists a summary of each schematic file in a directory, named so that it is never read as a schematic file
+    public static String MANIFEST_FILE_NAME = "schematics.manifest";
+    // Hashes the content of saved files, so that a schematic which was changed back is not written again
+    public static final String CONTENT_HASH_ALGORITHM = "SHA-256";
     // Generates filenames as: <schematic id>.json
     public static Function<Schematic, String> DEFAULT_FILENAME_GENERATOR = schematic -> schematic.getId()
-            .orElseThrow(() -> new IllegalStateException("Schematic must have id to be saved")) + ".json";
+            .orElseThrow(() -> new IllegalStateException("Schematic must have id to be saved")) + JSON_FILE_EXTENSION;
+    // Generates filenames as: <schematic id>.ssch, which are saved in the binary format
+    public static Function<Schematic, String> BINARY_FILENAME_GENERATOR = schematic -> schematic.getId()
+            .orElseThrow(() -> new IllegalStateException("Schematic must have id to be saved")) + BINARY_FILE_EXTENSION;
 
     // Fields for file management
     private final Blueprint<Schematic, JsonObject> schematicJsonBlueprint;
-    private final Gson gson = new GsonBuilder().setPrettyPrinting().create(); // For file writing in pretty format
+    private final @Nullable Blueprint<Schematic, ByteBuffer> schematicBinaryBlueprint;
+    private final @Nullable StreamDeserializer<Schematic, JsonReader> schematicJsonStreamDeserializer;
+    private final @Nullable StreamSerializer<Schematic, JsonWriter> schematicJsonStreamSerializer;
+    private final Gson gson = new Gson(); // For writing trees to a JsonWriter, which decides the format
+    private boolean prettyPrint = true;
+    private ParallelFileLoader fileLoader = new ParallelFileLoader();
+    // Saves are coalesced by the directory they are saved to
+    private final CoalescingWriteQueue<File, Boolean> writeQueue = new CoalescingWriteQueue<>("schematic");
+    private final Object writeLock = new Object(); // Held while any save is written
 
-    // Cache
-    private final Set<Schematic> schematics = new HashSet<>();
+    // Cache, where schematics with an id are keyed by it so that they can be found without a scan
+    private final Map<String, Schematic> schematicsById = new ConcurrentHashMap<>();
+    private final Set<Schematic> unnamedSchematics = ConcurrentHashMap.newKeySet();
+    // Schematics listed in a manifest which have not been deserialized yet, keyed by id
+    private final Map<String, UnloadedSchematic> unloadedSchematics = new ConcurrentHashMap<>();
+    // Sorted ids of all schematics for command completions, which is cleared when a schematic is added or removed
+    private volatile @Nullable List<String> sortedSchematicIds;
+    // What each schematic file held when it was last loaded or saved, keyed by the absolute path of the file
+    private final Map<Path, SavedState> savedStates = new ConcurrentHashMap<>();
+    private @Nullable Logger logger; // Set when loading, to report schematics which fail to load on first access
 
     /**
      * Constructs this storage instance with a {@link Blueprint} of {@link Schematic} to permit serialization and deserialization
@@ -47,13 +108,67 @@ public class SchematicStorage {
      * @param schematicJsonBlueprint for serializing and deserializing schematics
      */
     public SchematicStorage(@NotNull Blueprint<Schematic, JsonObject> schematicJsonBlueprint) {
+        this(schematicJsonBlueprint, null);
+    }
+
+    /**
+     * Constructs this storage instance with a {@link Blueprint} of {@link Schematic} for JSON files and an optional
+     * {@link Blueprint} for binary files, which are identified by the {@link #BINARY_FILE_EXTENSION}.
+     *
+     * @param schematicJsonBlueprint   for serializing and deserializing schematics as JSON
+     * @param schematicBinaryBlueprint for serializing and deserializing schematics as binary, or null to only support JSON
+     */
+    public SchematicStorage(@NotNull Blueprint<Schematic, JsonObject> schematicJsonBlueprint,
+                            @Nullable Blueprint<Schematic, ByteBuffer> schematicBinaryBlueprint) {
+        this(schematicJsonBlueprint, schematicBinaryBlueprint, null);
+    }
+
+    /**
+     * Constructs this storage instance with a {@link Blueprint} of {@link Schematic} for JSON files, an optional
+     * {@link Blueprint} for binary files and an optional {@link StreamDeserializer} for reading JSON files without
+     * parsing the whole file into memory first.
+     *
+     * @param schematicJsonBlueprint          for serializing and deserializing schematics as JSON
+     * @param schematicBinaryBlueprint        for serializing and deserializing schematics as binary, or null to only
+     *                                        support JSON
+     * @param schematicJsonStreamDeserializer for reading JSON files as a stream, or null to read them with the
+     *                                        deserializer of the JSON blueprint
+     */
+    public SchematicStorage(@NotNull Blueprint<Schematic, JsonObject> schematicJsonBlueprint,
+                            @Nullable Blueprint<Schematic, ByteBuffer> schematicBinaryBlueprint,
+                            @Nullable StreamDeserializer<Schematic, JsonReader> schematicJsonStreamDeserializer) {
+        this(schematicJsonBlueprint, schematicBinaryBlueprint, schematicJsonStreamDeserializer, null);
+    }
+
+    /**
+     * Constructs this storage instance with a {@link Blueprint} of {@link Schematic} for JSON files, an optional
+     * {@link Blueprint} for binary files and an optional {@link StreamDeserializer} and {@link StreamSerializer} for
+     * reading and writing JSON files without holding the whole file in memory.
+     *
+     * @param schematicJsonBlueprint          for serializing and deserializing schematics as JSON
+     * @param schematicBinaryBlueprint        for serializing and deserializing schematics as binary, or null to only
+     *                                        support JSON
+     * @param schematicJsonStreamDeserializer for reading JSON files as a stream, or null to read them with the
+     *                                        deserializer of the JSON blueprint
+     * @param schematicJsonStreamSerializer   for writing JSON files as a stream, or null to write them with the
+     *                                        serializer of the JSON blueprint
+     */
+    public SchematicStorage(@NotNull Blueprint<Schematic, JsonObject> schematicJsonBlueprint,
+                            @Nullable Blueprint<Schematic, ByteBuffer> schematicBinaryBlueprint,
+                            @Nullable StreamDeserializer<Schematic, JsonReader> schematicJsonStreamDeserializer,
+                            @Nullable StreamSerializer<Schematic, JsonWriter> schematicJsonStreamSerializer) {
         this.schematicJsonBlueprint = schematicJsonBlueprint;
+        this.schematicBinaryBlueprint = schematicBinaryBlueprint;
+        this.schematicJsonStreamDeserializer = schematicJsonStreamDeserializer;
+        this.schematicJsonStreamSerializer = schematicJsonStreamSerializer;
     }
 
     /**
      * Constructs this storage instance with a pair of default {@link SchematicJsonSerializer} and
      * {@link SchematicJsonDeserializer} instances based on {@link BukkitCoordinate} with the default serializer and deserializer from
-     * {@link BukkitJsonCoordinateBlueprint} as arguments.
+     * {@link BukkitJsonCoordinateBlueprint} as arguments. A matching {@link SchematicBinarySerializer} and
+     * {@link SchematicBinaryDeserializer} pair is created for binary files, and a {@link SchematicJsonStreamDeserializer}
+     * and {@link SchematicJsonStreamSerializer} pair for loading and saving JSON files.
      *
      * @param bukkitJsonBlueprintRegistry the blueprint registry for modifications
      */
@@ -66,20 +181,43 @@ public class SchematicStorage {
         bukkitJsonBlueprintRegistry.getBlueprints().forEach(schematicJsonDeserializer::addModificationBlueprint);
         // A serializer is created by default in the blueprint, so we do not need to create one for this constructor
         this.schematicJsonBlueprint = new Blueprint<>(schematicJsonSerializer, schematicJsonDeserializer);
+
+        SchematicBinaryDeserializer<BukkitCoordinate> schematicBinaryDeserializer = new SchematicBinaryDeserializer<>
+                (bukkitJsonCoordinateBlueprint.getDeserializer());
+        bukkitJsonBlueprintRegistry.getBlueprints().forEach(schematicBinaryDeserializer::addModificationBlueprint);
+        this.schematicBinaryBlueprint = new Blueprint<>(
+                new SchematicBinarySerializer<>(bukkitJsonCoordinateBlueprint.getSerializer()),
+                schematicBinaryDeserializer
+        );
+
+        SchematicJsonStreamDeserializer<BukkitCoordinate> schematicJsonStreamDeserializer =
+                new SchematicJsonStreamDeserializer<>(bukkitJsonCoordinateBlueprint.getDeserializer());
+        bukkitJsonBlueprintRegistry.getBlueprints().forEach(schematicJsonStreamDeserializer::addModificationBlueprint);
+        this.schematicJsonStreamDeserializer = schematicJsonStreamDeserializer;
+        this.schematicJsonStreamSerializer = new SchematicJsonStreamSerializer<>(bukkitJsonCoordinateBlueprint.getSerializer());
     }
 
     /**
-     * Loads all schematic files located in a subdirectory of the plugin directory.
+     * Loads all schematic files located in a subdirectory of the plugin directory. Files ending with
+     * {@link #BINARY_FILE_EXTENSION} are read in the binary format and all other files are read as JSON, as a stream
+     * if a {@link StreamDeserializer} is available.
+     * <p>
+     * Files which are described by the {@link SchematicManifest} of the subdirectory and have not changed since are not
+     * deserialized here, but when they are first requested by {@link #getSchematic(String)}.
      *
      * @param plugin           the plugin managing the schematic files
      * @param subDirectoryName the name of the subdirectory where files are stored
      * @param filenameFilter   an optional {@link FilenameFilter} to filter files within the subdirectory
      * @throws IOException           if the subdirectory does not exist and cannot be created
      * @throws NotDirectoryException if the provided subdirectory is not a directory
+     * @implNote Files are read and deserialized in parallel by the {@link ParallelFileLoader} of this storage. A file
+     * which cannot be loaded is logged and skipped, rather than stopping the remaining files from loading. If any file
+     * had to be deserialized, the manifest is updated so that it can be skipped on the next load.
      */
     public void load(@NotNull Plugin plugin, @NotNull String subDirectoryName, @Nullable FilenameFilter filenameFilter)
             throws IOException {
         plugin.getLogger().info("Loading schematics from subdirectory " + subDirectoryName + "...");
+        this.logger = plugin.getLogger();
         File schematicDirectory = new File(plugin.getDataFolder(), subDirectoryName);
         if (!schematicDirectory.exists()) {
             if (schematicDirectory.mkdir()) {
@@ -97,24 +235,139 @@ public class SchematicStorage {
             return; // Nothing to read
         }
 
+        File manifestFile = new File(schematicDirectory, MANIFEST_FILE_NAME);
+        SchematicManifest manifest = readManifest(plugin, manifestFile);
+        boolean manifestChanged = manifest.removeMissingEntries(schematicDirectory);
+
+        List<File> filesToLoad = new ArrayList<>();
+        int indexed = 0;
         for (File schematicFile : schematicFiles) {
-            if (!schematicFile.isFile()) {
+            // Temporary files are left over from a failed save
+            if (!schematicFile.isFile() || schematicFile.getName().endsWith(TEMPORARY_FILE_SUFFIX)
+                    || schematicFile.getName().equals(MANIFEST_FILE_NAME)) {
                 continue;
             }
 
-            try (FileReader reader = new FileReader(schematicFile)) {
-                JsonElement schematicRawElement = JsonParser.parseReader(reader);
-                if (schematicRawElement.isJsonObject()) {
-                    JsonObject serializedSchematic = schematicRawElement.getAsJsonObject();
-                    schematics.add(schematicJsonBlueprint.deserialize(serializedSchematic));
-                } else {
-                    plugin.getLogger().warning("Unable to deserialize a schematic JSON object in "
-                            + schematicFile.getName());
+            // A schematic can only be loaded later if it can be found by its id, which must not already be taken
+            SchematicManifest.Entry entry = manifest.getCurrentEntry(schematicFile).orElse(null);
+            String indexedId = entry != null ? entry.summary().getId().orElse(null) : null;
+            if (indexedId == null) {
+                filesToLoad.add(schematicFile);
+            } else if (isIdTakenByOtherFile(indexedId, schematicFile)) {
+                warnDuplicateId(plugin, schematicFile, indexedId);
+            } else if (!schematicsById.containsKey(indexedId)) { // Otherwise already loaded from this file
+                unloadedSchematics.put(indexedId, new UnloadedSchematic(schematicFile, entry.summary()));
+                indexed++;
+            }
+        }
+
+        // Files are loaded in parallel, but added to the cache in the order of their names
+        int loaded = 0;
+        for (ParallelFileLoader.Result<Schematic> result : fileLoader.load(filesToLoad, this::deserializeFile)) {
+            if (result.isSuccess()) {
+                String id = result.value().getId().orElse(null);
+                if (id != null && isIdTakenByOtherFile(id, result.file())) {
+                    warnDuplicateId(plugin, result.file(), id);
+                    continue;
+                } else if (id != null) {
+                    unloadedSchematics.remove(id); // Listed from this file before, and now loaded from it instead
                 }
+
+                SchematicSummary summary = SchematicSummary.of(result.value());
+                cacheSchematic(result.value());
+                recordLoaded(result.file(), result.value(), summary);
+                manifest.putEntry(SchematicManifest.Entry.of(result.file(), summary));
+                manifestChanged = true;
+                loaded++;
+            } else {
+                plugin.getLogger().log(Level.WARNING, "Unable to load schematic file " + result.file().getName(),
+                        result.error());
             }
         }
 
-        plugin.getLogger().info("Loaded " + schematics.size() + " schematics from file successfully.");
+        sortedSchematicIds = null;
+        if (manifestChanged) {
+            writeManifest(plugin, manifest, manifestFile);
+        }
+
+        plugin.getLogger().info("Indexed " + indexed + " schematic files from the manifest and loaded " + loaded
+                + " of " + filesToLoad.size() + " other schematic files successfully.");
+    }
+
+    /**
+     * Checks whether a schematic id is already used by a schematic, loaded or not, which came from a different file
+     * or from no file at all, so that loading the same directory again does not count its own schematics.
+     *
+     * @param schematicId   the id of the schematic in the file
+     * @param schematicFile the file being loaded
+     * @return whether the id is taken by another schematic
+     */
+    private boolean isIdTakenByOtherFile(@NotNull String schematicId, @NotNull File schematicFile) {
+        Path stateKey = toStateKey(schematicFile);
+        UnloadedSchematic unloadedSchematic = unloadedSchematics.get(schematicId);
+        if (unloadedSchematic != null) {
+            return !toStateKey(unloadedSchematic.file()).equals(stateKey);
+        }
+
+        Schematic loadedSchematic = schematicsById.get(schematicId);
+        if (loadedSchematic == null) {
+            return false;
+        }
+        SavedState savedState = savedStates.get(stateKey);
+        return savedState == null || savedState.schematic() != loadedSchematic;
+    }
+
+    private static void warnDuplicateId(@NotNull Plugin plugin, @NotNull File schematicFile, @NotNull String id) {
+        plugin.getLogger().warning("Skipped schematic file " + schematicFile.getName() + ", as another schematic "
+                + "already has its id " + id);
+    }
+
+    private static SchematicManifest readManifest(@NotNull Plugin plugin, @NotNull File manifestFile) {
+        try {
+            return SchematicManifest.read(manifestFile);
+        } catch (IOException | RuntimeException e) {
+            // The manifest can always be rebuilt from the schematic files, so it is not worth failing over
+            plugin.getLogger().log(Level.WARNING, "Unable to read schematic manifest, so all schematics will be loaded", e);
+            return new SchematicManifest();
+        }
+    }
+
+    private void writeManifest(@NotNull Plugin plugin, @NotNull SchematicManifest manifest, @NotNull File manifestFile) {
+        try {
+            manifest.write(manifestFile, prettyPrint ? PRETTY_PRINT_INDENT : "");
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Unable to write schematic manifest", e);
+        }
+    }
+
+    private Schematic deserializeFile(@NotNull File schematicFile, byte[] contents) throws IOException {
+        if (isBinaryFile(schematicFile.getName())) {
+            if (schematicBinaryBlueprint == null) {
+                throw new IOException("No binary deserializer available to read " + schematicFile.getName());
+            }
+
+            ByteBuffer serializedSchematic = ByteBuffer.wrap(contents);
+            if (!schematicBinaryBlueprint.getDeserializer().isValidObject(serializedSchematic)) {
+                throw new IOException("Unable to deserialize a binary schematic in " + schematicFile.getName());
+            }
+            return schematicBinaryBlueprint.deserialize(serializedSchematic);
+        }
+
+        Reader contentReader = new InputStreamReader(new ByteArrayInputStream(contents), StandardCharsets.UTF_8);
+        if (schematicJsonStreamDeserializer != null) {
+            try (JsonReader reader = new JsonReader(contentReader)) {
+                if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                    throw new JsonParseException("Unable to deserialize a schematic JSON object in " + schematicFile.getName());
+                }
+                return schematicJsonStreamDeserializer.deserialize(reader);
+            }
+        }
+
+        JsonElement schematicRawElement = JsonParser.parseReader(contentReader);
+        if (!schematicRawElement.isJsonObject()) {
+            throw new JsonParseException("Unable to deserialize a schematic JSON object in " + schematicFile.getName());
+        }
+        return schematicJsonBlueprint.deserialize(schematicRawElement.getAsJsonObject());
     }
 
     /**
@@ -148,31 +401,170 @@ public class SchematicStorage {
     }
 
     /**
-     * @return an immutable set of all cached schematics
+     * @return optionally the schematic blueprint for serializing and deserializing schematics in the binary format
+     */
+    public Optional<Blueprint<Schematic, ByteBuffer>> getSchematicBinaryBlueprint() {
+        return Optional.ofNullable(schematicBinaryBlueprint);
+    }
+
+    /**
+     * @return optionally the serializer for writing JSON files as a stream
+     */
+    public Optional<StreamSerializer<Schematic, JsonWriter>> getSchematicJsonStreamSerializer() {
+        return Optional.ofNullable(schematicJsonStreamSerializer);
+    }
+
+    /**
+     * @return the loader used to read and deserialize schematic files in parallel
+     */
+    public ParallelFileLoader getFileLoader() {
+        return fileLoader;
+    }
+
+    /**
+     * Sets the loader used to read and deserialize schematic files in parallel, which controls how many threads are
+     * used when loading.
+     *
+     * @param fileLoader the loader to use
+     */
+    public void setFileLoader(@NotNull ParallelFileLoader fileLoader) {
+        this.fileLoader = fileLoader;
+    }
+
+    /**
+     * @return whether JSON files are saved in an indented, human-readable format
+     */
+    public boolean isPrettyPrint() {
+        return prettyPrint;
+    }
+
+    /**
+     * Sets whether JSON files are saved in an indented, human-readable format, which is the default, or in a compact
+     * format without whitespace.
+     *
+     * @param prettyPrint whether to indent saved JSON files
+     */
+    public void setPrettyPrint(boolean prettyPrint) {
+        this.prettyPrint = prettyPrint;
+    }
+
+    /**
+     * Loads every schematic which has not been loaded yet, then returns every schematic.
+     *
+     * @return an immutable set of all schematics
+     * @apiNote <b>This reads and deserializes the file of every schematic which has not been loaded yet on the calling
+     * thread, which undoes the lazy loading of the manifest and can stall the server for a large collection.</b>
+     * {@link #getLoadedSchematics()}, {@link #getSchematicIds()} or {@link #getSummaries()} should be used instead
+     * wherever every schematic itself is not required.
      */
     public @Unmodifiable Set<Schematic> getSchematics() {
-        return ImmutableSet.copyOf(schematics);
+        for (String schematicId : ImmutableSet.copyOf(unloadedSchematics.keySet())) {
+            loadUnloadedSchematic(schematicId);
+        }
+        return getLoadedSchematics();
+    }
+
+    /**
+     * @return an immutable set of the schematics which have been loaded, without loading any others
+     */
+    public @Unmodifiable Set<Schematic> getLoadedSchematics() {
+        return ImmutableSet.<Schematic>builder()
+                .addAll(schematicsById.values())
+                .addAll(unnamedSchematics)
+                .build();
+    }
+
+    /**
+     * @return an immutable, sorted list of the id of every schematic, including those which have not been loaded yet
+     * @implNote The list is cached until a schematic is added or removed, so it is cheap to call for every command
+     * completion.
+     */
+    public @Unmodifiable List<String> getSchematicIds() {
+        List<String> schematicIds = sortedSchematicIds;
+        if (schematicIds == null) {
+            Set<String> ids = new HashSet<>(schematicsById.keySet());
+            ids.addAll(unloadedSchematics.keySet());
+            schematicIds = ImmutableList.sortedCopyOf(ids);
+            sortedSchematicIds = schematicIds;
+        }
+        return schematicIds;
     }
 
     /**
-     * Finds a {@link Schematic} from its unique identifier.
+     * Creates a {@link SchematicSummary} of every schematic without loading any schematics which have not been loaded
+     * yet, as those are described by the summary read from the manifest.
+     *
+     * @return an immutable list of the summary of every schematic
+     */
+    public @Unmodifiable List<SchematicSummary> getSummaries() {
+        ImmutableList.Builder<SchematicSummary> builder = ImmutableList.builder();
+        schematicsById.values().forEach(schematic -> builder.add(SchematicSummary.of(schematic)));
+        unnamedSchematics.forEach(schematic -> builder.add(SchematicSummary.of(schematic)));
+        unloadedSchematics.values().forEach(unloadedSchematic -> builder.add(unloadedSchematic.summary()));
+        return builder.build();
+    }
+
+    /**
+     * Finds a {@link Schematic} from its unique identifier, loading it from its file if it has not been loaded yet.
      *
      * @param schematicId the identifier for the schematic to be found
      * @return optionally the matching schematic, if present
+     * @apiNote A schematic which fails to load is logged and removed from this storage, so it will not be found.
      */
     public Optional<Schematic> getSchematic(@NotNull String schematicId) {
-        return getSchematics().stream()
-                .filter(schematic -> schematic.getId().map(id -> id.equals(schematicId)).orElse(false))
-                .findAny();
+        Schematic schematic = schematicsById.get(schematicId);
+        return schematic != null ? Optional.of(schematic) : loadUnloadedSchematic(schematicId);
+    }
+
+    // Synchronized so that a schematic requested by two threads at once is only loaded once
+    private synchronized Optional<Schematic> loadUnloadedSchematic(@NotNull String schematicId) {
+        UnloadedSchematic unloadedSchematic = unloadedSchematics.get(schematicId);
+        if (unloadedSchematic == null) {
+            return Optional.ofNullable(schematicsById.get(schematicId)); // May have been loaded while waiting
+        }
+
+        File schematicFile = unloadedSchematic.file();
+        try {
+            Schematic schematic = deserializeFile(schematicFile, Files.readAllBytes(schematicFile.toPath()));
+            // Cached under the requested id, which the schematic was listed under in the manifest
+            schematicsById.put(schematicId, schematic);
+            recordLoaded(schematicFile, schematic, unloadedSchematic.summary());
+            unloadedSchematics.remove(schematicId);
+            return Optional.of(schematic);
+        } catch (IOException | RuntimeException e) {
+            unloadedSchematics.remove(schematicId);
+            sortedSchematicIds = null;
+            if (logger != null) {
+                logger.log(Level.WARNING, "Unable to load schematic file " + schematicFile.getName(), e);
+            }
+            return Optional.empty();
+        }
+    }
+
+    private void recordLoaded(@NotNull File schematicFile,
+                              @NotNull Schematic schematic,
+                              @NotNull SchematicSummary summary) {
+        // No hash is known, which only means that the first save after a change cannot be compared with the file
+        savedStates.put(toStateKey(schematicFile), new SavedState(schematic, schematic.getRevision(), null, summary));
     }
 
     /**
-     * Adds a schematic to the cache, but does not save it to storage.
+     * Adds a schematic to the cache, but does not save it to storage. This replaces any schematic with the same id,
+     * including one which has not been loaded yet.
      *
      * @param schematic the schematic to cache
      */
     public void addSchematic(@NotNull Schematic schematic) {
-        schematics.add(schematic);
+        schematic.getId().ifPresent(unloadedSchematics::remove);
+        cacheSchematic(schematic);
+        sortedSchematicIds = null;
+    }
+
+    private void cacheSchematic(@NotNull Schematic schematic) {
+        schematic.getId().ifPresentOrElse(
+                id -> schematicsById.put(id, schematic),
+                () -> unnamedSchematics.add(schematic)
+        );
     }
 
     /**
@@ -181,11 +573,17 @@ public class SchematicStorage {
      * @param schematic the schematic to remove from the cache
      */
     public void removeSchematic(@NotNull Schematic schematic) {
-        schematics.remove(schematic);
+        schematic.getId().ifPresentOrElse(
+                id -> schematicsById.remove(id, schematic),
+                () -> unnamedSchematics.remove(schematic)
+        );
+        savedStates.values().removeIf(savedState -> savedState.schematic() == schematic);
+        sortedSchematicIds = null;
     }
 
     /**
-     * Saves all schematics cached in this instance.
+     * Saves all schematics cached in this instance. Schematics whose generated filename ends with
+     * {@link #BINARY_FILE_EXTENSION} are saved in the binary format and all others are saved as JSON.
      *
      * @param plugin                     the plugin managing the schematic files
      * @param subDirectoryName           the subdirectory of the plugin directory where schematics files should be saved
@@ -194,47 +592,165 @@ public class SchematicStorage {
      * @return true if all schematics were successfully saved, or false if one or more schematics could not be saved.
      * @throws IOException                if the subdirectory does not exist and cannot be created
      * @throws NotDirectoryException      if the subdirectory specified is not a directory
-     * @throws FileAlreadyExistsException if overwriting is permitted but a file cannot be overwritten due to an error
+     * @throws FileAlreadyExistsException if overwriting is permitted but a file of the other format cannot be removed
+     * @throws IllegalStateException      if a binary filename is generated but this storage has no binary blueprint
      * @apiNote If this method returns false, it will be because overwriting was not permitted and a file with the name
-     * already exists.
+     * already exists. When overwriting, a file of the same schematic in the other format is deleted so that the
+     * schematic is not loaded twice. Schematics which have not been loaded yet are unchanged, so they are not saved.
+     * @implNote A schematic is skipped without being serialized if its {@link Schematic#getRevision()} has not changed
+     * since it was loaded from or saved to the same file. Otherwise, it is written to a temporary file while its
+     * content is hashed, and the temporary file atomically replaces the existing file unless the hash shows the
+     * content is the same as what was last saved. A schematic which fails to serialize therefore never removes the
+     * existing file. JSON is written as a stream if a {@link StreamSerializer} is available. The
+     * {@link SchematicManifest} of the subdirectory is updated with each written schematic. Only one save of this
+     * storage writes at a time, so this waits for an asynchronous save which is being written to finish first.
      */
     public boolean saveAll(@NotNull Plugin plugin,
                            @NotNull String subDirectoryName,
                            @NotNull Function<Schematic, String> fileNameGenerationFunction,
                            boolean overwrite) throws IOException {
         File schematicDirectory = new File(plugin.getDataFolder(), subDirectoryName);
-        if (!schematicDirectory.exists() && !schematicDirectory.mkdir()) {
-            throw new IOException("Failed to create schematics directory");
-        } else if (!schematicDirectory.isDirectory()) {
-            throw new NotDirectoryException(schematicDirectory.getAbsolutePath() + " is not a directory");
-        }
+        List<PendingSave> saves = collectSaves(schematicDirectory, fileNameGenerationFunction, false);
+        return writeSaves(plugin, schematicDirectory, saves, overwrite);
+    }
 
-        boolean allSchematicsSaved = true;
-        for (Schematic schematic : schematics) { // Using for loop to include exceptions in 'throws' clause
-            // Load the serialized json first so that any exceptions occur before file deletion
-            String serializedSchematicJson = gson.toJson(schematicJsonBlueprint.serialize(schematic));
+    /**
+     * Saves all schematics cached in this instance as {@link #saveAll(Plugin, String, Function, boolean)} does, but
+     * without waiting for the schematics to be written. Each changed schematic is copied before this method returns,
+     * then the copies are serialized and written on the writer thread of this storage.
+     *
+     * @param plugin                     the plugin managing the schematic files
+     * @param subDirectoryName           the subdirectory of the plugin directory where schematics files should be saved
+     * @param fileNameGenerationFunction a function to generate the name of the file for each schematic
+     * @param overwrite                  whether to overwrite existing files with the same name of a schematic
+     * @return a future completed with the result described by {@link #saveAll(Plugin, String, Function, boolean)}, or
+     * exceptionally with any {@link IOException} it would throw
+     * @throws IllegalStateException if a binary filename is generated but this storage has no binary blueprint
+     * @apiNote If a save of the same subdirectory is still waiting to be written, it is replaced by this save and both
+     * futures are completed with the result of this save. Once {@link #shutdownWriter(long, TimeUnit)} has been called,
+     * the future is completed exceptionally.
+     * @implNote Only the palette and grid of each changed schematic are copied, as the modifications themselves are
+     * shared, so the copy is cheap compared to serializing the schematic.
+     */
+    public CompletableFuture<Boolean> saveAllAsync(@NotNull Plugin plugin,
+                                                   @NotNull String subDirectoryName,
+                                                   @NotNull Function<Schematic, String> fileNameGenerationFunction,
+                                                   boolean overwrite) {
+        File schematicDirectory = new File(plugin.getDataFolder(), subDirectoryName);
+        List<PendingSave> saves = collectSaves(schematicDirectory, fileNameGenerationFunction, true);
+        return writeQueue.submit(schematicDirectory.getAbsoluteFile(),
+                () -> writeSaves(plugin, schematicDirectory, saves, overwrite));
+    }
+
+    /**
+     * An overload of {@link #saveAllAsync(Plugin, String, Function, boolean)} where the subdirectory name is
+     * {@link #DEFAULT_SUBDIRECTORY_NAME} and the filename generator is {@link #DEFAULT_FILENAME_GENERATOR}.
+     */
+    public CompletableFuture<Boolean> saveAllAsync(@NotNull Plugin plugin, boolean overwrite) {
+        return saveAllAsync(plugin, DEFAULT_SUBDIRECTORY_NAME, DEFAULT_FILENAME_GENERATOR, overwrite);
+    }
+
+    /**
+     * Stops accepting asynchronous saves and waits for any which have been requested to be written.
+     *
+     * @param timeout the longest time to wait
+     * @param unit    the unit of the timeout
+     * @return true if all saves were written, or false if the timeout passed first
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public boolean shutdownWriter(long timeout, @NotNull TimeUnit unit) throws InterruptedException {
+        return writeQueue.shutdown(timeout, unit);
+    }
 
-            // Delete file if overwriting
+    private List<PendingSave> collectSaves(@NotNull File schematicDirectory,
+                                           @NotNull Function<Schematic, String> fileNameGenerationFunction,
+                                           boolean copy) {
+        List<PendingSave> saves = new ArrayList<>();
+        for (Schematic schematic : Iterables.concat(schematicsById.values(), unnamedSchematics)) {
             String fileName = fileNameGenerationFunction.apply(schematic);
+            if (isBinaryFile(fileName) && schematicBinaryBlueprint == null) {
+                throw new IllegalStateException("No binary serializer available to save " + fileName);
+            }
+
             File schematicFile = new File(schematicDirectory, fileName);
-            if (schematicFile.exists()) {
-                if (overwrite) { // Attempt to delete file for overwrite
-                    if (!schematicFile.delete()) {
-                        throw new FileAlreadyExistsException("Unable to overwrite schematic file " + schematicFile.getAbsolutePath());
+            SavedState savedState = savedStates.get(toStateKey(schematicFile));
+            if (savedState != null && savedState.isCurrent(schematic) && schematicFile.isFile()) {
+                // Unchanged since it was loaded from or saved to this file, so there is nothing to write or copy
+                saves.add(new PendingSave(schematic, null, savedState.revision(), schematicFile));
+            } else {
+                // The revision is taken with the contents, so that a later change is not mistaken as saved
+                saves.add(new PendingSave(schematic, copy ? new Schematic(schematic) : schematic,
+                        schematic.getRevision(), schematicFile));
+            }
+        }
+        return saves;
+    }
+
+    private boolean writeSaves(@NotNull Plugin plugin,
+                               @NotNull File schematicDirectory,
+                               @NotNull List<PendingSave> saves,
+                               boolean overwrite) throws IOException {
+        // Synchronous and asynchronous saves share the temporary files and the manifest, so one save writes at a time
+        synchronized (writeLock) {
+            if (!schematicDirectory.exists() && !schematicDirectory.mkdir()) {
+                throw new IOException("Failed to create schematics directory");
+            } else if (!schematicDirectory.isDirectory()) {
+                throw new NotDirectoryException(schematicDirectory.getAbsolutePath() + " is not a directory");
+            }
+
+            File manifestFile = new File(schematicDirectory, MANIFEST_FILE_NAME);
+            SchematicManifest manifest = readManifest(plugin, manifestFile);
+
+            boolean allSchematicsSaved = true;
+            boolean manifestChanged = manifest.removeMissingEntries(schematicDirectory);
+            for (PendingSave save : saves) { // Using for loop to include exceptions in 'throws' clause
+                File schematicFile = save.file();
+                Path stateKey = toStateKey(schematicFile);
+                SavedState savedState = savedStates.get(stateKey);
+                Schematic contents = save.contents();
+                if (contents == null) {
+                    if (savedState != null) {
+                        manifestChanged |= ensureManifestEntry(manifest, schematicFile, savedState.summary());
                     }
-                } else {
+                    continue;
+                } else if (schematicFile.exists() && !overwrite) {
                     allSchematicsSaved = false;
                     continue; // No authority to overwrite file, so this schematic will be ignored
                 }
+
+                String fileName = schematicFile.getName();
+                boolean binary = isBinaryFile(fileName);
+                SchematicSummary summary = SchematicSummary.of(contents);
+                // Write to a temporary file first so that any exceptions occur before the existing file is replaced
+                File temporaryFile = new File(schematicDirectory, fileName + TEMPORARY_FILE_SUFFIX);
+                byte[] hash;
+                try {
+                    hash = binary ? writeBinary(contents, temporaryFile) : writeJson(contents, temporaryFile);
+                    if (savedState != null && Arrays.equals(savedState.hash(), hash) && schematicFile.isFile()) {
+                        // Changed and changed back, so the file is already correct
+                        Files.delete(temporaryFile.toPath());
+                        manifestChanged |= ensureManifestEntry(manifest, schematicFile, summary);
+                    } else {
+                        AtomicFiles.replace(temporaryFile, schematicFile);
+                        manifest.putEntry(SchematicManifest.Entry.of(schematicFile, summary));
+                        manifestChanged = true;
+                    }
+                } catch (IOException | RuntimeException e) {
+                    Files.deleteIfExists(temporaryFile.toPath());
+                    throw e;
+                }
+                savedStates.put(stateKey, new SavedState(save.schematic(), save.revision(), hash, summary));
+
+                if (overwrite) {
+                    deleteOtherFormat(schematicDirectory, fileName, binary);
+                }
             }
 
-            // Write to file
-            try (FileWriter writer = new FileWriter(schematicFile)) {
-                writer.write(serializedSchematicJson);
+            if (manifest.removeMissingEntries(schematicDirectory) || manifestChanged) {
+                writeManifest(plugin, manifest, manifestFile);
             }
+            return allSchematicsSaved;
         }
-
-        return allSchematicsSaved;
     }
 
     /**
@@ -259,4 +775,95 @@ public class SchematicStorage {
         return saveAll(plugin, DEFAULT_SUBDIRECTORY_NAME, DEFAULT_FILENAME_GENERATOR, overwrite);
     }
 
+    private static boolean ensureManifestEntry(@NotNull SchematicManifest manifest,
+                                               @NotNull File schematicFile,
+                                               @NotNull SchematicSummary summary) {
+        if (manifest.getCurrentEntry(schematicFile).isPresent()) {
+            return false;
+        }
+        manifest.putEntry(SchematicManifest.Entry.of(schematicFile, summary));
+        return true;
+    }
+
+    private byte[] writeBinary(@NotNull Schematic schematic, @NotNull File file) throws IOException {
+        // The buffer is written and hashed where it is, as its array may be longer than the schematic
+        ByteBuffer contents = schematicBinaryBlueprint.serialize(schematic);
+        MessageDigest digest = createDigest();
+        digest.update(contents.duplicate());
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (contents.hasRemaining()) {
+                channel.write(contents);
+            }
+        }
+        return digest.digest();
+    }
+
+    private byte[] writeJson(@NotNull Schematic schematic, @NotNull File file) throws IOException {
+        MessageDigest digest = createDigest();
+        // The digest sees the encoded bytes as they are written, so the file is never read back to be hashed
+        OutputStream output = new DigestOutputStream(Files.newOutputStream(file.toPath()), digest);
+        try (JsonWriter writer = new JsonWriter(
+                new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8)))) {
+            writer.setIndent(prettyPrint ? PRETTY_PRINT_INDENT : "");
+            if (schematicJsonStreamSerializer != null) {
+                schematicJsonStreamSerializer.serialize(schematic, writer);
+            } else {
+                gson.toJson(schematicJsonBlueprint.serialize(schematic), writer);
+            }
+        }
+        return digest.digest();
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance(CONTENT_HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(CONTENT_HASH_ALGORITHM + " is required by every Java platform", e);
+        }
+    }
+
+    private static Path toStateKey(@NotNull File schematicFile) {
+        return schematicFile.toPath().toAbsolutePath().normalize();
+    }
+
+    private record UnloadedSchematic(@NotNull File file, @NotNull SchematicSummary summary) {
+    }
+
+    /**
+     * A schematic to be saved, where the contents are null if the schematic is unchanged and does not need writing.
+     */
+    private record PendingSave(@NotNull Schematic schematic, @Nullable Schematic contents, long revision,
+                               @NotNull File file) {
+    }
+
+    private record SavedState(@NotNull Schematic schematic, long revision, byte @Nullable [] hash,
+                              @NotNull SchematicSummary summary) {
+
+        // Compared by identity, as a different instance with the same id may have replaced the saved schematic
+        boolean isCurrent(@NotNull Schematic schematic) {
+            return this.schematic == schematic && revision == schematic.getRevision();
+        }
+
+    }
+
+    private static boolean isBinaryFile(@NotNull String fileName) {
+        return fileName.endsWith(BINARY_FILE_EXTENSION);
+    }
+
+    private static void deleteOtherFormat(@NotNull File schematicDirectory, @NotNull String fileName, boolean binary)
+            throws FileAlreadyExistsException {
+        String currentExtension = binary ? BINARY_FILE_EXTENSION : JSON_FILE_EXTENSION;
+        if (!fileName.endsWith(currentExtension)) {
+            return; // Custom filename which does not follow either format's naming
+        }
+
+        String otherExtension = binary ? JSON_FILE_EXTENSION : BINARY_FILE_EXTENSION;
+        File otherFile = new File(schematicDirectory,
+                fileName.substring(0, fileName.length() - currentExtension.length()) + otherExtension);
+        if (otherFile.isFile() && !otherFile.delete()) {
+            throw new FileAlreadyExistsException("Unable to remove previous schematic file " + otherFile.getAbsolutePath());
+        }
+    }
+
 }
@@ -10,7 +10,6 @@ import org.jetbrains.annotations.Unmodifiable;
 
 import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * A {@link Cuboid} which is based in a Bukkit {@link World} by representing coordinates as {@link BukkitCoordinate}.
@@ -58,17 +57,16 @@ public class BukkitCuboid extends Cuboid<BukkitCoordinate> {
     }
 
     /**
-     * Morphs the result of {@link #getInnerCoordinates(double)} to reflect a set of {@link BukkitCoordinate} based inside
+     * Gets the result of {@link #getInnerCoordinates(double)}, which is a set of {@link BukkitCoordinate} based inside
      * the {@link World} stored by this cuboid object.
      *
      * @param differenceBetweenPoints the difference between each point in the cuboid
      * @return the set of coordinates based in a Bukkit {@link World}
+     * @apiNote A coordinate is created for every point, so {@link #forEachPoint(double,
+     * net.harieo.schematics.shape.CuboidPoints.PointVisitor)} should be preferred for large cuboids.
      */
     public @Unmodifiable Set<BukkitCoordinate> getInnerBukkitCoordinates(double differenceBetweenPoints) {
-        return super.getInnerCoordinates(differenceBetweenPoints)
-                .stream()
-                .map(coordinate -> new BukkitCoordinate(world, coordinate))
-                .collect(Collectors.toUnmodifiableSet());
+        return getInnerCoordinates(differenceBetweenPoints); // Already created by createCoordinate in this world
     }
 
     @Override
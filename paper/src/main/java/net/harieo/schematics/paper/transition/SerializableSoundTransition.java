@@ -42,6 +42,11 @@ public class SerializableSoundTransition extends SoundTransition implements Tran
         super(soundTransition);
     }
 
+    @Override
+    public @NotNull SerializableSoundTransition copy() {
+        return new SerializableSoundTransition(this);
+    }
+
     @Override
     public @NotNull Serializer<Transition, JsonObject> getSerializer() {
         return serializer;
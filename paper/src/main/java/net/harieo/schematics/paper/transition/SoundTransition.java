@@ -50,7 +50,7 @@ public class SoundTransition extends Transition {
      * @param soundTransition the existing class to copy fields from
      */
     public SoundTransition(@NotNull SoundTransition soundTransition) {
-        this(soundTransition.getSound(), soundTransition.getLocation(),
+        this(soundTransition.getSound(), soundTransition.getLocation().clone(),
                 soundTransition.getMillisecondsBefore(),soundTransition.getMillisecondsAfter());
         this.volume = soundTransition.volume;
         this.pitch = soundTransition.pitch;
@@ -138,6 +138,11 @@ public class SoundTransition extends Transition {
         return !listeners.isEmpty();
     }
 
+    @Override
+    public @NotNull SoundTransition copy() {
+        return new SoundTransition(this);
+    }
+
     @Override
     public void run() {
         if (isRestrictedToListeners()) {
@@ -23,6 +23,11 @@ public class SoundTransitionDeserializer extends TransitionJsonDeserializer {
 		return soundTransition;
 	}
 
+	@Override
+	public @NotNull String getDiscriminator() {
+		return SoundTransition.TYPE;
+	}
+
 	@Override
 	public boolean isValidObject(@NotNull JsonObject serializedObject) {
 		return parseType(serializedObject).equals(SoundTransition.TYPE) &&
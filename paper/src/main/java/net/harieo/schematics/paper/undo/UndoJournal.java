@@ -0,0 +1,212 @@
+package net.harieo.schematics.paper.undo;
+
+import net.harieo.schematics.position.LongObjectMap;
+import org.bukkit.World;
+import org.bukkit.block.data.BlockData;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A record of the blocks which were changed, holding the {@link BlockData} each block had before it was changed so
+ * that the change can be undone with an {@link UndoRestoreJob}.
+ * <p>
+ * Each distinct {@link BlockData} is kept once in a palette, and each captured block is packed with its palette index
+ * into a single {@code long} in a buffer for its chunk, so that a journal of millions of blocks costs around 8 bytes per
+ * block.
+ *
+ * @apiNote This class is not thread-safe, so it should only be used on the server thread. A block which is captured more
+ * than once is restored to the state from its first capture.
+ */
+public class UndoJournal {
+
+    private static final int INITIAL_CHUNK_CAPACITY = 256;
+
+    private final List<BlockData> palette = new ArrayList<>();
+    private final Map<BlockData, Integer> paletteIndexes = new HashMap<>();
+    // Kept in the order they were first captured in, which is reversed when restoring
+    private final List<ChunkEntries> chunks = new ArrayList<>();
+    private final Map<World, LongObjectMap<ChunkEntries>> chunksByWorld = new HashMap<>();
+    private int size = 0;
+
+    // Blocks are usually captured in chunk order, so most captures are in the same chunk as the one before
+    private @Nullable ChunkEntries lastChunk;
+
+    /**
+     * Captures the current state of a block before it is changed.
+     *
+     * @param world the world of the block
+     * @param x     the x-coordinate of the block
+     * @param y     the y-coordinate of the block
+     * @param z     the z-coordinate of the block
+     */
+    public void capture(@NotNull World world, int x, int y, int z) {
+        BlockData blockData = world.getBlockAt(x, y, z).getBlockData();
+        Integer paletteIndex = paletteIndexes.get(blockData);
+        if (paletteIndex == null) {
+            paletteIndex = palette.size();
+            palette.add(blockData);
+            paletteIndexes.put(blockData, paletteIndex);
+        }
+
+        getOrCreateChunk(world, x >> 4, z >> 4).add(packPosition(x, y, z), paletteIndex);
+        size++;
+    }
+
+    private @NotNull ChunkEntries getOrCreateChunk(@NotNull World world, int chunkX, int chunkZ) {
+        if (lastChunk != null && lastChunk.chunkX == chunkX && lastChunk.chunkZ == chunkZ && lastChunk.world == world) {
+            return lastChunk;
+        }
+
+        ChunkEntries chunk = chunksByWorld.computeIfAbsent(world, key -> new LongObjectMap<>())
+                .computeIfAbsent(chunkKey(chunkX, chunkZ), key -> {
+                    ChunkEntries newChunk = new ChunkEntries(world, chunkX, chunkZ);
+                    chunks.add(newChunk);
+                    return newChunk;
+                });
+        lastChunk = chunk;
+        return chunk;
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    // The block position within its chunk, with the y-coordinate kept signed in the upper bits
+    private static int packPosition(int x, int y, int z) {
+        return (y << 8) | ((z & 15) << 4) | (x & 15);
+    }
+
+    /**
+     * @return the amount of captures in this journal
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return whether nothing has been captured in this journal
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the amount of distinct block states captured in this journal
+     */
+    public int getPaletteSize() {
+        return palette.size();
+    }
+
+    /**
+     * @return the amount of chunks with captures in this journal
+     */
+    public int getChunkCount() {
+        return chunks.size();
+    }
+
+    /**
+     * Creates a cursor which visits every capture of this journal in reverse order of capture.
+     *
+     * @return the new cursor
+     */
+    @NotNull Cursor reversedCursor() {
+        return new Cursor();
+    }
+
+    /**
+     * A cursor over the captures of an {@link UndoJournal}, from the most recent capture to the first.
+     */
+    class Cursor {
+
+        private int chunkIndex = chunks.size() - 1;
+        private int entryIndex = chunkIndex >= 0 ? chunks.get(chunkIndex).size - 1 : -1;
+        private int visited = 0;
+
+        /**
+         * Visits the next capture, if there is one.
+         *
+         * @param visitor the visitor to receive the capture
+         * @return true if a capture was visited, otherwise false
+         */
+        boolean next(@NotNull CaptureVisitor visitor) {
+            while (entryIndex < 0) {
+                if (--chunkIndex < 0) {
+                    return false;
+                }
+                entryIndex = chunks.get(chunkIndex).size - 1;
+            }
+
+            chunks.get(chunkIndex).visit(entryIndex--, palette, visitor);
+            visited++;
+            return true;
+        }
+
+        /**
+         * @return the amount of captures visited so far
+         */
+        int getVisitedCount() {
+            return visited;
+        }
+
+    }
+
+    /**
+     * A visitor for each capture of an {@link UndoJournal}.
+     */
+    @FunctionalInterface
+    interface CaptureVisitor {
+
+        /**
+         * Visits a capture.
+         *
+         * @param world     the world of the block
+         * @param x         the x-coordinate of the block
+         * @param y         the y-coordinate of the block
+         * @param z         the z-coordinate of the block
+         * @param blockData the state of the block when it was captured
+         */
+        void visit(@NotNull World world, int x, int y, int z, @NotNull BlockData blockData);
+
+    }
+
+    private static class ChunkEntries {
+
+        private final World world;
+        private final int chunkX;
+        private final int chunkZ;
+        // Each entry is a packed position in the upper 32 bits and a palette index in the lower 32 bits
+        private long[] entries = new long[INITIAL_CHUNK_CAPACITY];
+        private int size = 0;
+
+        private ChunkEntries(@NotNull World world, int chunkX, int chunkZ) {
+            this.world = world;
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+        }
+
+        private void add(int position, int paletteIndex) {
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size + (size >> 1));
+            }
+            entries[size++] = ((long) position << 32) | (paletteIndex & 0xFFFFFFFFL);
+        }
+
+        private void visit(int index, @NotNull List<BlockData> palette, @NotNull CaptureVisitor visitor) {
+            long entry = entries[index];
+            int position = (int) (entry >> 32);
+            visitor.visit(world,
+                    (chunkX << 4) | (position & 15),
+                    position >> 8,
+                    (chunkZ << 4) | ((position >> 4) & 15),
+                    palette.get((int) entry));
+        }
+
+    }
+
+}
@@ -0,0 +1,68 @@
+package net.harieo.schematics.paper.undo;
+
+import net.harieo.schematics.paper.job.BudgetedJob;
+import org.bukkit.World;
+import org.bukkit.block.data.BlockData;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@link BudgetedJob} which restores the blocks captured in an {@link UndoJournal} a batch at a time, undoing the
+ * changes made after they were captured.
+ *
+ * @apiNote The journal should not be captured into while it is being restored.
+ */
+public class UndoRestoreJob extends BudgetedJob {
+
+    // Reading the clock costs more than restoring most blocks, so it is only read after each batch of this many
+    public static int BLOCKS_PER_DEADLINE_CHECK = 64;
+
+    private final UndoJournal journal;
+    private final UndoJournal.Cursor cursor;
+    private final boolean applyPhysics;
+    private final UndoJournal.CaptureVisitor restoreVisitor = this::restoreBlock;
+
+    /**
+     * A job to restore the blocks captured in a journal.
+     *
+     * @param description  a short description of what is being undone
+     * @param journal      the journal to restore
+     * @param applyPhysics whether restoring each block should trigger physics
+     */
+    public UndoRestoreJob(@NotNull String description, @NotNull UndoJournal journal, boolean applyPhysics) {
+        super(description);
+        this.journal = journal;
+        this.cursor = journal.reversedCursor();
+        this.applyPhysics = applyPhysics;
+    }
+
+    @Override
+    protected boolean step(long deadlineNanos) {
+        while (true) {
+            for (int i = 0; i < BLOCKS_PER_DEADLINE_CHECK; i++) {
+                if (!cursor.next(restoreVisitor)) {
+                    return true;
+                }
+            }
+            if (System.nanoTime() >= deadlineNanos) {
+                return cursor.getVisitedCount() >= journal.size();
+            }
+        }
+    }
+
+    private void restoreBlock(@NotNull World world, int x, int y, int z, @NotNull BlockData blockData) {
+        world.getBlockAt(x, y, z).setBlockData(blockData, applyPhysics);
+    }
+
+    @Override
+    public double getProgress() {
+        return journal.isEmpty() ? 1 : (double) cursor.getVisitedCount() / journal.size();
+    }
+
+    /**
+     * @return the journal being restored
+     */
+    public @NotNull UndoJournal getJournal() {
+        return journal;
+    }
+
+}